@@ -0,0 +1,231 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.common.tile;
+
+/**
+ * Packs a tile's zoom level, column and row into a single primitive
+ * <code>long</code>, so tile coordinates can be stored, hashed and compared
+ * without allocating objects. Keys can be used with {@link TileKeyMap} and
+ * {@link TileKeySet}.
+ * <br>
+ * <br>
+ * Three orderings are available. {@link #pack(int, int, int)} keys sort by
+ * zoom level, then column, then row. {@link #mortonKey(int, int, int)} and
+ * {@link #hilbertKey(int, int, int)} keys sort by zoom level, and then along
+ * a Z-order or Hilbert space filling curve, which keeps tiles that are close
+ * to each other spatially close to each other in key order.
+ * <br>
+ * <br>
+ * Zoom levels must be in the range [0, {@value #MaximumZoomLevel}], and
+ * columns and rows in the range [0, {@value #MaximumTileIndex}].
+ *
+ * @author Luke Lambert
+ *
+ */
+public final class TileKey
+{
+    private TileKey()
+    {
+
+    }
+
+    /**
+     * Packs a tile's coordinate into a key that orders tiles by zoom level,
+     * column, and then row
+     *
+     * @param zoomLevel
+     *             Zoom level of the tile
+     * @param column
+     *             Column of the tile
+     * @param row
+     *             Row of the tile
+     * @return a key unique to the tile
+     */
+    public static long pack(final int zoomLevel, final int column, final int row)
+    {
+        validate(zoomLevel, column, row);
+
+        return ((long)zoomLevel << ZoomShift) | ((long)column << TileIndexBits) | row;
+    }
+
+    /**
+     * Checks whether a tile's coordinate can be packed into a key
+     *
+     * @param zoomLevel
+     *             Zoom level of the tile
+     * @param column
+     *             Column of the tile
+     * @param row
+     *             Row of the tile
+     * @return true if the coordinate is within the ranges a key can hold
+     */
+    public static boolean isValid(final int zoomLevel, final int column, final int row)
+    {
+        return zoomLevel >= 0 && zoomLevel <= MaximumZoomLevel &&
+               column    >= 0 && column    <= MaximumTileIndex &&
+               row       >= 0 && row       <= MaximumTileIndex;
+    }
+
+    /**
+     * @param key
+     *             A key created by {@link #pack(int, int, int)}
+     * @return the zoom level of the key's tile
+     */
+    public static int zoomLevel(final long key)
+    {
+        return (int)(key >>> ZoomShift);
+    }
+
+    /**
+     * @param key
+     *             A key created by {@link #pack(int, int, int)}
+     * @return the column of the key's tile
+     */
+    public static int column(final long key)
+    {
+        return (int)((key >>> TileIndexBits) & MaximumTileIndex);
+    }
+
+    /**
+     * @param key
+     *             A key created by {@link #pack(int, int, int)}
+     * @return the row of the key's tile
+     */
+    public static int row(final long key)
+    {
+        return (int)(key & MaximumTileIndex);
+    }
+
+    /**
+     * Packs a tile's coordinate into a key that orders tiles by zoom level,
+     * and then by their position on a Z-order (Morton) curve
+     *
+     * @param zoomLevel
+     *             Zoom level of the tile
+     * @param column
+     *             Column of the tile
+     * @param row
+     *             Row of the tile
+     * @return a key unique to the tile
+     */
+    public static long mortonKey(final int zoomLevel, final int column, final int row)
+    {
+        validate(zoomLevel, column, row);
+
+        return ((long)zoomLevel << ZoomShift) | interleave(column) | (interleave(row) << 1);
+    }
+
+    /**
+     * Packs a tile's coordinate into a key that orders tiles by zoom level,
+     * and then by their distance along a Hilbert curve. Consecutive tiles on
+     * a Hilbert curve are always adjacent, which makes it the better choice
+     * for locality, at a slightly higher cost than
+     * {@link #mortonKey(int, int, int)}.
+     *
+     * @param zoomLevel
+     *             Zoom level of the tile
+     * @param column
+     *             Column of the tile
+     * @param row
+     *             Row of the tile
+     * @return a key unique to the tile
+     */
+    public static long hilbertKey(final int zoomLevel, final int column, final int row)
+    {
+        validate(zoomLevel, column, row);
+
+        final int side = 1 << TileIndexBits;
+
+        int  x        = column;
+        int  y        = row;
+        long distance = 0;
+
+        for(int half = side >>> 1; half > 0; half >>>= 1)
+        {
+            final int rx = (x & half) != 0 ? 1 : 0;
+            final int ry = (y & half) != 0 ? 1 : 0;
+
+            distance += (long)half * half * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant so the curve's sub-quadrants line up
+            if(ry == 0)
+            {
+                if(rx == 1)
+                {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+
+                final int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+
+        return ((long)zoomLevel << ZoomShift) | distance;
+    }
+
+    private static void validate(final int zoomLevel, final int column, final int row)
+    {
+        if(zoomLevel < 0 || zoomLevel > MaximumZoomLevel)
+        {
+            throw new IllegalArgumentException(String.format("Zoom level must be in the range [0, %d]", MaximumZoomLevel));
+        }
+
+        if(column < 0 || column > MaximumTileIndex || row < 0 || row > MaximumTileIndex)
+        {
+            throw new IllegalArgumentException(String.format("Column and row must be in the range [0, %d]", MaximumTileIndex));
+        }
+    }
+
+    /**
+     * Spreads the bits of a value so that there's a 0 bit between each of
+     * them
+     */
+    private static long interleave(final int value)
+    {
+        long bits = value & 0xFFFFFFFFL;
+
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits <<  8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits <<  4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits <<  2)) & 0x3333333333333333L;
+        bits = (bits | (bits <<  1)) & 0x5555555555555555L;
+
+        return bits;
+    }
+
+    private static final int TileIndexBits = 29;
+    private static final int ZoomShift     = 2 * TileIndexBits;
+
+    /**
+     * Largest zoom level that can be packed into a key
+     */
+    public static final int MaximumZoomLevel = 31;
+
+    /**
+     * Largest column or row that can be packed into a key
+     */
+    public static final int MaximumTileIndex = (1 << TileIndexBits) - 1;
+}
@@ -0,0 +1,370 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.common.tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.LongFunction;
+
+/**
+ * Hash map from primitive <code>long</code> keys, typically {@link TileKey}s,
+ * to object values. Keys are stored unboxed, in a single open addressing
+ * (linear probing) table, so lookups and insertions don't allocate. A slot
+ * is free when its value is null, so null values aren't permitted, and
+ * {@link #get(long)} returns null only for absent keys.
+ * <br>
+ * <br>
+ * This class is not thread safe.
+ *
+ * @author Luke Lambert
+ *
+ * @param <V> Value type
+ */
+public class TileKeyMap<V>
+{
+    /**
+     * Constructor
+     */
+    public TileKeyMap()
+    {
+        this(DefaultExpectedSize);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *             Number of entries the map should hold without resizing
+     */
+    public TileKeyMap(final int expectedSize)
+    {
+        if(expectedSize < 0)
+        {
+            throw new IllegalArgumentException("Expected size may not be less than 0");
+        }
+
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @param key
+     *             Key
+     * @return the value mapped to the key, or null if there's no mapping
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long key)
+    {
+        for(int slot = this.slot(key); this.values[slot] != null; slot = (slot + 1) & this.mask)
+        {
+            if(this.keys[slot] == key)
+            {
+                return (V)this.values[slot];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param key
+     *             Key
+     * @return true if the map contains a mapping for the key
+     */
+    public boolean containsKey(final long key)
+    {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing any existing mapping
+     *
+     * @param key
+     *             Key
+     * @param value
+     *             Value. May not be null.
+     * @return the previous value mapped to the key, or null if there was
+     *         none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final V value)
+    {
+        if(value == null)
+        {
+            throw new IllegalArgumentException("Value may not be null");
+        }
+
+        int slot = this.slot(key);
+
+        for(; this.values[slot] != null; slot = (slot + 1) & this.mask)
+        {
+            if(this.keys[slot] == key)
+            {
+                final V previous = (V)this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+        }
+
+        this.keys  [slot] = key;
+        this.values[slot] = value;
+
+        if(++this.size > this.threshold)
+        {
+            this.allocate(this.keys.length * 2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the value mapped to a key, creating and mapping one if there's
+     * none
+     *
+     * @param key
+     *             Key
+     * @param valueFunction
+     *             Creates a value for an absent key. May not return null.
+     * @return the (possibly new) value mapped to the key
+     */
+    public V computeIfAbsent(final long key, final LongFunction<? extends V> valueFunction)
+    {
+        final V existing = this.get(key);
+
+        if(existing != null)
+        {
+            return existing;
+        }
+
+        final V value = valueFunction.apply(key);
+        this.put(key, value);
+        return value;
+    }
+
+    /**
+     * Removes a key's mapping
+     *
+     * @param key
+     *             Key
+     * @return the value that was mapped to the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long key)
+    {
+        for(int slot = this.slot(key); this.values[slot] != null; slot = (slot + 1) & this.mask)
+        {
+            if(this.keys[slot] == key)
+            {
+                final V previous = (V)this.values[slot];
+                this.shiftBack(slot);
+                --this.size;
+                return previous;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the number of mappings in the map
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return true if the map contains no mappings
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes every mapping
+     */
+    public void clear()
+    {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * Calls a function for every mapping, in no particular order. The map
+     * must not be modified by the function.
+     *
+     * @param consumer
+     *             Callback for each key and value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final EntryConsumer<? super V> consumer)
+    {
+        for(int slot = 0; slot < this.keys.length; ++slot)
+        {
+            if(this.values[slot] != null)
+            {
+                consumer.accept(this.keys[slot], (V)this.values[slot]);
+            }
+        }
+    }
+
+    /**
+     * @return a new array of every key in the map, in no particular order
+     */
+    public long[] keys()
+    {
+        final long[] keys  = new long[this.size];
+        final int[]  index = { 0 };
+
+        this.forEach((key, value) -> keys[index[0]++] = key);
+
+        return keys;
+    }
+
+    /**
+     * @return a new collection of every value in the map, in no particular
+     *         order
+     */
+    public Collection<V> values()
+    {
+        final Collection<V> values = new ArrayList<>(this.size);
+
+        this.forEach((key, value) -> values.add(value));
+
+        return values;
+    }
+
+    /**
+     * Callback for {@link TileKeyMap#forEach(EntryConsumer)}
+     *
+     * @param <V> Value type
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V>
+    {
+        /**
+         * @param key
+         *             Key
+         * @param value
+         *             Value mapped to the key
+         */
+        void accept(final long key, final V value);
+    }
+
+    private int slot(final long key)
+    {
+        return hash(key, this.shift);
+    }
+
+    /**
+     * Fills the hole left by a removed entry by moving back any entries
+     * further along the probe sequence that would no longer be reachable
+     */
+    private void shiftBack(final int removedSlot)
+    {
+        int hole = removedSlot;
+
+        for(int slot = (hole + 1) & this.mask; this.values[slot] != null; slot = (slot + 1) & this.mask)
+        {
+            final int ideal = this.slot(this.keys[slot]);
+
+            // Move the entry if the hole lies (cyclically) between its ideal
+            // slot and its current slot
+            if(((slot - ideal) & this.mask) >= ((slot - hole) & this.mask))
+            {
+                this.keys  [hole] = this.keys  [slot];
+                this.values[hole] = this.values[slot];
+                hole = slot;
+            }
+        }
+
+        this.values[hole] = null;
+    }
+
+    private void allocate(final int capacity)
+    {
+        final long[]   oldKeys   = this.keys;
+        final Object[] oldValues = this.values;
+
+        this.keys      = new long  [capacity];
+        this.values    = new Object[capacity];
+        this.mask      = capacity - 1;
+        this.shift     = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.threshold = (int)(capacity * LoadFactor);
+
+        if(oldKeys != null)
+        {
+            for(int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot)
+            {
+                if(oldValues[oldSlot] != null)
+                {
+                    int slot = this.slot(oldKeys[oldSlot]);
+
+                    while(this.values[slot] != null)
+                    {
+                        slot = (slot + 1) & this.mask;
+                    }
+
+                    this.keys  [slot] = oldKeys  [oldSlot];
+                    this.values[slot] = oldValues[oldSlot];
+                }
+            }
+        }
+    }
+
+    /**
+     * Fibonacci hashing: the high bits of the product of the key and the
+     * golden ratio are well mixed, even for keys that differ only in their
+     * low bits (like neighboring tiles)
+     */
+    static int hash(final long key, final int shift)
+    {
+        return (int)((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    static int capacityFor(final int expectedSize)
+    {
+        final long minimumCapacity = Math.max(MinimumCapacity, (long)Math.ceil(expectedSize / LoadFactor) + 1);
+
+        if(minimumCapacity > MaximumCapacity)
+        {
+            throw new IllegalArgumentException("Expected size is too large");
+        }
+
+        return Integer.highestOneBit((int)minimumCapacity - 1) << 1;
+    }
+
+    private long[]   keys;
+    private Object[] values;
+    private int      mask;
+    private int      shift;
+    private int      threshold;
+    private int      size;
+
+    private static final int    DefaultExpectedSize = 16;
+    private static final int    MinimumCapacity     = 4;
+    private static final int    MaximumCapacity     = 1 << 30;
+    private static final double LoadFactor          = 0.6;     // Linear probing degrades quickly as the table fills
+}
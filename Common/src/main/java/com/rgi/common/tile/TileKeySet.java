@@ -0,0 +1,291 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.common.tile;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Hash set of primitive <code>long</code>s, typically {@link TileKey}s.
+ * Values are stored unboxed, in a single open addressing (linear probing)
+ * table, so membership tests and insertions don't allocate.
+ * <br>
+ * <br>
+ * This class is not thread safe.
+ *
+ * @author Luke Lambert
+ *
+ */
+public class TileKeySet
+{
+    /**
+     * Constructor
+     */
+    public TileKeySet()
+    {
+        this(DefaultExpectedSize);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize
+     *             Number of values the set should hold without resizing
+     */
+    public TileKeySet(final int expectedSize)
+    {
+        if(expectedSize < 0)
+        {
+            throw new IllegalArgumentException("Expected size may not be less than 0");
+        }
+
+        this.allocate(TileKeyMap.capacityFor(expectedSize));
+    }
+
+    /**
+     * @param value
+     *             Value
+     * @return true if the set contains the value
+     */
+    public boolean contains(final long value)
+    {
+        if(value == FreeValue)
+        {
+            return this.containsFreeValue;
+        }
+
+        for(int slot = this.slot(value); this.values[slot] != FreeValue; slot = (slot + 1) & this.mask)
+        {
+            if(this.values[slot] == value)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a value to the set
+     *
+     * @param value
+     *             Value
+     * @return true if the value was added, false if the set already
+     *         contained it
+     */
+    public boolean add(final long value)
+    {
+        if(value == FreeValue)
+        {
+            if(this.containsFreeValue)
+            {
+                return false;
+            }
+
+            this.containsFreeValue = true;
+            ++this.size;
+            return true;
+        }
+
+        int slot = this.slot(value);
+
+        for(; this.values[slot] != FreeValue; slot = (slot + 1) & this.mask)
+        {
+            if(this.values[slot] == value)
+            {
+                return false;
+            }
+        }
+
+        this.values[slot] = value;
+
+        if(++this.size > this.threshold)
+        {
+            this.allocate(this.values.length * 2);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes a value from the set
+     *
+     * @param value
+     *             Value
+     * @return true if the value was removed, false if the set didn't contain
+     *         it
+     */
+    public boolean remove(final long value)
+    {
+        if(value == FreeValue)
+        {
+            if(!this.containsFreeValue)
+            {
+                return false;
+            }
+
+            this.containsFreeValue = false;
+            --this.size;
+            return true;
+        }
+
+        for(int slot = this.slot(value); this.values[slot] != FreeValue; slot = (slot + 1) & this.mask)
+        {
+            if(this.values[slot] == value)
+            {
+                this.shiftBack(slot);
+                --this.size;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return true if the set contains no values
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes every value
+     */
+    public void clear()
+    {
+        Arrays.fill(this.values, FreeValue);
+        this.containsFreeValue = false;
+        this.size              = 0;
+    }
+
+    /**
+     * @return a new array of every value in the set, in no particular order
+     */
+    public long[] toArray()
+    {
+        final long[] array = new long[this.size];
+
+        int index = 0;
+
+        if(this.containsFreeValue)
+        {
+            array[index++] = FreeValue;
+        }
+
+        for(final long value : this.values)
+        {
+            if(value != FreeValue)
+            {
+                array[index++] = value;
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * @return a stream of a snapshot of the set's values, in no particular
+     *         order
+     */
+    public LongStream stream()
+    {
+        return LongStream.of(this.toArray());
+    }
+
+    private int slot(final long value)
+    {
+        return TileKeyMap.hash(value, this.shift);
+    }
+
+    /**
+     * Fills the hole left by a removed value by moving back any values
+     * further along the probe sequence that would no longer be reachable
+     */
+    private void shiftBack(final int removedSlot)
+    {
+        int hole = removedSlot;
+
+        for(int slot = (hole + 1) & this.mask; this.values[slot] != FreeValue; slot = (slot + 1) & this.mask)
+        {
+            final int ideal = this.slot(this.values[slot]);
+
+            if(((slot - ideal) & this.mask) >= ((slot - hole) & this.mask))
+            {
+                this.values[hole] = this.values[slot];
+                hole = slot;
+            }
+        }
+
+        this.values[hole] = FreeValue;
+    }
+
+    private void allocate(final int capacity)
+    {
+        final long[] oldValues = this.values;
+
+        this.values    = new long[capacity];    // Initialized to FreeValue
+        this.mask      = capacity - 1;
+        this.shift     = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.threshold = (int)(capacity * LoadFactor);
+
+        if(oldValues != null)
+        {
+            for(final long value : oldValues)
+            {
+                if(value != FreeValue)
+                {
+                    int slot = this.slot(value);
+
+                    while(this.values[slot] != FreeValue)
+                    {
+                        slot = (slot + 1) & this.mask;
+                    }
+
+                    this.values[slot] = value;
+                }
+            }
+        }
+    }
+
+    private long[]  values;
+    private boolean containsFreeValue;  // FreeValue marks empty slots, so its membership is tracked separately
+    private int     mask;
+    private int     shift;
+    private int     threshold;
+    private int     size;
+
+    private static final long   FreeValue           = 0;
+    private static final int    DefaultExpectedSize = 16;
+    private static final double LoadFactor          = 0.6;
+}
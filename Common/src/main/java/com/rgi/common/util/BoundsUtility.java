@@ -25,8 +25,10 @@
 package com.rgi.common.util;
 
 import com.rgi.common.BoundingBox;
+import com.rgi.common.Range;
 import com.rgi.common.coordinate.Coordinate;
 import com.rgi.common.tile.TileOrigin;
+import com.rgi.common.tile.scheme.TileMatrixDimensions;
 
 /**
  * {@link BoundingBox} utilities specific to a {@link TileOrigin}
@@ -117,4 +119,138 @@ public class BoundsUtility
             default: throw new IllegalArgumentException("Unrecognized tile origin"); // This can't be reached.  All enumeration cases are present in the switch.
         }
     }
+
+    /**
+     * Checks to see if a tile covers some part of an area. Tiles that only
+     * share an edge with the area are not considered to overlap it. If the
+     * area has no width or height (e.g. it's a point), the tile must contain
+     * it without it lying on the tile's maximum edges, so that a point on
+     * the boundary between tiles matches exactly one of them.
+     *
+     * @param area
+     *             An area described by a {@link BoundingBox}
+     * @param tileBounds
+     *             The bounds of a tile
+     * @return True if the tile covers some part of the area
+     */
+    public static boolean overlaps(final BoundingBox area, final BoundingBox tileBounds)
+    {
+        if(area == null)
+        {
+            throw new IllegalArgumentException("Area may not be null");
+        }
+
+        if(tileBounds == null)
+        {
+            throw new IllegalArgumentException("Tile bounds may not be null");
+        }
+
+        return overlaps(area.getMinimumX(), area.getMaximumX(), tileBounds.getMinimumX(), tileBounds.getMaximumX()) &&
+               overlaps(area.getMinimumY(), area.getMaximumY(), tileBounds.getMinimumY(), tileBounds.getMaximumY());
+    }
+
+    /**
+     * Calculates the range of tiles in a tile matrix that overlap an area,
+     * using the same rules as {@link #overlaps(BoundingBox, BoundingBox)}
+     *
+     * @param area
+     *             An area described by a {@link BoundingBox}
+     * @param matrixBounds
+     *             The bounds of the tile matrix
+     * @param dimensions
+     *             Height and width of the tile matrix
+     * @param origin
+     *             Specifies where tile (0, 0) is in the tile matrix
+     * @return The inclusive range of tile coordinates that overlap the area,
+     *             with the minimum column and row in the range's minimum, or
+     *             null if no tile in the matrix overlaps the area
+     */
+    public static Range<Coordinate<Integer>> tileRange(final BoundingBox          area,
+                                                       final BoundingBox          matrixBounds,
+                                                       final TileMatrixDimensions dimensions,
+                                                       final TileOrigin           origin)
+    {
+        if(area == null)
+        {
+            throw new IllegalArgumentException("Area may not be null");
+        }
+
+        if(matrixBounds == null)
+        {
+            throw new IllegalArgumentException("Matrix bounds may not be null");
+        }
+
+        if(dimensions == null)
+        {
+            throw new IllegalArgumentException("Tile matrix dimensions may not be null");
+        }
+
+        if(origin == null)
+        {
+            throw new IllegalArgumentException("Origin may not be null");
+        }
+
+        final int[] columns = span(area.getMinimumX(),
+                                   area.getMaximumX(),
+                                   matrixBounds.getMinimumX(),
+                                   matrixBounds.getWidth() / dimensions.getWidth(),
+                                   dimensions.getWidth());
+
+        final int[] rows = span(area.getMinimumY(),
+                                area.getMaximumY(),
+                                matrixBounds.getMinimumY(),
+                                matrixBounds.getHeight() / dimensions.getHeight(),
+                                dimensions.getHeight());
+
+        if(columns == null || rows == null)
+        {
+            return null;
+        }
+
+        // The spans count from the lower left corner of the matrix
+        final Coordinate<Integer> first = TileOrigin.LowerLeft.transform(origin, columns[0], rows[0], dimensions);
+        final Coordinate<Integer> last  = TileOrigin.LowerLeft.transform(origin, columns[1], rows[1], dimensions);
+
+        return new Range<>(new Coordinate<>(Math.min(first.getX(), last.getX()), Math.min(first.getY(), last.getY())),
+                           new Coordinate<>(Math.max(first.getX(), last.getX()), Math.max(first.getY(), last.getY())));
+    }
+
+    private static boolean overlaps(final double areaMinimum, final double areaMaximum, final double tileMinimum, final double tileMaximum)
+    {
+        // Tile edges are calculated, so edges that differ by a tiny fraction
+        // of the tile's size are considered to be the same
+        final double tolerance = (tileMaximum - tileMinimum) * EdgeTolerance;
+
+        return areaMinimum == areaMaximum ? tileMinimum - tolerance <= areaMinimum && areaMinimum < tileMaximum - tolerance
+                                          : tileMinimum + tolerance <  areaMaximum && areaMinimum < tileMaximum - tolerance;
+    }
+
+    /**
+     * @return the first and last index of the tiles along one axis that
+     *             overlap [minimum, maximum], or null if none do
+     */
+    private static int[] span(final double minimum, final double maximum, final double matrixMinimum, final double tileSize, final int tileCount)
+    {
+        final double first = Math.floor(snap((minimum - matrixMinimum) / tileSize));
+        final double last  = minimum == maximum ? first
+                                                : Math.ceil(snap((maximum - matrixMinimum) / tileSize)) - 1;
+
+        final int firstIndex = (int)Math.max(first, 0);
+        final int lastIndex  = (int)Math.min(last,  tileCount - 1);
+
+        return firstIndex <= lastIndex ? new int[]{ firstIndex, lastIndex } : null;
+    }
+
+    /**
+     * Rounds a fractional tile index that's within the tolerance of a tile
+     * edge onto that edge
+     */
+    private static double snap(final double tileIndex)
+    {
+        final double edge = Math.rint(tileIndex);
+
+        return Math.abs(tileIndex - edge) < EdgeTolerance ? edge : tileIndex;
+    }
+
+    private static final double EdgeTolerance = 1.0e-9;    // Fraction of a tile
 }
@@ -0,0 +1,120 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.common.util;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link javax.imageio.stream.ImageInputStream} that reads directly from
+ * a {@link ByteBuffer}. Unlike the streams created by {@link
+ * javax.imageio.ImageIO#createImageInputStream(Object)} for an {@link
+ * java.io.InputStream}, it doesn't copy the data into a cache file or a
+ * cache in memory.
+ *
+ * @author Luke Lambert
+ *
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl
+{
+    /**
+     * Constructor
+     *
+     * @param buffer
+     *             Image data between the buffer's position and limit. The
+     *             buffer's position and limit aren't modified.
+     */
+    ByteBufferImageInputStream(final ByteBuffer buffer)
+    {
+        if(buffer == null)
+        {
+            throw new IllegalArgumentException("Buffer may not be null");
+        }
+
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        this.checkClosed();
+
+        this.bitOffset = 0;
+
+        if(this.streamPos >= this.buffer.limit())
+        {
+            return -1;
+        }
+
+        return this.buffer.get((int)this.streamPos++) & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        this.checkClosed();
+
+        if(bytes == null)
+        {
+            throw new NullPointerException("Byte array may not be null");
+        }
+
+        if(offset < 0 || length < 0 || offset + length > bytes.length)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if(length == 0)
+        {
+            return 0;
+        }
+
+        this.bitOffset = 0;
+
+        final long remaining = this.buffer.limit() - this.streamPos;
+
+        if(remaining <= 0)
+        {
+            return -1;
+        }
+
+        final int count = (int)Math.min(length, remaining);
+
+        this.buffer.position((int)this.streamPos);
+        this.buffer.get(bytes, offset, count);
+
+        this.streamPos += count;
+
+        return count;
+    }
+
+    @Override
+    public long length()
+    {
+        return this.buffer.limit();
+    }
+
+    private final ByteBuffer buffer;
+}
@@ -31,17 +31,24 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
 
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.MemoryCacheImageOutputStream;
 
+import com.rgi.common.Dimensions;
+
 /**
  * Utility methods to convert back and forth between <code>byte[]</code>s and
  * {@link BufferedImage}s
@@ -152,16 +159,119 @@ public class ImageUtility
             throw new IllegalArgumentException("Image data may not be null");
         }
 
-        try(ByteArrayInputStream imageInputStream = new ByteArrayInputStream(imageData))
+        return ImageUtility.byteBufferToBufferedImage(ByteBuffer.wrap(imageData));
+    }
+
+    /**
+     * Converts an image in a {@link ByteBuffer} to a {@link BufferedImage}.
+     * The image is decoded directly from the buffer, without an intermediate
+     * copy or cache file.
+     *
+     * @param imageData
+     *             The image data, between the buffer's position and limit.
+     *             The buffer's position and limit aren't modified.
+     * @return A {@link BufferedImage}
+     * @throws IOException If an error occurs in reading the image
+     */
+    public static BufferedImage byteBufferToBufferedImage(final ByteBuffer imageData) throws IOException
+    {
+        if(imageData == null)
         {
-            final BufferedImage bufferedImage = ImageIO.read(imageInputStream);
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        // The stream holds no resources of its own, and ImageIO.read() closes it once a reader is found
+        final BufferedImage bufferedImage = ImageIO.read(new ByteBufferImageInputStream(imageData));
 
-            if(bufferedImage == null)
+        if(bufferedImage == null)
+        {
+            throw new IOException("Image data is corrupt or in an unknown format");
+        }
+
+        return bufferedImage;
+    }
+
+    /**
+     * Determines the format of an image from its encoded bytes, without
+     * decoding the image
+     *
+     * @param imageData
+     *             The image as an array of bytes
+     * @return The {@link MimeType} of the image, or null if no registered
+     *             image reader recognizes the data
+     * @throws IOException
+     *             If an error occurs in reading the image data
+     */
+    public static MimeType getMimeType(final byte[] imageData) throws IOException
+    {
+        if(imageData == null)
+        {
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        try(final ImageInputStream imageInputStream = new ByteBufferImageInputStream(ByteBuffer.wrap(imageData)))
+        {
+            final Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+
+            while(imageReaders.hasNext())
+            {
+                final String[] mimeTypes = imageReaders.next().getOriginatingProvider().getMIMETypes();
+
+                if(mimeTypes != null && mimeTypes.length > 0)
+                {
+                    try
+                    {
+                        return new MimeType(mimeTypes[0]);
+                    }
+                    catch(final MimeTypeParseException ex)
+                    {
+                        // Try the next reader
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads the pixel dimensions of an image from its encoded bytes. Only the
+     * image's header is read; the pixel data is not decoded.
+     *
+     * @param imageData
+     *             The image as an array of bytes
+     * @return The width and height of the image in pixels
+     * @throws IOException
+     *             If the image data is corrupt or in an unknown format
+     */
+    public static Dimensions<Integer> getImageDimensions(final byte[] imageData) throws IOException
+    {
+        if(imageData == null)
+        {
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        try(final ImageInputStream imageInputStream = new ByteBufferImageInputStream(ByteBuffer.wrap(imageData)))
+        {
+            final Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+
+            if(!imageReaders.hasNext())
             {
                 throw new IOException("Image data is corrupt or in an unknown format");
             }
 
-            return bufferedImage;
+            final ImageReader imageReader = imageReaders.next();
+
+            try
+            {
+                imageReader.setInput(imageInputStream, true, true);
+
+                return new Dimensions<>(imageReader.getWidth(0), imageReader.getHeight(0));
+            }
+            finally
+            {
+                imageReader.dispose();
+            }
         }
     }
 
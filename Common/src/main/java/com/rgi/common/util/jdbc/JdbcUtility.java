@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.function.BinaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * @author Luke Lambert
@@ -169,6 +170,98 @@ public final class JdbcUtility
         }
     }
 
+    /**
+     * Returns a lazily evaluated {@link Stream} with an instance of T per
+     * result of the query. Unlike {@link #select}, results are read from the
+     * underlying cursor only as the stream is consumed, so memory use does not
+     * grow with the size of the result set.
+     * <br>
+     * <br>
+     * The returned stream holds an open {@link PreparedStatement} and {@link
+     * ResultSet}. Callers <b>must</b> close the stream (e.g. with a
+     * try-with-resources block) to release them. {@link SQLException}s thrown
+     * while the stream is consumed are wrapped in {@link RuntimeException}s.
+     *
+     * @param databaseConnection
+     *             Connection to the database
+     * @param sql
+     *             SQL query
+     * @param parameterSetter
+     *             Callback that sets parameters of a {@link
+     *             PreparedStatement}. Ignored if null.
+     * @param resultMapper
+     *             Callback that accepts a {@link ResultSet} to create another
+     *             object
+     * @return A lazily evaluated {@link Stream} of T, one per result of the
+     *             query
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public static <T> Stream<T> stream(final Connection                databaseConnection,
+                                       final String                    sql,
+                                       final PreparedStatementConsumer parameterSetter,
+                                       final ResultSetFunction<T>      resultMapper) throws SQLException
+    {
+        if(databaseConnection == null)
+        {
+            throw new IllegalArgumentException("Database connection may not be null");
+        }
+
+        if(sql == null || sql.isEmpty())
+        {
+            throw new IllegalArgumentException("Query statement may not be null or empty");
+        }
+
+        if(resultMapper == null)
+        {
+            throw new IllegalArgumentException("Mapping callback for the result set may not be null");
+        }
+
+        final PreparedStatement preparedStatement = databaseConnection.prepareStatement(sql);
+
+        try
+        {
+            if(parameterSetter != null)
+            {
+                parameterSetter.accept(preparedStatement);
+            }
+
+            final ResultSet resultSet = preparedStatement.executeQuery();
+
+            return ResultSetStream.getStream(resultSet,
+                                             result -> { try
+                                                         {
+                                                             return resultMapper.apply(result);
+                                                         }
+                                                         catch(final SQLException ex)
+                                                         {
+                                                             throw new RuntimeException(ex);
+                                                         }
+                                                       })
+                                  .onClose(() -> { try
+                                                   {
+                                                       try
+                                                       {
+                                                           resultSet.close();
+                                                       }
+                                                       finally
+                                                       {
+                                                           preparedStatement.close();
+                                                       }
+                                                   }
+                                                   catch(final SQLException ex)
+                                                   {
+                                                       throw new RuntimeException(ex);
+                                                   }
+                                                 });
+        }
+        catch(final Throwable th)
+        {
+            preparedStatement.close();
+            throw th;
+        }
+    }
+
     // TODO have a version that uses a Statement rather than PreparedStatement, that takes no PreparedStatementConsumer argument
     /**
      * Returns an instance of T per result of the query that meets the criteria
@@ -0,0 +1,156 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.rgi.common.tile;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Luke Lambert
+ *
+ */
+@SuppressWarnings("JavaDoc")
+public class TileKeyMapTest
+{
+    /**
+     * Tests that the map agrees with a {@link HashMap} through a mix of puts
+     * and removes that forces it to grow
+     */
+    @Test
+    public void putGetRemove()
+    {
+        final TileKeyMap<Long> map      = new TileKeyMap<>(1);
+        final Map<Long, Long>  expected = new HashMap<>();
+        final Random           random   = new Random(42);
+
+        for(int operation = 0; operation < 20000; ++operation)
+        {
+            final long key = random.nextInt(4096) - 2048;   // Includes 0 and negative keys
+
+            if(random.nextInt(3) == 0)
+            {
+                assertEquals("TileKeyMap method remove returned the wrong value", expected.remove(key), map.remove(key));
+            }
+            else
+            {
+                final Long value = random.nextLong();
+                assertEquals("TileKeyMap method put returned the wrong previous value", expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals("TileKeyMap method size returned the wrong size", expected.size(), map.size());
+
+        for(long key = -2048; key < 2048; ++key)
+        {
+            assertEquals("TileKeyMap method get returned the wrong value", expected.get(key), map.get(key));
+            assertEquals("TileKeyMap method containsKey returned the wrong value", expected.containsKey(key), map.containsKey(key));
+        }
+
+        final Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        assertEquals("TileKeyMap method forEach did not visit every entry", expected, visited);
+
+        map.clear();
+
+        assertTrue("TileKeyMap method clear did not empty the map", map.isEmpty());
+        assertNull("TileKeyMap method clear did not empty the map", map.get(0));
+    }
+
+    /**
+     * Tests computeIfAbsent
+     */
+    @Test
+    public void computeIfAbsent()
+    {
+        final TileKeyMap<String> map = new TileKeyMap<>();
+
+        assertEquals("TileKeyMap method computeIfAbsent did not return the computed value", "7", map.computeIfAbsent(7, Long::toString));
+        assertEquals("TileKeyMap method computeIfAbsent replaced an existing value",        "7", map.computeIfAbsent(7, key -> "other"));
+        assertEquals("TileKeyMap method computeIfAbsent did not add the computed value",    1,   map.size());
+    }
+
+    /**
+     * Tests that put throws an IllegalArgumentException for a null value
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putIllegalArgumentException()
+    {
+        new TileKeyMap<String>().put(0, null);
+        fail("Expected TileKeyMap method put to throw an IllegalArgumentException for a null value.");
+    }
+
+    /**
+     * Tests that the set agrees with a {@link HashSet} through a
+     * mix of adds and removes that forces it to grow
+     */
+    @Test
+    public void tileKeySet()
+    {
+        final TileKeySet set      = new TileKeySet(1);
+        final Set<Long>  expected = new HashSet<>();
+        final Random     random   = new Random(42);
+
+        for(int operation = 0; operation < 20000; ++operation)
+        {
+            final long value = random.nextInt(4096) - 2048;
+
+            if(random.nextInt(3) == 0)
+            {
+                assertEquals("TileKeySet method remove returned the wrong value", expected.remove(value), set.remove(value));
+            }
+            else
+            {
+                assertEquals("TileKeySet method add returned the wrong value", expected.add(value), set.add(value));
+            }
+        }
+
+        assertEquals("TileKeySet method size returned the wrong size", expected.size(), set.size());
+
+        for(long value = -2048; value < 2048; ++value)
+        {
+            assertEquals("TileKeySet method contains returned the wrong value", expected.contains(value), set.contains(value));
+        }
+
+        assertArrayEquals("TileKeySet method toArray did not return every value",
+                          expected.stream().mapToLong(Long::longValue).sorted().toArray(),
+                          set.stream().sorted().toArray());
+
+        set.clear();
+
+        assertTrue ("TileKeySet method clear did not empty the set", set.isEmpty());
+        assertFalse("TileKeySet method clear did not empty the set", set.contains(0));
+    }
+}
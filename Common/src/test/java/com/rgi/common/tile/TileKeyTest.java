@@ -0,0 +1,147 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.rgi.common.tile;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Luke Lambert
+ *
+ */
+@SuppressWarnings("JavaDoc")
+public class TileKeyTest
+{
+    /**
+     * Tests that packed keys can be unpacked to the original coordinate
+     */
+    @Test
+    public void packUnpack()
+    {
+        final int[][] coordinates = { {  0, 0, 0 },
+                                      { 18, 32627, 224798 },
+                                      { TileKey.MaximumZoomLevel, TileKey.MaximumTileIndex, TileKey.MaximumTileIndex } };
+
+        for(final int[] coordinate : coordinates)
+        {
+            final long key = TileKey.pack(coordinate[0], coordinate[1], coordinate[2]);
+
+            assertEquals("TileKey method zoomLevel did not return the packed zoom level", coordinate[0], TileKey.zoomLevel(key));
+            assertEquals("TileKey method column did not return the packed column",        coordinate[1], TileKey.column(key));
+            assertEquals("TileKey method row did not return the packed row",              coordinate[2], TileKey.row(key));
+        }
+    }
+
+    /**
+     * Tests that pack throws an IllegalArgumentException for a coordinate
+     * that can't be packed
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void packIllegalArgumentException()
+    {
+        TileKey.pack(TileKey.MaximumZoomLevel + 1, 0, 0);
+        fail("Expected TileKey method pack to throw an IllegalArgumentException for a zoom level that's out of range.");
+    }
+
+    /**
+     * Tests isValid
+     */
+    @Test
+    public void isValid()
+    {
+        assertTrue ("TileKey method isValid rejected a valid coordinate", TileKey.isValid(0, TileKey.MaximumTileIndex, 0));
+        assertFalse("TileKey method isValid accepted a negative row",      TileKey.isValid(0, 0, -1));
+        assertFalse("TileKey method isValid accepted a column that's out of range", TileKey.isValid(0, TileKey.MaximumTileIndex + 1, 0));
+    }
+
+    /**
+     * Tests that Morton and Hilbert keys are unique within a zoom level, and
+     * that keys order tiles by zoom level first
+     */
+    @Test
+    public void curveKeys()
+    {
+        final int side = 16;
+
+        final Set<Long> mortonKeys  = new HashSet<>();
+        final Set<Long> hilbertKeys = new HashSet<>();
+
+        for(int column = 0; column < side; ++column)
+        {
+            for(int row = 0; row < side; ++row)
+            {
+                mortonKeys .add(TileKey.mortonKey (4, column, row));
+                hilbertKeys.add(TileKey.hilbertKey(4, column, row));
+            }
+        }
+
+        assertEquals("TileKey method mortonKey returned the same key for different tiles",  side * side, mortonKeys.size());
+        assertEquals("TileKey method hilbertKey returned the same key for different tiles", side * side, hilbertKeys.size());
+
+        assertTrue("TileKey method mortonKey did not order tiles by zoom level first",
+                   TileKey.mortonKey(4, TileKey.MaximumTileIndex, TileKey.MaximumTileIndex) < TileKey.mortonKey(5, 0, 0));
+
+        assertTrue("TileKey method hilbertKey did not order tiles by zoom level first",
+                   TileKey.hilbertKey(4, TileKey.MaximumTileIndex, 0) < TileKey.hilbertKey(5, 0, 0));
+    }
+
+    /**
+     * Tests that consecutive Hilbert keys belong to adjacent tiles
+     */
+    @Test
+    public void hilbertKeyLocality()
+    {
+        final int side = 32;    // Any square, power of two region starting at the origin is a complete section of the curve
+
+        final int[][] byDistance = new int[side * side][];
+
+        for(int column = 0; column < side; ++column)
+        {
+            for(int row = 0; row < side; ++row)
+            {
+                final long distance = TileKey.hilbertKey(0, column, row);
+
+                assertTrue("TileKey method hilbertKey mapped a tile outside of the curve's section", distance < byDistance.length);
+
+                byDistance[(int)distance] = new int[]{ column, row };
+            }
+        }
+
+        for(int distance = 1; distance < byDistance.length; ++distance)
+        {
+            final int[] previous = byDistance[distance - 1];
+            final int[] current  = byDistance[distance];
+
+            assertEquals("TileKey method hilbertKey returned consecutive keys for non-adjacent tiles",
+                         1,
+                         Math.abs(current[0] - previous[0]) + Math.abs(current[1] - previous[1]));
+        }
+    }
+}
@@ -22,6 +22,8 @@
  */
 package com.rgi.common.util.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -31,8 +33,10 @@ import java.util.Map;
 import org.junit.Test;
 
 import com.rgi.common.BoundingBox;
+import com.rgi.common.Range;
 import com.rgi.common.coordinate.Coordinate;
 import com.rgi.common.tile.TileOrigin;
+import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.util.BoundsUtility;
 
 /**
@@ -136,6 +140,48 @@ public class BoundsUtilityTest
         fail("Expected BoundsUtility method boundsCorner to throw when given a null value for TileOrigin.");
     }
 
+    @Test
+    public void verifyOverlaps()
+    {
+        final BoundingBox tile = new BoundingBox(0.0, 0.0, 10.0, 10.0);
+
+        assertTrue("Expected BoundsUtility method overlaps to return true for an area that covers part of the tile.",
+                   BoundsUtility.overlaps(new BoundingBox(5.0, 5.0, 15.0, 15.0), tile));
+
+        assertTrue("Expected BoundsUtility method overlaps to return false for an area that only shares an edge with the tile.",
+                   !BoundsUtility.overlaps(new BoundingBox(10.0, 0.0, 20.0, 10.0), tile));
+
+        assertTrue("Expected BoundsUtility method overlaps to return true for a point on the tile's minimum edge.",
+                   BoundsUtility.overlaps(new BoundingBox(0.0, 5.0, 0.0, 5.0), tile));
+
+        assertTrue("Expected BoundsUtility method overlaps to return false for a point on the tile's maximum edge.",
+                   !BoundsUtility.overlaps(new BoundingBox(10.0, 5.0, 10.0, 5.0), tile));
+    }
+
+    @Test
+    public void verifyTileRange()
+    {
+        final TileMatrixDimensions dimensions = new TileMatrixDimensions(4, 2);   // 90 x 90 tiles
+
+        final Range<Coordinate<Integer>> lowerLeftRange = BoundsUtility.tileRange(new BoundingBox(-90.0, -45.0, 0.0, 45.0), this.bounds, dimensions, TileOrigin.LowerLeft);
+
+        assertEquals("BoundsUtility method tileRange returned the wrong minimum tile.", new Coordinate<>(1, 0), lowerLeftRange.getMinimum());
+        assertEquals("BoundsUtility method tileRange returned the wrong maximum tile.", new Coordinate<>(1, 1), lowerLeftRange.getMaximum());
+
+        final Range<Coordinate<Integer>> upperLeftRange = BoundsUtility.tileRange(new BoundingBox(-90.0, 0.0, 0.0, 45.0), this.bounds, dimensions, TileOrigin.UpperLeft);
+
+        assertEquals("BoundsUtility method tileRange returned the wrong minimum tile.", new Coordinate<>(1, 0), upperLeftRange.getMinimum());
+        assertEquals("BoundsUtility method tileRange returned the wrong maximum tile.", new Coordinate<>(1, 0), upperLeftRange.getMaximum());
+
+        final Range<Coordinate<Integer>> clippedRange = BoundsUtility.tileRange(new BoundingBox(100.0, -200.0, 400.0, -10.0), this.bounds, dimensions, TileOrigin.LowerLeft);
+
+        assertEquals("BoundsUtility method tileRange did not clip the range to the tile matrix.", new Coordinate<>(3, 0), clippedRange.getMinimum());
+        assertEquals("BoundsUtility method tileRange did not clip the range to the tile matrix.", new Coordinate<>(3, 0), clippedRange.getMaximum());
+
+        assertNull("Expected BoundsUtility method tileRange to return null for an area outside of the tile matrix.",
+                   BoundsUtility.tileRange(new BoundingBox(180.0, 0.0, 200.0, 10.0), this.bounds, dimensions, TileOrigin.LowerLeft));
+    }
+
     private void assertBoundsCorner(final TileOrigin origin, final Coordinate<Double> expectedCoordinate)
     {
         final Coordinate<Double> coordinateReturned = BoundsUtility.boundsCorner(this.bounds, origin);
@@ -22,6 +22,7 @@
  */
 package com.rgi.common.util.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -31,6 +32,7 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
@@ -69,6 +71,28 @@ public class ImageUtilityTest
                    bufferedImagesEqual(imageExpected, imageReturned));
     }
 
+    @Test
+    public void byteBufferToBufferedImageVerify() throws IOException
+    {
+        final BufferedImage imageExpected = new BufferedImage(256, 512, BufferedImage.TYPE_BYTE_GRAY);
+        final byte[]        returnedBytes = ImageUtility.bufferedImageToBytes(imageExpected, "png");
+
+        // Surround the image data with padding, to check that only the bytes between the position and limit are read
+        final ByteBuffer buffer = ByteBuffer.allocate(returnedBytes.length + 8);
+        buffer.position(4);
+        buffer.put(returnedBytes);
+        buffer.flip();
+        buffer.position(4);
+
+        final BufferedImage imageReturned = ImageUtility.byteBufferToBufferedImage(buffer.asReadOnlyBuffer());
+
+        assertTrue("The buffered image created from ImageUtility does not have the expected values.",
+                   bufferedImagesEqual(imageExpected, imageReturned));
+        assertEquals("ImageUtility.byteBufferToBufferedImage should not change the buffer's position",
+                     4,
+                     buffer.position());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void illegalArgumentException() throws IOException
     {
@@ -25,6 +25,8 @@ package com.rgi.store.tiles;
 
 import java.awt.image.BufferedImage;
 
+import javax.activation.MimeType;
+
 import com.rgi.common.BoundingBox;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.tile.TileOrigin;
@@ -101,4 +103,27 @@ public interface TileHandle
      *             specified tile
      */
     public BufferedImage getImage() throws TileStoreException;
+
+    /**
+     * Gets the tile's image data exactly as it's stored, without decoding it.
+     * Copying encoded data avoids the cost (and for lossy formats, the
+     * quality loss) of a decode/encode round trip.
+     *
+     * @return Returns the tile's encoded image data, or null if the tile
+     *             store has no encoded form of the tile
+     * @throws TileStoreException
+     *             A TileStoreException occurs if unable to retrieve the
+     *             specified tile
+     */
+    public byte[] getEncodedImage() throws TileStoreException;
+
+    /**
+     * @return Returns the format of the data returned by {@link
+     *             #getEncodedImage()}, or null if the tile store has no
+     *             encoded form of the tile, or its format is unknown
+     * @throws TileStoreException
+     *             A TileStoreException occurs if unable to retrieve the
+     *             specified tile
+     */
+    public MimeType getImageFormat() throws TileStoreException;
 }
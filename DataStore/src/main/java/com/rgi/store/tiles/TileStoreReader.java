@@ -29,10 +29,12 @@ import java.util.stream.Stream;
 
 import com.rgi.common.BoundingBox;
 import com.rgi.common.Dimensions;
+import com.rgi.common.Range;
 import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.tile.TileOrigin;
 import com.rgi.common.tile.scheme.TileScheme;
+import com.rgi.common.util.BoundsUtility;
 
 /**
  * Interface for tile store reading
@@ -73,6 +75,39 @@ public interface TileStoreReader extends AutoCloseable
      */
     long getByteSize() throws TileStoreException;
 
+    /**
+     * Gets per zoom level tile counts, encoded tile sizes and tile extents.
+     * <br>
+     * <br>
+     * The default implementation visits every tile in {@link #stream()} and
+     * reads its encoded image, which can be expensive. Implementations that
+     * can summarize their tiles more cheaply (e.g. with an aggregate query)
+     * should override this method, and should cache the result.
+     *
+     * @return Returns the {@link TileStoreStatistics} of this tile store
+     * @throws TileStoreException
+     *             Wraps errors thrown by the tile store reader implementation
+     */
+    default TileStoreStatistics getStatistics() throws TileStoreException
+    {
+        final TileStoreStatistics.Builder builder = new TileStoreStatistics.Builder();
+
+        try(final Stream<TileHandle> tiles = this.stream())
+        {
+            for(final TileHandle tile : (Iterable<TileHandle>)tiles::iterator)
+            {
+                final byte[] encodedImage = tile.getEncodedImage();
+
+                builder.add(tile.getZoomLevel(),
+                            tile.getColumn(),
+                            tile.getRow(),
+                            encodedImage == null ? 0 : encodedImage.length);
+            }
+        }
+
+        return builder.build();
+    }
+
     /**
      * Get a tile at a specified zoom, column (x) and row (y)
      *
@@ -114,6 +149,10 @@ public interface TileStoreReader extends AutoCloseable
      * Gets a stream of every tile in the tile store. Tile stores need not
      * contain the maximum number of tiles (rows * columns, per zoom level) so
      * missing entries will not be reported by this stream.
+     * <br>
+     * <br>
+     * Implementations may back the stream with open resources (e.g. a
+     * database cursor), so callers should close it when finished.
      *
      * @return Returns a {@link Stream} of {@link TileHandle}s
      * @throws TileStoreException
@@ -126,6 +165,10 @@ public interface TileStoreReader extends AutoCloseable
      * zoom level need not contain the maximum number of tiles (rows * columns)
      * so missing entries will not be reported by this stream. If there are
      * no tiles at this zoom level, an empty stream will be returned.
+     * <br>
+     * <br>
+     * Implementations may back the stream with open resources (e.g. a
+     * database cursor), so callers should close it when finished.
      *
      * @param zoomLevel
      *            The zoom level of the requested tiles
@@ -135,6 +178,56 @@ public interface TileStoreReader extends AutoCloseable
      */
     Stream<TileHandle> stream(final int zoomLevel) throws TileStoreException;
 
+    /**
+     * Gets a stream of the tiles in the tile store that overlap an area, for
+     * a range of zoom levels. Tiles that only share an edge with the area are
+     * not included.
+     * <br>
+     * <br>
+     * The default implementation filters {@link #stream()}, so its cost is
+     * proportional to the size of the whole tile store. Implementations that
+     * can enumerate only the tiles in the area (e.g. with a range query)
+     * should override this method.
+     * <br>
+     * <br>
+     * Implementations may back the stream with open resources (e.g. a
+     * database cursor), so callers should close it when finished.
+     *
+     * @param bounds
+     *            The area of the requested tiles, in the units of the tile
+     *            store's coordinate reference system
+     * @param zoomLevels
+     *            The inclusive range of zoom levels of the requested tiles
+     * @return Returns a {@link Stream} of {@link TileHandle}s
+     * @throws TileStoreException
+     *             Wraps errors thrown by the tile store reader implementation
+     */
+    default Stream<TileHandle> stream(final BoundingBox bounds, final Range<Integer> zoomLevels) throws TileStoreException
+    {
+        if(bounds == null)
+        {
+            throw new IllegalArgumentException("Bounds may not be null");
+        }
+
+        if(zoomLevels == null)
+        {
+            throw new IllegalArgumentException("Zoom level range may not be null");
+        }
+
+        return this.stream()
+                   .filter(tile -> tile.getZoomLevel() >= zoomLevels.getMinimum() &&
+                                   tile.getZoomLevel() <= zoomLevels.getMaximum())
+                   .filter(tile -> { try
+                                     {
+                                         return BoundsUtility.overlaps(bounds, tile.getBounds());
+                                     }
+                                     catch(final TileStoreException ex)
+                                     {
+                                         throw new RuntimeException(ex);
+                                     }
+                                   });
+    }
+
     /**
      * @return returns the tile store's coordinate reference system
      * @throws TileStoreException
@@ -0,0 +1,336 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.store.tiles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.rgi.common.Range;
+
+/**
+ * Summary of the tiles contained in a tile store: per zoom level tile counts,
+ * encoded tile sizes, and the extents of the stored tile columns and rows.
+ * Statistics are an immutable snapshot, intended to be calculated once and
+ * cached by the tile store reader.
+ *
+ * @author Luke Lambert
+ *
+ */
+public class TileStoreStatistics
+{
+    /**
+     * Constructor
+     *
+     * @param zoomLevelStatistics
+     *             Statistics for each zoom level that contains tiles
+     */
+    public TileStoreStatistics(final Collection<ZoomLevelStatistics> zoomLevelStatistics)
+    {
+        if(zoomLevelStatistics == null)
+        {
+            throw new IllegalArgumentException("Zoom level statistics may not be null");
+        }
+
+        final SortedMap<Integer, ZoomLevelStatistics> statistics = new TreeMap<>();
+
+        long tileCount = 0;
+        long byteSize  = 0;
+
+        for(final ZoomLevelStatistics zoomLevel : zoomLevelStatistics)
+        {
+            if(zoomLevel == null)
+            {
+                throw new IllegalArgumentException("Zoom level statistics may not contain null entries");
+            }
+
+            if(statistics.put(zoomLevel.getZoomLevel(), zoomLevel) != null)
+            {
+                throw new IllegalArgumentException(String.format("Zoom level %d appears more than once", zoomLevel.getZoomLevel()));
+            }
+
+            tileCount += zoomLevel.getTileCount();
+
+            byteSize = byteSize < 0 || zoomLevel.getByteSize() < 0 ? UnknownByteSize
+                                                                   : byteSize + zoomLevel.getByteSize();
+        }
+
+        this.zoomLevelStatistics = Collections.unmodifiableSortedMap(statistics);
+        this.tileCount           = tileCount;
+        this.byteSize            = byteSize;
+    }
+
+    /**
+     * @return Returns the total number of tiles in the tile store
+     */
+    public long getTileCount()
+    {
+        return this.tileCount;
+    }
+
+    /**
+     * @return Returns the sum of the sizes, in bytes, of every tile's encoded
+     *         image, or {@link #UnknownByteSize} if the size of any zoom
+     *         level's tiles is unknown
+     */
+    public long getByteSize()
+    {
+        return this.byteSize;
+    }
+
+    /**
+     * @return Returns the average size, in bytes, of an encoded tile, or
+     *         {@link Double#NaN} if the store is empty or its byte size is
+     *         unknown
+     */
+    public double getAverageTileByteSize()
+    {
+        return averageByteSize(this.tileCount, this.byteSize);
+    }
+
+    /**
+     * @return Returns the zoom levels that contain tiles, in ascending order
+     */
+    public Set<Integer> getZoomLevels()
+    {
+        return this.zoomLevelStatistics.keySet();
+    }
+
+    /**
+     * @return Returns the statistics for every zoom level that contains
+     *         tiles, in ascending zoom level order
+     */
+    public Collection<ZoomLevelStatistics> getZoomLevelStatistics()
+    {
+        return this.zoomLevelStatistics.values();
+    }
+
+    /**
+     * @param zoomLevel
+     *             A zoom level
+     * @return Returns the statistics for the requested zoom level, or null if
+     *         the zoom level contains no tiles
+     */
+    public ZoomLevelStatistics getZoomLevelStatistics(final int zoomLevel)
+    {
+        return this.zoomLevelStatistics.get(zoomLevel);
+    }
+
+    private static double averageByteSize(final long tileCount, final long byteSize)
+    {
+        return tileCount == 0 || byteSize < 0 ? Double.NaN
+                                              : (double)byteSize / tileCount;
+    }
+
+    /**
+     * Statistics for the tiles of a single zoom level
+     *
+     * @author Luke Lambert
+     *
+     */
+    public static class ZoomLevelStatistics
+    {
+        /**
+         * Constructor
+         *
+         * @param zoomLevel
+         *             Zoom level of the tiles
+         * @param tileCount
+         *             Number of tiles at the zoom level
+         * @param byteSize
+         *             Sum of the sizes, in bytes, of the tiles' encoded
+         *             images, or {@link TileStoreStatistics#UnknownByteSize}
+         *             if the tiles have no stored encoding (e.g. they're
+         *             generated on request)
+         * @param columnRange
+         *             Smallest and largest tile column at the zoom level
+         * @param rowRange
+         *             Smallest and largest tile row at the zoom level
+         */
+        public ZoomLevelStatistics(final int            zoomLevel,
+                                   final long           tileCount,
+                                   final long           byteSize,
+                                   final Range<Integer> columnRange,
+                                   final Range<Integer> rowRange)
+        {
+            if(tileCount < 1)
+            {
+                throw new IllegalArgumentException("Tile count must be at least 1");
+            }
+
+            if(byteSize < 0 && byteSize != UnknownByteSize)
+            {
+                throw new IllegalArgumentException("Byte size may not be negative");
+            }
+
+            if(columnRange == null)
+            {
+                throw new IllegalArgumentException("Column range may not be null");
+            }
+
+            if(rowRange == null)
+            {
+                throw new IllegalArgumentException("Row range may not be null");
+            }
+
+            this.zoomLevel   = zoomLevel;
+            this.tileCount   = tileCount;
+            this.byteSize    = byteSize;
+            this.columnRange = columnRange;
+            this.rowRange    = rowRange;
+        }
+
+        /**
+         * @return Returns the zoom level of the tiles
+         */
+        public int getZoomLevel()
+        {
+            return this.zoomLevel;
+        }
+
+        /**
+         * @return Returns the number of tiles at the zoom level
+         */
+        public long getTileCount()
+        {
+            return this.tileCount;
+        }
+
+        /**
+         * @return Returns the sum of the sizes, in bytes, of the tiles'
+         *         encoded images, or {@link TileStoreStatistics#UnknownByteSize}
+         */
+        public long getByteSize()
+        {
+            return this.byteSize;
+        }
+
+        /**
+         * @return Returns the average size, in bytes, of an encoded tile at
+         *         this zoom level, or {@link Double#NaN} if the byte size is
+         *         unknown
+         */
+        public double getAverageTileByteSize()
+        {
+            return averageByteSize(this.tileCount, this.byteSize);
+        }
+
+        /**
+         * @return Returns the smallest and largest tile column at the zoom
+         *         level
+         */
+        public Range<Integer> getColumnRange()
+        {
+            return this.columnRange;
+        }
+
+        /**
+         * @return Returns the smallest and largest tile row at the zoom level
+         */
+        public Range<Integer> getRowRange()
+        {
+            return this.rowRange;
+        }
+
+        private final int            zoomLevel;
+        private final long           tileCount;
+        private final long           byteSize;
+        private final Range<Integer> columnRange;
+        private final Range<Integer> rowRange;
+    }
+
+    /**
+     * Accumulates statistics one tile at a time, for tile stores that can
+     * only be summarized by visiting each of their tiles
+     *
+     * @author Luke Lambert
+     *
+     */
+    public static class Builder
+    {
+        /**
+         * Adds a tile to the statistics
+         *
+         * @param zoomLevel
+         *             Zoom level of the tile
+         * @param column
+         *             Column of the tile
+         * @param row
+         *             Row of the tile
+         * @param byteSize
+         *             Size, in bytes, of the tile's encoded image
+         * @return Returns this builder
+         */
+        public Builder add(final int zoomLevel, final int column, final int row, final long byteSize)
+        {
+            if(byteSize < 0)
+            {
+                throw new IllegalArgumentException("Byte size may not be negative");
+            }
+
+            final long[] zoomLevelTotals = this.totals.computeIfAbsent(zoomLevel, zoom -> new long[]{ 0, 0, column, column, row, row });
+
+            zoomLevelTotals[0] += 1;
+            zoomLevelTotals[1] += byteSize;
+            zoomLevelTotals[2]  = Math.min(zoomLevelTotals[2], column);
+            zoomLevelTotals[3]  = Math.max(zoomLevelTotals[3], column);
+            zoomLevelTotals[4]  = Math.min(zoomLevelTotals[4], row);
+            zoomLevelTotals[5]  = Math.max(zoomLevelTotals[5], row);
+
+            return this;
+        }
+
+        /**
+         * @return Returns the statistics of the tiles added so far
+         */
+        public TileStoreStatistics build()
+        {
+            final Collection<ZoomLevelStatistics> statistics = new ArrayList<>(this.totals.size());
+
+            this.totals.forEach((zoomLevel, zoomLevelTotals) -> statistics.add(new ZoomLevelStatistics(zoomLevel,
+                                                                                                         zoomLevelTotals[0],
+                                                                                                         zoomLevelTotals[1],
+                                                                                                         new Range<>((int)zoomLevelTotals[2], (int)zoomLevelTotals[3]),
+                                                                                                         new Range<>((int)zoomLevelTotals[4], (int)zoomLevelTotals[5]))));
+
+            return new TileStoreStatistics(statistics);
+        }
+
+        // count, byte size, minimum column, maximum column, minimum row, maximum row
+        private final SortedMap<Integer, long[]> totals = new TreeMap<>();
+    }
+
+    private final SortedMap<Integer, ZoomLevelStatistics> zoomLevelStatistics;
+    private final long                                    tileCount;
+    private final long                                    byteSize;
+
+    /**
+     * Byte size reported for tiles that have no stored encoding, and whose
+     * size can't be known without generating them
+     */
+    public static final long UnknownByteSize = -1;
+}
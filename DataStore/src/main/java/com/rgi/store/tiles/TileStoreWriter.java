@@ -135,6 +135,82 @@ public interface TileStoreWriter extends AutoCloseable
      */
     public void addTile(final int column, final int row, final int zoomLevel, final BufferedImage image) throws TileStoreException;
 
+    /**
+     * Insert already encoded image data into this tile store at a row and
+     * column that corresponds to a geographic coordinate. The data is stored
+     * as-is; it's neither decoded nor re-encoded, so image write options are
+     * not applied.
+     *
+     * @param coordinate
+     *             The geographic coordinate that corresponds to the tile
+     * @param zoomLevel
+     *             The zoom level of the tile
+     * @param imageData
+     *             The encoded image data
+     * @param imageFormat
+     *             The format of the encoded image data. This must match
+     *             {@link #getImageOutputFormat()}.
+     * @throws TileStoreException
+     *             Wraps errors thrown by the tile store writer implementation
+     */
+    public void addEncodedTile(final CrsCoordinate coordinate, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException;
+
+    /**
+     * Insert already encoded image data into this tile store at a column and
+     * row. The data is stored as-is; it's neither decoded nor re-encoded, so
+     * image write options are not applied.
+     *
+     * @param column
+     *             The 'x' portion of the coordinate. This value is relative to
+     *             this tile store's tile scheme
+     * @param row
+     *             The 'y' portion of the coordinate. This value is relative to
+     *             this tile store's tile scheme
+     * @param zoomLevel
+     *            The zoom level of the tile
+     * @param imageData
+     *             The encoded image data
+     * @param imageFormat
+     *             The format of the encoded image data. This must match
+     *             {@link #getImageOutputFormat()}.
+     * @throws TileStoreException
+     *             Wraps errors thrown by the tile store writer implementation
+     */
+    public void addEncodedTile(final int column, final int row, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException;
+
+    /**
+     * Encodes an image in this tile store's output format, applying its image
+     * write options, exactly as the addTile methods would. Unlike the addTile
+     * methods, this method may be called from several threads at once, so
+     * images can be encoded in parallel and the results added with {@link
+     * #addEncodedTile(CrsCoordinate, int, byte[], MimeType)}.
+     *
+     * @param image
+     *             The {@link BufferedImage} to encode
+     * @return The encoded image data
+     * @throws TileStoreException
+     *             Wraps errors thrown by the tile store writer implementation
+     */
+    public byte[] encodeImage(final BufferedImage image) throws TileStoreException;
+
+    /**
+     * Waits for any tiles that have been added, but not yet written, to be
+     * written. Writers that write tiles as they're added have nothing to do.
+     *
+     * @throws TileStoreException
+     *             if any tiles failed to be written
+     */
+    public default void flush() throws TileStoreException
+    {
+        // Nothing to do for synchronous writers
+    }
+
+    /**
+     * @return Returns the image format used to encode tiles written to this
+     *             tile store
+     */
+    public MimeType getImageOutputFormat();
+
 
     /**
      * Reports the image formats that are valid for this type of tile store writer
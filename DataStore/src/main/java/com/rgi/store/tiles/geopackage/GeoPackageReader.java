@@ -31,11 +31,13 @@ import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfile;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfileFactory;
+import com.rgi.common.tile.TileKey;
 import com.rgi.common.tile.TileOrigin;
 import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.tile.scheme.TileScheme;
 import com.rgi.common.util.ImageUtility;
 import com.rgi.geopackage.GeoPackage;
+import com.rgi.geopackage.OpenOptions;
 import com.rgi.geopackage.core.SpatialReferenceSystem;
 import com.rgi.geopackage.tiles.GeoPackageTiles;
 import com.rgi.geopackage.tiles.Tile;
@@ -47,7 +49,9 @@ import com.rgi.geopackage.verification.VerificationLevel;
 import com.rgi.store.tiles.TileHandle;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreReader;
+import com.rgi.store.tiles.TileStoreStatistics;
 
+import javax.activation.MimeType;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
@@ -55,6 +59,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
@@ -100,6 +105,63 @@ public class GeoPackageReader implements TileStoreReader
      *             if there's an error in constructing the underlying tile store implementation
      */
     public GeoPackageReader(final File geoPackageFile, final String tileSetTableName, final VerificationLevel verificationLevel) throws TileStoreException
+    {
+        this(geoPackageFile, tileSetTableName, verificationLevel, 0);
+    }
+
+    /**
+     * @param geoPackageFile
+     *            Handle to a new or existing GeoPackage file
+     * @param tileSetTableName
+     *            Name for the new tile set's table in the GeoPackage database
+     * @param verificationLevel
+     *             Controls the level of verification testing performed on this
+     *             GeoPackage.  If verificationLevel is not None
+     *             {@link GeoPackage#verify()} is called automatically and will throw if
+     *             there are any conformance violations with the severity
+     *             {@link com.rgi.geopackage.verification.Severity#Error}.
+     * @param cacheByteSize
+     *             Approximate memory limit, in bytes, for a least recently
+     *             used cache of encoded tile data and decoded tile images. 0
+     *             disables the cache.
+     * @throws TileStoreException
+     *             if there's an error in constructing the underlying tile store implementation
+     */
+    public GeoPackageReader(final File              geoPackageFile,
+                            final String            tileSetTableName,
+                            final VerificationLevel verificationLevel,
+                            final long              cacheByteSize) throws TileStoreException
+    {
+        this(geoPackageFile, tileSetTableName, verificationLevel, cacheByteSize, OpenOptions.Default);
+    }
+
+    /**
+     * @param geoPackageFile
+     *            Handle to a new or existing GeoPackage file
+     * @param tileSetTableName
+     *            Name for the new tile set's table in the GeoPackage database
+     * @param verificationLevel
+     *             Controls the level of verification testing performed on this
+     *             GeoPackage.  If verificationLevel is not None
+     *             {@link GeoPackage#verify()} is called automatically and will throw if
+     *             there are any conformance violations with the severity
+     *             {@link com.rgi.geopackage.verification.Severity#Error}.
+     * @param cacheByteSize
+     *             Approximate memory limit, in bytes, for a least recently
+     *             used cache of encoded tile data and decoded tile images. 0
+     *             disables the cache.
+     * @param openOptions
+     *             Controls the read connections of the GeoPackage, e.g.
+     *             {@link OpenOptions#MappedRead} for memory mapped reads of
+     *             large files
+     * @throws TileStoreException
+     *             if there's an error in constructing the underlying tile store implementation
+     */
+    public GeoPackageReader(final File              geoPackageFile,
+                            final String            tileSetTableName,
+                            final VerificationLevel verificationLevel,
+                            final long              cacheByteSize,
+                            final OpenOptions       openOptions) throws TileStoreException
     {
         if(geoPackageFile == null)
         {
@@ -111,9 +173,17 @@ public class GeoPackageReader implements TileStoreReader
             throw new IllegalArgumentException("Tile set may not be null or empty");
         }
 
+        if(cacheByteSize < 0)
+        {
+            throw new IllegalArgumentException("Cache byte size may not be less than 0");
+        }
+
+        this.tileCache = cacheByteSize == 0 ? null
+                                            : new TileCache(cacheByteSize);
+
         try
         {
-            this.geoPackage = new GeoPackage(geoPackageFile, verificationLevel, GeoPackage.OpenMode.Open);
+            this.geoPackage = new GeoPackage(geoPackageFile, verificationLevel, GeoPackage.OpenMode.ReadOnly, openOptions);
         }
         catch(final Exception ex)
         {
@@ -206,40 +276,84 @@ public class GeoPackageReader implements TileStoreReader
     @Override
     public long countTiles() throws TileStoreException
     {
-        // TODO lazy precalculation ?
-        try
-        {
-            return this.geoPackage.core().getRowCount(this.tileSet);
-        }
-        catch(final SQLException ex)
-        {
-            throw new TileStoreException(ex);
-        }
+        return this.getStatistics().getTileCount();
     }
 
+    /**
+     * @return Returns the sum of the sizes, in bytes, of the tile set's
+     *         encoded tile images
+     */
     @Override
     public long getByteSize() throws TileStoreException
     {
-        // TODO lazy precalculation ?
-        return this.geoPackage.getFile().getTotalSpace();
+        return this.getStatistics().getByteSize();
+    }
+
+    /**
+     * Calculates the tile set's statistics with a single aggregate query on
+     * first use. The reader opens its GeoPackage read only, so the result is
+     * cached for the lifetime of the reader.
+     */
+    @Override
+    public synchronized TileStoreStatistics getStatistics() throws TileStoreException
+    {
+        if(this.statistics == null)
+        {
+            try
+            {
+                this.statistics = new TileStoreStatistics(this.geoPackage
+                                                              .tiles()
+                                                              .getTileStatistics(this.tileSet)
+                                                              .stream()
+                                                              .map(zoomLevel -> new TileStoreStatistics.ZoomLevelStatistics(zoomLevel.getZoomLevel(),
+                                                                                                                            zoomLevel.getTileCount(),
+                                                                                                                            zoomLevel.getByteSize(),
+                                                                                                                            new Range<>(zoomLevel.getMinimumColumn(), zoomLevel.getMaximumColumn()),
+                                                                                                                            new Range<>(zoomLevel.getMinimumRow(),    zoomLevel.getMaximumRow())))
+                                                              .collect(Collectors.toList()));
+            }
+            catch(final SQLException ex)
+            {
+                throw new TileStoreException(ex);
+            }
+        }
+
+        return this.statistics;
     }
 
     @Override
     public BufferedImage getTile(final int column, final int row, final int zoomLevel) throws TileStoreException
     {
-        try
+        if(this.tileCache == null || !TileKey.isValid(zoomLevel, column, row))  // Coordinates too large to key bypass the cache
         {
-            return getImage(this.geoPackage
-                                .tiles()
-                                .getTile(this.tileSet,
-                                         column,
-                                         row,
-                                         zoomLevel));
+            return this.readImage(column, row, zoomLevel);
         }
-        catch(final SQLException ex)
+
+        final long            key   = TileKey.pack(zoomLevel, column, row);
+        final TileCache.Entry entry = this.tileCache.get(key);
+
+        if(entry != null)
         {
-            throw new TileStoreException(ex);
+            final BufferedImage image = entry.getImage();
+
+            if(image != null)
+            {
+                return image;
+            }
+        }
+
+        final byte[] encodedImage = entry != null ? entry.getEncodedImage()
+                                                  : this.readEncodedImage(column, row, zoomLevel);
+
+        final BufferedImage image = encodedImage == null ? null
+                                                         : decode(ByteBuffer.wrap(encodedImage));
+
+        if(image != null)
+        {
+            this.tileCache.put(key, encodedImage, image);
         }
+
+        return image;
     }
 
     @Override
@@ -255,23 +369,50 @@ public class GeoPackageReader implements TileStoreReader
             throw new IllegalArgumentException("Coordinate's coordinate reference system does not match the tile store's coordinate reference system");
         }
 
+        final TileMatrix tileMatrix = this.tileMatrices.get(zoomLevel);
+
+        if(tileMatrix == null)
+        {
+            return null;
+        }
+
+        final Coordinate<Integer> tileCoordinate;
+
         try
         {
-            return getImage(this.geoPackage
-                                .tiles()
-                                .getTile(this.tileSet,
-                                         coordinate,
-                                         this.crsProfile.getPrecision(),
-                                         zoomLevel));
+            // Uses the tile matrices read at construction, rather than
+            // querying them again for every request
+            tileCoordinate = GeoPackageTiles.crsToTileCoordinate(this.tileMatrixSet,
+                                                                 tileMatrix,
+                                                                 coordinate,
+                                                                 this.crsProfile.getPrecision());
         }
         catch(final IllegalArgumentException ignored) // This is to catch an IAE if the crsCoordinate requested is outside the bounds of the GeoPackage tiles BoundingBox
         {
             return null;
         }
-        catch(final SQLException ex)
-        {
-            throw new TileStoreException(ex);
-        }
+
+        return this.getTile(tileCoordinate.getX(),
+                            tileCoordinate.getY(),
+                            zoomLevel);
+    }
+
+    /**
+     * @return the number of tile requests that were answered from the tile
+     *             cache, or 0 if the cache is disabled
+     */
+    public long getCacheHitCount()
+    {
+        return this.tileCache == null ? 0 : this.tileCache.getHitCount();
+    }
+
+    /**
+     * @return the number of tile requests that had to be read from the
+     *             database, or 0 if the cache is disabled
+     */
+    public long getCacheMissCount()
+    {
+        return this.tileCache == null ? 0 : this.tileCache.getMissCount();
     }
 
     @Override
@@ -323,15 +464,32 @@ public class GeoPackageReader implements TileStoreReader
     }
 
     @Override
-    public String getImageType() throws TileStoreException
+    public Stream<TileHandle> stream(final BoundingBox bounds, final Range<Integer> zoomLevels) throws TileStoreException
     {
         try
         {
-            final TileCoordinate coordinate = this.geoPackage
-                                                  .tiles()
-                                                  .getTiles(this.tileSet)
-                                                  .findFirst()
-                                                  .orElse(null);
+            return this.geoPackage
+                       .tiles()
+                       .getTiles(this.tileSet, bounds, zoomLevels)
+                       .map(tileCoordinate -> this.getTileHandle(tileCoordinate.getZoomLevel(),
+                                                                 tileCoordinate.getColumn(),
+                                                                 tileCoordinate.getRow()));
+        }
+        catch(final SQLException ex)
+        {
+            throw new TileStoreException(ex);
+        }
+    }
+
+    @Override
+    public String getImageType() throws TileStoreException
+    {
+        try(final Stream<TileCoordinate> tileCoordinates = this.geoPackage
+                                                               .tiles()
+                                                               .getTiles(this.tileSet))
+        {
+            final TileCoordinate coordinate = tileCoordinates.findFirst()
+                                                             .orElse(null);
 
             if(coordinate != null)
             {
@@ -379,15 +537,18 @@ public class GeoPackageReader implements TileStoreReader
     @Override
     public Dimensions<Integer> getImageDimensions() throws TileStoreException
     {
-        final TileHandle tile = this.stream().findFirst().orElse(null);
-
-        if(tile != null)
+        try(final Stream<TileHandle> tiles = this.stream())
         {
-            final BufferedImage image = tile.getImage();
-            return new Dimensions<>(image.getWidth(), image.getHeight());
-        }
+            final TileHandle tile = tiles.findFirst().orElse(null);
 
-        return null;
+            if(tile != null)
+            {
+                final BufferedImage image = tile.getImage();
+                return new Dimensions<>(image.getWidth(), image.getHeight());
+            }
+
+            return null;
+        }
     }
 
     @Override
@@ -410,18 +571,77 @@ public class GeoPackageReader implements TileStoreReader
         return GeoPackageTiles.Origin;
     }
 
-    private static BufferedImage getImage(final Tile tile) throws TileStoreException
+    private static BufferedImage decode(final ByteBuffer encodedImage) throws TileStoreException
     {
-        if(tile == null)
+        try
         {
-            return null;
+            return ImageUtility.byteBufferToBufferedImage(encodedImage);
+        }
+        catch(final IOException ex)
+        {
+            throw new TileStoreException(ex);
+        }
+    }
+
+    private byte[] getEncodedImage(final int column, final int row, final int zoomLevel) throws TileStoreException
+    {
+        if(this.tileCache == null || !TileKey.isValid(zoomLevel, column, row))  // Coordinates too large to key bypass the cache
+        {
+            return this.readEncodedImage(column, row, zoomLevel);
+        }
+
+        final long            key   = TileKey.pack(zoomLevel, column, row);
+        final TileCache.Entry entry = this.tileCache.get(key);
+
+        if(entry != null)
+        {
+            return entry.getEncodedImage();
         }
 
+        final byte[] encodedImage = this.readEncodedImage(column, row, zoomLevel);
+
+        if(encodedImage != null)
+        {
+            this.tileCache.put(key, encodedImage, null);
+        }
+
+        return encodedImage;
+    }
+
+    private byte[] readEncodedImage(final int column, final int row, final int zoomLevel) throws TileStoreException
+    {
         try
         {
-            return ImageUtility.bytesToBufferedImage(tile.getImageData());
+            final Tile tile = this.geoPackage
+                                  .tiles()
+                                  .getTile(this.tileSet,
+                                           column,
+                                           row,
+                                           zoomLevel);
+
+            return tile == null ? null : tile.getImageData();
         }
-        catch(final IOException ex)
+        catch(final SQLException ex)
+        {
+            throw new TileStoreException(ex);
+        }
+    }
+
+    private BufferedImage readImage(final int column, final int row, final int zoomLevel) throws TileStoreException
+    {
+        try
+        {
+            // Decodes from the tile data without copying it into a Tile
+            final ByteBuffer tileData = this.geoPackage
+                                            .tiles()
+                                            .getTileData(this.tileSet,
+                                                         column,
+                                                         row,
+                                                         zoomLevel);
+
+            return tileData == null ? null : decode(tileData);
+        }
+        catch(final SQLException ex)
         {
             throw new TileStoreException(ex);
         }
@@ -499,6 +719,41 @@ public class GeoPackageReader implements TileStoreReader
                         {
                             return GeoPackageReader.this.getTile(column, row, zoomLevel);
                         }
+
+                        @Override
+                        public byte[] getEncodedImage() throws TileStoreException
+                        {
+                            if(!this.gotImageData)
+                            {
+                                this.imageData    = GeoPackageReader.this.getEncodedImage(column, row, zoomLevel);
+                                this.gotImageData = true;
+                            }
+
+                            return this.imageData;
+                        }
+
+                        @Override
+                        public MimeType getImageFormat() throws TileStoreException
+                        {
+                            final byte[] encodedImage = this.getEncodedImage();
+
+                            if(encodedImage == null)
+                            {
+                                return null;
+                            }
+
+                            try
+                            {
+                                return ImageUtility.getMimeType(encodedImage);
+                            }
+                            catch(final IOException ex)
+                            {
+                                throw new TileStoreException(ex);
+                            }
+                        }
+
+                        private boolean gotImageData = false;
+                        private byte[]  imageData;
                    };
     }
 
@@ -509,5 +764,8 @@ public class GeoPackageReader implements TileStoreReader
     private final Set<Integer>             zoomLevels;
     private final Map<Integer, TileMatrix> tileMatrices;
     private final TileMatrixSet            tileMatrixSet;
+    private final TileCache                tileCache;
+
+    private TileStoreStatistics statistics;
 
 }
@@ -28,9 +28,6 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,11 +37,13 @@ import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
 
 import com.rgi.common.BoundingBox;
+import com.rgi.common.Dimensions;
 import com.rgi.common.coordinate.Coordinate;
 import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfile;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfileFactory;
+import com.rgi.common.tile.TileKeyMap;
 import com.rgi.common.tile.TileOrigin;
 import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.tile.scheme.TileScheme;
@@ -54,7 +53,10 @@ import com.rgi.geopackage.GeoPackage;
 import com.rgi.geopackage.core.SpatialReferenceSystem;
 import com.rgi.geopackage.tiles.GeoPackageTiles;
 import com.rgi.geopackage.tiles.TileMatrix;
+import com.rgi.geopackage.tiles.TileOrder;
 import com.rgi.geopackage.tiles.TileSet;
+import com.rgi.geopackage.tiles.TileWriteException;
+import com.rgi.geopackage.tiles.TileWriter;
 import com.rgi.geopackage.verification.ConformanceException;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreWriter;
@@ -66,6 +68,9 @@ import com.rgi.store.tiles.TileStoreWriter;
 public class GeoPackageWriter implements TileStoreWriter
 {
     /**
+     * Constructor. Each tile is committed by the call that adds it, so it's
+     * immediately visible to readers of the same file.
+     *
      * @param geoPackageFile
      *            Handle to a new or existing GeoPackage file
      * @param coordinateReferenceSystem
@@ -100,6 +105,84 @@ public class GeoPackageWriter implements TileStoreWriter
                             final TileScheme                tileScheme,
                             final MimeType                  imageOutputFormat,
                             final ImageWriteParam           imageWriteOptions) throws TileStoreException
+    {
+        this(geoPackageFile,
+             coordinateReferenceSystem,
+             tileSetTableName,
+             tileSetIdentifier,
+             tileSetDescription,
+             tileSetBounds,
+             tileScheme,
+             imageOutputFormat,
+             imageWriteOptions,
+             false,
+             TileOrder.Insertion,
+             false);
+    }
+
+    /**
+     * Constructor. If inserts are batched, tiles are committed in batches
+     * (see {@link TileWriter}) rather than one at a time. A batched tile
+     * isn't visible to readers of the same file until its batch is
+     * committed, or {@link #flush()} or {@link #close()} is called. A tile
+     * that the database refuses is reported by the call that commits its
+     * batch, which may be a later {@code addTile}/{@code addEncodedTile},
+     * {@link #flush()} or {@link #close()}, as a {@link TileStoreException}
+     * caused by a {@link TileWriteException}.
+     *
+     * @param geoPackageFile
+     *            Handle to a new or existing GeoPackage file
+     * @param coordinateReferenceSystem
+     *            Coordinate reference system
+     * @param tileSetTableName
+     *            Name for the new tile set's table in the GeoPackage database
+     * @param tileSetIdentifier
+     *            A human-readable identifier (e.g. short name) for the tile set
+     * @param tileSetDescription
+     *            A human-readable description of the tile set
+     * @param tileSetBounds
+     *            Minimum bounds of the tile set, in spatial reference system
+     *            units
+     * @param tileScheme
+     *            Contains the mechanism to calculate the relationship between
+     *            the tile matrix dimensions at valid zoom levels
+     * @param imageOutputFormat
+     *            Image format for used for output
+     * @param imageWriteOptions
+     *            Controls details of the image writing process. If null, a
+     *            default ImageWriteParam used instead
+     * @param batchInserts
+     *            If true, tiles are committed in batches rather than by the
+     *            call that adds them. Intended for bulk writes, such as a
+     *            {@code Packager} job, where nothing reads the tiles back
+     *            until the writer is closed.
+     * @param tileOrder
+     *            Order in which buffered tiles are inserted. Any order other
+     *            than {@link TileOrder#Insertion} buffers up to {@link
+     *            TileWriter#DefaultOrderedMaximumBatchTileCount} tiles before
+     *            sorting and inserting them, and requires batched inserts.
+     *            The order only holds within each batch; batches are stored
+     *            in the order that they're committed.
+     * @param compactOnClose
+     *            If true, the GeoPackage is compacted (see {@link
+     *            GeoPackage#compact()}) when the writer is closed, which
+     *            removes free pages. Tiles aren't reordered by compaction.
+     * @throws TileStoreException
+     *             if there's an error in constructing the underlying tile store implementation
+     *
+     */
+    public GeoPackageWriter(final File                      geoPackageFile,
+                            final CoordinateReferenceSystem coordinateReferenceSystem,
+                            final String                    tileSetTableName,
+                            final String                    tileSetIdentifier,
+                            final String                    tileSetDescription,
+                            final BoundingBox               tileSetBounds,
+                            final TileScheme                tileScheme,
+                            final MimeType                  imageOutputFormat,
+                            final ImageWriteParam           imageWriteOptions,
+                            final boolean                   batchInserts,
+                            final TileOrder                 tileOrder,
+                            final boolean                   compactOnClose) throws TileStoreException
     {
         if(geoPackageFile == null)
         {
@@ -116,6 +199,16 @@ public class GeoPackageWriter implements TileStoreWriter
             throw new IllegalArgumentException("Image output format may not be null");
         }
 
+        if(tileOrder == null)
+        {
+            throw new IllegalArgumentException("Tile order may not be null");
+        }
+
+        if(!batchInserts && tileOrder != TileOrder.Insertion)
+        {
+            throw new IllegalArgumentException("Tiles can only be reordered if inserts are batched");
+        }
+
         if(!MimeTypeUtility.contains(GeoPackageWriter.SupportedImageFormats, imageOutputFormat))
         {
             throw new IllegalArgumentException(String.format("Image output type '%s' is inappropriate for this tile store. Valid formats are: %s",
@@ -134,15 +227,14 @@ public class GeoPackageWriter implements TileStoreWriter
             }
         }
 
-        try
-        {
-            this.imageWriter = ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).next();
-        }
-        catch(final NoSuchElementException ignored)
+        if(!ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).hasNext())
         {
             throw new IllegalArgumentException(String.format("Mime type '%s' is not a supported for image writing by your Java environment", imageOutputFormat.toString()));
         }
 
+        // Image writers aren't thread safe, so each thread that encodes images gets its own
+        this.imageWriter = ThreadLocal.withInitial(() -> ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).next());
+
         try
         {
             this.geoPackage = new GeoPackage(geoPackageFile, GeoPackage.OpenMode.OpenOrCreate);
@@ -174,6 +266,28 @@ public class GeoPackageWriter implements TileStoreWriter
                                                       tileSetBounds,
                                                       spatialReferenceSystem);
 
+            final int maximumBatchTileCount;
+
+            if(!batchInserts)
+            {
+                maximumBatchTileCount = 1;  // A batch of one tile is committed by the call that adds it
+            }
+            else if(tileOrder == TileOrder.Insertion)
+            {
+                maximumBatchTileCount = TileWriter.DefaultMaximumBatchTileCount;
+            }
+            else
+            {
+                maximumBatchTileCount = TileWriter.DefaultOrderedMaximumBatchTileCount;
+            }
+
+            this.tileWriter = this.geoPackage.tiles().openTileWriter(this.tileSet,
+                                                                     maximumBatchTileCount,
+                                                                     TileWriter.DefaultMaximumBatchByteSize,
+                                                                     tileOrder);
+            this.compactOnClose = compactOnClose;
+
+            this.imageOutputFormat = imageOutputFormat;
             this.imageWriteOptions = imageWriteOptions; // May be null
 
             this.tileScheme = tileScheme;
@@ -196,7 +310,39 @@ public class GeoPackageWriter implements TileStoreWriter
     @Override
     public void close() throws SQLException
     {
-        this.geoPackage.close();
+        try
+        {
+            this.tileWriter.close();
+
+            if(this.compactOnClose)
+            {
+                this.geoPackage.compact();
+            }
+        }
+        finally
+        {
+            this.geoPackage.close();
+        }
+    }
+
+    /**
+     * Commits any tiles that are waiting in a batch
+     *
+     * @throws TileStoreException
+     *             if the database refused any of the waiting tiles. The
+     *             cause is a {@link TileWriteException} that lists them.
+     */
+    @Override
+    public void flush() throws TileStoreException
+    {
+        try
+        {
+            this.tileWriter.flush();
+        }
+        catch(final SQLException ex)
+        {
+            throw new TileStoreException(ex);
+        }
     }
 
     @Override
@@ -274,15 +420,22 @@ public class GeoPackageWriter implements TileStoreWriter
 
         try
         {
-            this.geoPackage
-                .tiles()
-                .addTile(this.tileSet,
-                         this.getTileMatrix(zoomLevel, image.getWidth(), image.getHeight()),
-                         coordinate,
-                         this.crsProfile.getPrecision(),
-                         ImageUtility.bufferedImageToBytes(image, this.imageWriter, this.imageWriteOptions));
+            // The tile matrix has to exist before a coordinate can be converted for its zoom level
+            final TileMatrix tileMatrix = this.getTileMatrix(zoomLevel, image.getWidth(), image.getHeight());
+
+            final Coordinate<Integer> tileCoordinate = this.geoPackage
+                                                           .tiles()
+                                                           .crsToTileCoordinate(this.tileSet,
+                                                                                coordinate,
+                                                                                this.crsProfile.getPrecision(),
+                                                                                zoomLevel);
+
+            this.tileWriter.addTile(tileMatrix,
+                                    tileCoordinate.getX(),
+                                    tileCoordinate.getY(),
+                                    this.encodeImage(image));
         }
-        catch(final SQLException | IOException ex)
+        catch(final SQLException ex)
         {
            throw new TileStoreException(ex);
         }
@@ -298,18 +451,110 @@ public class GeoPackageWriter implements TileStoreWriter
 
         try
         {
-            this.geoPackage
-                .tiles()
-                .addTile(this.tileSet,
-                         this.getTileMatrix(zoomLevel, image.getWidth(), image.getHeight()),
-                         column,
-                         row,
-                         ImageUtility.bufferedImageToBytes(image, this.imageWriter, this.imageWriteOptions));
+            this.tileWriter.addTile(this.getTileMatrix(zoomLevel, image.getWidth(), image.getHeight()),
+                                    column,
+                                    row,
+                                    this.encodeImage(image));
+        }
+        catch(final SQLException ex)
+        {
+           throw new TileStoreException(ex);
+        }
+    }
+
+    @Override
+    public void addEncodedTile(final CrsCoordinate coordinate, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException
+    {
+        if(coordinate == null)
+        {
+            throw new IllegalArgumentException("Coordinate may not be null");
+        }
+
+        if(!coordinate.getCoordinateReferenceSystem().equals(this.crsProfile.getCoordinateReferenceSystem()))
+        {
+            throw new IllegalArgumentException("Coordinate's coordinate reference system does not match the tile store's coordinate reference system");
+        }
+
+        if(imageData == null)
+        {
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        if(imageFormat == null || !this.imageOutputFormat.match(imageFormat))
+        {
+            throw new IllegalArgumentException(String.format("Image format '%s' does not match this tile store's output format '%s'",
+                                                             imageFormat,
+                                                             this.imageOutputFormat));
+        }
+
+        try
+        {
+            this.getTileMatrix(zoomLevel, imageData);   // The tile matrix has to exist before a coordinate can be converted for its zoom level
         }
         catch(final SQLException | IOException ex)
         {
            throw new TileStoreException(ex);
         }
+
+        final Coordinate<Integer> tileCoordinate = this.crsToTileCoordinate(coordinate, zoomLevel);
+
+        this.addEncodedTile(tileCoordinate.getX(),
+                            tileCoordinate.getY(),
+                            zoomLevel,
+                            imageData,
+                            imageFormat);
+    }
+
+    @Override
+    public void addEncodedTile(final int column, final int row, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException
+    {
+        if(imageData == null)
+        {
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        if(imageFormat == null || !this.imageOutputFormat.match(imageFormat))
+        {
+            throw new IllegalArgumentException(String.format("Image format '%s' does not match this tile store's output format '%s'",
+                                                             imageFormat,
+                                                             this.imageOutputFormat));
+        }
+
+        try
+        {
+            this.tileWriter.addTile(this.getTileMatrix(zoomLevel, imageData),
+                                    column,
+                                    row,
+                                    imageData);
+        }
+        catch(final SQLException | IOException ex)
+        {
+           throw new TileStoreException(ex);
+        }
+    }
+
+    @Override
+    public byte[] encodeImage(final BufferedImage image) throws TileStoreException
+    {
+        if(image == null)
+        {
+            throw new IllegalArgumentException("Image may not be null");
+        }
+
+        try
+        {
+            return ImageUtility.bufferedImageToBytes(image, this.imageWriter.get(), this.imageWriteOptions);
+        }
+        catch(final IOException ex)
+        {
+            throw new TileStoreException(ex);
+        }
+    }
+
+    @Override
+    public MimeType getImageOutputFormat()
+    {
+        return this.imageOutputFormat;
     }
 
     @Override
@@ -338,9 +583,11 @@ public class GeoPackageWriter implements TileStoreWriter
 
     private TileMatrix getTileMatrix(final int zoomLevel, final int imageWidth, final int imageHeight) throws SQLException
     {
-        if(this.tileMatrices.containsKey(zoomLevel))
+        final TileMatrix existingTileMatrix = this.tileMatrices.get(zoomLevel);
+
+        if(existingTileMatrix != null)
         {
-            return this.tileMatrices.get(zoomLevel);
+            return existingTileMatrix;
         }
 
         final TileMatrix tileMatrix = this.addTileMatrix(zoomLevel, imageHeight, imageWidth);
@@ -349,6 +596,20 @@ public class GeoPackageWriter implements TileStoreWriter
         return tileMatrix;
     }
 
+    private TileMatrix getTileMatrix(final int zoomLevel, final byte[] imageData) throws SQLException, IOException
+    {
+        final TileMatrix tileMatrix = this.tileMatrices.get(zoomLevel);
+
+        if(tileMatrix != null)
+        {
+            return tileMatrix;
+        }
+
+        final Dimensions<Integer> imageDimensions = ImageUtility.getImageDimensions(imageData);
+
+        return this.getTileMatrix(zoomLevel, imageDimensions.getWidth(), imageDimensions.getHeight());
+    }
+
     private TileMatrix addTileMatrix(final int zoomLevel, final int tilePixelHeight, final int tilePixelWidth) throws SQLException
     {
         final TileMatrixDimensions tileMatrixDimensions = this.tileScheme.dimensions(zoomLevel);
@@ -365,14 +626,17 @@ public class GeoPackageWriter implements TileStoreWriter
                               );
     }
 
-    private final GeoPackage      geoPackage;
-    private final TileSet         tileSet;
-    private final CrsProfile      crsProfile;
-    private final ImageWriter     imageWriter;
-    private final ImageWriteParam imageWriteOptions;
-    private final TileScheme      tileScheme;
-
-    private final Map<Integer, TileMatrix> tileMatrices = new HashMap<>();
+    private final GeoPackage               geoPackage;
+    private final TileSet                  tileSet;
+    private final TileWriter               tileWriter;
+    private final CrsProfile               crsProfile;
+    private final MimeType                 imageOutputFormat;
+    private final ThreadLocal<ImageWriter> imageWriter;
+    private final ImageWriteParam          imageWriteOptions;
+    private final TileScheme               tileScheme;
+    private final boolean                  compactOnClose;
+
+    private final TileKeyMap<TileMatrix>   tileMatrices = new TileKeyMap<>();
 
     /**
      * Image formats supported by an unextended GeoPackage
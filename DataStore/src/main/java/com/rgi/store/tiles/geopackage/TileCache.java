@@ -0,0 +1,187 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.store.tiles.geopackage;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded, least recently used cache of tiles' encoded bytes and, once
+ * requested, their decoded images. Images are copied on the way in and out,
+ * so callers are free to modify them.
+ *
+ * @author Luke Lambert
+ */
+final class TileCache
+{
+    /**
+     * Constructor
+     *
+     * @param maximumByteSize
+     *             Approximate upper limit on the memory used by cached tiles
+     */
+    TileCache(final long maximumByteSize)
+    {
+        if(maximumByteSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum byte size must be greater than 0");
+        }
+
+        this.maximumByteSize = maximumByteSize;
+    }
+
+    /**
+     * Looks up a tile. A lookup that finds the tile's encoded bytes counts as
+     * a hit, even if its image has yet to be decoded.
+     *
+     * @param key
+     *             Tile key
+     * @return the cached tile, or null if it isn't cached
+     */
+    synchronized Entry get(final long key)
+    {
+        final Entry entry = this.entries.get(key);
+
+        if(entry == null)
+        {
+            ++this.missCount;
+        }
+        else
+        {
+            ++this.hitCount;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Caches a tile
+     *
+     * @param key
+     *             Tile key
+     * @param encodedImage
+     *             The tile's encoded bytes
+     * @param image
+     *             The tile's decoded image, or null. The cache keeps its own
+     *             copy.
+     */
+    synchronized void put(final long          key,
+                          final byte[]        encodedImage,
+                          final BufferedImage image)
+    {
+        final Entry entry = new Entry(encodedImage, image == null ? null : copy(image));
+
+        if(entry.byteSize > this.maximumByteSize)
+        {
+            return;
+        }
+
+        final Entry previous = this.entries.put(key, entry);
+
+        if(previous != null)
+        {
+            this.byteSize -= previous.byteSize;
+        }
+
+        this.byteSize += entry.byteSize;
+
+        for(final Iterator<Entry> iterator = this.entries.values().iterator(); iterator.hasNext() && this.byteSize > this.maximumByteSize; )
+        {
+            this.byteSize -= iterator.next().byteSize;
+            iterator.remove();
+        }
+    }
+
+    synchronized long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    synchronized long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    synchronized long getByteSize()
+    {
+        return this.byteSize;
+    }
+
+    private static BufferedImage copy(final BufferedImage image)
+    {
+        return new BufferedImage(image.getColorModel(),
+                                 image.copyData(null),
+                                 image.isAlphaPremultiplied(),
+                                 null);
+    }
+
+    /**
+     * A cached tile
+     */
+    static final class Entry
+    {
+        private Entry(final byte[]        encodedImage,
+                      final BufferedImage image)
+        {
+            this.encodedImage = encodedImage;
+            this.image        = image;
+
+            final DataBuffer dataBuffer = image == null ? null : image.getRaster().getDataBuffer();
+
+            this.byteSize = encodedImage.length +
+                            (dataBuffer == null ? 0L : (long)dataBuffer.getSize() * dataBuffer.getNumBanks() * DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / Byte.SIZE);
+        }
+
+        /**
+         * @return the tile's encoded bytes
+         */
+        byte[] getEncodedImage()
+        {
+            return this.encodedImage;
+        }
+
+        /**
+         * @return a copy of the tile's decoded image, or null if it hasn't
+         *             been decoded
+         */
+        BufferedImage getImage()
+        {
+            return this.image == null ? null : copy(this.image);
+        }
+
+        private final byte[]        encodedImage;
+        private final BufferedImage image;
+        private final long          byteSize;
+    }
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);   // Access order, eldest first
+    private final long             maximumByteSize;
+
+    private long byteSize;
+    private long hitCount;
+    private long missCount;
+}
@@ -0,0 +1,764 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.store.tiles.tms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+
+import com.rgi.common.Range;
+import com.rgi.common.tile.TileKeyMap;
+import com.rgi.store.tiles.TileStoreStatistics;
+
+/**
+ * Index of the image files in a TMS directory tree. Maps each tile's zoom
+ * level, column and row to the extension and size of its file, so tile
+ * lookups need no directory listings or content type probing.
+ * <br>
+ * <br>
+ * The index is a snapshot: tiles added to the tree after it's built aren't
+ * seen. Column directories are scanned in parallel, and a file's content type
+ * is probed once per distinct file extension rather than once per file. A
+ * persisted index records the modification time of every column directory,
+ * and when it's reopened only the directories that have changed are
+ * rescanned.
+ *
+ * @author Luke Lambert
+ *
+ */
+final class TmsIndex
+{
+    private TmsIndex(final Path                location,
+                     final Collection<Column>  columns,
+                     final List<String>        extensions,
+                     final List<MimeType>      mimeTypes)
+    {
+        this.location   = location;
+        this.extensions = extensions;
+        this.mimeTypes  = mimeTypes;
+
+        this.columns = columns.stream()
+                              .sorted(Comparator.comparingLong(Column::key))
+                              .toArray(Column[]::new);
+
+        this.columnIndex = new TileKeyMap<>(this.columns.length);
+
+        for(final Column column : this.columns)
+        {
+            this.columnIndex.put(column.key(), column);
+        }
+    }
+
+    /**
+     * Indexes every tile in a TMS directory tree
+     *
+     * @param location
+     *             Root of the TMS directory tree
+     * @return Returns the index of the tree's tiles
+     * @throws IOException
+     *             if the directory tree can't be read
+     */
+    static TmsIndex build(final Path location) throws IOException
+    {
+        return new Scanner(location, Collections.emptyMap()).scan();
+    }
+
+    /**
+     * Opens a persisted index of a TMS directory tree, rescanning any column
+     * directories that were modified after the index was written. If the
+     * index file doesn't exist, can't be read, or belongs to a different
+     * directory tree, the whole tree is indexed. The index file is
+     * (re)written whenever its contents change.
+     *
+     * @param location
+     *             Root of the TMS directory tree
+     * @param indexFile
+     *             Location of the persisted index
+     * @return Returns the index of the tree's tiles
+     * @throws IOException
+     *             if the directory tree can't be read, or the index file
+     *             can't be written
+     */
+    static TmsIndex open(final Path location, final Path indexFile) throws IOException
+    {
+        final Map<Long, Column> persistedColumns = new HashMap<>();
+        final List<String>      extensions       = new ArrayList<>();
+        final List<MimeType>    mimeTypes        = new ArrayList<>();
+
+        if(Files.isRegularFile(indexFile))
+        {
+            try
+            {
+                read(location, indexFile, persistedColumns, extensions, mimeTypes);
+            }
+            catch(final IOException | MimeTypeParseException | RuntimeException ex)
+            {
+                // The index is unreadable, or is for another directory tree.
+                // Fall through and index the whole tree.
+                persistedColumns.clear();
+                extensions.clear();
+                mimeTypes.clear();
+            }
+        }
+
+        final Scanner  scanner = new Scanner(location, persistedColumns, extensions, mimeTypes);
+        final TmsIndex index   = scanner.scan();
+
+        if(scanner.changed() || !Files.isRegularFile(indexFile))
+        {
+            index.write(indexFile);
+        }
+
+        return index;
+    }
+
+    /**
+     * @param zoomLevel
+     *             Zoom level of the tile
+     * @param column
+     *             Column of the tile
+     * @param row
+     *             Row of the tile
+     * @return Returns the requested tile's index entry, or null if the tree
+     *         has no tile at the specified coordinate
+     */
+    Entry get(final int zoomLevel, final int column, final int row)
+    {
+        final Column indexedColumn = this.columnIndex.get(key(zoomLevel, column));
+
+        if(indexedColumn == null)
+        {
+            return null;
+        }
+
+        final int position = Arrays.binarySearch(indexedColumn.rows, row);
+
+        return position < 0 ? null
+                            : this.entry(indexedColumn, position);
+    }
+
+    /**
+     * @return Returns the zoom levels that contain tiles
+     */
+    Set<Integer> getZoomLevels()
+    {
+        return Arrays.stream(this.columns)
+                     .map(column -> column.zoomLevel)
+                     .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @return Returns the content type of the file extension shared by the
+     *         most tiles, or null if the tree contains no tiles
+     */
+    MimeType getMostCommonMimeType()
+    {
+        final long[] counts = new long[this.extensions.size()];
+
+        for(final Column column : this.columns)
+        {
+            for(final byte extension : column.extensions)
+            {
+                ++counts[extension & 0xFF];
+            }
+        }
+
+        return IntStream.range(0, counts.length)
+                        .filter(extension -> counts[extension] > 0)
+                        .boxed()
+                        .max(Comparator.comparingLong(extension -> counts[extension]))
+                        .map(this.mimeTypes::get)
+                        .orElse(null);
+    }
+
+    /**
+     * @return Returns a stream of every indexed tile, ordered by zoom level,
+     *         column and row
+     */
+    Stream<Entry> stream()
+    {
+        return this.stream(Arrays.stream(this.columns));
+    }
+
+    /**
+     * @param zoomLevel
+     *             Zoom level of the requested tiles
+     * @return Returns a stream of every indexed tile at the requested zoom
+     *         level, ordered by column and row
+     */
+    Stream<Entry> stream(final int zoomLevel)
+    {
+        return this.stream(Arrays.stream(this.columns)
+                                 .filter(column -> column.zoomLevel == zoomLevel));
+    }
+
+    /**
+     * @param zoomLevel
+     *             Zoom level of the requested tiles
+     * @param columns
+     *             Inclusive range of the requested tiles' columns
+     * @param rows
+     *             Inclusive range of the requested tiles' rows
+     * @return Returns a stream of the indexed tiles at the requested zoom
+     *         level that are within the column and row ranges, ordered by
+     *         column and row. Only the columns and rows in range are visited.
+     */
+    Stream<Entry> stream(final int zoomLevel, final Range<Integer> columns, final Range<Integer> rows)
+    {
+        final int firstColumn = this.firstColumnAtOrAfter(key(zoomLevel, columns.getMinimum()));
+        final int lastColumn  = this.firstColumnAtOrAfter(key(zoomLevel, columns.getMaximum()) + 1);
+
+        return Arrays.stream(this.columns, firstColumn, lastColumn)
+                     .flatMap(column -> IntStream.range(firstAtOrAfter(column.rows, rows.getMinimum()),
+                                                        firstAfter    (column.rows, rows.getMaximum()))
+                                                 .mapToObj(position -> this.entry(column, position)));
+    }
+
+    /**
+     * @return Returns tile counts, file sizes and extents for every zoom
+     *         level that contains tiles
+     */
+    synchronized TileStoreStatistics getStatistics()
+    {
+        if(this.statistics == null)
+        {
+            final Map<Integer, List<Column>> zoomLevels = Arrays.stream(this.columns)
+                                                                .collect(Collectors.groupingBy(column -> column.zoomLevel));
+
+            this.statistics = new TileStoreStatistics(zoomLevels.entrySet()
+                                                                .stream()
+                                                                .map(zoomLevel -> { final List<Column> columns = zoomLevel.getValue();
+
+                                                                                    return new TileStoreStatistics.ZoomLevelStatistics(zoomLevel.getKey(),
+                                                                                                                                       columns.stream().mapToLong(column -> column.rows.length).sum(),
+                                                                                                                                       columns.stream().flatMapToInt(column -> Arrays.stream(column.byteSizes)).asLongStream().sum(),
+                                                                                                                                       new Range<>(columns.stream().mapToInt(column -> column.column).min().getAsInt(),
+                                                                                                                                                   columns.stream().mapToInt(column -> column.column).max().getAsInt()),
+                                                                                                                                       new Range<>(columns.stream().mapToInt(column -> column.rows[0]).min().getAsInt(),
+                                                                                                                                                   columns.stream().mapToInt(column -> column.rows[column.rows.length-1]).max().getAsInt()));
+                                                                                  })
+                                                                .collect(Collectors.toList()));
+        }
+
+        return this.statistics;
+    }
+
+    private Stream<Entry> stream(final Stream<Column> columns)
+    {
+        return columns.flatMap(column -> IntStream.range(0, column.rows.length)
+                                                  .mapToObj(position -> this.entry(column, position)));
+    }
+
+    private Entry entry(final Column column, final int position)
+    {
+        final int extension = column.extensions[position] & 0xFF;
+
+        return new Entry(column.zoomLevel,
+                         column.column,
+                         column.rows[position],
+                         TmsTileStore.tmsPath(this.location, column.zoomLevel, column.column).resolve(column.rows[position] + "." + this.extensions.get(extension)),
+                         this.mimeTypes.get(extension));
+    }
+
+    private void write(final Path indexFile) throws IOException
+    {
+        final Path temporaryFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+        try(final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile))))
+        {
+            output.writeInt(MagicNumber);
+            output.writeInt(Version);
+            output.writeUTF(this.location.toAbsolutePath().normalize().toString());
+
+            output.writeInt(this.extensions.size());
+
+            for(int extension = 0; extension < this.extensions.size(); ++extension)
+            {
+                output.writeUTF(this.extensions.get(extension));
+                output.writeUTF(this.mimeTypes.get(extension).toString());
+            }
+
+            output.writeInt(this.columns.length);
+
+            for(final Column column : this.columns)
+            {
+                output.writeInt (column.zoomLevel);
+                output.writeInt (column.column);
+                output.writeLong(column.lastModified);
+                output.writeInt (column.rows.length);
+
+                for(int position = 0; position < column.rows.length; ++position)
+                {
+                    output.writeInt (column.rows[position]);
+                    output.writeByte(column.extensions[position]);
+                    output.writeInt (column.byteSizes[position]);
+                }
+            }
+        }
+
+        Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void read(final Path              location,
+                             final Path              indexFile,
+                             final Map<Long, Column> columns,
+                             final List<String>      extensions,
+                             final List<MimeType>    mimeTypes) throws IOException, MimeTypeParseException
+    {
+        try(final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile))))
+        {
+            if(input.readInt() != MagicNumber || input.readInt() != Version)
+            {
+                throw new IOException("Unrecognized TMS index file");
+            }
+
+            if(!input.readUTF().equals(location.toAbsolutePath().normalize().toString()))
+            {
+                throw new IOException("The TMS index file belongs to a different directory");
+            }
+
+            final int extensionCount = input.readInt();
+
+            for(int extension = 0; extension < extensionCount; ++extension)
+            {
+                extensions.add(input.readUTF());
+                mimeTypes .add(new MimeType(input.readUTF()));
+            }
+
+            final int columnCount = input.readInt();
+
+            for(int columnIndex = 0; columnIndex < columnCount; ++columnIndex)
+            {
+                final int  zoomLevel    = input.readInt();
+                final int  column       = input.readInt();
+                final long lastModified = input.readLong();
+                final int  tileCount    = input.readInt();
+
+                final int[]  rows           = new int [tileCount];
+                final byte[] fileExtensions = new byte[tileCount];
+                final int[]  byteSizes      = new int [tileCount];
+
+                for(int position = 0; position < tileCount; ++position)
+                {
+                    rows          [position] = input.readInt();
+                    fileExtensions[position] = input.readByte();
+                    byteSizes     [position] = input.readInt();
+                }
+
+                columns.put(key(zoomLevel, column), new Column(zoomLevel, column, lastModified, rows, fileExtensions, byteSizes));
+            }
+        }
+    }
+
+    /**
+     * @return the position of the first column whose key is greater than or
+     *         equal to the given key
+     */
+    private int firstColumnAtOrAfter(final long key)
+    {
+        int low  = 0;
+        int high = this.columns.length;
+
+        while(low < high)
+        {
+            final int middle = (low + high) >>> 1;
+
+            if(this.columns[middle].key() < key)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static int firstAtOrAfter(final int[] sortedValues, final int value)
+    {
+        final int position = Arrays.binarySearch(sortedValues, value);
+
+        return position < 0 ? -position - 1 : position;
+    }
+
+    private static int firstAfter(final int[] sortedValues, final int value)
+    {
+        final int position = Arrays.binarySearch(sortedValues, value);
+
+        return position < 0 ? -position - 1 : position + 1; // Values are unique
+    }
+
+    private static long key(final int zoomLevel, final int column)
+    {
+        return ((long)zoomLevel << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static Integer parseInteger(final String name)
+    {
+        try
+        {
+            return Integer.parseInt(name);
+        }
+        catch(final NumberFormatException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * A single indexed tile
+     */
+    static final class Entry
+    {
+        Entry(final int zoomLevel, final int column, final int row, final Path path, final MimeType mimeType)
+        {
+            this.zoomLevel = zoomLevel;
+            this.column    = column;
+            this.row       = row;
+            this.path      = path;
+            this.mimeType  = mimeType;
+        }
+
+        int getZoomLevel()
+        {
+            return this.zoomLevel;
+        }
+
+        int getColumn()
+        {
+            return this.column;
+        }
+
+        int getRow()
+        {
+            return this.row;
+        }
+
+        Path getPath()
+        {
+            return this.path;
+        }
+
+        MimeType getMimeType()
+        {
+            return this.mimeType;
+        }
+
+        private final int      zoomLevel;
+        private final int      column;
+        private final int      row;
+        private final Path     path;
+        private final MimeType mimeType;
+    }
+
+    /**
+     * The tiles of a single column directory, sorted by row
+     */
+    private static final class Column
+    {
+        Column(final int    zoomLevel,
+               final int    column,
+               final long   lastModified,
+               final int[]  rows,
+               final byte[] extensions,
+               final int[]  byteSizes)
+        {
+            this.zoomLevel    = zoomLevel;
+            this.column       = column;
+            this.lastModified = lastModified;
+            this.rows         = rows;
+            this.extensions   = extensions;
+            this.byteSizes    = byteSizes;
+        }
+
+        long key()
+        {
+            return TmsIndex.key(this.zoomLevel, this.column);
+        }
+
+        private final int    zoomLevel;
+        private final int    column;
+        private final long   lastModified;
+        private final int[]  rows;
+        private final byte[] extensions;
+        private final int[]  byteSizes;
+    }
+
+    /**
+     * Scans the column directories of a TMS tree in parallel, reusing
+     * previously indexed columns whose directories haven't been modified
+     */
+    private static final class Scanner
+    {
+        Scanner(final Path location, final Map<Long, Column> previousColumns)
+        {
+            this(location, previousColumns, new ArrayList<>(), new ArrayList<>());
+        }
+
+        /**
+         * @param extensions
+         *             Extension table of the previous columns. New
+         *             extensions are appended, so the previous columns'
+         *             extension indices remain valid.
+         * @param mimeTypes
+         *             Content types corresponding to the extensions
+         */
+        Scanner(final Path              location,
+                final Map<Long, Column> previousColumns,
+                final List<String>      extensions,
+                final List<MimeType>    mimeTypes)
+        {
+            this.location        = location;
+            this.previousColumns = previousColumns;
+            this.extensions      = extensions;
+            this.mimeTypes       = mimeTypes;
+        }
+
+        TmsIndex scan() throws IOException
+        {
+            final List<Path[]> columnDirectories = new ArrayList<>();   // { zoom directory, column directory }
+
+            try(final DirectoryStream<Path> zoomDirectories = Files.newDirectoryStream(this.location, Files::isDirectory))
+            {
+                for(final Path zoomDirectory : zoomDirectories)
+                {
+                    if(parseInteger(zoomDirectory.getFileName().toString()) != null)
+                    {
+                        try(final DirectoryStream<Path> columns = Files.newDirectoryStream(zoomDirectory, Files::isDirectory))
+                        {
+                            for(final Path columnDirectory : columns)
+                            {
+                                if(parseInteger(columnDirectory.getFileName().toString()) != null)
+                                {
+                                    columnDirectories.add(new Path[]{ zoomDirectory, columnDirectory });
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            final List<Column> columns;
+
+            try
+            {
+                columns = columnDirectories.parallelStream()
+                                           .map(directories -> { try
+                                                                 {
+                                                                     return this.scanColumn(parseInteger(directories[0].getFileName().toString()),
+                                                                                            parseInteger(directories[1].getFileName().toString()),
+                                                                                            directories[1]);
+                                                                 }
+                                                                 catch(final IOException ex)
+                                                                 {
+                                                                     throw new UncheckedIOException(ex);
+                                                                 }
+                                                               })
+                                           .filter(column -> column.rows.length > 0)
+                                           .collect(Collectors.toList());
+            }
+            catch(final UncheckedIOException ex)
+            {
+                throw ex.getCause();
+            }
+
+            if(columns.size() != this.previousColumns.size())
+            {
+                this.changed = true;
+            }
+
+            return new TmsIndex(this.location, columns, this.extensions, this.mimeTypes);
+        }
+
+        boolean changed()
+        {
+            return this.changed;
+        }
+
+        private Column scanColumn(final int zoomLevel, final int column, final Path columnDirectory) throws IOException
+        {
+            final long lastModified = Files.getLastModifiedTime(columnDirectory).toMillis();
+
+            final Column previous = this.previousColumns.get(key(zoomLevel, column));
+
+            if(previous != null && previous.lastModified == lastModified)
+            {
+                return previous;
+            }
+
+            this.changed = true;
+
+            final List<int[]> tiles = new ArrayList<>();   // { row, extension, byte size }
+
+            try(final DirectoryStream<Path> files = Files.newDirectoryStream(columnDirectory))
+            {
+                for(final Path file : files)
+                {
+                    final String name = file.getFileName().toString();
+                    final int    dot  = name.lastIndexOf('.');
+
+                    final Integer row = dot > 0 ? parseInteger(name.substring(0, dot)) : null;
+
+                    if(row != null)
+                    {
+                        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                        if(attributes.isRegularFile())
+                        {
+                            final int extension = this.extensionIndex(name.substring(dot + 1), file);
+
+                            if(extension >= 0)
+                            {
+                                tiles.add(new int[]{ row, extension, (int)Math.min(attributes.size(), Integer.MAX_VALUE) });
+                            }
+                        }
+                    }
+                }
+            }
+
+            tiles.sort(Comparator.comparingInt(tile -> tile[0]));
+
+            final int[]  rows       = new int [tiles.size()];
+            final byte[] extensions = new byte[tiles.size()];
+            final int[]  byteSizes  = new int [tiles.size()];
+
+            int count = 0;
+
+            for(final int[] tile : tiles)
+            {
+                // A row with files of more than one image type keeps only the
+                // first
+                if(count == 0 || rows[count-1] != tile[0])
+                {
+                    rows      [count] = tile[0];
+                    extensions[count] = (byte)tile[1];
+                    byteSizes [count] = tile[2];
+                    ++count;
+                }
+            }
+
+            return new Column(zoomLevel,
+                              column,
+                              lastModified,
+                              Arrays.copyOf(rows,       count),
+                              Arrays.copyOf(extensions, count),
+                              Arrays.copyOf(byteSizes,  count));
+        }
+
+        /**
+         * @return the index of the extension in the index's extension
+         *         table, or -1 if the file isn't an image
+         */
+        private synchronized int extensionIndex(final String extension, final Path file)
+        {
+            final Integer existing = this.extensionIndices.get(extension);
+
+            if(existing != null)
+            {
+                return existing;
+            }
+
+            int index = this.extensions.indexOf(extension);
+
+            if(index < 0)
+            {
+                MimeType mimeType = null;
+
+                try
+                {
+                    final String contentType = Files.probeContentType(file);
+
+                    if(contentType != null)
+                    {
+                        mimeType = new MimeType(contentType);
+                    }
+                }
+                catch(final IOException | MimeTypeParseException ex)
+                {
+                    // Do nothing. The file isn't treated as an image.
+                }
+
+                if(mimeType == null || !mimeType.getPrimaryType().toLowerCase().equals("image") || this.extensions.size() >= MaximumExtensionCount)
+                {
+                    index = -1;
+                }
+                else
+                {
+                    index = this.extensions.size();
+                    this.extensions.add(extension);
+                    this.mimeTypes.add(mimeType);
+                }
+            }
+
+            this.extensionIndices.put(extension, index);
+            return index;
+        }
+
+        private final Path                 location;
+        private final Map<Long, Column>    previousColumns;
+        private final List<String>         extensions;
+        private final List<MimeType>       mimeTypes;
+        private final Map<String, Integer> extensionIndices = new HashMap<>();
+
+        private volatile boolean changed = false;
+    }
+
+    private final Path              location;
+    private final Column[]          columns;
+    private final TileKeyMap<Column> columnIndex;
+    private final List<String>      extensions;
+    private final List<MimeType>    mimeTypes;
+
+    private TileStoreStatistics statistics;
+
+    private static final int MagicNumber           = 0x544D5349; // "TMSI"
+    private static final int Version               = 1;
+    private static final int MaximumExtensionCount = 256;     // Extension indices are stored as (unsigned) bytes
+}
@@ -24,25 +24,13 @@
 package com.rgi.store.tiles.tms;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.activation.MimeType;
-import javax.activation.MimeTypeParseException;
 import javax.imageio.ImageIO;
 
 import com.rgi.common.BoundingBox;
@@ -53,14 +41,21 @@ import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.tile.TileOrigin;
 import com.rgi.common.tile.scheme.TileMatrixDimensions;
-import com.rgi.common.util.FileUtility;
+import com.rgi.common.util.BoundsUtility;
 import com.rgi.store.tiles.TileHandle;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreReader;
+import com.rgi.store.tiles.TileStoreStatistics;
 
 /**
  * <a href="http://wiki.osgeo.org/wiki/Tile_Map_Service_Specification">TMS</a>
  * implementation of {@link TileStoreReader}
+ * <br>
+ * <br>
+ * The reader indexes the tile store's directory tree on first use (see
+ * {@link TmsIndex}), and answers every subsequent request from the index.
+ * Tiles added to the tree after the index is built are not seen by the
+ * reader.
  *
  * @author Luke Lambert
  *
@@ -78,6 +73,27 @@ public class TmsReader extends TmsTileStore implements TileStoreReader
      *             The location of this tile store on-disk
      */
     public TmsReader(final CoordinateReferenceSystem coordinateReferenceSystem, final Path location)
+    {
+        this(coordinateReferenceSystem, location, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param coordinateReferenceSystem
+     *             The coordinate reference system of this tile store. TMS's
+     *             lack of metadata means the coordinate reference system
+     *             cannot be inferred.
+     * @param location
+     *             The location of this tile store on-disk
+     * @param indexFile
+     *             File in which the index of the tile store's directory tree
+     *             is persisted between uses, or null to rebuild the index
+     *             every time the store is opened. If the file exists, only
+     *             the directories modified since it was written are
+     *             rescanned.
+     */
+    public TmsReader(final CoordinateReferenceSystem coordinateReferenceSystem, final Path location, final Path indexFile)
     {
         // TODO look for tilemapresource.xml for metadata
         super(coordinateReferenceSystem, location);
@@ -86,6 +102,8 @@ public class TmsReader extends TmsTileStore implements TileStoreReader
         {
             throw new IllegalArgumentException("Specified location cannot be read from");
         }
+
+        this.indexFile = indexFile;
     }
 
     @Override
@@ -100,52 +118,38 @@ public class TmsReader extends TmsTileStore implements TileStoreReader
     }
 
     @Override
-    public long countTiles()
+    public long countTiles() throws TileStoreException
     {
-        if(this.tileCount == -1)
-        {
-            this.tileCount = this.countFiles(this.location.toFile());
-        }
-
-        return this.tileCount;
+        return this.getStatistics().getTileCount();
     }
 
+    /**
+     * @return Returns the sum of the sizes, in bytes, of the tile store's
+     *         image files
+     */
     @Override
     public long getByteSize() throws TileStoreException
     {
-        if(this.storeSize == -1)
-        {
-            try
-            {
-                this.storeSize = this.calculateStoreSize();
-            }
-            catch(final IOException ex)
-            {
-                throw new TileStoreException("An error occurred while calculating the size of the tile store.\n" + ex.getMessage());
-            }
-        }
+        return this.getStatistics().getByteSize();
+    }
 
-        return this.storeSize;
+    /**
+     * Calculated from the tile store's index, which records the size of each
+     * image file
+     */
+    @Override
+    public TileStoreStatistics getStatistics() throws TileStoreException
+    {
+        return this.getIndex().getStatistics();
     }
 
     @Override
     public BufferedImage getTile(final int column, final int row, final int zoomLevel) throws TileStoreException
     {
-        final Optional<File> tileFile = this.getTiles(column, row, zoomLevel).findFirst();    // TODO prioritize list based on file type suitability (prefer transparency, etc)
+        final TmsIndex.Entry entry = this.getIndex().get(zoomLevel, column, row);
 
-        if(tileFile.isPresent())
-        {
-            try
-            {
-                return ImageIO.read(tileFile.get());
-            }
-            catch(final IOException ex)
-            {
-                throw new TileStoreException(ex);
-            }
-        }
-
-        return null;
+        return entry == null ? null
+                             : readImage(entry.getPath());
     }
 
     @Override
@@ -174,110 +178,67 @@ public class TmsReader extends TmsTileStore implements TileStoreReader
     @Override
     public Set<Integer> getZoomLevels() throws TileStoreException
     {
-        if(this.zoomLevels == null)
-        {
-            this.calculateZoomLevels();
-        }
-
-        return this.zoomLevels;
+        return this.getStatistics().getZoomLevels();
     }
 
     @Override
-    public Stream<TileHandle> stream()
+    public Stream<TileHandle> stream() throws TileStoreException
     {
-        return this.stream(this.location);
+        return this.getIndex()
+                   .stream()
+                   .map(this::getTileHandle);
     }
 
     @Override
-    public Stream<TileHandle> stream(final int zoomLevel)
+    public Stream<TileHandle> stream(final int zoomLevel) throws TileStoreException
     {
-        return this.stream(tmsPath(this.location, zoomLevel));
+        return this.getIndex()
+                   .stream(zoomLevel)
+                   .map(this::getTileHandle);
     }
 
     @Override
-    public String getImageType()
+    public Stream<TileHandle> stream(final BoundingBox bounds, final Range<Integer> zoomLevels) throws TileStoreException
     {
-        try
+        if(bounds == null)
         {
-            return Files.walk(TmsReader.this.location)
-                        .map(path -> { final File file = path.toFile();
-
-                                       final String absolutePath = file.getAbsolutePath();
-
-                                       if(TmsFilePattern.matcher(absolutePath).matches())
-                                       {
-                                           try
-                                           {
-                                               final MimeType mimeType = new MimeType(Files.probeContentType(path));
-
-                                               if(mimeType.getPrimaryType().toLowerCase().equals("image"))
-                                               {
-                                                  return mimeType.getSubType();
-                                              }
-                                           }
-                                           catch(final MimeTypeParseException | IOException ex)
-                                           {
-                                               // Do nothing. Fall through and return null
-                                           }
-                                       }
-                                       return null;
-                                     })
-                        .filter(Objects::nonNull)
-                        .findFirst()
-                        .orElse(null);
+            throw new IllegalArgumentException("Bounds may not be null");
         }
-        catch(final IOException ex)
+
+        if(zoomLevels == null)
         {
-            // Do nothing and fall through to return null
+            throw new IllegalArgumentException("Zoom level range may not be null");
         }
 
-        return null;
+        final TmsIndex index = this.getIndex();
+
+        return index.getZoomLevels()
+                    .stream()
+                    .filter(zoomLevel -> zoomLevel >= zoomLevels.getMinimum() &&
+                                         zoomLevel <= zoomLevels.getMaximum())
+                    .flatMap(zoomLevel -> { final Range<Coordinate<Integer>> tileRange = BoundsUtility.tileRange(bounds,
+                                                                                                                 this.profile.getBounds(),
+                                                                                                                 this.tileScheme.dimensions(zoomLevel),
+                                                                                                                 TmsTileStore.Origin);
+                                            return tileRange == null ? Stream.empty()
+                                                                     : index.stream(zoomLevel,
+                                                                                    new Range<>(tileRange.getMinimum().getX(), tileRange.getMaximum().getX()),
+                                                                                    new Range<>(tileRange.getMinimum().getY(), tileRange.getMaximum().getY()));
+                                          })
+                    .map(this::getTileHandle);
     }
 
     @Override
-    public Dimensions<Integer> getImageDimensions()
+    public String getImageType()
     {
         try
         {
-            return Files.walk(TmsReader.this.location)
-                        .map(path -> { final File file = path.toFile();
-
-                                       final String absolutePath = file.getAbsolutePath();
-
-                                       final Matcher tmsFileMatch = TmsFilePattern.matcher(absolutePath);
-
-                                       if(tmsFileMatch.matches())
-                                       {
-                                           try
-                                           {
-                                               final MimeType mimeType = new MimeType(Files.probeContentType(path));
-
-                                               if(mimeType.getPrimaryType().toLowerCase().equals("image"))
-                                               {
-                                                   final int zoomLevel = Integer.parseInt(tmsFileMatch.group(1));
-                                                   final int column    = Integer.parseInt(tmsFileMatch.group(2));
-                                                   final int row       = Integer.parseInt(tmsFileMatch.group(3));
-
-                                                   final BufferedImage image = TmsReader.this.getTile(column, row, zoomLevel);
-
-                                                   if(image != null)
-                                                   {
-                                                       return new Dimensions<>(image.getWidth(), image.getHeight());
-                                                   }
-                                              }
-                                           }
-                                           catch(final MimeTypeParseException | IOException | TileStoreException ex)
-                                           {
-                                               // Do nothing. Fall through and return null
-                                           }
-                                       }
-                                       return null;
-                                     })
-                        .filter(Objects::nonNull)
-                        .findFirst()
-                        .orElse(null);
+            final MimeType mimeType = this.getIndex().getMostCommonMimeType();
+
+            return mimeType == null ? null
+                                    : mimeType.getSubType();
         }
-        catch(final IOException ex)
+        catch(final TileStoreException ex)
         {
             // Do nothing and fall through to return null
         }
@@ -285,286 +246,188 @@ public class TmsReader extends TmsTileStore implements TileStoreReader
         return null;
     }
 
-    private void calculateBounds() throws TileStoreException
+    @Override
+    public Dimensions<Integer> getImageDimensions()
     {
-        final int minimumZoom = TmsReader.getTmsRange(this.location.toFile()).getMinimum();
-
-        final Path pathToMinimumZoom = tmsPath(this.location, minimumZoom);
-
-        final Range<Integer> xRange = TmsReader.getTmsRange(pathToMinimumZoom.toFile());
-        final Range<Integer> yRange = TmsReader.getTmsRange(tmsPath(pathToMinimumZoom, xRange.getMaximum()).toFile());
-
-        final TileMatrixDimensions dimensions = this.tileScheme.dimensions(minimumZoom);
-
-        final Coordinate<Integer> transformedMinTileCoordinate = TmsTileStore.Origin.transform(TileOrigin.LowerLeft,  xRange.getMinimum(), yRange.getMinimum(), dimensions);
-        final Coordinate<Integer> transformedMaxTileCoordinate = TmsTileStore.Origin.transform(TileOrigin.UpperRight, xRange.getMaximum(), yRange.getMaximum(), dimensions);
-
-        final Coordinate<Double> lowerLeftCorner  = this.profile.tileToCrsCoordinate(transformedMinTileCoordinate.getX(), transformedMinTileCoordinate.getY(), this.profile.getBounds(), dimensions, TileOrigin.LowerLeft);    // TMS uses absolute tiling, which covers the whole globe
-        final Coordinate<Double> upperRightCorner = this.profile.tileToCrsCoordinate(transformedMaxTileCoordinate.getX(), transformedMaxTileCoordinate.getY(), this.profile.getBounds(), dimensions, TileOrigin.UpperRight);   // TMS uses absolute tiling, which covers the whole globe
+        try(final Stream<TmsIndex.Entry> entries = this.getIndex().stream())
+        {
+            final TmsIndex.Entry entry = entries.findFirst().orElse(null);
 
-        this.bounds = new BoundingBox(lowerLeftCorner.getX(),
-                                      lowerLeftCorner.getY(),
-                                      upperRightCorner.getX(),
-                                      upperRightCorner.getY());
-    }
+            if(entry != null)
+            {
+                final BufferedImage image = readImage(entry.getPath());
 
-    /**
-     * Counts the number of files of a certain type in an input folder.
-     *
-     * @param directory
-     *            The folder in which the files should be counted in.
-     * @return The number of files of a certain type found in the input folder.
-     */
-    private long countFiles(final File directory)
-    {
-        if(directory == null || !directory.canRead() || !directory.isDirectory())
+                if(image != null)
+                {
+                    return new Dimensions<>(image.getWidth(), image.getHeight());
+                }
+            }
+        }
+        catch(final TileStoreException ex)
         {
-            return 0;
+            // Do nothing and fall through to return null
         }
-        // Count files that have an allowed file extension
-        final long fileCount = Arrays.stream(directory.listFiles())
-                                     .filter(file -> file.isFile() &&   // Not a directory
-                                                     fileIsImage(file)) // Allowed file extension
-                                     .count();
-
-        return Arrays.stream(directory.listFiles())
-                     .filter(file -> file.isDirectory())
-                     .map(subFolder -> this.countFiles(subFolder))
-                     .reduce(fileCount, (a, b) -> a + b);   // Sum up all of the values
-    }
-
-    private long calculateStoreSize() throws IOException
-    {
-        final AtomicLong size = new AtomicLong(0);
-
-        Files.walkFileTree(this.location,
-                           new SimpleFileVisitor<Path>()
-                           {
-                               @Override
-                               public FileVisitResult visitFile(final Path path, final BasicFileAttributes attrs) throws IOException
-                               {
-                                   if(attrs.isRegularFile())
-                                   {
-                                       size.addAndGet(attrs.size());
-                                   }
-                                   return FileVisitResult.CONTINUE;
-                               }
-                           });
-
-        return size.get();
-    }
 
-    private void calculateZoomLevels()
-    {
-        this.zoomLevels = Stream.of(this.location.toFile().listFiles())
-                                .filter(file -> file.isDirectory())
-                                .map(file -> { try
-                                               {
-                                                   return Integer.parseInt(FileUtility.nameWithoutExtension(file));
-                                               }
-                                               catch(final NumberFormatException ex)
-                                               {
-                                                   return null;
-                                               }
-                                             })
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toSet());
+        return null;
     }
 
-    private TileHandle getTileHandle(final Path path)
+    private synchronized TmsIndex getIndex() throws TileStoreException
     {
-        if(path == null)
-        {
-            throw new IllegalArgumentException("The path may not be null");
-        }
-        final File file = path.toFile();
-
-        final String absolutePath = file.getAbsolutePath();
-
-        final Matcher tmsFileMatch = TmsFilePattern.matcher(absolutePath);
-
-        if(tmsFileMatch.matches())
+        if(this.index == null)
         {
             try
             {
-                final String mimeTypeString = Files.probeContentType(path);
-
-                if(mimeTypeString == null)
-                {
-                    return null;
-                }
-
-                final MimeType mimeType = new MimeType(mimeTypeString);
-
-                if(mimeType.getPrimaryType().toLowerCase().equals("image"))
-                {
-                    final int zoomLevel = Integer.parseInt(tmsFileMatch.group(1));
-                    final int column    = Integer.parseInt(tmsFileMatch.group(2));
-                    final int row       = Integer.parseInt(tmsFileMatch.group(3));
-
-                    return new TileHandle()
-                           {
-                               private final TileMatrixDimensions matrix = TmsReader.this.tileScheme.dimensions(zoomLevel);
-
-                               private boolean       gotImage = false;
-                               private BufferedImage image;
-
-                               @Override
-                               public int getZoomLevel()
-                               {
-                                   return zoomLevel;
-                               }
-
-                               @Override
-                               public int getColumn()
-                               {
-                                   return column;
-                               }
-
-                               @Override
-                               public int getRow()
-                               {
-                                   return row;
-                               }
-
-                               @Override
-                               public TileMatrixDimensions getMatrix() throws TileStoreException
-                               {
-                                   return this.matrix;
-                               }
-
-                               @Override
-                               public CrsCoordinate getCrsCoordinate() throws TileStoreException
-                               {
-                                   return TmsReader.this.tileToCrsCoordinate(column,
-                                                                             row,
-                                                                             zoomLevel,
-                                                                             TmsTileStore.Origin);
-                               }
-
-                               @Override
-                               public CrsCoordinate getCrsCoordinate(final TileOrigin corner) throws TileStoreException
-                               {
-                                   return TmsReader.this.tileToCrsCoordinate(column,
-                                                                             row,
-                                                                             zoomLevel,
-                                                                             corner);
-                               }
-
-                               @Override
-                               public BoundingBox getBounds() throws TileStoreException
-                               {
-                                   return TmsReader.this.getTileBoundingBox(column, row, zoomLevel);
-                               }
-
-                               @Override
-                               public BufferedImage getImage() throws TileStoreException
-                               {
-                                   if(!this.gotImage)
-                                   {
-                                       this.image    = TmsReader.this.getTile(column, row, zoomLevel);
-                                       this.gotImage = true;
-                                   }
-
-                                   return this.image;
-                               }
-                           };
-
-                }
+                this.index = this.indexFile == null ? TmsIndex.build(this.location)
+                                                    : TmsIndex.open(this.location, this.indexFile);
             }
-            catch(final MimeTypeParseException | IOException ex)
+            catch(final IOException ex)
             {
-                // Do nothing.  Fall through to return null.
+                throw new TileStoreException("An error occurred while indexing the tile store.\n" + ex.getMessage());
             }
         }
 
-        return null;
+        return this.index;
     }
 
-    /**
-     * Gets the integer representation of the file of a certain type (lowest or
-     * highest).
-     *
-     * @param directory
-     *            The directory that contains files with integer names
-     * @return The minimum and maximum integer value the supplied directory's file names
-     * @throws TileStoreException
-     *             If a file name cannot be parsed to an integer, a
-     *             TileStoreException is thrown.
-     */
-    private static Range<Integer> getTmsRange(final File directory) throws TileStoreException
+    private void calculateBounds() throws TileStoreException
     {
-        try
-        {
-            final Iterable<Integer> tmsNames = Stream.of(directory.listFiles())
-                                                     .map(file -> { try
-                                                                    {
-                                                                        return Integer.parseInt(FileUtility.nameWithoutExtension(file));
-                                                                    }
-                                                                    catch(final NumberFormatException ex)
-                                                                    {
-                                                                        return null;
-                                                                    }
-                                                                  })
-                                                     .filter(Objects::nonNull)
-                                                     .collect(Collectors.toList());
-
-            return new Range<>(tmsNames, Integer::compare);
-        }
-        catch(final IllegalArgumentException ex)
+        final TileStoreStatistics statistics = this.getStatistics();
+
+        if(statistics.getTileCount() == 0)
         {
             throw new TileStoreException(String.format("Directory %s contains no TMS entites",
-                                                       directory.getName()));
+                                                       this.location.toFile().getName()));
         }
-    }
 
-    private Stream<File> getTiles(final int column, final int row, final int zoomLevel)
-    {
-        final File[] files = tmsPath(this.location,
-                                     zoomLevel,
-                                     column).toFile()
-                                            .listFiles(); // All of the files in directory zoomLevel/x/
-
-        return files == null ? Stream.empty()
-                             : Stream.of(files)
-                                     .filter(file -> file.isFile() &&
-                                                     FileUtility.nameWithoutExtension(file).equals(String.valueOf(row)) &&
-                                                     fileIsImage(file));
+        final int minimumZoom = statistics.getZoomLevels().iterator().next();
+
+        final TileStoreStatistics.ZoomLevelStatistics zoomLevel = statistics.getZoomLevelStatistics(minimumZoom);
+
+        final Range<Integer> xRange = zoomLevel.getColumnRange();
+        final Range<Integer> yRange = zoomLevel.getRowRange();
+
+        final TileMatrixDimensions dimensions = this.tileScheme.dimensions(minimumZoom);
+
+        final Coordinate<Integer> transformedMinTileCoordinate = TmsTileStore.Origin.transform(TileOrigin.LowerLeft,  xRange.getMinimum(), yRange.getMinimum(), dimensions);
+        final Coordinate<Integer> transformedMaxTileCoordinate = TmsTileStore.Origin.transform(TileOrigin.UpperRight, xRange.getMaximum(), yRange.getMaximum(), dimensions);
+
+        final Coordinate<Double> lowerLeftCorner  = this.profile.tileToCrsCoordinate(transformedMinTileCoordinate.getX(), transformedMinTileCoordinate.getY(), this.profile.getBounds(), dimensions, TileOrigin.LowerLeft);    // TMS uses absolute tiling, which covers the whole globe
+        final Coordinate<Double> upperRightCorner = this.profile.tileToCrsCoordinate(transformedMaxTileCoordinate.getX(), transformedMaxTileCoordinate.getY(), this.profile.getBounds(), dimensions, TileOrigin.UpperRight);   // TMS uses absolute tiling, which covers the whole globe
+
+        this.bounds = new BoundingBox(lowerLeftCorner.getX(),
+                                      lowerLeftCorner.getY(),
+                                      upperRightCorner.getX(),
+                                      upperRightCorner.getY());
     }
 
-    private Stream<TileHandle> stream(final Path startLocation)
+    private static BufferedImage readImage(final Path path) throws TileStoreException
     {
         try
         {
-            return Files.walk(startLocation)
-                        .map(path -> this.getTileHandle(path))
-                        .filter(Objects::nonNull);
+            return ImageIO.read(path.toFile());
         }
         catch(final IOException ex)
         {
-            // Do nothing and fall through to return an empty stream
+            throw new TileStoreException(ex);
         }
-
-        return Stream.empty();
     }
 
-    private static boolean fileIsImage(final File file)
+    private TileHandle getTileHandle(final TmsIndex.Entry entry)
     {
-        try
-        {
-            final String mimeType = Files.probeContentType(file.toPath());
-            return mimeType != null && mimeType.toLowerCase().startsWith("image/");
-        }
-        catch(final IOException ex)
-        {
-            return false;
-        }
+        final int zoomLevel = entry.getZoomLevel();
+        final int column    = entry.getColumn();
+        final int row       = entry.getRow();
+
+        return new TileHandle()
+               {
+                   private final TileMatrixDimensions matrix = TmsReader.this.tileScheme.dimensions(zoomLevel);
+
+                   private boolean       gotImage = false;
+                   private BufferedImage image;
+
+                   @Override
+                   public int getZoomLevel()
+                   {
+                       return zoomLevel;
+                   }
+
+                   @Override
+                   public int getColumn()
+                   {
+                       return column;
+                   }
+
+                   @Override
+                   public int getRow()
+                   {
+                       return row;
+                   }
+
+                   @Override
+                   public TileMatrixDimensions getMatrix() throws TileStoreException
+                   {
+                       return this.matrix;
+                   }
+
+                   @Override
+                   public CrsCoordinate getCrsCoordinate() throws TileStoreException
+                   {
+                       return TmsReader.this.tileToCrsCoordinate(column,
+                                                                 row,
+                                                                 zoomLevel,
+                                                                 TmsTileStore.Origin);
+                   }
+
+                   @Override
+                   public CrsCoordinate getCrsCoordinate(final TileOrigin corner) throws TileStoreException
+                   {
+                       return TmsReader.this.tileToCrsCoordinate(column,
+                                                                 row,
+                                                                 zoomLevel,
+                                                                 corner);
+                   }
+
+                   @Override
+                   public BoundingBox getBounds() throws TileStoreException
+                   {
+                       return TmsReader.this.getTileBoundingBox(column, row, zoomLevel);
+                   }
+
+                   @Override
+                   public BufferedImage getImage() throws TileStoreException
+                   {
+                       if(!this.gotImage)
+                       {
+                           this.image    = readImage(entry.getPath());
+                           this.gotImage = true;
+                       }
+
+                       return this.image;
+                   }
+
+                   @Override
+                   public byte[] getEncodedImage() throws TileStoreException
+                   {
+                       try
+                       {
+                           return Files.readAllBytes(entry.getPath());
+                       }
+                       catch(final IOException ex)
+                       {
+                           throw new TileStoreException(ex);
+                       }
+                   }
+
+                   @Override
+                   public MimeType getImageFormat()
+                   {
+                       return entry.getMimeType();
+                   }
+               };
     }
 
-    private Set<Integer> zoomLevels = null;
-    private BoundingBox  bounds     = null;
-    private long         tileCount  = -1;
-    private long         storeSize  = -1;
+    private final Path indexFile;
 
-    private static Pattern TmsFilePattern = Pattern.compile(".*(?:\\\\|/)([0-9]+)(?:\\\\|/)([0-9]+)(?:\\\\|/)([0-9]+)\\.[^\\\\/]*$");
+    private TmsIndex    index  = null;
+    private BoundingBox bounds = null;
 }
@@ -24,11 +24,19 @@
 package com.rgi.store.tiles.tms;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.NoSuchElementException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 import javax.activation.MimeType;
 import javax.imageio.IIOImage;
@@ -40,6 +48,7 @@ import javax.imageio.stream.ImageOutputStream;
 import com.rgi.common.coordinate.Coordinate;
 import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
+import com.rgi.common.util.ImageUtility;
 import com.rgi.common.util.MimeTypeUtility;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreWriter;
@@ -89,9 +98,61 @@ public class TmsWriter extends TmsTileStore implements TileStoreWriter
                      final Path                      location,
                      final MimeType                  imageOutputFormat,
                      final ImageWriteParam           imageWriteOptions)
+    {
+        this(coordinateReferenceSystem,
+             location,
+             imageOutputFormat,
+             imageWriteOptions,
+             0,
+             1);
+    }
+
+    /**
+     * Constructor
+     * <br>
+     * <br>
+     * When writeThreadCount is greater than 0, the writer is asynchronous:
+     * the addTile and addEncodedTile methods queue tiles to be encoded (each
+     * thread has its own ImageWriter) and written by a pool of threads, and
+     * return immediately unless queueDepth tiles are already waiting, so
+     * images must not be modified after they're added. Errors from queued
+     * tiles are reported by {@link #flush()}, which waits for all queued
+     * tiles to be written, and by {@link #close()}.
+     *
+     * @param coordinateReferenceSystem
+     *             The coordinate reference system of this tile store
+     * @param location
+     *             The location of this tile store on-disk
+     * @param imageOutputFormat
+     *             Image format for used for output
+     * @param imageWriteOptions
+     *             Controls details of the image writing process.  If null, a default ImageWriteParam used instead
+     * @param writeThreadCount
+     *             Number of threads that encode and write tiles, or 0 to
+     *             encode and write each tile on the calling thread
+     * @param queueDepth
+     *             Maximum number of tiles that may be queued, but not yet
+     *             written. This bounds the memory held by queued images.
+     */
+    public TmsWriter(final CoordinateReferenceSystem coordinateReferenceSystem,
+                     final Path                      location,
+                     final MimeType                  imageOutputFormat,
+                     final ImageWriteParam           imageWriteOptions,
+                     final int                       writeThreadCount,
+                     final int                       queueDepth)
     {
         super(coordinateReferenceSystem, location);
 
+        if(writeThreadCount < 0)
+        {
+            throw new IllegalArgumentException("Write thread count may not be less than 0");
+        }
+
+        if(queueDepth < 1)
+        {
+            throw new IllegalArgumentException("Queue depth must be at least 1");
+        }
+
         if(!location.toFile().canWrite())
         {
             throw new IllegalArgumentException("Specified location cannot be written to");
@@ -104,16 +165,101 @@ public class TmsWriter extends TmsTileStore implements TileStoreWriter
 
         this.imageOutputFormat = imageOutputFormat;
 
-        try
-        {
-            this.imageWriter = ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).next();
-        }
-        catch(final NoSuchElementException ex)
+        if(!ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).hasNext())
         {
             throw new IllegalArgumentException(String.format("Mime type '%s' is not a supported for image writing by your Java environment", imageOutputFormat.toString()));
         }
 
+        // Image writers aren't thread safe, so each thread that encodes images gets its own
+        this.imageWriter = ThreadLocal.withInitial(() -> ImageIO.getImageWritersByMIMEType(imageOutputFormat.toString()).next());
+
         this.imageWriteOptions = imageWriteOptions;
+
+        this.queueDepth    = queueDepth;
+        this.pendingWrites = new Semaphore(queueDepth);
+        this.writeExecutor = writeThreadCount == 0 ? null
+                                                   : Executors.newFixedThreadPool(writeThreadCount,
+                                                                                  runnable -> { final Thread thread = new Thread(runnable, "TmsWriter worker");
+                                                                                                thread.setDaemon(true);
+                                                                                                return thread;
+                                                                                              });
+    }
+
+    /**
+     * Waits for every queued tile to be written, and then closes the writer.
+     * Tiles may not be added to a closed writer.
+     *
+     * @throws RuntimeException
+     *             if any queued tile failed to be written since the last call
+     *             to {@link #flush()}. The cause is the {@link
+     *             TileStoreException} that flush() would have thrown.
+     */
+    @Override
+    public void close()
+    {
+        if(this.writeExecutor != null)
+        {
+            try
+            {
+                this.flush();
+            }
+            catch(final TileStoreException ex)
+            {
+                throw new RuntimeException(ex);
+            }
+            finally
+            {
+                this.writeExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Waits for every queued tile to be written
+     *
+     * @throws TileStoreException
+     *             if any queued tile failed to be written since the last
+     *             call to flush(). Each failure is attached as a suppressed
+     *             exception.
+     */
+    @Override
+    public void flush() throws TileStoreException
+    {
+        if(this.writeExecutor != null)
+        {
+            // Every queued tile holds a permit until it's written
+            try
+            {
+                this.pendingWrites.acquire(this.queueDepth);
+                this.pendingWrites.release(this.queueDepth);
+            }
+            catch(final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new TileStoreException(ex);
+            }
+        }
+
+        final List<TileStoreException> writeFailures = new ArrayList<>();
+
+        for(TileStoreException failure = this.failures.poll(); failure != null; failure = this.failures.poll())
+        {
+            writeFailures.add(failure);
+        }
+
+        if(!writeFailures.isEmpty())
+        {
+            final TileStoreException exception = new TileStoreException(String.format("%d tile(s) failed to be written. First failure: %s",
+                                                                                       writeFailures.size(),
+                                                                                       writeFailures.get(0).getMessage()),
+                                                                         writeFailures.get(0));
+
+            writeFailures.stream()
+                         .skip(1)
+                         .forEach(exception::addSuppressed);
+
+            throw exception;
+        }
     }
 
     @Override
@@ -160,50 +306,115 @@ public class TmsWriter extends TmsTileStore implements TileStoreWriter
             throw new IllegalArgumentException("Image may not be null");
         }
 
-        final Path tilePath = tmsPath(this.location,
-                                      zoomLevel,
-                                      column).resolve(String.format("%d.%s",
-                                                                    row,
-                                                                    this.imageOutputFormat.getSubType().toLowerCase()));
-        try
+        final Path tilePath = this.createTilePath(column, row, zoomLevel);
+
+        this.write(tilePath, () -> this.writeImage(tilePath, image));
+    }
+
+    private void writeImage(final Path tilePath, final BufferedImage image) throws TileStoreException
+    {
+        final ImageWriter imageWriter = this.imageWriter.get();
+
+        try(final ImageOutputStream fileOutputStream = ImageIO.createImageOutputStream(tilePath.toFile()))
         {
-            final Path parentPath = tilePath.getParent();
+            imageWriter.setOutput(fileOutputStream);
 
-            if(parentPath == null)
+            try
             {
-                throw new IllegalArgumentException(String.format("A parent directory does not exist for the tile z: %d, x: %d, y: %d.", zoomLevel, column, row));
+                imageWriter.write(null, new IIOImage(image, null, null), this.imageWriteOptions);
             }
-
-            // Image will not write unless the directories exist leading to it.
-            if(!parentPath.toFile().exists())
+            catch(final IOException ex)
             {
-                final boolean directoryFound = (new File(parentPath.toString())).mkdirs();
-
-                if(!directoryFound)
+                if(this.imageWriteOptions == null || !this.imageWriteOptions.canWriteCompressed())
                 {
-                    throw new TileStoreException(String.format("Image directory does not exist. Invalid directory: %s", parentPath.toString()));
+                    throw ex;   // If this isn't an issue caused by compression options being set, rethrow the exception
                 }
+
+                imageWriter.write(null, new IIOImage(image, null, null), null);
             }
 
-            try(final ImageOutputStream fileOutputStream = ImageIO.createImageOutputStream(tilePath.toFile()))
-            {
-                this.imageWriter.setOutput(fileOutputStream);
+            fileOutputStream.flush();
+        }
+        catch(final IOException ex)
+        {
+            throw new TileStoreException(ex);
+        }
+    }
 
-                try
-                {
-                    this.imageWriter.write(null, new IIOImage(image, null, null), this.imageWriteOptions);
-                }
-                catch(final IOException ex)
-                {
-                    if(this.imageWriteOptions == null || !this.imageWriteOptions.canWriteCompressed())
-                    {
-                        throw ex;   // If this isn't an issue caused by compression options being set, rethrow the exception
-                    }
+    @Override
+    public void addEncodedTile(final CrsCoordinate coordinate, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException
+    {
+        if(coordinate == null)
+        {
+            throw new IllegalArgumentException("Coordinate may not be null");
+        }
+
+        if(!coordinate.getCoordinateReferenceSystem().equals(this.profile.getCoordinateReferenceSystem()))
+        {
+            throw new IllegalArgumentException("Coordinate's coordinate reference system does not match the tile store's coordinate reference system");
+        }
+
+        final Coordinate<Integer> tmsCoordinate = this.crsToTileCoordinate(coordinate, zoomLevel);
+
+        this.addEncodedTile(tmsCoordinate.getX(),
+                            tmsCoordinate.getY(),
+                            zoomLevel,
+                            imageData,
+                            imageFormat);
+    }
+
+    @Override
+    public void addEncodedTile(final int column, final int row, final int zoomLevel, final byte[] imageData, final MimeType imageFormat) throws TileStoreException
+    {
+        if(imageData == null)
+        {
+            throw new IllegalArgumentException("Image data may not be null");
+        }
+
+        if(imageFormat == null || !this.imageOutputFormat.match(imageFormat))
+        {
+            throw new IllegalArgumentException(String.format("Image format '%s' does not match this tile store's output format '%s'",
+                                                             imageFormat,
+                                                             this.imageOutputFormat));
+        }
 
-                    this.imageWriter.write(null, new IIOImage(image, null, null), null);
+        final Path tilePath = this.createTilePath(column, row, zoomLevel);
+
+        this.write(tilePath, () -> { try
+                                     {
+                                         Files.write(tilePath, imageData);
+                                     }
+                                     catch(final IOException ex)
+                                     {
+                                         throw new TileStoreException(ex);
+                                     }
+                                   });
+    }
+
+    @Override
+    public byte[] encodeImage(final BufferedImage image) throws TileStoreException
+    {
+        if(image == null)
+        {
+            throw new IllegalArgumentException("Image may not be null");
+        }
+
+        final ImageWriter imageWriter = this.imageWriter.get();
+
+        try
+        {
+            try
+            {
+                return ImageUtility.bufferedImageToBytes(image, imageWriter, this.imageWriteOptions);
+            }
+            catch(final IOException ex)
+            {
+                if(this.imageWriteOptions == null || !this.imageWriteOptions.canWriteCompressed())
+                {
+                    throw ex;   // If this isn't an issue caused by compression options being set, rethrow the exception
                 }
 
-                fileOutputStream.flush();
+                return ImageUtility.bufferedImageToBytes(image, imageWriter, null);
             }
         }
         catch(final IOException ex)
@@ -212,18 +423,125 @@ public class TmsWriter extends TmsTileStore implements TileStoreWriter
         }
     }
 
+    @Override
+    public MimeType getImageOutputFormat()
+    {
+        return this.imageOutputFormat;
+    }
+
     @Override
     public Set<MimeType> getSupportedImageFormats()
     {
         return TmsWriter.SupportedImageFormats;
     }
 
-    private final MimeType        imageOutputFormat;
-    private final ImageWriter     imageWriter;
-    private final ImageWriteParam imageWriteOptions;
+    /**
+     * Runs a tile write on the calling thread if the writer is synchronous,
+     * otherwise queues it, blocking while the queue is full
+     */
+    private void write(final Path tilePath, final TileWrite tileWrite) throws TileStoreException
+    {
+        if(this.writeExecutor == null)
+        {
+            tileWrite.write();
+            return;
+        }
+
+        try
+        {
+            this.pendingWrites.acquire();
+        }
+        catch(final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new TileStoreException(ex);
+        }
+
+        try
+        {
+            this.writeExecutor.execute(() -> { try
+                                               {
+                                                   tileWrite.write();
+                                               }
+                                               catch(final TileStoreException | RuntimeException ex)
+                                               {
+                                                   this.failures.add(new TileStoreException(String.format("Tile %s could not be written: %s",
+                                                                                                          tilePath,
+                                                                                                          ex.getMessage()),
+                                                                                            ex));
+                                               }
+                                               finally
+                                               {
+                                                   this.pendingWrites.release();
+                                               }
+                                             });
+        }
+        catch(final RejectedExecutionException ex)
+        {
+            this.pendingWrites.release();
+            throw new TileStoreException("Tiles may not be added to a closed tile store", ex);
+        }
+    }
+
+    private Path createTilePath(final int column, final int row, final int zoomLevel) throws TileStoreException
+    {
+        final Path tilePath = tmsPath(this.location,
+                                      zoomLevel,
+                                      column).resolve(String.format("%d.%s",
+                                                                    row,
+                                                                    this.imageOutputFormat.getSubType().toLowerCase()));
+
+        final Path parentPath = tilePath.getParent();
+
+        if(parentPath == null)
+        {
+            throw new IllegalArgumentException(String.format("A parent directory does not exist for the tile z: %d, x: %d, y: %d.", zoomLevel, column, row));
+        }
+
+        // Image will not write unless the directories exist leading to it.
+        // Each zoom/column directory is created once, on the calling thread,
+        // before any of its tiles are queued.
+        if(!this.createdDirectories.contains(parentPath))
+        {
+            try
+            {
+                Files.createDirectories(parentPath);
+            }
+            catch(final IOException ex)
+            {
+                throw new TileStoreException(String.format("Image directory does not exist. Invalid directory: %s", parentPath.toString()), ex);
+            }
+
+            this.createdDirectories.add(parentPath);
+        }
+
+        return tilePath;
+    }
+
+    @FunctionalInterface
+    private interface TileWrite
+    {
+        void write() throws TileStoreException;
+    }
+
+    private final MimeType                 imageOutputFormat;
+    private final ThreadLocal<ImageWriter> imageWriter;
+    private final ImageWriteParam          imageWriteOptions;
+    private final int                      queueDepth;
+    private final Semaphore                pendingWrites;
+    private final ExecutorService          writeExecutor;
+
+    private final Queue<TileStoreException> failures           = new ConcurrentLinkedQueue<>();
+    private final Set<Path>                 createdDirectories = ConcurrentHashMap.newKeySet();
 
     /**
      * Image MimeTypes supported by the TMS tile store
      */
     public static final Set<MimeType> SupportedImageFormats = MimeTypeUtility.createMimeTypeSet(ImageIO.getReaderMIMETypes());
+
+    /**
+     * Suggested maximum number of tiles that may be queued, but not yet
+     * written, by an asynchronous writer
+     */
+    public static final int DefaultQueueDepth = 256;
 }
@@ -42,10 +42,14 @@ import com.rgi.geopackage.tiles.GeoPackageTiles;
 import com.rgi.geopackage.tiles.Tile;
 import com.rgi.geopackage.tiles.TileMatrix;
 import com.rgi.geopackage.tiles.TileMatrixSet;
+import com.rgi.geopackage.tiles.TileOrder;
 import com.rgi.geopackage.tiles.TileSet;
+import com.rgi.geopackage.tiles.TileWriteException;
 import com.rgi.geopackage.verification.ConformanceException;
+import com.rgi.geopackage.verification.VerificationLevel;
 import com.rgi.store.tiles.TileHandle;
 import com.rgi.store.tiles.TileStoreException;
+import com.rgi.store.tiles.TileStoreStatistics;
 import com.rgi.store.tiles.geopackage.GeoPackageReader;
 import com.rgi.store.tiles.geopackage.GeoPackageWriter;
 import org.junit.Test;
@@ -59,6 +63,7 @@ import java.nio.file.FileSystems;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +71,7 @@ import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -225,7 +231,7 @@ public class GeoPackageTileStoreTest
 
     /**
      * Tests if GeoPackageReader Returns the expected
-     * value for getByteSize() of the file
+     * value for getByteSize() of an empty tile set
      */
     @Test
     public void getByteSize() throws SQLException, ClassNotFoundException, ConformanceException, IOException, TileStoreException
@@ -242,7 +248,7 @@ public class GeoPackageTileStoreTest
             try(final GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
             {
                 final long byteSizeReturned = gpkgReader.getByteSize();
-                final long byteSizeExpected = testFile.getTotalSpace();
+                final long byteSizeExpected = 0;
 
                 assertEquals(String.format("The GeoPackage Reader did not return the expected value. \nExpected: %d Actual: %d",
                                                   byteSizeReturned,
@@ -255,6 +261,54 @@ public class GeoPackageTileStoreTest
         }
     }
 
+    /**
+     * Tests if GeoPackageReader returns the expected
+     * counts, sizes and extents from getStatistics()
+     */
+    @Test
+    public void getStatistics() throws SQLException, ClassNotFoundException, ConformanceException, IOException, TileStoreException
+    {
+        final File testFile = this.getRandomFile(8);
+
+        try(final GeoPackage gpkg = new GeoPackage(testFile, GeoPackage.OpenMode.Create))
+        {
+            final BoundingBox bBox = new BoundingBox(0.0,0.0,180.0,180.0);
+
+            final TileMatrix tileMatrix = GeoPackageTileStoreTest.createTileSetAndTileMatrix(gpkg, bBox, 2, 3, 3);
+            final TileSet    tileSet    = gpkg.tiles().getTileSet(tileMatrix.getTableName());
+
+            final byte[] image1 = createImageBytes(BufferedImage.TYPE_3BYTE_BGR);
+            final byte[] image2 = createImageBytes(BufferedImage.TYPE_BYTE_GRAY);
+
+            gpkg.tiles().addTile(tileSet, tileMatrix, 0, 1, image1);
+            gpkg.tiles().addTile(tileSet, tileMatrix, 2, 2, image2);
+
+            try(final GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tileSet.getTableName()))
+            {
+                final TileStoreStatistics statistics = gpkgReader.getStatistics();
+
+                assertEquals("Unexpected tile count", 2, statistics.getTileCount());
+                assertEquals("Unexpected byte size", image1.length + image2.length, statistics.getByteSize());
+                assertEquals("Unexpected average tile byte size", (image1.length + image2.length) / 2.0, statistics.getAverageTileByteSize(), 0.0);
+                assertEquals("Unexpected byte size", statistics.getByteSize(), gpkgReader.getByteSize());
+                assertEquals("Unexpected zoom levels", Collections.singleton(2), statistics.getZoomLevels());
+
+                final TileStoreStatistics.ZoomLevelStatistics zoomLevelStatistics = statistics.getZoomLevelStatistics(2);
+
+                assertEquals("Unexpected zoom level tile count", 2, zoomLevelStatistics.getTileCount());
+                assertEquals("Unexpected minimum column", 0, zoomLevelStatistics.getColumnRange().getMinimum().intValue());
+                assertEquals("Unexpected maximum column", 2, zoomLevelStatistics.getColumnRange().getMaximum().intValue());
+                assertEquals("Unexpected minimum row",    1, zoomLevelStatistics.getRowRange().getMinimum().intValue());
+                assertEquals("Unexpected maximum row",    2, zoomLevelStatistics.getRowRange().getMaximum().intValue());
+                assertNull("Expected no statistics for an empty zoom level", statistics.getZoomLevelStatistics(1));
+            }
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
     @Test
     public void getImage() throws ClassNotFoundException, SQLException, ConformanceException, IOException, TileStoreException
     {
@@ -322,6 +376,52 @@ public class GeoPackageTileStoreTest
         }
     }
 
+    /**
+     * Tests that a GeoPackageReader with a tile cache returns the same tiles
+     * on repeated requests, and counts cache hits and misses
+     */
+    @Test
+    public void getTileCached() throws ClassNotFoundException, SQLException, ConformanceException, IOException, TileStoreException
+    {
+        final File testFile = this.getRandomFile(8);
+
+        try(final GeoPackage gpkg = new GeoPackage(testFile, GeoPackage.OpenMode.Create))
+        {
+            final BoundingBox bBox = new BoundingBox(0.0, 0.0, 180.0, 180.0);
+            final int zoomLevel    = 2;
+
+            final TileMatrix tileMatrix = GeoPackageTileStoreTest.createTileSetAndTileMatrix(gpkg,  bBox, zoomLevel, 3, 3);
+            final TileSet    tileSet    = gpkg.tiles().getTileSet(tileMatrix.getTableName());
+
+            final Tile tileExpected = gpkg.tiles().addTile(tileSet, tileMatrix, 0, 0, createImageBytes(BufferedImage.TYPE_4BYTE_ABGR));
+
+            try(final GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tileSet.getTableName(), VerificationLevel.Fast, 1024 * 1024))
+            {
+                for(int request = 0; request < 3; ++request)
+                {
+                    assertArrayEquals("The tile image data returned from a cached GeoPackage reader wasn't the same as the one given.",
+                                      tileExpected.getImageData(),
+                                      ImageUtility.bufferedImageToBytes(gpkgReader.getTile(0, 0, zoomLevel), "PNG"));
+                }
+
+                assertNull("A missing tile should be null",
+                           gpkgReader.getTile(1, 1, zoomLevel));
+
+                assertEquals("Wrong number of cache misses",
+                             2,
+                             gpkgReader.getCacheMissCount());
+
+                assertEquals("Wrong number of cache hits",
+                             2,
+                             gpkgReader.getCacheHitCount());
+            }
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
     /**
      * Tests if it will return the correct tile given the
      * crs tile coordinate
@@ -1234,6 +1334,295 @@ public class GeoPackageTileStoreTest
         }
     }
 
+    /**
+     * Tests that encoded tile data passes through a GeoPackage writer and
+     * reader unchanged
+     */
+    @Test
+    public void geopackageWriterAddEncodedTile() throws MimeTypeParseException, TileStoreException, SQLException, IOException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        final String tableName = "tableName";
+
+        final int row       = 0;
+        final int column    = 1;
+        final int zoomLevel = 0;
+
+        final byte[] imageData = createImageBytes(BufferedImage.TYPE_BYTE_GRAY, "png");
+
+        try(final GeoPackageWriter gpkgWriter = new GeoPackageWriter(testFile,
+                                                                     new CoordinateReferenceSystem("EPSG", 4326),
+                                                                     tableName,
+                                                                     "identifier",
+                                                                     "description",
+                                                                     new BoundingBox(0.0,0.0,90.0,90.0),
+                                                                     new ZoomTimesTwo(0, 0, 4, 2),
+                                                                     new MimeType("image/png"),
+                                                                     null))
+        {
+            gpkgWriter.addEncodedTile(column, row, zoomLevel, imageData, new MimeType("image/png"));
+        }
+
+        try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName);
+            Stream<TileHandle> tileHandles = gpkgReader.stream())
+        {
+            final TileHandle tileHandle = tileHandles.findFirst().orElse(null);
+
+            assertNotNull("GeoPackageWriter was unable to add an encoded tile to a GeoPackage", tileHandle);
+
+            assertArrayEquals("GeoPackageWriter did not store the encoded tile data unchanged",
+                              imageData,
+                              tileHandle.getEncodedImage());
+
+            assertTrue("GeoPackageReader did not report the format of the encoded tile data",
+                       tileHandle.getImageFormat().match("image/png"));
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
+    /**
+     * Tests that encoded tile data can be added to an empty GeoPackage by CRS
+     * coordinate, which requires the zoom level's tile matrix to be created
+     * first
+     */
+    @Test
+    public void geopackageWriterAddEncodedTileCrsCoordinate() throws MimeTypeParseException, TileStoreException, SQLException, IOException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        final String tableName = "tableName";
+        final int    zoomLevel = 2;
+
+        final CoordinateReferenceSystem crs       = new CoordinateReferenceSystem("EPSG", 4326);
+        final BoundingBox               bounds    = new BoundingBox(0.0, 0.0, 90.0, 90.0);
+        final CrsCoordinate             upperLeft = new CrsCoordinate(bounds.getMinimumX(), bounds.getMaximumY(), crs);
+        final byte[]                    imageData = createImageBytes(BufferedImage.TYPE_BYTE_GRAY, "png");
+
+        try
+        {
+            try(final GeoPackageWriter gpkgWriter = new GeoPackageWriter(testFile,
+                                                                         crs,
+                                                                         tableName,
+                                                                         "identifier",
+                                                                         "description",
+                                                                         bounds,
+                                                                         new ZoomTimesTwo(0, 4, 1, 1),
+                                                                         new MimeType("image/png"),
+                                                                         null))
+            {
+                gpkgWriter.addEncodedTile(upperLeft, zoomLevel, imageData, new MimeType("image/png"));
+            }
+
+            try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+            {
+                assertEquals("GeoPackageWriter was unable to add an encoded tile by CRS coordinate",
+                             1,
+                             gpkgReader.countTiles());
+
+                assertNotNull("GeoPackageWriter added the encoded tile at the wrong coordinate",
+                              gpkgReader.getTile(0, 0, zoomLevel));
+            }
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
+    /**
+     * Tests that a GeoPackageWriter with batched inserts doesn't commit its
+     * tiles until it's closed
+     */
+    @Test
+    public void geopackageWriterBatchInserts() throws MimeTypeParseException, TileStoreException, SQLException, IOException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        final String tableName = "tableName";
+        final int    zoomLevel = 0;
+
+        final byte[] imageData = createImageBytes(BufferedImage.TYPE_BYTE_GRAY, "png");
+
+        try
+        {
+            try(final GeoPackageWriter gpkgWriter = new GeoPackageWriter(testFile,
+                                                                         new CoordinateReferenceSystem("EPSG", 4326),
+                                                                         tableName,
+                                                                         "identifier",
+                                                                         "description",
+                                                                         new BoundingBox(0.0, 0.0, 90.0, 90.0),
+                                                                         new ZoomTimesTwo(0, 0, 4, 2),
+                                                                         new MimeType("image/png"),
+                                                                         null,
+                                                                         true,
+                                                                         TileOrder.Insertion,
+                                                                         false))
+            {
+                gpkgWriter.addEncodedTile(0, 0, zoomLevel, imageData, new MimeType("image/png"));
+
+                try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+                {
+                    assertEquals("GeoPackageWriter committed a batched tile before it was flushed",
+                                 0,
+                                 gpkgReader.countTiles());
+                }
+
+            }
+
+            try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+            {
+                assertEquals("GeoPackageWriter failed to commit the batched tile when it was closed",
+                             1,
+                             gpkgReader.countTiles());
+            }
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
+    /**
+     * Tests that a GeoPackageWriter with batched inserts commits its tiles
+     * when it's flushed, and that flush() reports the tiles the database
+     * refused
+     */
+    @Test
+    public void geopackageWriterBatchInsertsFlush() throws MimeTypeParseException, TileStoreException, SQLException, IOException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        final String tableName = "tableName";
+        final int    zoomLevel = 0;
+
+        final byte[] imageData = createImageBytes(BufferedImage.TYPE_BYTE_GRAY, "png");
+
+        try
+        {
+            try(final GeoPackageWriter gpkgWriter = new GeoPackageWriter(testFile,
+                                                                         new CoordinateReferenceSystem("EPSG", 4326),
+                                                                         tableName,
+                                                                         "identifier",
+                                                                         "description",
+                                                                         new BoundingBox(0.0, 0.0, 90.0, 90.0),
+                                                                         new ZoomTimesTwo(0, 0, 4, 2),
+                                                                         new MimeType("image/png"),
+                                                                         null,
+                                                                         true,
+                                                                         TileOrder.Insertion,
+                                                                         false))
+            {
+                gpkgWriter.addEncodedTile(0, 0, zoomLevel, imageData, new MimeType("image/png"));
+
+                try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+                {
+                    assertEquals("GeoPackageWriter committed a batched tile before it was flushed",
+                                 0,
+                                 gpkgReader.countTiles());
+                }
+
+                gpkgWriter.flush();
+
+                try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+                {
+                    assertEquals("GeoPackageWriter.flush() failed to commit the batched tile",
+                                 1,
+                                 gpkgReader.countTiles());
+                }
+
+                gpkgWriter.addEncodedTile(1, 0, zoomLevel, imageData, new MimeType("image/png"));
+                gpkgWriter.addEncodedTile(0, 0, zoomLevel, imageData, new MimeType("image/png"));   // Already exists
+
+                try
+                {
+                    gpkgWriter.flush();
+                    fail("Expected GeoPackageWriter.flush() to report the tile that already exists");
+                }
+                catch(final TileStoreException ex)
+                {
+                    assertTrue("GeoPackageWriter.flush() did not report the refused tiles",
+                               ex.getCause() instanceof TileWriteException);
+
+                    assertEquals("GeoPackageWriter.flush() reported the wrong number of refused tiles",
+                                 1,
+                                 ((TileWriteException)ex.getCause()).getRejectedTiles().size());
+                }
+            }
+
+            try(GeoPackageReader gpkgReader = new GeoPackageReader(testFile, tableName))
+            {
+                assertEquals("GeoPackageWriter lost the tile that was batched with a refused tile",
+                             2,
+                             gpkgReader.countTiles());
+            }
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
+    /**
+     * Tests that GeoPackageWriter refuses to reorder tiles unless inserts are
+     * batched
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void geopackageWriterTileOrderWithoutBatchInserts() throws MimeTypeParseException, TileStoreException, SQLException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        try(final GeoPackageWriter ignored = new GeoPackageWriter(testFile,
+                                                                  new CoordinateReferenceSystem("EPSG", 4326),
+                                                                  "tableName",
+                                                                  "identifier",
+                                                                  "description",
+                                                                  new BoundingBox(0.0, 0.0, 90.0, 90.0),
+                                                                  new ZoomTimesTwo(0, 0, 4, 2),
+                                                                  new MimeType("image/png"),
+                                                                  null,
+                                                                  false,
+                                                                  TileOrder.Hilbert,
+                                                                  false))
+        {
+            fail("Expected GeoPackageWriter to throw an IllegalArgumentException when tiles are reordered without batched inserts.");
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
+
+    /**
+     * Tests that GeoPackageWriter rejects encoded tile data in a format other
+     * than its output format
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void addEncodedTileIllegalArgumentException() throws SQLException, MimeTypeParseException, TileStoreException, IOException
+    {
+        final File testFile = this.getRandomFile(6);
+
+        try(final GeoPackageWriter gpkgWriter = new GeoPackageWriter(testFile,
+                                                                     new CoordinateReferenceSystem("EPSG", 4326),
+                                                                     "foo",
+                                                                     "identifier",
+                                                                     "description",
+                                                                     new BoundingBox(0.0,0.0,90.0,90.0),
+                                                                     new ZoomTimesTwo(0, 0, 4, 2),
+                                                                     new MimeType("image/jpeg"),
+                                                                     null))
+        {
+            gpkgWriter.addEncodedTile(0, 0, 0, createImageBytes(BufferedImage.TYPE_BYTE_GRAY, "png"), new MimeType("image/png"));
+            fail("Expected GeoPackageWriter to throw an IllegalArgumentException when the encoded tile's format doesn't match the output format.");
+        }
+        finally
+        {
+            deleteFile(testFile);
+        }
+    }
     /**
      * Tests if GeoPackageWriter will throw an Illegal argumentException when
      * adding a tile with a null value for buffered image
@@ -23,9 +23,16 @@
 
 package tms;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.rgi.store.tiles.TileHandle;
@@ -34,6 +41,7 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import com.rgi.common.BoundingBox;
+import com.rgi.common.Range;
 import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfileFactory;
 import com.rgi.store.tiles.TileStoreException;
@@ -228,4 +236,64 @@ public class TmsReaderTest
             }
         }
     }
+
+    @Test
+    public void verifyStreamBounds() throws TileStoreException
+    {
+        final Path tmsDir = TmsUtility.createTMSFolderMercator(this.tempFolder, 3);
+
+        final CoordinateReferenceSystem crs = new CoordinateReferenceSystem("EPSG", 3857);
+
+        final BoundingBox world         = CrsProfileFactory.create(crs).getBounds();
+        final BoundingBox upperQuadrant = new BoundingBox(world.getCenter().getX(),
+                                                          world.getCenter().getY(),
+                                                          world.getMaximumX(),
+                                                          world.getMaximumY());
+
+        try(final TmsReader reader = new TmsReader(crs, tmsDir))
+        {
+            try(final Stream<TileHandle> stream = reader.stream(upperQuadrant, new Range<>(1, 2)))
+            {
+                final List<TileHandle> tiles = stream.collect(Collectors.toList());
+
+                assertEquals("Expected one tile from zoom level 1 and four from zoom level 2", 1 + 4, tiles.size());
+
+                for(final TileHandle tile : tiles)
+                {
+                    final int half = 1 << (tile.getZoomLevel() - 1);
+
+                    assertTrue("Expected only tiles from the upper right quadrant",
+                               tile.getColumn() >= half && tile.getRow() >= half);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void verifyPersistedIndex() throws TileStoreException, IOException
+    {
+        final Path tmsDir    = TmsUtility.createTMSFolderMercator(this.tempFolder, 3);
+        final Path indexFile = this.tempFolder.newFolder().toPath().resolve("tms.index");
+
+        final CoordinateReferenceSystem crs = new CoordinateReferenceSystem("EPSG", 3857);
+
+        final long tileCount;
+
+        try(final TmsReader reader = new TmsReader(crs, tmsDir, indexFile))
+        {
+            tileCount = reader.countTiles();
+
+            assertEquals(1 + 4 + 16, tileCount);
+        }
+
+        assertTrue("Expected the index to be persisted", Files.isRegularFile(indexFile));
+
+        try(final TmsReader reader = new TmsReader(crs, tmsDir, indexFile))
+        {
+            assertEquals(tileCount, reader.countTiles());
+            assertNotNull(reader.getTile(3, 2, 2));
+            assertNull(reader.getTile(4, 2, 2));
+            assertEquals("png", reader.getImageType());
+        }
+    }
 }
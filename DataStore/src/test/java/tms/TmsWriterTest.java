@@ -31,6 +31,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import javax.activation.MimeType;
@@ -127,6 +128,73 @@ public class TmsWriterTest
         }
     }
 
+    @Test
+    public void verifyAsynchronousTileInsertion() throws TileStoreException, MimeTypeParseException
+    {
+        final Path tmsDir = TmsUtility.createTMSFolderMercator(this.tempFolder, 1);
+
+        final int zoomLevel = 3;
+
+        final CoordinateReferenceSystem coordinateReferenceSystem = new CoordinateReferenceSystem("EPSG", 3857);
+
+        try(final TmsWriter tmsWriter = new TmsWriter(coordinateReferenceSystem,
+                                                      tmsDir,
+                                                      new MimeType("image", "png"),
+                                                      null,
+                                                      4,
+                                                      2))
+        {
+            final BufferedImage img = createImage();
+
+            for(int column = 0; column < 8; ++column)
+            {
+                for(int row = 0; row < 8; ++row)
+                {
+                    tmsWriter.addTile(column, row, zoomLevel, img);
+                }
+            }
+
+            tmsWriter.flush();
+
+            for(int column = 0; column < 8; ++column)
+            {
+                for(int row = 0; row < 8; ++row)
+                {
+                    assertTrue(tmsDir.resolve(Integer.toString(zoomLevel))
+                                     .resolve(Integer.toString(column))
+                                     .resolve(Integer.toString(row) + ".png")
+                                     .toFile()
+                                     .exists());
+                }
+            }
+        }
+    }
+
+    @Test(expected = TileStoreException.class)
+    public void verifyAsynchronousFailureReported() throws TileStoreException, MimeTypeParseException, IOException
+    {
+        final Path tmsDir = TmsUtility.createTMSFolderMercator(this.tempFolder, 1);
+
+        // A directory where the tile's file should be makes the write fail
+        Files.createDirectories(tmsDir.resolve("3").resolve("0").resolve("0.png"));
+
+        final TmsWriter tmsWriter = new TmsWriter(new CoordinateReferenceSystem("EPSG", 3857),
+                                                  tmsDir,
+                                                  new MimeType("image", "png"),
+                                                  null,
+                                                  2,
+                                                  2);
+        try
+        {
+            tmsWriter.addTile(0, 0, 3, createImage());
+            tmsWriter.flush();
+        }
+        finally
+        {
+            tmsWriter.close();
+        }
+    }
+
     @Test
     public void verifyTileInsertion2() throws TileStoreException, MimeTypeParseException
     {
@@ -31,35 +31,43 @@ import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfile;
 import com.rgi.common.coordinate.referencesystem.profile.CrsProfileFactory;
+import com.rgi.common.tile.TileKey;
+import com.rgi.common.tile.TileKeyMap;
 import com.rgi.common.tile.TileOrigin;
 import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.tile.scheme.TileScheme;
 import com.rgi.common.tile.scheme.ZoomTimesTwo;
+import com.rgi.common.util.BoundsUtility;
 import com.rgi.common.util.FileUtility;
 import com.rgi.store.tiles.TileHandle;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreReader;
+import com.rgi.store.tiles.TileStoreStatistics;
 import org.gdal.gdal.Dataset;
 import utility.GdalUtility;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
-import javax.imageio.ImageIO;
-import javax.imageio.stream.ImageOutputStream;
 import javax.naming.OperationNotSupportedException;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
-import java.awt.image.RenderedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -67,6 +75,15 @@ import java.util.zip.DataFormatException;
 
 /**
  * TileStoreReader implementation for GDAL-readable image files
+ * <br>
+ * <br>
+ * Base (maximum zoom) tiles are read from the raw image by a pool of worker
+ * threads, each with its own GDAL {@link Dataset}.  The base zoom level is
+ * split into square blocks of neighboring tiles, and blocks are rendered
+ * a few at a time ahead of the tiles being requested.  Overview tiles are
+ * built as soon as all of their children are ready.  Rendered tiles wait in
+ * a memory-budgeted {@link TileImageCache} until they've been requested, and
+ * used to build their parent.
  *
  * @author Steven D. Lander
  * @author Luke D. Lambert
@@ -123,18 +140,110 @@ public class RawImageTileReader implements TileStoreReader
                               final CoordinateReferenceSystem coordinateReferenceSystem) throws TileStoreException
     {
         this(rawImage,
-             GdalUtility.open(rawImage, coordinateReferenceSystem),
              tileSize,
              noDataColor,
-             coordinateReferenceSystem);
+             coordinateReferenceSystem,
+             DefaultWorkerCount);
     }
 
+    /**
+     * Constructor
+     *
+     * @param rawImage
+     *             A raster image {@link File}
+     * @param tileSize
+     *             A {@link Dimensions} that describes what an individual tile
+     *             looks like
+     * @param noDataColor
+     *             The {@link Color} of the NODATA fields within the raster image
+     * @param coordinateReferenceSystem
+     *             The {@link CoordinateReferenceSystem} the tiles should be
+     *             output in
+     * @param workerCount
+     *             The number of threads used to read base tiles from the
+     *             raster image
+     * @throws TileStoreException
+     *             Thrown when GDAL could not get the correct
+     *             {@link CoordinateReferenceSystem} of the input raster OR if
+     *             the raw image could not be loaded as a {@link Dataset}
+     */
+    public RawImageTileReader(final File                      rawImage,
+                              final Dimensions<Integer>       tileSize,
+                              final Color                     noDataColor,
+                              final CoordinateReferenceSystem coordinateReferenceSystem,
+                              final int                       workerCount) throws TileStoreException
+    {
+        this(rawImage,
+             GdalUtility.open(rawImage, coordinateReferenceSystem),
+             tileSize,
+             noDataColor,
+             coordinateReferenceSystem,
+             workerCount);
+    }
 
+    /**
+     * Constructor
+     *
+     * @param rawImage
+     *             A raster image {@link File}
+     * @param dataset
+     *             The opened {@link Dataset} of the raster image
+     * @param tileSize
+     *             A {@link Dimensions} that describes what an individual tile
+     *             looks like
+     * @param noDataColor
+     *             The {@link Color} of the NODATA fields within the raster image
+     * @param coordinateReferenceSystem
+     *             The {@link CoordinateReferenceSystem} the tiles should be
+     *             output in
+     * @throws TileStoreException
+     *             Thrown when GDAL could not get the correct
+     *             {@link CoordinateReferenceSystem} of the input raster
+     */
     public RawImageTileReader(final File                      rawImage,
                               final Dataset                   dataset,
                               final Dimensions<Integer>       tileSize,
                               final Color                     noDataColor,
                               final CoordinateReferenceSystem coordinateReferenceSystem) throws TileStoreException
+    {
+        this(rawImage,
+             dataset,
+             tileSize,
+             noDataColor,
+             coordinateReferenceSystem,
+             DefaultWorkerCount);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param rawImage
+     *             A raster image {@link File}
+     * @param dataset
+     *             The opened {@link Dataset} of the raster image.  Worker
+     *             threads read from their own copies of this dataset (see
+     *             {@link GdalUtility#reopen(Dataset)}).
+     * @param tileSize
+     *             A {@link Dimensions} that describes what an individual tile
+     *             looks like
+     * @param noDataColor
+     *             The {@link Color} of the NODATA fields within the raster image
+     * @param coordinateReferenceSystem
+     *             The {@link CoordinateReferenceSystem} the tiles should be
+     *             output in
+     * @param workerCount
+     *             The number of threads used to read base tiles from the
+     *             raster image
+     * @throws TileStoreException
+     *             Thrown when GDAL could not get the correct
+     *             {@link CoordinateReferenceSystem} of the input raster
+     */
+    public RawImageTileReader(final File                      rawImage,
+                              final Dataset                   dataset,
+                              final Dimensions<Integer>       tileSize,
+                              final Color                     noDataColor,
+                              final CoordinateReferenceSystem coordinateReferenceSystem,
+                              final int                       workerCount) throws TileStoreException
     {
         if(rawImage == null || !rawImage.canRead())
         {
@@ -146,14 +255,24 @@ public class RawImageTileReader implements TileStoreReader
             throw new IllegalArgumentException("Tile size may not be null.");
         }
 
-        this.rawImage = rawImage;
-        this.tileSize = tileSize;
+        if(workerCount < 1)
+        {
+            throw new IllegalArgumentException("Worker count must be greater than 0.");
+        }
+
+        this.rawImage    = rawImage;
+        this.tileSize    = tileSize;
+        this.workerCount = workerCount;
 
         // TODO check noDataColor for null when the feature is implemented
         // this.noDataColor = noDataColor;
 
         this.dataset = dataset;
 
+        this.workerDatasets = new ConcurrentLinkedQueue<>();
+        this.workerDataset  = ThreadLocal.withInitial(this::openWorkerDataset);
+        this.tileCache      = new TileImageCache(tileSize, DefaultCacheByteSize);
+
         try
         {
             if(this.dataset.GetRasterCount() == 0)
@@ -219,20 +338,38 @@ public class RawImageTileReader implements TileStoreReader
                                                                  (range.getMinimum().getY() - range.getMaximum().getY() + 1);
                                                     })
                                       .sum();
+
+            // Tiles are rendered on request, so their encoded sizes can't be
+            // known in advance
+            this.statistics = new TileStoreStatistics(IntStream.rangeClosed(minimumZoom, maximumZoom)
+                                                               .mapToObj(zoomLevel -> { final Range<Coordinate<Integer>> range = this.tileRanges.get(zoomLevel);
+
+                                                                                        final int minimumRow = Math.min(range.getMinimum().getY(), range.getMaximum().getY());
+                                                                                        final int maximumRow = Math.max(range.getMinimum().getY(), range.getMaximum().getY());
+
+                                                                                        return new TileStoreStatistics.ZoomLevelStatistics(zoomLevel,
+                                                                                                                                           (long)(range.getMaximum().getX() - range.getMinimum().getX() + 1) * (maximumRow - minimumRow + 1),
+                                                                                                                                           TileStoreStatistics.UnknownByteSize,
+                                                                                                                                           new Range<>(range.getMinimum().getX(), range.getMaximum().getX()),
+                                                                                                                                           new Range<>(minimumRow, maximumRow));
+                                                                                      })
+                                                               .collect(Collectors.toList()));
         }
         catch(final DataFormatException dfe)
         {
             this.close();
             throw new TileStoreException(dfe);
         }
-
-        this.cachedTiles = new HashMap<>();
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public final void close() throws TileStoreException
     {
+        // Workers have to finish with their copies of the dataset before the
+        // dataset's files can be removed
+        this.stopRendering();
+
         // Remove temporary reprojected file
         if(this.dataset != null)
         {
@@ -253,27 +390,14 @@ public class RawImageTileReader implements TileStoreReader
                 }
             }
         }
-        // Remove final temporary cached tile(s)
+        // Remove final cached tile(s), and any that were moved to disk
         try
         {
-            this.cachedTiles.values().stream().forEach(tile -> {
-                                                                   try
-                                                                   {
-                                                                       Files.delete(tile);
-                                                                   }
-                                                                   catch (final IOException e)
-                                                                   {
-                                                                       // Break the stream if a tile cannot
-                                                                       // be deleted
-                                                                       //noinspection ThrowCaughtLocally
-                                                                       throw new RuntimeException(e);
-                                                                   }
-                                                               });
+            this.tileCache.close();
         }
-        catch(final RuntimeException e)
+        catch(final IOException ex)
         {
-            // Catch the exception when a tile cannot be deleted and throw a new TileStoreException
-            throw new TileStoreException(e);
+            throw new TileStoreException(ex);
         }
     }
 
@@ -295,6 +419,12 @@ public class RawImageTileReader implements TileStoreReader
         return this.rawImage.length();
     }
 
+    @Override
+    public TileStoreStatistics getStatistics()
+    {
+        return this.statistics;
+    }
+
     @Override
     public BufferedImage getTile(final int column, final int row, final int zoomLevel) throws TileStoreException
     {
@@ -317,97 +447,247 @@ public class RawImageTileReader implements TileStoreReader
     @Override
     public Stream<TileHandle> stream() throws TileStoreException
     {
-        final List<TileHandle> tileHandles = new ArrayList<>();
+        // The tile handles are sorted so that they decrement.  This ensures
+        // all base level tiles are requested before the overview tiles
+        return this.getTilePyramid().stream().map(TileHandle.class::cast);
+    }
 
-        final Range<Integer> zoomRange = new Range<>(this.zoomLevels, Integer::compare);
+    private boolean tileIntersectsData(final int zoom, final int column, final int row)
+    {
+        final Range<Coordinate<Integer>> zoomRange = this.tileRanges.get(zoom);
 
-        // Should always start with the lowest-integer-zoom-level that has only one tile
-        final Range<Coordinate<Integer>> zoomInfo = this.tileRanges.get(zoomRange.getMinimum());
+        return column >= zoomRange.getMinimum().getX() &&
+               column <= zoomRange.getMaximum().getX() &&
+               row    >= zoomRange.getMaximum().getY() &&
+               row    <= zoomRange.getMinimum().getY();
+    }
 
-        // Get the coordinate information
-        final Coordinate<Integer> topLeftCoordinate     = zoomInfo.getMinimum();
-        final Coordinate<Integer> bottomRightCoordinate = zoomInfo.getMaximum();
+    private synchronized List<RawImageTileHandle> getTilePyramid() throws TileStoreException
+    {
+        if(this.tilePyramid == null)
+        {
+            final List<RawImageTileHandle> tileHandles = new ArrayList<>();
 
-        // Parse each coordinate into min/max tiles for X/Y
-        final int zoomMinXTile =     topLeftCoordinate.getX();
-        final int zoomMaxXTile = bottomRightCoordinate.getX();
-        final int zoomMinYTile = bottomRightCoordinate.getY();
-        final int zoomMaxYTile =     topLeftCoordinate.getY();
+            final Range<Integer> zoomRange = new Range<>(this.zoomLevels, Integer::compare);
 
-        //Make tiles for each tile at the min zoom level
-        for(int x = zoomMinXTile; x <= zoomMaxXTile; x++)
-        {
-            for (int y = zoomMinYTile; y <= zoomMaxYTile; y++)
+            // Should always start with the lowest-integer-zoom-level that has only one tile
+            final Range<Coordinate<Integer>> zoomInfo = this.tileRanges.get(zoomRange.getMinimum());
+
+            // Get the coordinate information
+            final Coordinate<Integer> topLeftCoordinate     = zoomInfo.getMinimum();
+            final Coordinate<Integer> bottomRightCoordinate = zoomInfo.getMaximum();
+
+            // Parse each coordinate into min/max tiles for X/Y
+            final int zoomMinXTile =     topLeftCoordinate.getX();
+            final int zoomMaxXTile = bottomRightCoordinate.getX();
+            final int zoomMinYTile = bottomRightCoordinate.getY();
+            final int zoomMaxYTile =     topLeftCoordinate.getY();
+
+            //Make tiles for each tile at the min zoom level
+            for(int x = zoomMinXTile; x <= zoomMaxXTile; x++)
             {
-                this.makeTiles(tileHandles, new RawImageTileReader.RawImageTileHandle(zoomRange.getMinimum(), x, y), zoomRange.getMaximum());
+                for (int y = zoomMinYTile; y <= zoomMaxYTile; y++)
+                {
+                    this.makeTiles(tileHandles, null, zoomRange.getMinimum(), x, y, zoomRange.getMaximum());
+                }
             }
-        }
 
-        // Sort the tile handles so that they decrement.  This ensures all base level tiles
-        // are generated before the overview tiles
-        tileHandles.sort((o1, o2) -> Integer.compare(o2.getZoomLevel(), o1.getZoomLevel()));
-        return tileHandles.stream();
-    }
+            // Sort the tile handles so that they decrement.  This ensures all base level tiles
+            // are generated before the overview tiles
+            tileHandles.sort((o1, o2) -> Integer.compare(o2.getZoomLevel(), o1.getZoomLevel()));
 
-    private boolean tileIntersectsData(final TileHandle tile)
-    {
-        final int zoom   = tile.getZoomLevel();
-        final int column = tile.getColumn();
-        final int row    = tile.getRow();
+            this.tileBlocks = this.makeBlocks(tileHandles, Math.max(zoomRange.getMinimum(), zoomRange.getMaximum() - BLOCK_ZOOM_LEVELS));
 
-        final Range<Coordinate<Integer>> zoomRange = this.tileRanges.get(zoom);
+            this.tilePyramidIndex = new TileKeyMap<>(tileHandles.size());
 
-        return column >= zoomRange.getMinimum().getX() &&
-               column <= zoomRange.getMaximum().getX() &&
-               row    >= zoomRange.getMaximum().getY() &&
-               row    <= zoomRange.getMinimum().getY();
+            for(final RawImageTileHandle tileHandle : tileHandles)
+            {
+                this.tilePyramidIndex.put(tileHandle.key, tileHandle);
+            }
+
+            this.tilePyramid = Collections.unmodifiableList(tileHandles);
+        }
+
+        return this.tilePyramid;
     }
 
-    private void makeTiles(final List<TileHandle> tileHandles, final TileHandle tile, final int maxZoom) throws TileStoreException
+    private void makeTiles(final List<RawImageTileHandle> tileHandles,
+                           final RawImageTileHandle       parent,
+                           final int                      zoomLevel,
+                           final int                      column,
+                           final int                      row,
+                           final int                      maxZoom) throws TileStoreException
     {
-        if(!this.tileIntersectsData(tile))
+        if(!this.tileIntersectsData(zoomLevel, column, row))
         {
             // Do nothing if the tile does not intersect with the data bounding box
             return;
         }
-        if(tile.getZoomLevel() == maxZoom)
+
+        // tell the RawImageTileHandle if this is a special case: a gdalImage
+        final RawImageTileHandle tile = new RawImageTileReader.RawImageTileHandle(zoomLevel,
+                                                                                  column,
+                                                                                  row,
+                                                                                  parent,
+                                                                                  zoomLevel == maxZoom);
+        if(parent != null)
         {
-            // tell the RawImageTileHandle this is a special case: a gdalImage
-            tileHandles.add(new RawImageTileReader.RawImageTileHandle(tile.getZoomLevel(), tile.getColumn(), tile.getRow(), true));
+            parent.addChild(tile);
         }
-        else
+
+        if(zoomLevel < maxZoom)
         {
             // calculate all the tiles below this current one
-            final int zoomBelow       = tile.getZoomLevel() + 1;
+            final int zoomBelow       = zoomLevel + 1;
             // Shift values instead of multiplying by 2 for possible performance improvement
-            final int zoomColumnBelow = tile.getColumn() << 1;
-            final int zoomRowBelow    = tile.getRow() << 1;
-
-            // create handles for below tiles
-            final TileHandle belowOriginTile = new RawImageTileReader.RawImageTileHandle(zoomBelow,
-                                                                         zoomColumnBelow,
-                                                                         zoomRowBelow);
-            final TileHandle belowColumnShiftedTile = new RawImageTileReader.RawImageTileHandle(zoomBelow,
-                                                                         zoomColumnBelow + 1,
-                                                                         zoomRowBelow);
-            final TileHandle belowRowShiftedTile = new RawImageTileReader.RawImageTileHandle(zoomBelow,
-                                                                         zoomColumnBelow,
-                                                                         zoomRowBelow + 1);
-            final TileHandle belowBothShiftedTile = new RawImageTileReader.RawImageTileHandle(zoomBelow,
-                                                                         zoomColumnBelow + 1,
-                                                                         zoomRowBelow + 1);
+            final int zoomColumnBelow = column << 1;
+            final int zoomRowBelow    = row << 1;
 
             // recurse
-            this.makeTiles(tileHandles, belowOriginTile, maxZoom);
-            this.makeTiles(tileHandles, belowColumnShiftedTile, maxZoom);
-            this.makeTiles(tileHandles, belowRowShiftedTile, maxZoom);
-            this.makeTiles(tileHandles, belowBothShiftedTile, maxZoom);
+            this.makeTiles(tileHandles, tile, zoomBelow, zoomColumnBelow,     zoomRowBelow,     maxZoom);
+            this.makeTiles(tileHandles, tile, zoomBelow, zoomColumnBelow + 1, zoomRowBelow,     maxZoom);
+            this.makeTiles(tileHandles, tile, zoomBelow, zoomColumnBelow,     zoomRowBelow + 1, maxZoom);
+            this.makeTiles(tileHandles, tile, zoomBelow, zoomColumnBelow + 1, zoomRowBelow + 1, maxZoom);
+        }
+
+        // finally, add this current tile
+        tileHandles.add(tile);
+    }
+
+    /**
+     * Groups the base tiles into blocks that share an ancestor at {@code
+     * blockZoom}.  Tile handles must be sorted so that children come before
+     * their parents.
+     */
+    private List<TileBlock> makeBlocks(final List<RawImageTileHandle> tileHandles, final int blockZoom)
+    {
+        final List<TileBlock> blocks = new ArrayList<>();
+
+        TileBlock          block     = null;
+        RawImageTileHandle blockRoot = null;
+
+        for(final RawImageTileHandle tile : tileHandles)
+        {
+            if(tile.gdalImage)
+            {
+                RawImageTileHandle ancestor = tile;
+
+                while(ancestor.zoomLevel > blockZoom)
+                {
+                    ancestor = ancestor.parent;
+                }
+
+                // Base tiles were added depth-first, so tiles sharing an
+                // ancestor are next to each other
+                if(ancestor != blockRoot)
+                {
+                    blockRoot = ancestor;
+                    block     = new TileBlock(blocks.size());
+                    blocks.add(block);
+                }
+
+                block.add(tile);
+            }
+
+            // An overview tile can't be built until the last block under it has been
+            if(tile.parent != null)
+            {
+                tile.parent.lastBlock = Math.max(tile.parent.lastBlock, tile.lastBlock);
+            }
+        }
+
+        return blocks;
+    }
+
+    /**
+     * Submits blocks of base tiles to the workers, up to and including {@code
+     * lastBlock}, and then as many more as the look-ahead allows
+     */
+    private synchronized void render(final int lastBlock)
+    {
+        if(this.closed)
+        {
+            return;
+        }
+
+        if(this.renderExecutor == null)
+        {
+            this.renderExecutor = Executors.newFixedThreadPool(this.workerCount,
+                                                               runnable -> { final Thread thread = new Thread(runnable, "RawImageTileReader worker");
+                                                                             thread.setDaemon(true);
+                                                                             return thread;
+                                                                           });
+        }
+
+        final int lookAhead = this.workerCount * BLOCK_LOOK_AHEAD;
+
+        while(this.nextBlock < this.tileBlocks.size() &&
+              (this.nextBlock <= lastBlock || this.blocksInFlight < lookAhead))
+        {
+            this.renderExecutor.execute(this.tileBlocks.get(this.nextBlock)::render);
 
-            // finally, add this current tile
-            tileHandles.add(tile);
+            ++this.nextBlock;
+            ++this.blocksInFlight;
         }
     }
 
+    private synchronized void blockRetrieved()
+    {
+        --this.blocksInFlight;
+        this.render(-1);
+    }
+
+    private void stopRendering() throws TileStoreException
+    {
+        final ExecutorService executor;
+
+        synchronized(this)
+        {
+            this.closed = true;
+            executor    = this.renderExecutor;
+        }
+
+        if(executor != null)
+        {
+            executor.shutdownNow();
+
+            try
+            {
+                // Wait for the tiles in progress
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+            catch(final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new TileStoreException(ex);
+            }
+        }
+
+        this.workerDatasets.forEach(Dataset::delete);
+        this.workerDatasets.clear();
+
+        if(this.tilePyramid != null)
+        {
+            // Anyone still waiting on a tile would otherwise wait forever
+            final TileStoreException closed = new TileStoreException("The tile store reader has been closed.");
+            this.tilePyramid.forEach(tile -> tile.rendered.completeExceptionally(closed));
+        }
+    }
+
+    private Dataset openWorkerDataset()
+    {
+        final Dataset workerDataset;
+
+        // The shared dataset isn't safe to query from several threads at once
+        synchronized(this.dataset)
+        {
+            workerDataset = GdalUtility.reopen(this.dataset);
+        }
+
+        this.workerDatasets.add(workerDataset);
+        return workerDataset;
+    }
+
     @Override
     public Stream<TileHandle> stream(final int zoomLevel) throws TileStoreException
     {
@@ -426,17 +706,88 @@ public class RawImageTileReader implements TileStoreReader
         // Create a tile handle list that we can append to
         final Collection<TileHandle> tileHandles = new ArrayList<>();
 
+        this.getTilePyramid();
+
         for(int tileY = zoomMaxYTile; tileY >= zoomMinYTile; --tileY)
         {
             for(int tileX = zoomMinXTile; tileX <= zoomMaxXTile; ++tileX)
             {
-                tileHandles.add(new RawImageTileReader.RawImageTileHandle(zoomLevel, tileX, tileY));
+                // Hand out the pyramid's handles so that images come from the same rendering
+                final RawImageTileHandle tileHandle = this.tilePyramidIndex.get(TileKey.pack(zoomLevel, tileX, tileY));
+
+                if(tileHandle != null)
+                {
+                    tileHandles.add(tileHandle);
+                }
             }
         }
         // Return the entire tile handle list as a stream
         return tileHandles.stream();
     }
 
+    @Override
+    public Stream<TileHandle> stream(final BoundingBox bounds, final Range<Integer> zoomLevels) throws TileStoreException
+    {
+        if(bounds == null)
+        {
+            throw new IllegalArgumentException("Bounds may not be null");
+        }
+
+        if(zoomLevels == null)
+        {
+            throw new IllegalArgumentException("Zoom level range may not be null");
+        }
+
+        final Collection<TileHandle> tileHandles = new ArrayList<>();
+
+        this.getTilePyramid();
+
+        // Highest zoom level first, in keeping with stream(), so that base
+        // level tiles are requested before the overview tiles built from them
+        final int[] requestedZoomLevels = this.zoomLevels
+                                              .stream()
+                                              .filter(zoomLevel -> zoomLevel >= zoomLevels.getMinimum() &&
+                                                                   zoomLevel <= zoomLevels.getMaximum())
+                                              .sorted(Comparator.reverseOrder())
+                                              .mapToInt(Integer::intValue)
+                                              .toArray();
+
+        for(final int zoomLevel : requestedZoomLevels)
+        {
+            final Range<Coordinate<Integer>> areaRange = BoundsUtility.tileRange(bounds,
+                                                                                 this.profile.getBounds(),
+                                                                                 this.tileScheme.dimensions(zoomLevel),
+                                                                                 RawImageTileReader.Origin);
+            if(areaRange == null)
+            {
+                continue;
+            }
+
+            // The tile ranges run from the top left to the bottom right tile
+            final Range<Coordinate<Integer>> dataRange = this.tileRanges.get(zoomLevel);
+
+            final int minimumColumn = Math.max(areaRange.getMinimum().getX(), dataRange.getMinimum().getX());
+            final int maximumColumn = Math.min(areaRange.getMaximum().getX(), dataRange.getMaximum().getX());
+            final int minimumRow    = Math.max(areaRange.getMinimum().getY(), dataRange.getMaximum().getY());
+            final int maximumRow    = Math.min(areaRange.getMaximum().getY(), dataRange.getMinimum().getY());
+
+            for(int row = maximumRow; row >= minimumRow; --row)
+            {
+                for(int column = minimumColumn; column <= maximumColumn; ++column)
+                {
+                    final RawImageTileHandle tileHandle = this.tilePyramidIndex.get(TileKey.pack(zoomLevel, column, row));
+
+                    if(tileHandle != null)
+                    {
+                        tileHandles.add(tileHandle);
+                    }
+                }
+            }
+        }
+
+        return tileHandles.stream();
+    }
+
     @Override
     public CoordinateReferenceSystem getCoordinateReferenceSystem()
     {
@@ -492,47 +843,40 @@ public class RawImageTileReader implements TileStoreReader
     {
         private final TileMatrixDimensions matrix;
 
-        private boolean gotImage;
-        private boolean gdalImage;
-        private Path cachedImageLocation;
-        private BufferedImage image;
+        private final boolean            gdalImage;
+        private final RawImageTileHandle parent;
 
-        private final int zoomLevel;
-        private final int column;
-        private final int row;
+        private final List<RawImageTileHandle> children        = new ArrayList<>(4);
+        private final AtomicInteger            pendingChildren = new AtomicInteger();
+        private final AtomicInteger            references;
+        private final AtomicBoolean            retrieved       = new AtomicBoolean();
+        private final CompletableFuture<Void>  rendered        = new CompletableFuture<>();
 
-        RawImageTileHandle(final int zoom,
-                           final int column,
-                           final int row) throws TileStoreException
-        {
-            this.zoomLevel = zoom;
-            this.column    = column;
-            this.row       = row;
-            this.matrix    = RawImageTileReader.this.getTileScheme().dimensions(this.zoomLevel);
-        }
+        private TileBlock block;
+        private int       lastBlock = -1;
 
-        RawImageTileHandle(final int zoom,
-                           final int column,
-                           final int row,
-                           final Path cachedImageLocation) throws TileStoreException
-        {
-            this.zoomLevel           = zoom;
-            this.column              = column;
-            this.row                 = row;
-            this.matrix              = RawImageTileReader.this.getTileScheme().dimensions(this.zoomLevel);
-            this.cachedImageLocation = cachedImageLocation;
-        }
+        private final int  zoomLevel;
+        private final int  column;
+        private final int  row;
+        private final long key;
 
-        RawImageTileHandle(final int zoom,
-                           final int column,
-                           final int row,
-                           final boolean gdalImage) throws TileStoreException
+        RawImageTileHandle(final int                zoom,
+                           final int                column,
+                           final int                row,
+                           final RawImageTileHandle parent,
+                           final boolean            gdalImage) throws TileStoreException
         {
             this.zoomLevel = zoom;
             this.column    = column;
             this.row       = row;
+            this.key       = TileKey.pack(zoom, column, row);
             this.matrix    = RawImageTileReader.this.getTileScheme().dimensions(this.zoomLevel);
+            this.parent    = parent;
             this.gdalImage = gdalImage;
+
+            // The image is needed once by whoever requests it, and once more
+            // to build the parent tile
+            this.references = new AtomicInteger(parent == null ? 1 : 2);
         }
 
         @Override
@@ -553,11 +897,6 @@ public class RawImageTileReader implements TileStoreReader
             return this.row;
         }
 
-        public Path getCachedImagePath()
-        {
-            return this.cachedImageLocation;
-        }
-
         @Override
         public TileMatrixDimensions getMatrix() throws TileStoreException
         {
@@ -590,99 +929,190 @@ public class RawImageTileReader implements TileStoreReader
                                                                this.matrix);
         }
 
+        /**
+         * Waits for this tile to be rendered by the reader's workers.  A
+         * tile's image is only kept until it's been retrieved, and used to
+         * build its parent.
+         */
         @Override
         public BufferedImage getImage() throws TileStoreException
         {
-            if(this.gotImage)
+            RawImageTileReader.this.render(this.lastBlock);
+
+            try
             {
-                return this.image;
+                this.rendered.get();
+                return this.readImage();
             }
-
-            if(this.gdalImage)
+            catch(final ExecutionException ex)
             {
-                // Build the parameters for GDAL read raster call
-                final GdalUtility.GdalRasterParameters params = GdalUtility.getGdalRasterParameters(RawImageTileReader.this.dataset.GetGeoTransform(),
-                                                                                                    this.getBounds(),
-                                                                                                    RawImageTileReader.this.tileSize,
-                                                                                                    RawImageTileReader.this.dataset);
-                try
+                if(ex.getCause() instanceof TileStoreException)
                 {
-                    // Read image data directly from the raster
-                    final byte[] imageData = GdalUtility.readRaster(params,
-                                                                    RawImageTileReader.this.dataset);
+                    throw (TileStoreException)ex.getCause();
+                }
 
-                    // TODO: logic goes here in the case that the querysize == tile size (gdalconstConstants.GRA_NearestNeighbour) (write directly)
-                    final Dataset querySizeImageCanvas = GdalUtility.writeRaster(params,
-                                                                                 imageData,
-                                                                                 RawImageTileReader.this.dataset.GetRasterCount());
+                throw new TileStoreException(ex.getCause());
+            }
+            catch(final InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new TileStoreException(ex);
+            }
+            finally
+            {
+                if(this.retrieved.compareAndSet(false, true))
+                {
+                    this.release();
 
-                    try
+                    if(this.block != null)
                     {
-                        // Scale each band of tileDataInMemory down to the tile size (down from the query size)
-                        final Dataset tileDataInMemory = GdalUtility.scaleQueryToTileSize(querySizeImageCanvas,
-                                                                                          RawImageTileReader.this.tileSize);
+                        this.block.tileRetrieved();
+                    }
+                }
+            }
+        }
 
-                        this.image = GdalUtility.convert(tileDataInMemory);
+        @Override
+        public byte[] getEncodedImage()
+        {
+            return null;    // Tiles are rendered from the raw image; there's no encoded form to copy
+        }
 
-                        // Write this image to disk for later overview generation
-                        final Path baseTilePath = this.writeTempTile(this.image);
+        @Override
+        public MimeType getImageFormat()
+        {
+            return null;
+        }
 
-                        // Add the image path to the reader map
-                        RawImageTileReader.this.cachedTiles.put(this.tileKey(this.zoomLevel,
-                                                                             this.column,
-                                                                             this.row),
-                                                                baseTilePath);
+        private void addChild(final RawImageTileHandle child)
+        {
+            this.children.add(child);
+            this.pendingChildren.incrementAndGet();
+        }
 
-                        // Clean up dataset
-                        tileDataInMemory.delete();
-                        this.gotImage = true;
+        private BufferedImage readImage() throws TileStoreException
+        {
+            try
+            {
+                final BufferedImage tileImage = RawImageTileReader.this.tileCache.get(this.key);
 
-                        return this.image;
-                    }
-                    catch(final TilingException | IOException ex)
-                    {
-                        throw new TileStoreException(ex);
-                    }
-                    finally
-                    {
-                        querySizeImageCanvas.delete();
-                    }
+                if(tileImage == null)
+                {
+                    throw new TileStoreException(String.format("The image for tile %s is no longer available.", this));
                 }
-                catch(final TilingException ex)
+
+                return tileImage;
+            }
+            catch(final IOException ex)
+            {
+                throw new TileStoreException(ex);
+            }
+        }
+
+        private void release()
+        {
+            if(this.references.decrementAndGet() == 0)
+            {
+                try
                 {
-                    throw new TileStoreException(ex);
+                    RawImageTileReader.this.tileCache.remove(this.key);
                 }
                 catch(final IOException ignored)
                 {
-                    // An IOException is thrown by GdalUtility.readRaster() when the tile boundary
-                    // requested lies outside of the databounding box.  This can sometimes occur
-                    // when using the lowest-integer-zoom tile boundary as the tile-able area. This
-                    // should not happen as the RawImageTileReader.makeTiles() method automatically
-                    // checks if a generated tile does NOT intersect with the reported input raster
-                    // bounding box.
-                    // In this case, if readRaster does indeed throw IOException, just return a
-                    // transparent tile.
-                    this.gotImage = true;
-                    return this.createTransparentImage();
+                    // The tile had been moved to disk, and its file couldn't
+                    // be deleted.  It's in the temp directory, so leave it.
                 }
             }
+        }
 
-            // Make this tile by getting the tiles below it and scaling them to fit
-            return this.generateScaledTileFromChildren();
+        /**
+         * Reads this base tile from the raw image, and then builds its parent
+         * if this was the parent's last outstanding child
+         */
+        private void render(final Dataset dataset)
+        {
+            try
+            {
+                RawImageTileReader.this.tileCache.put(this.key, this.readRaster(dataset));
+                this.rendered.complete(null);
+            }
+            catch(final TileStoreException | IOException | RuntimeException ex)
+            {
+                this.rendered.completeExceptionally(ex);
+            }
+
+            this.renderParent();
         }
 
-        private Path writeTempTile(final RenderedImage tileImage) throws IOException
+        private void fail(final Throwable cause)
         {
-            final Path baseTilePath = File.createTempFile("baseTile" + this.zoomLevel
-                                                                     + this.column
-                                                                     + this.row,
-                                                          ".png")
-                                          .toPath();
-            try(final ImageOutputStream fileOutputStream = ImageIO.createImageOutputStream(baseTilePath.toFile()))
+            this.rendered.completeExceptionally(cause);
+            this.renderParent();
+        }
+
+        private void renderParent()
+        {
+            if(this.parent != null && this.parent.pendingChildren.decrementAndGet() == 0)
             {
-                ImageIO.write(tileImage, "png", baseTilePath.toFile());
+                this.parent.renderFromChildren();
+            }
+        }
+
+        private BufferedImage readRaster(final Dataset dataset) throws TileStoreException
+        {
+            // Build the parameters for GDAL read raster call
+            final GdalUtility.GdalRasterParameters params = GdalUtility.getGdalRasterParameters(dataset.GetGeoTransform(),
+                                                                                                this.getBounds(),
+                                                                                                RawImageTileReader.this.tileSize,
+                                                                                                dataset);
+            try
+            {
+                // Read image data directly from the raster
+                final byte[] imageData = GdalUtility.readRaster(params,
+                                                                dataset);
+
+                // TODO: logic goes here in the case that the querysize == tile size (gdalconstConstants.GRA_NearestNeighbour) (write directly)
+                final Dataset querySizeImageCanvas = GdalUtility.writeRaster(params,
+                                                                             imageData,
+                                                                             dataset.GetRasterCount());
+
+                try
+                {
+                    // Scale each band of tileDataInMemory down to the tile size (down from the query size)
+                    final Dataset tileDataInMemory = GdalUtility.scaleQueryToTileSize(querySizeImageCanvas,
+                                                                                      RawImageTileReader.this.tileSize);
+
+                    try
+                    {
+                        return GdalUtility.convert(tileDataInMemory);
+                    }
+                    finally
+                    {
+                        // Clean up dataset
+                        tileDataInMemory.delete();
+                    }
+                }
+                finally
+                {
+                    querySizeImageCanvas.delete();
+                }
+            }
+            catch(final TilingException ex)
+            {
+                throw new TileStoreException(ex);
+            }
+            catch(final IOException ignored)
+            {
+                // An IOException is thrown by GdalUtility.readRaster() when the tile boundary
+                // requested lies outside of the databounding box.  This can sometimes occur
+                // when using the lowest-integer-zoom tile boundary as the tile-able area. This
+                // should not happen as the RawImageTileReader.makeTiles() method automatically
+                // checks if a generated tile does NOT intersect with the reported input raster
+                // bounding box.
+                // In this case, if readRaster does indeed throw IOException, just return a
+                // transparent tile.
+                return this.createTransparentImage();
             }
-            return baseTilePath;
         }
 
         private BufferedImage createTransparentImage()
@@ -702,7 +1132,33 @@ public class RawImageTileReader implements TileStoreReader
             return transparentImage;
         }
 
-        private BufferedImage generateScaledTileFromChildren() throws TileStoreException
+        /**
+         * Makes this tile by getting the tiles below it and scaling them to
+         * fit.  Called by the worker that finished this tile's last child.
+         */
+        private void renderFromChildren()
+        {
+            try
+            {
+                final BufferedImage scaledTile = this.scaleToTileCanvas(this.generateFullCanvasFromChildren());
+
+                RawImageTileReader.this.tileCache.put(this.key, scaledTile);
+                this.rendered.complete(null);
+            }
+            catch(final TileStoreException | IOException | RuntimeException ex)
+            {
+                this.rendered.completeExceptionally(ex);
+            }
+            finally
+            {
+                // Clean-up step
+                this.children.forEach(RawImageTileHandle::release);
+            }
+
+            this.renderParent();
+        }
+
+        private BufferedImage generateFullCanvasFromChildren() throws TileStoreException
         {
             final int tileWidth  = RawImageTileReader.this.tileSize.getWidth();
             final int tileHeight = RawImageTileReader.this.tileSize.getHeight();
@@ -715,113 +1171,28 @@ public class RawImageTileReader implements TileStoreReader
             // Create the full-sized graphics object
             final Graphics2D fullCanvasGraphics = fullCanvas.createGraphics();
 
-            // Get child handles
-            final List<RawImageTileReader.RawImageTileHandle> children = this.generateTileChildren();
-
-            // Get the cached children of this tile
-            final List<RawImageTileReader.RawImageTileHandle> transformedChildren = children.stream().map(tileHandle ->
-            {
-                final Coordinate<Integer> resultCoordinate = RawImageTileReader.Origin.transform(TileOrigin.UpperLeft,
-                                                                                                 tileHandle.column,
-                                                                                                 tileHandle.row,
-                                                                                                 this.matrix);
-                try
-                {
-                    return new RawImageTileHandle(tileHandle.zoomLevel,
-                                                  resultCoordinate.getX(),
-                                                  resultCoordinate.getY(),
-                                                  tileHandle.cachedImageLocation);
-                } catch(TileStoreException e)
-                {
-                    throw new RuntimeException(e);
-                }
-            })
-            .sorted((final TileHandle o1, final TileHandle o2) -> {
-                final int columnCompare = Integer.compare(o1.getColumn(), o2.getColumn());
-                   final int rowCompare    = Integer.compare(o1.getRow(),    o2.getRow());
-
-                   // column values are the same
-                   if(columnCompare == 0)
-                   {
-                       return rowCompare;
-                   }
-                   if(rowCompare == 0)
-                   {
-                       return columnCompare;
-                   }
-
-               // TODO: Duplicate tile case?
-               return 0;
-            })
-            .collect(Collectors.toList());
-
-            if(transformedChildren.size() == 4)
+            try
             {
-                try
+                for(final RawImageTileHandle child : this.children)
                 {
-                    // Origin tile
-                    if(transformedChildren.get(2).cachedImageLocation != null)
+                    // A child that failed to render is left transparent
+                    if(!child.rendered.isCompletedExceptionally())
                     {
-                        final BufferedImage originImage = ImageIO.read(transformedChildren.get(2).cachedImageLocation.toFile());
-                        fullCanvasGraphics.drawImage(originImage, null, 0, 0);
-                    }
-
-                    // Tile that is Y+1 in relation to the origin
-                    if(transformedChildren.get(0).cachedImageLocation != null)
-                    {
-                        final BufferedImage rowShiftedImage = ImageIO.read(transformedChildren.get(0).cachedImageLocation.toFile());
-                        fullCanvasGraphics.drawImage(rowShiftedImage, null, 0, tileHeight);
-                    }
-
-                    // Tile that is X+1 in relation to the origin
-                    if(transformedChildren.get(3).cachedImageLocation != null)
-                    {
-                        final BufferedImage columnShiftedImage = ImageIO.read(transformedChildren.get(3).cachedImageLocation.toFile());
-                        fullCanvasGraphics.drawImage(columnShiftedImage, null, tileWidth, 0);
-                    }
+                        // Rows are numbered up from the lower left (the tile origin)
+                        // but the canvas is drawn down from the upper left
+                        final int x = (child.column - (this.column << 1))      * tileWidth;
+                        final int y = (1 - (child.row    - (this.row    << 1))) * tileHeight;
 
-                    // Tile that is both X+1 and Y+1 in relation to the origin
-                    if(transformedChildren.get(1).cachedImageLocation != null)
-                    {
-                        final BufferedImage bothShiftedImage = ImageIO.read(transformedChildren.get(1).cachedImageLocation.toFile());
-                        fullCanvasGraphics.drawImage(bothShiftedImage, null, tileWidth, tileHeight);
+                        fullCanvasGraphics.drawImage(child.readImage(), null, x, y);
                     }
                 }
-                catch(final IOException ex)
-                {
-                    throw new TileStoreException(ex);
-                }
-            }
-            else
-            {
-                throw new RuntimeException("Cannot create tile from child tiles.");
-            }
-
-            // Write cached tile
-            try
-            {
-                final BufferedImage scaledTile = this.scaleToTileCanvas(fullCanvas);
-
-                RawImageTileReader.this.cachedTiles.put(this.tileKey(this.zoomLevel, this.column, this.row), this.writeTempTile(scaledTile));
-                return scaledTile;
-            }
-            catch(final IOException ex)
-            {
-                throw new TileStoreException(ex);
             }
             finally
             {
-                // Clean-up step
                 fullCanvasGraphics.dispose();
-                children.stream().filter(Objects::nonNull).forEach(child ->
-                {
-                    if(child.cachedImageLocation != null)
-                    {
-                        child.cachedImageLocation.toFile().delete();
-                    }
-                    RawImageTileReader.this.cachedTiles.remove(this.tileKey(child.zoomLevel, child.column, child.row));
-                });
             }
+
+            return fullCanvas;
         }
 
         private BufferedImage scaleToTileCanvas(final BufferedImage fullCanvas)
@@ -837,37 +1208,74 @@ public class RawImageTileReader implements TileStoreReader
             return scaleOp.filter(fullCanvas, tileCanvas);
         }
 
-        private String tileKey(final int zoom, final int column, final int row)
+        @Override
+        public String toString()
+        {
+            return RawImageTileReader.tileKey(this.zoomLevel, this.column, this.row);
+        }
+    }
+
+    /**
+     * A square block of neighboring base tiles that's read by a single worker
+     */
+    @SuppressWarnings("NonStaticInnerClassInSecureContext")
+    private class TileBlock
+    {
+        TileBlock(final int index)
         {
-            return String.format("%d/%d/%d", zoom, column, row);
+            this.index = index;
         }
 
-        private List<RawImageTileReader.RawImageTileHandle> generateTileChildren() throws TileStoreException
+        private void add(final RawImageTileHandle tile)
         {
-            final int childZoom   = this.zoomLevel + 1;
-            final int childColumn = this.column * 2;
-            final int childRow    = this.row    * 2;
+            tile.block     = this;
+            tile.lastBlock = this.index;
+
+            this.tiles.add(tile);
+            this.unretrievedTiles.incrementAndGet();
+        }
 
-            final Path origin        = RawImageTileReader.this.cachedTiles.get(this.tileKey(childZoom, childColumn,     childRow));
-            final Path columnShifted = RawImageTileReader.this.cachedTiles.get(this.tileKey(childZoom, childColumn + 1, childRow));
-            final Path rowShifted    = RawImageTileReader.this.cachedTiles.get(this.tileKey(childZoom, childColumn,     childRow + 1));
-            final Path bothShifted   = RawImageTileReader.this.cachedTiles.get(this.tileKey(childZoom, childColumn + 1, childRow + 1));
+        private void render()
+        {
+            final Dataset dataset;
 
-            final List<RawImageTileReader.RawImageTileHandle> children = new ArrayList<>();
+            try
+            {
+                dataset = RawImageTileReader.this.workerDataset.get();
+            }
+            catch(final RuntimeException ex)
+            {
+                this.tiles.forEach(tile -> tile.fail(ex));
+                return;
+            }
 
-            children.add(new RawImageTileReader.RawImageTileHandle(childZoom, childColumn,     childRow,     origin));
-            children.add(new RawImageTileReader.RawImageTileHandle(childZoom, childColumn + 1, childRow,     columnShifted));
-            children.add(new RawImageTileReader.RawImageTileHandle(childZoom, childColumn,     childRow + 1, rowShifted));
-            children.add(new RawImageTileReader.RawImageTileHandle(childZoom, childColumn + 1, childRow + 1, bothShifted));
+            for(final RawImageTileHandle tile : this.tiles)
+            {
+                if(Thread.currentThread().isInterrupted())
+                {
+                    return; // The reader is closing
+                }
 
-            return children;
+                tile.render(dataset);
+            }
         }
 
-        @Override
-        public String toString()
+        private void tileRetrieved()
         {
-            return this.tileKey(this.zoomLevel, this.column, this.row);
+            if(this.unretrievedTiles.decrementAndGet() == 0)
+            {
+                RawImageTileReader.this.blockRetrieved();
+            }
         }
+
+        private final int                      index;
+        private final List<RawImageTileHandle> tiles            = new ArrayList<>();
+        private final AtomicInteger            unretrievedTiles = new AtomicInteger();
+    }
+
+    private static String tileKey(final int zoom, final int column, final int row)
+    {
+        return String.format("%d/%d/%d", zoom, column, row);
     }
 
     private CrsCoordinate tileToCrsCoordinate(final int                  column,
@@ -908,10 +1316,35 @@ public class RawImageTileReader implements TileStoreReader
     private final ZoomTimesTwo                             tileScheme;
     private final CrsProfile                               profile;
     private final int                                      tileCount;
+    private final TileStoreStatistics                      statistics;
     private final Map<Integer, Range<Coordinate<Integer>>> tileRanges;
-    private final Map<String, Path>                        cachedTiles;
+    private final int                                      workerCount;
+    private final Queue<Dataset>                           workerDatasets;
+    private final ThreadLocal<Dataset>                     workerDataset;
+    private final TileImageCache                           tileCache;
+
+    private List<RawImageTileHandle>                       tilePyramid;
+    private TileKeyMap<RawImageTileHandle>                 tilePyramidIndex;
+    private List<TileBlock>                                tileBlocks;
+    private ExecutorService                                renderExecutor;
+    private int                                            nextBlock;
+    private int                                            blocksInFlight;
+    private boolean                                        closed;
+
+    /**
+     * Default number of threads that read base tiles from the raw image
+     */
+    public static final int DefaultWorkerCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Default number of bytes of rendered tiles to hold in memory before
+     * moving them to disk
+     */
+    public static final long DefaultCacheByteSize = Runtime.getRuntime().maxMemory() / 4;
 
     private static final int                               MAX_ZOOM_LEVEL = 31;
+    private static final int                               BLOCK_ZOOM_LEVELS = 2;   // Blocks of base tiles are 4x4
+    private static final int                               BLOCK_LOOK_AHEAD = 2;    // Blocks per worker rendered ahead of requests
     private static final double                            AFFINE_SCALE = 0.5;
     private static final String                            NOT_SUPPORTED_MESSAGE = "Call to unsupported method.";
 
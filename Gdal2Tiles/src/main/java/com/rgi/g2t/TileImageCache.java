@@ -0,0 +1,276 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.g2t;
+
+import com.rgi.common.Dimensions;
+import com.rgi.common.tile.TileKey;
+import com.rgi.common.tile.TileKeyMap;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A memory-budgeted cache of tile images, held as raw ARGB pixels.  When the
+ * cache grows past its budget, the oldest entries are spilled to temporary
+ * files (still as raw pixels, so there's no image encoding or decoding).
+ * Entries are keyed by {@link #key(int, int, int)}.
+ * <br>
+ * <br>
+ * All tiles in the cache are expected to be the same size.
+ *
+ * @author Luke Lambert
+ *
+ */
+final class TileImageCache implements AutoCloseable
+{
+    /**
+     * Constructor
+     *
+     * @param tileSize
+     *             Size of each tile image in the cache
+     * @param maximumByteSize
+     *             Number of bytes of pixel data the cache may hold in memory
+     *             before it starts moving tiles to disk
+     */
+    TileImageCache(final Dimensions<Integer> tileSize, final long maximumByteSize)
+    {
+        if(tileSize == null)
+        {
+            throw new IllegalArgumentException("Tile size may not be null");
+        }
+
+        if(maximumByteSize < 0)
+        {
+            throw new IllegalArgumentException("Maximum byte size may not be less than 0");
+        }
+
+        this.width           = tileSize.getWidth();
+        this.height          = tileSize.getHeight();
+        this.maximumByteSize = maximumByteSize;
+    }
+
+    /**
+     * Packs a tile's coordinates into a single cache key
+     *
+     * @param zoomLevel
+     *             Zoom level of the tile, 0 to 31
+     * @param column
+     *             Column of the tile, 0 to 2<sup>29</sup>-1
+     * @param row
+     *             Row of the tile, 0 to 2<sup>29</sup>-1
+     * @return A key that's unique to the tile
+     * @see TileKey#pack(int, int, int)
+     */
+    static long key(final int zoomLevel, final int column, final int row)
+    {
+        return TileKey.pack(zoomLevel, column, row);
+    }
+
+    /**
+     * Adds a tile image to the cache, replacing any image already cached for
+     * that key
+     *
+     * @param key
+     *             Tile key
+     * @param image
+     *             Tile image.  The cache may take ownership of the image's
+     *             pixel data, so the image shouldn't be modified afterwards.
+     * @throws IOException
+     *             if the cache is over budget and the oldest tiles couldn't be
+     *             written to disk
+     */
+    synchronized void put(final long key, final BufferedImage image) throws IOException
+    {
+        if(image == null)
+        {
+            throw new IllegalArgumentException("Image may not be null");
+        }
+
+        if(image.getWidth() != this.width || image.getHeight() != this.height)
+        {
+            throw new IllegalArgumentException("Image dimensions must match the tile size of the cache");
+        }
+
+        this.remove(key);
+
+        final int[] pixels = this.getPixels(image);
+
+        this.memory.put(key, pixels);
+        this.byteSize += pixels.length * (long)Integer.BYTES;
+
+        this.spill();
+    }
+
+    /**
+     * Gets a copy of a cached tile image
+     *
+     * @param key
+     *             Tile key
+     * @return The tile image, or null if the tile isn't in the cache
+     * @throws IOException
+     *             if the tile had been moved to disk, and couldn't be read
+     *             back
+     */
+    BufferedImage get(final long key) throws IOException
+    {
+        final int[] pixels;
+        final Path  location;
+
+        synchronized(this)
+        {
+            pixels   = this.memory.get(key);
+            location = this.spilled.get(key);
+        }
+
+        final BufferedImage image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB);
+        final int[] destination = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+
+        if(pixels != null)
+        {
+            System.arraycopy(pixels, 0, destination, 0, destination.length);
+            return image;
+        }
+
+        if(location != null)
+        {
+            ByteBuffer.wrap(Files.readAllBytes(location))
+                      .asIntBuffer()
+                      .get(destination);
+            return image;
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes a tile from the cache
+     *
+     * @param key
+     *             Tile key
+     * @throws IOException
+     *             if the tile had been moved to disk, and the file couldn't
+     *             be removed
+     */
+    synchronized void remove(final long key) throws IOException
+    {
+        final int[] pixels = this.memory.remove(key);
+
+        if(pixels != null)
+        {
+            this.byteSize -= pixels.length * (long)Integer.BYTES;
+        }
+
+        final Path location = this.spilled.remove(key);
+
+        if(location != null)
+        {
+            Files.deleteIfExists(location);
+        }
+    }
+
+    /**
+     * @return The number of bytes of pixel data held in memory
+     */
+    synchronized long getByteSize()
+    {
+        return this.byteSize;
+    }
+
+    /**
+     * @return The number of tiles that have been moved to disk
+     */
+    synchronized int getSpilledCount()
+    {
+        return this.spilled.size();
+    }
+
+    /**
+     * Empties the cache, and removes any files written to disk
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        this.memory.clear();
+        this.byteSize = 0;
+
+        for(final Path location : this.spilled.values())
+        {
+            Files.deleteIfExists(location);
+        }
+
+        this.spilled.clear();
+    }
+
+    private void spill() throws IOException
+    {
+        final Iterator<Map.Entry<Long, int[]>> oldest = this.memory.entrySet().iterator();
+
+        while(this.byteSize > this.maximumByteSize && oldest.hasNext())
+        {
+            final Map.Entry<Long, int[]> entry = oldest.next();
+            final int[] pixels = entry.getValue();
+
+            final ByteBuffer buffer = ByteBuffer.allocate(pixels.length * Integer.BYTES);
+            buffer.asIntBuffer().put(pixels);
+
+            final Path location = Files.createTempFile("tileCache", ".raw");
+            Files.write(location, buffer.array());
+
+            this.spilled.put(entry.getKey(), location);
+            this.byteSize -= pixels.length * (long)Integer.BYTES;
+            oldest.remove();
+        }
+    }
+
+    private int[] getPixels(final BufferedImage image)
+    {
+        if(image.getType() == BufferedImage.TYPE_INT_ARGB)
+        {
+            final int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+
+            if(pixels.length == this.width * this.height)   // Not a sub-image of something larger
+            {
+                return pixels;
+            }
+        }
+
+        return image.getRGB(0, 0, this.width, this.height, null, 0, this.width);
+    }
+
+    private final int  width;
+    private final int  height;
+    private final long maximumByteSize;
+
+    private final LinkedHashMap<Long, int[]> memory  = new LinkedHashMap<>();  // Insertion order; the oldest entries are spilled first
+    private final TileKeyMap<Path>           spilled = new TileKeyMap<>();
+
+    private long byteSize;
+}
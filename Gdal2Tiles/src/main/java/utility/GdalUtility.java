@@ -62,6 +62,7 @@ import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -160,6 +161,46 @@ public final class GdalUtility
         }
     }
 
+    /**
+     * Opens a second, independent handle to the raster data behind an
+     * existing {@link Dataset}.  A GDAL dataset may only be used by one
+     * thread at a time, so concurrent readers each need their own handle.
+     *
+     * @param dataset An open {@link Dataset}
+     * @return A new {@link Dataset} that reads the same raster data as
+     *             {@code dataset}
+     */
+    public static Dataset reopen(final Dataset dataset)
+    {
+        if(dataset == null)
+        {
+            throw new IllegalArgumentException("Input dataset cannot be null.");
+        }
+
+        String name = dataset.GetDescription();
+
+        // In-memory virtual datasets (e.g. the output of warpDatasetToSrs())
+        // have no file on disk, but GDAL can open their XML definition
+        if("VRT".equalsIgnoreCase(dataset.GetDriver().getShortName()))
+        {
+            final List<?> definition = dataset.GetMetadata_List("xml:VRT");
+
+            if(definition != null && !definition.isEmpty())
+            {
+                name = definition.get(0).toString();
+            }
+        }
+
+        final Dataset reopened = gdal.Open(name, gdalconstConstants.GA_ReadOnly);
+
+        if(reopened == null)
+        {
+            throw new RuntimeException(new GdalError().getMessage());
+        }
+
+        return reopened;
+    }
+
     public static boolean doesDataSetMatchCRS(final Dataset d1, final CoordinateReferenceSystem crs)
     {
         if(!GdalUtility.getSpatialReference(d1).equals(GdalUtility.getSpatialReference(crs)))
@@ -187,6 +187,25 @@ public class RawImageTileReaderTest
         }
     }
 
+    /**
+     * Tests RawImageTileReader constructor
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorIllegalArgumentException7() throws TileStoreException
+    {
+        final Dataset dataset = GdalUtility.open(this.rawData);
+        final Dimensions<Integer> tileDimensions = new Dimensions<>(256, 256);
+
+        try(final RawImageTileReader ignored = new RawImageTileReader(this.rawData, dataset, tileDimensions, null, null, 0))
+        {
+            fail("Expected RawImageTileReader to throw an IllegalArgumentException when the worker count is less than 1.");
+        }
+        finally
+        {
+            dataset.delete();
+        }
+    }
+
     /**
      * Tests constructor properly sets up the RawImageTileReader
      * @throws TileStoreException
@@ -733,6 +752,40 @@ public class RawImageTileReaderTest
         }
     }
 
+    /**
+     * Tests that RawImageTileHandle getImage builds the same overview
+     * tiles when the base tiles are read by several workers
+     */
+    @Test
+    public void testGetImageParallel() throws TileStoreException, IOException, URISyntaxException
+    {
+        final Dimensions<Integer> tileSize = new Dimensions<>(256, 256);
+
+        try(final RawImageTileReader reader = new RawImageTileReader(this.rawData, tileSize, Color.BLACK, null, 4))
+        {
+            final Map<String, BufferedImage> images = reader.stream()
+                                                            .collect(Collectors.toMap(TileHandle::toString,
+                                                                                      tile -> { try
+                                                                                                {
+                                                                                                    return tile.getImage();
+                                                                                                }
+                                                                                                catch(final TileStoreException exp)
+                                                                                                {
+                                                                                                    throw new RuntimeException(exp);
+                                                                                                }
+                                                                                              }));
+
+            assertEquals("RawImageTileReader method stream() did not render every tile.",
+                         reader.countTiles(),
+                         images.size());
+
+            final BufferedImage image = ImageIO.read(TestUtility.loadFileFromDisk("112398.png"));
+
+            assertTrue("RawImageTileHandle method getImage did not return the correct image.",
+                       areEqual(image, images.get("17/16313/112398")));
+        }
+    }
+
     /**
      * Tests RawImageTileHandle toString method
      */
@@ -0,0 +1,186 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.rgi.g2t;
+
+import com.rgi.common.Dimensions;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("JavaDoc")
+public class TileImageCacheTest
+{
+    /**
+     * Tests that keys are unique to each tile
+     */
+    @Test
+    public void key()
+    {
+        assertNotEquals("TileImageCache method key returned the same key for different tiles.",
+                        TileImageCache.key(1, 0, 1),
+                        TileImageCache.key(1, 1, 0));
+
+        assertNotEquals("TileImageCache method key returned the same key for different tiles.",
+                        TileImageCache.key(0, 0, 0),
+                        TileImageCache.key(1, 0, 0));
+
+        assertEquals("TileImageCache method key did not return the same key for the same tile.",
+                     TileImageCache.key(18, 32627, 224798),
+                     TileImageCache.key(18, 32627, 224798));
+    }
+
+    /**
+     * Tests that key throws an IllegalArgumentException
+     * when the column is out of range
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void keyIllegalArgumentException()
+    {
+        TileImageCache.key(31, -1, 0);
+        fail("Expected TileImageCache method key to throw an IllegalArgumentException for a negative column.");
+    }
+
+    /**
+     * Tests that put throws an IllegalArgumentException
+     * when the image is the wrong size
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void putIllegalArgumentException() throws IOException
+    {
+        try(final TileImageCache cache = new TileImageCache(new Dimensions<>(4, 4), 1024))
+        {
+            cache.put(0, new BufferedImage(8, 4, BufferedImage.TYPE_INT_ARGB));
+            fail("Expected TileImageCache method put to throw an IllegalArgumentException for an image that doesn't match the tile size.");
+        }
+    }
+
+    /**
+     * Tests that images come back out of the cache unchanged
+     */
+    @Test
+    public void putAndGet() throws IOException
+    {
+        try(final TileImageCache cache = new TileImageCache(new Dimensions<>(4, 4), 1024))
+        {
+            final BufferedImage image = createImage(0xFF336699);
+            cache.put(7, image);
+
+            assertImageColor(cache.get(7), 0xFF336699);
+            assertEquals("TileImageCache did not keep the image in memory.",
+                         0,
+                         cache.getSpilledCount());
+        }
+    }
+
+    /**
+     * Tests that the cache moves its oldest tiles to disk when
+     * it goes over budget, and can still read them back
+     */
+    @Test
+    public void spill() throws IOException
+    {
+        // Room for two 4x4 tiles
+        try(final TileImageCache cache = new TileImageCache(new Dimensions<>(4, 4), 2 * 4 * 4 * Integer.BYTES))
+        {
+            cache.put(1, createImage(0xFF000001));
+            cache.put(2, createImage(0xFF000002));
+            cache.put(3, createImage(0xFF000003));
+
+            assertEquals("TileImageCache did not move its oldest tile to disk when it went over budget.",
+                         1,
+                         cache.getSpilledCount());
+
+            assertEquals("TileImageCache held more in memory than its budget.",
+                         2 * 4 * 4 * Integer.BYTES,
+                         cache.getByteSize());
+
+            assertImageColor(cache.get(1), 0xFF000001);
+            assertImageColor(cache.get(3), 0xFF000003);
+        }
+    }
+
+    /**
+     * Tests that removing a tile, in memory or on disk, takes
+     * it out of the cache
+     */
+    @Test
+    public void remove() throws IOException
+    {
+        try(final TileImageCache cache = new TileImageCache(new Dimensions<>(4, 4), 4 * 4 * Integer.BYTES))
+        {
+            cache.put(1, createImage(0xFF000001));
+            cache.put(2, createImage(0xFF000002));
+
+            cache.remove(1);
+            cache.remove(2);
+
+            assertNull("TileImageCache method get returned a tile that had been removed from disk.",
+                       cache.get(1));
+
+            assertNull("TileImageCache method get returned a tile that had been removed from memory.",
+                       cache.get(2));
+
+            assertEquals("TileImageCache did not release the memory of a removed tile.",
+                         0,
+                         cache.getByteSize());
+
+            assertEquals("TileImageCache did not remove a tile that had been moved to disk.",
+                         0,
+                         cache.getSpilledCount());
+        }
+    }
+
+    private static BufferedImage createImage(final int argb)
+    {
+        final BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_4BYTE_ABGR);
+
+        for(int x = 0; x < image.getWidth(); ++x)
+        {
+            for(int y = 0; y < image.getHeight(); ++y)
+            {
+                image.setRGB(x, y, argb);
+            }
+        }
+
+        return image;
+    }
+
+    private static void assertImageColor(final BufferedImage image, final int argb)
+    {
+        for(int x = 0; x < image.getWidth(); ++x)
+        {
+            for(int y = 0; y < image.getHeight(); ++y)
+            {
+                assertEquals("TileImageCache did not return the same image that was put in the cache.",
+                             argb,
+                             image.getRGB(x, y));
+            }
+        }
+    }
+}
@@ -22,12 +22,14 @@
  */
 package com.rgi.geopackage;
 
+import com.rgi.common.util.jdbc.JdbcUtility;
 import com.rgi.geopackage.core.GeoPackageCore;
 import com.rgi.geopackage.extensions.GeoPackageExtensions;
 import com.rgi.geopackage.features.GeoPackageFeatures;
 import com.rgi.geopackage.metadata.GeoPackageMetadata;
 import com.rgi.geopackage.schema.GeoPackageSchema;
 import com.rgi.geopackage.tiles.GeoPackageTiles;
+import com.rgi.geopackage.utility.ConnectionPool;
 import com.rgi.geopackage.utility.DatabaseUtility;
 import com.rgi.geopackage.utility.DatabaseVersion;
 import com.rgi.geopackage.verification.ConformanceException;
@@ -45,6 +47,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Properties;
 
 /**
  * Implementation of the <a href="http://www.geopackage.org/spec/">OGC GeoPackage specification</a>
@@ -155,13 +158,59 @@ public class GeoPackage implements AutoCloseable
      *             when openMode is set to OpenMode.Create, and the file already
      *             exists
      * @throws FileNotFoundException
-     *             when openMode is set to OpenMode.Open, and the file does not
-     *             exist
+     *             when openMode is set to OpenMode.Open or OpenMode.ReadOnly,
+     *             and the file does not exist
      * @throws SQLException
      *             in various cases where interaction with the JDBC connection
      *             fails
      */
     public GeoPackage(final File file, final VerificationLevel verificationLevel, final GeoPackage.OpenMode openMode) throws ClassNotFoundException, ConformanceException, IOException, SQLException
+    {
+        this(file, verificationLevel, openMode, OpenOptions.Default);
+    }
+
+    /**
+     * @param file
+     *            Location on disk that represents where an existing GeoPackage
+     *            will opened and/or created
+     * @param verificationLevel
+     *            Indicates whether {@link #verify()} should be called
+     *            automatically. If verifyConformance is true and
+     *            {@link #verify()} is called automatically, it will throw if
+     *            there are any conformance violations with the severity
+     *            {@link Severity#Error}. Throwing from this method means that
+     *            it won't be possible to instantiate a GeoPackage object based
+     *            on an SQLite "GeoPackage" file with severe errors.
+     * @param openMode
+     *            Controls the file creation/opening behavior
+     * @param openOptions
+     *            Controls the SQLite pragmas applied to the database
+     *            connections, and the number of read connections used by
+     *            {@link OpenMode#ReadOnly}
+     * @throws ClassNotFoundException
+     *             when the SQLite JDBC driver cannot be found
+     * @throws ConformanceException
+     *             when the verifyConformance parameter is true, and if there
+     *             are any conformance violations with the severity
+     *             {@link Severity#Error}
+     * @throws IOException
+     *             when openMode is set to OpenMode.Create, and the file already
+     *             exists, openMode is set to OpenMode.Open, and the file does
+     *             not exist, or if there is a file read error
+     * @throws FileAlreadyExistsException
+     *             when openMode is set to OpenMode.Create, and the file already
+     *             exists
+     * @throws FileNotFoundException
+     *             when openMode is set to OpenMode.Open or OpenMode.ReadOnly,
+     *             and the file does not exist
+     * @throws SQLException
+     *             in various cases where interaction with the JDBC connection
+     *             fails
+     */
+    public GeoPackage(final File                file,
+                      final VerificationLevel   verificationLevel,
+                      final GeoPackage.OpenMode openMode,
+                      final OpenOptions         openOptions) throws ClassNotFoundException, ConformanceException, IOException, SQLException
     {
         if(file == null)
         {
@@ -178,6 +227,11 @@ public class GeoPackage implements AutoCloseable
             throw new IllegalArgumentException("Open mode may not be null");
         }
 
+        if(openOptions == null)
+        {
+            throw new IllegalArgumentException("Open options may not be null");
+        }
+
         final boolean isNewFile = !file.exists();
 
         if(openMode == GeoPackage.OpenMode.Create && !isNewFile)
@@ -185,7 +239,7 @@ public class GeoPackage implements AutoCloseable
             throw new FileAlreadyExistsException(file.getAbsolutePath());
         }
 
-        if(openMode == GeoPackage.OpenMode.Open && isNewFile)
+        if((openMode == GeoPackage.OpenMode.Open || openMode == GeoPackage.OpenMode.ReadOnly) && isNewFile)
         {
            throw new FileNotFoundException(String.format("%s does not exist", file.getAbsolutePath()));
         }
@@ -196,23 +250,36 @@ public class GeoPackage implements AutoCloseable
 
         Class.forName("org.sqlite.JDBC");   // Register the driver
 
-        this.databaseConnection = DriverManager.getConnection("jdbc:sqlite:" + file.toURI()); // Initialize the database connection
+        final boolean readOnly = openMode == GeoPackage.OpenMode.ReadOnly;
+
+        this.databaseConnection = GeoPackage.openConnection(file, readOnly); // Initialize the database connection
 
         try
         {
-            DatabaseUtility.setPragmaSynchronousOff(this.databaseConnection);
-            DatabaseUtility.setPragmaForeignKeys(this.databaseConnection, true);
-            DatabaseUtility.setPragmaJournalModeMemory(this.databaseConnection);
+            if(readOnly)
+            {
+                // Read only connections stay in auto-commit mode so that
+                // they don't hold a read transaction open between requests
+                this.readConnections = GeoPackage.openReadConnections(file, openOptions);
+
+                DatabaseUtility.setReadPragmas(this.databaseConnection, openOptions.getPragmaProfile());
+            }
+            else
+            {
+                this.readConnections = null;
 
-            // this was moved below setting the pragmas because is starts a transaction and causes setPragmaSynchronousOff to throw an exception
-            this.databaseConnection.setAutoCommit(false);
+                DatabaseUtility.setPragmas(this.databaseConnection, openOptions.getPragmaProfile());
+
+                // this was moved below setting the pragmas because is starts a transaction and causes setPragmaSynchronousOff to throw an exception
+                this.databaseConnection.setAutoCommit(false);
+            }
 
             this.core       = new GeoPackageCore      (this.databaseConnection, isNewFile);
-            this.features   = new GeoPackageFeatures  (this.databaseConnection, this.core);
-            this.tiles      = new GeoPackageTiles     (this.databaseConnection, this.core);
+            this.extensions = new GeoPackageExtensions(this.databaseConnection, this.core);
+            this.features   = new GeoPackageFeatures  (this.databaseConnection, this.core, this.extensions, this.readConnections);
+            this.tiles      = new GeoPackageTiles     (this.databaseConnection, this.core, this.readConnections);
             this.schema     = new GeoPackageSchema    (this.databaseConnection);
             this.metadata   = new GeoPackageMetadata  (this.databaseConnection);
-            this.extensions = new GeoPackageExtensions(this.databaseConnection, this.core);
 
             if(isNewFile)
             {
@@ -290,14 +357,66 @@ public class GeoPackage implements AutoCloseable
     @Override
     public void close() throws SQLException
     {
-        if(this.databaseConnection != null &&
-           !this.databaseConnection.isClosed())
+        try
+        {
+            if(this.databaseConnection != null &&
+               !this.databaseConnection.isClosed())
+            {
+                if(!this.databaseConnection.getAutoCommit())
+                {
+                    this.databaseConnection.rollback(); // When Connection.close() is called, pending transactions are either automatically committed or rolled back depending on implementation defined behavior.  Make the call explicitly to avoid relying on implementation defined behavior.
+                }
+
+                this.databaseConnection.close();
+            }
+        }
+        finally
+        {
+            if(this.readConnections != null)
+            {
+                this.readConnections.close();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the database file (SQLite's VACUUM), which removes free pages
+     * and so shrinks the file. Rows are copied in rowid order, so the order
+     * in which they were inserted is kept; nothing is reordered or clustered.
+     * This can take as long as copying the file, and temporarily needs up to
+     * twice its size in disk space. Pending changes are committed first.
+     *
+     * @throws SQLException
+     *             if the database can't be rebuilt
+     */
+    public void compact() throws SQLException
+    {
+        final boolean autoCommit = this.databaseConnection.getAutoCommit();
+
+        if(!autoCommit)
         {
-            this.databaseConnection.rollback(); // When Connection.close() is called, pending transactions are either automatically committed or rolled back depending on implementation defined behavior.  Make the call explicitly to avoid relying on implementation defined behavior.
-            this.databaseConnection.close();
+            this.databaseConnection.commit();
+            this.databaseConnection.setAutoCommit(true);   // VACUUM can't be run inside of a transaction
+        }
+
+        try
+        {
+            JdbcUtility.update(this.databaseConnection, "VACUUM;");
+        }
+        finally
+        {
+            this.databaseConnection.setAutoCommit(autoCommit);
         }
     }
 
+    /**
+     * @return true if this GeoPackage was opened with {@link OpenMode#ReadOnly}
+     */
+    public boolean isReadOnly()
+    {
+        return this.readConnections != null;
+    }
+
     /**
      * Requirements this GeoPackage failed to meet
      *
@@ -446,7 +565,18 @@ public class GeoPackage implements AutoCloseable
          */
         Open,
 
-        // TODO: OpenReadOnly
+        /**
+         * Open an existing GeoPackage for reading only.  Individual tile and
+         * feature reads (e.g. {@link GeoPackageTiles#getTile(com.rgi.geopackage.tiles.TileSet, int, int, int)})
+         * are safe to call from multiple threads, and are served by a pool of
+         * read only connections (see {@link OpenOptions}).  The file is
+         * never modified, including its journal mode.  For reads to proceed
+         * while another process writes to the file, it has to be in
+         * write-ahead logging mode, which is persistent, and can be set by
+         * opening it for writing with a WAL pragma profile (e.g. {@link
+         * com.rgi.geopackage.utility.PragmaProfile#ReadServe}).
+         */
+        ReadOnly,
 
         /**
          * Create a new GeoPackage
@@ -454,8 +584,56 @@ public class GeoPackage implements AutoCloseable
         Create
     }
 
+    private static Connection openConnection(final File file, final boolean readOnly) throws SQLException
+    {
+        final Properties properties = new Properties();
+
+        if(readOnly)
+        {
+            properties.setProperty("open_mode", Integer.toString(GeoPackage.SqliteOpenReadOnly | GeoPackage.SqliteOpenUri));
+        }
+
+        return DriverManager.getConnection("jdbc:sqlite:" + file.toURI(), properties);
+    }
+
+    private static ConnectionPool openReadConnections(final File file, final OpenOptions openOptions) throws SQLException
+    {
+        final Collection<Connection> connections = new ArrayList<>(openOptions.getReadConnectionCount());
+
+        try
+        {
+            for(int connectionIndex = 0; connectionIndex < openOptions.getReadConnectionCount(); ++connectionIndex)
+            {
+                final Connection connection = GeoPackage.openConnection(file, true);
+
+                connections.add(connection);
+
+                DatabaseUtility.setReadPragmas(connection, openOptions.getPragmaProfile());
+            }
+        }
+        catch(final SQLException ex)
+        {
+            for(final Connection connection : connections)
+            {
+                try
+                {
+                    connection.close();
+                }
+                catch(final SQLException closeException)
+                {
+                    ex.addSuppressed(closeException);
+                }
+            }
+
+            throw ex;
+        }
+
+        return new ConnectionPool(connections);
+    }
+
     private final File                 file;
     private final Connection           databaseConnection;
+    private final ConnectionPool       readConnections;
     private final DatabaseVersion      sqliteVersion;
     private final VerificationLevel    verificationLevel;
     private final GeoPackageCore       core;
@@ -466,4 +644,7 @@ public class GeoPackage implements AutoCloseable
     private final GeoPackageExtensions extensions;
 
     private static final byte[] GeoPackageSqliteApplicationId = {(byte) 'G', (byte) 'P', (byte) '1', (byte) '0'};
+
+    private static final int SqliteOpenReadOnly = 0x00000001;   // SQLITE_OPEN_READONLY
+    private static final int SqliteOpenUri      = 0x00000040;   // SQLITE_OPEN_URI, needed for the "file:" URI form of the JDBC URL
 }
@@ -0,0 +1,121 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage;
+
+import com.rgi.geopackage.utility.PragmaProfile;
+
+/**
+ * Options that control how a {@link GeoPackage} opens its database
+ * connections
+ *
+ * @author Luke Lambert
+ *
+ */
+public class OpenOptions
+{
+    /**
+     * Constructor. {@link GeoPackage.OpenMode#ReadOnly} GeoPackages will
+     * create one read connection per available processor.
+     *
+     * @param pragmaProfile
+     *             SQLite pragmas applied to each connection
+     */
+    public OpenOptions(final PragmaProfile pragmaProfile)
+    {
+        this(pragmaProfile, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pragmaProfile
+     *             SQLite pragmas applied to each connection. Read only
+     *             connections only receive the pragmas that don't modify the
+     *             database file.
+     * @param readConnectionCount
+     *             Number of pooled read connections created by {@link
+     *             GeoPackage.OpenMode#ReadOnly} GeoPackages. Ignored by the
+     *             other open modes.
+     */
+    public OpenOptions(final PragmaProfile pragmaProfile, final int readConnectionCount)
+    {
+        if(pragmaProfile == null)
+        {
+            throw new IllegalArgumentException("Pragma profile may not be null");
+        }
+
+        if(readConnectionCount < 1)
+        {
+            throw new IllegalArgumentException("Read connection count must be at least 1");
+        }
+
+        this.pragmaProfile       = pragmaProfile;
+        this.readConnectionCount = readConnectionCount;
+    }
+
+    /**
+     * @return the SQLite pragmas applied to each connection
+     */
+    public PragmaProfile getPragmaProfile()
+    {
+        return this.pragmaProfile;
+    }
+
+    /**
+     * @return the number of pooled read connections created by {@link
+     *             GeoPackage.OpenMode#ReadOnly} GeoPackages
+     */
+    public int getReadConnectionCount()
+    {
+        return this.readConnectionCount;
+    }
+
+    /**
+     * Options using {@link PragmaProfile#Default}
+     */
+    public static final OpenOptions Default = new OpenOptions(PragmaProfile.Default);
+
+    /**
+     * Options using {@link PragmaProfile#BulkLoad}
+     */
+    public static final OpenOptions BulkLoad = new OpenOptions(PragmaProfile.BulkLoad);
+
+    /**
+     * Options using {@link PragmaProfile#ReadServe}
+     */
+    public static final OpenOptions ReadServe = new OpenOptions(PragmaProfile.ReadServe);
+
+    /**
+     * Options using {@link PragmaProfile#MappedRead}
+     */
+    public static final OpenOptions MappedRead = new OpenOptions(PragmaProfile.MappedRead);
+
+    /**
+     * Options using {@link PragmaProfile#Safe}
+     */
+    public static final OpenOptions Safe = new OpenOptions(PragmaProfile.Safe);
+
+    private final PragmaProfile pragmaProfile;
+    private final int           readConnectionCount;
+}
@@ -167,14 +167,10 @@ public class BinaryHeader
         this.envelopeContentsIndicator        = envelopeContentsIndicator;
         this.envelopeArray                    = envelopeArray.clone();
 
-        @SuppressWarnings("NumericCastThatLosesPrecision")
-        final int envelopeContentsMask = (byte)(this.envelopeContentsIndicator.getCode() << 1);
-
-        //noinspection NumericCastThatLosesPrecision
-        this.flags = (byte)(this.binaryType.getBitMask() |
-                            this.contents.getBitMask()   |
-                            envelopeContentsMask         |
-                            (byteOrder.equals(ByteOrder.BIG_ENDIAN) ? 0 : 1));
+        this.flags = createFlags(binaryType,
+                                 contents,
+                                 envelopeContentsIndicator,
+                                 byteOrder);
 
         this.byteSize = 2 +  // 2 bytes for the 'magic' header
                         1 +  // 1 byte for version
@@ -370,6 +366,116 @@ public class BinaryHeader
 
     }
 
+    /**
+     * Tests the envelope of a GeoPackage geometry blob against a query
+     * envelope, reading the bounds directly from the blob's header. Unlike
+     * {@link #BinaryHeader(byte[])} this allocates nothing, and is meant
+     * to reject rows before their well known binary is decoded.
+     *
+     * @param bytes
+     *             Bytes of a GeoPackage geometry blob
+     * @param envelope
+     *             Query envelope
+     * @return {@link Boolean#TRUE} if the blob's envelope intersects the
+     *             query envelope, {@link Boolean#FALSE} if it doesn't or if
+     *             the geometry is empty, or null if the header has no
+     *             envelope and the geometry has to be decoded to decide
+     */
+    protected static Boolean envelopeIntersects(final byte[]   bytes,
+                                                final Envelope envelope)
+    {
+        if(bytes == null)
+        {
+            throw new IllegalArgumentException("Byte buffer may not be null");
+        }
+
+        if(envelope == null)
+        {
+            throw new IllegalArgumentException("Envelope may not be null");
+        }
+
+        if(bytes.length < 8 ||
+           bytes[0] != magic[0] ||
+           bytes[1] != magic[1])
+        {
+            throw new IllegalArgumentException("Byte buffer does not begin with a valid GeoPackage geometry binary header");
+        }
+
+        final byte flags = bytes[3];
+
+        if((flags & Contents.Empty.getBitMask()) > 0)
+        {
+            return Boolean.FALSE;
+        }
+
+        final int envelopeCode = (flags & 0b00001110) >> 1;
+
+        if(envelopeCode == 0)   // No envelope
+        {
+            return null;
+        }
+
+        if(bytes.length < 8 + 8 * EnvelopeContentsIndicator.fromCode(envelopeCode).getArraySize())
+        {
+            throw new IllegalArgumentException("Byte array length is shorter than the envelope array size would indicate");
+        }
+
+        final boolean littleEndian = (flags & 1) != 0;
+
+        // Envelope order is minimum x, maximum x, minimum y, maximum y, starting after the first 8 bytes
+        return readDouble(bytes,  8, littleEndian) <= envelope.getMaximumX() &&
+               readDouble(bytes, 16, littleEndian) >= envelope.getMinimumX() &&
+               readDouble(bytes, 24, littleEndian) <= envelope.getMaximumY() &&
+               readDouble(bytes, 32, littleEndian) >= envelope.getMinimumY();
+    }
+
+    /**
+     * Composes the flags byte of a GeoPackage geometry binary header
+     *
+     * @see <a href="http://www.geopackage.org/spec/#flags_layout">GeoPackage spec, Table 6. bit layout of GeoPackageBinary flags byte</a>
+     *
+     * @param binaryType
+     *             Standard or Extended
+     * @param contents
+     *             Whether or not the geometry is "empty"
+     * @param envelopeContentsIndicator
+     *             Indicator of the envelope array's contents
+     * @param byteOrder
+     *             Order of the header's bytes
+     * @return the flags byte
+     */
+    static byte createFlags(final BinaryType                binaryType,
+                            final Contents                  contents,
+                            final EnvelopeContentsIndicator envelopeContentsIndicator,
+                            final ByteOrder                 byteOrder)
+    {
+        @SuppressWarnings("NumericCastThatLosesPrecision")
+        final int envelopeContentsMask = (byte)(envelopeContentsIndicator.getCode() << 1);
+
+        //noinspection NumericCastThatLosesPrecision
+        return (byte)(binaryType.getBitMask() |
+                      contents.getBitMask()   |
+                      envelopeContentsMask    |
+                      (byteOrder.equals(ByteOrder.BIG_ENDIAN) ? 0 : 1));
+    }
+
+    private static double readDouble(final byte[]  bytes,
+                                     final int     offset,
+                                     final boolean littleEndian)
+    {
+        long bits = 0L;
+
+        for(int byteIndex = 0; byteIndex < 8; ++byteIndex)
+        {
+            final int shift = littleEndian ? 8 * byteIndex
+                                           : 8 * (7 - byteIndex);
+
+            bits |= (bytes[offset + byteIndex] & 0xFFL) << shift;
+        }
+
+        return Double.longBitsToDouble(bits);
+    }
+
     private static double[] getHeaderEnvelopeDoubles(final byte[]    header,
                                                      final ByteOrder byteOrder,
                                                      final int       numberOfDoubles)
@@ -389,10 +495,10 @@ public class BinaryHeader
         return envelope;
     }
 
-    private static final byte      defaultVersion = (byte)0;                // Confusingly, 0 = "version 1", see: http://www.geopackage.org/spec/#gpb_spec
-    private static final ByteOrder defaultByteOrder = ByteOrder.BIG_ENDIAN; // Java default (?), also the network byte order
+    static final byte      defaultVersion = (byte)0;                // Confusingly, 0 = "version 1", see: http://www.geopackage.org/spec/#gpb_spec
+    static final ByteOrder defaultByteOrder = ByteOrder.BIG_ENDIAN; // Java default (?), also the network byte order
 
-    private static final byte[] magic = {(byte)71, // 'G'
+    static final byte[] magic = {(byte)71, // 'G'
                                          (byte)80  // 'P'
                                         };
 
@@ -70,6 +70,32 @@ public final class ByteOutputStream implements AutoCloseable
                                   : Arrays.copyOfRange(this.buffer, 0, this.position);
     }
 
+    /**
+     * @return the number of bytes written to the stream
+     */
+    public int size()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return the allocation byte size of the backing buffer
+     */
+    public int capacity()
+    {
+        return this.buffer.length;
+    }
+
+    /**
+     * Discards the bytes written to the stream, but keeps the backing buffer
+     * so that it can be reused without reallocating
+     */
+    public void reset()
+    {
+        this.position = 0;
+        this.range    = null;
+    }
+
     /**
      * Writes a byte to the stream
      *
@@ -149,9 +175,81 @@ public final class ByteOutputStream implements AutoCloseable
      */
     public void write(final double d)
     {
+        if(this.range != null)
+        {
+            this.extendRange(d);
+        }
+
         this.write(Double.doubleToLongBits(d));
     }
 
+    /**
+     * Overwrites 8 bytes that were already written to the stream with a
+     * double, using the proscribed byte order
+     *
+     * @param offset
+     *             Offset of the first byte to overwrite
+     * @param d
+     *             a double
+     */
+    public void writeAt(final int offset, final double d)
+    {
+        if(offset < 0 || offset + DOUBLE_BYTE_SIZE > this.position)
+        {
+            throw new IllegalArgumentException("Offset must refer to bytes that have already been written");
+        }
+
+        final int end = this.position;
+
+        this.position = offset;
+        this.bytePutter.put(Double.doubleToLongBits(d));
+        this.position = end;
+    }
+
+    /**
+     * Starts recording the range of the doubles written to the stream. The
+     * doubles are taken to be interleaved coordinates with a value for each
+     * dimension (e.g. x, y, z, x, y, z, ... for 3 dimensions), which is how
+     * well known binary stores them. NaN values are ignored.
+     *
+     * @param dimensions
+     *             Number of values in each coordinate
+     */
+    public void beginRange(final int dimensions)
+    {
+        if(dimensions < 1)
+        {
+            throw new IllegalArgumentException("Dimensions must be at least 1");
+        }
+
+        this.range = new double[dimensions * 2];
+        Arrays.fill(this.range, Double.NaN);
+
+        this.rangeIndex = 0;
+    }
+
+    /**
+     * Stops recording the range of the doubles written to the stream
+     *
+     * @return the minimum and maximum of each dimension, in the order
+     *             minimum 0, maximum 0, minimum 1, maximum 1, ... A
+     *             dimension with no values other than NaN has a minimum and
+     *             maximum of NaN.
+     */
+    public double[] endRange()
+    {
+        if(this.range == null)
+        {
+            throw new IllegalStateException("beginRange() must be called before endRange()");
+        }
+
+        final double[] result = this.range;
+
+        this.range = null;
+
+        return result;
+    }
+
     /**
      * Writes a series of bytes to the stream
      *
@@ -188,6 +286,24 @@ public final class ByteOutputStream implements AutoCloseable
                                                                           : this.littleEndianBytePutter;
     }
 
+    private void extendRange(final double d)
+    {
+        final int minimumIndex = this.rangeIndex;
+
+        this.rangeIndex = (minimumIndex + 2) % this.range.length;
+
+        if(Double.isNaN(d))
+        {
+            return;
+        }
+
+        final double minimum = this.range[minimumIndex];
+        final double maximum = this.range[minimumIndex + 1];
+
+        this.range[minimumIndex    ] = Double.isNaN(minimum) ? d : Double.min(minimum, d);
+        this.range[minimumIndex + 1] = Double.isNaN(maximum) ? d : Double.max(maximum, d);
+    }
+
     private void checkCapacity(final int requestedBytes)
     {
         if(this.position + requestedBytes > this.buffer.length)
@@ -318,6 +434,8 @@ public final class ByteOutputStream implements AutoCloseable
     private byte[]     buffer;
     private int        position;
     private BytePutter bytePutter;
+    private double[]   range;       // Null unless a range is being recorded
+    private int        rangeIndex;
 
     private static final ByteOrder DEFAULT_INITIAL_BYTE_ORDER = ByteOrder.BIG_ENDIAN;
     private static final int       DEFAULT_INITIAL_CAPACITY   = 32;
@@ -25,8 +25,10 @@ package com.rgi.geopackage.features;
 
 import com.rgi.geopackage.features.geometry.Geometry;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -51,16 +53,49 @@ public class Feature
     protected Feature(final int                 identifier,
                       final Geometry            geometry,
                       final Map<String, Object> attributes)
+    {
+        this(identifier,
+             geometry,
+             attributes == null ? Collections.emptyList() : new ArrayList<>(attributes.keySet()),
+             attributes == null ? EmptyValues             : attributes.values().toArray());
+    }
+
+    /**
+     * Constructor
+     * <br>
+     * <br>
+     * The attribute names aren't copied, so that features read from the same
+     * query can share a single list. The values array is owned by the new
+     * feature.
+     *
+     * @param identifier
+     *             Unique integer identifier
+     * @param geometry
+     *             Feature geometry
+     * @param attributeNames
+     *             Attribute column names
+     * @param attributeValues
+     *             Attribute values, in the same order as the attribute names
+     */
+    protected Feature(final int          identifier,
+                      final Geometry     geometry,
+                      final List<String> attributeNames,
+                      final Object[]     attributeValues)
     {
         if(geometry == null)
         {
             throw new IllegalArgumentException("Geometry may not be null");
         }
 
-        this.identifier = identifier;
-        this.geometry   = geometry;
-        this.attributes = attributes == null ? Collections.emptyMap()
-                                             : new HashMap<>(attributes);
+        if(attributeNames == null || attributeValues == null || attributeNames.size() != attributeValues.length)
+        {
+            throw new IllegalArgumentException("Attribute names and values may not be null, and must be the same size");
+        }
+
+        this.identifier      = identifier;
+        this.geometry        = geometry;
+        this.attributeNames  = attributeNames;
+        this.attributeValues = attributeValues;
     }
 
     /**
@@ -84,10 +119,67 @@ public class Feature
      */
     public Map<String, Object> getAttributes()
     {
-        return Collections.unmodifiableMap(this.attributes);
+        if(this.attributes == null)
+        {
+            final Map<String, Object> attributes = new HashMap<>(this.attributeValues.length * 2);
+
+            for(int attributeIndex = 0; attributeIndex < this.attributeValues.length; ++attributeIndex)
+            {
+                attributes.put(this.attributeNames.get(attributeIndex), this.attributeValues[attributeIndex]);
+            }
+
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        return this.attributes;
     }
 
-    private final int                 identifier;
-    private final Geometry            geometry;
-    private final Map<String, Object> attributes;
+    /**
+     * @return the attribute column names, in the order of their values
+     */
+    public List<String> getAttributeNames()
+    {
+        return Collections.unmodifiableList(this.attributeNames);
+    }
+
+    /**
+     * @param attributeIndex
+     *             Position of the attribute in {@link #getAttributeNames()}
+     * @return the attribute's value
+     */
+    public Object getAttribute(final int attributeIndex)
+    {
+        if(attributeIndex < 0 || attributeIndex >= this.attributeValues.length)
+        {
+            throw new IllegalArgumentException("Attribute index is out of range");
+        }
+
+        return this.attributeValues[attributeIndex];
+    }
+
+    /**
+     * @param attributeName
+     *             Attribute column name
+     * @return the attribute's value
+     */
+    public Object getAttribute(final String attributeName)
+    {
+        final int attributeIndex = this.attributeNames.indexOf(attributeName);
+
+        if(attributeIndex < 0)
+        {
+            throw new IllegalArgumentException("Feature has no attribute with this name");
+        }
+
+        return this.attributeValues[attributeIndex];
+    }
+
+    private static final Object[] EmptyValues = {};
+
+    private final int          identifier;
+    private final Geometry     geometry;
+    private final List<String> attributeNames;
+    private final Object[]     attributeValues;
+
+    private Map<String, Object> attributes; // Created on demand
 }
@@ -0,0 +1,236 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Options that control how {@link GeoPackageFeatures#loadFeatures} inserts a
+ * stream of features
+ *
+ * @author Luke Lambert
+ *
+ */
+public class FeatureLoadOptions
+{
+    private FeatureLoadOptions(final Builder builder)
+    {
+        this.commitRowInterval     = builder.commitRowInterval;
+        this.commitByteInterval    = builder.commitByteInterval;
+        this.progressListener      = builder.progressListener;
+        this.rejectionListener     = builder.rejectionListener;
+        this.executor              = builder.executor;
+        this.deferAttributeIndexes = builder.deferAttributeIndexes;
+    }
+
+    /**
+     * @return the number of inserted rows after which the load commits
+     */
+    public long getCommitRowInterval()
+    {
+        return this.commitRowInterval;
+    }
+
+    /**
+     * @return the number of encoded geometry bytes after which the load
+     *             commits
+     */
+    public long getCommitByteInterval()
+    {
+        return this.commitByteInterval;
+    }
+
+    /**
+     * @return the callback that receives the load's running totals after
+     *             each commit, or null
+     */
+    public Consumer<FeatureLoadSummary> getProgressListener()
+    {
+        return this.progressListener;
+    }
+
+    /**
+     * @return the callback that receives each rejected feature, or null
+     */
+    public Consumer<FeatureRejection> getRejectionListener()
+    {
+        return this.rejectionListener;
+    }
+
+    /**
+     * @return the worker pool used to encode geometries, or null if
+     *             geometries are encoded on the calling thread
+     */
+    public ExecutorService getExecutor()
+    {
+        return this.executor;
+    }
+
+    /**
+     * @return true if the feature table's attribute indexes are dropped
+     *             before the load and rebuilt after it
+     */
+    public boolean getDeferAttributeIndexes()
+    {
+        return this.deferAttributeIndexes;
+    }
+
+    /**
+     * Builds {@link FeatureLoadOptions}
+     *
+     * @author Luke Lambert
+     *
+     */
+    public static class Builder
+    {
+        /**
+         * @param rowInterval
+         *             Number of inserted rows after which the load commits
+         * @return Returns this builder
+         */
+        public Builder commitRowInterval(final long rowInterval)
+        {
+            if(rowInterval < 1)
+            {
+                throw new IllegalArgumentException("Commit row interval must be at least 1");
+            }
+
+            this.commitRowInterval = rowInterval;
+            return this;
+        }
+
+        /**
+         * @param byteInterval
+         *             Number of encoded geometry bytes after which the load
+         *             commits
+         * @return Returns this builder
+         */
+        public Builder commitByteInterval(final long byteInterval)
+        {
+            if(byteInterval < 1)
+            {
+                throw new IllegalArgumentException("Commit byte interval must be at least 1");
+            }
+
+            this.commitByteInterval = byteInterval;
+            return this;
+        }
+
+        /**
+         * @param listener
+         *             Callback that receives the load's running totals after
+         *             each commit. Called from the loading thread. May be
+         *             null.
+         * @return Returns this builder
+         */
+        public Builder progressListener(final Consumer<FeatureLoadSummary> listener)
+        {
+            this.progressListener = listener;
+            return this;
+        }
+
+        /**
+         * @param listener
+         *             Callback that receives each rejected feature. Called
+         *             from the loading thread. May be null.
+         * @return Returns this builder
+         */
+        public Builder rejectionListener(final Consumer<FeatureRejection> listener)
+        {
+            this.rejectionListener = listener;
+            return this;
+        }
+
+        /**
+         * @param workers
+         *             Worker pool used to encode geometries. If null,
+         *             geometries are encoded on the loading thread.
+         * @return Returns this builder
+         */
+        public Builder executor(final ExecutorService workers)
+        {
+            this.executor = workers;
+            return this;
+        }
+
+        /**
+         * @param defer
+         *             If true, the feature table's non-unique indexes (e.g.
+         *             those created by {@link
+         *             GeoPackageFeatures#createAttributeIndex(FeatureSet,
+         *             String...)}) are dropped before the load and rebuilt
+         *             once it's finished, even if it fails. Building an
+         *             index once is much cheaper than updating it for every
+         *             inserted row, but the indexes are unavailable to
+         *             readers during the load.
+         * @return Returns this builder
+         */
+        public Builder deferAttributeIndexes(final boolean defer)
+        {
+            this.deferAttributeIndexes = defer;
+            return this;
+        }
+
+        /**
+         * @return Returns the options
+         */
+        public FeatureLoadOptions build()
+        {
+            return new FeatureLoadOptions(this);
+        }
+
+        private long                         commitRowInterval  = DefaultCommitRowInterval;
+        private long                         commitByteInterval = DefaultCommitByteInterval;
+        private Consumer<FeatureLoadSummary> progressListener;
+        private Consumer<FeatureRejection>   rejectionListener;
+        private ExecutorService              executor;
+        private boolean                      deferAttributeIndexes;
+    }
+
+    /**
+     * Number of inserted rows after which the load commits, unless otherwise
+     * specified
+     */
+    public static final long DefaultCommitRowInterval = 100000;
+
+    /**
+     * Number of encoded geometry bytes after which the load commits, unless
+     * otherwise specified
+     */
+    public static final long DefaultCommitByteInterval = 64L * 1024 * 1024;
+
+    /**
+     * Options using the default commit intervals, no listeners, encoding on
+     * the loading thread, and indexes that are updated as rows are inserted
+     */
+    public static final FeatureLoadOptions Default = new Builder().build();
+
+    private final long                         commitRowInterval;
+    private final long                         commitByteInterval;
+    private final Consumer<FeatureLoadSummary> progressListener;
+    private final Consumer<FeatureRejection>   rejectionListener;
+    private final ExecutorService              executor;
+    private final boolean                      deferAttributeIndexes;
+}
@@ -0,0 +1,103 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+/**
+ * Running totals of a {@link GeoPackageFeatures#loadFeatures} call
+ *
+ * @author Luke Lambert
+ *
+ */
+public class FeatureLoadSummary
+{
+    /**
+     * Constructor
+     *
+     * @param insertedCount
+     *             Number of features inserted
+     * @param rejectedCount
+     *             Number of features rejected
+     * @param byteCount
+     *             Number of encoded geometry bytes inserted
+     * @param commitCount
+     *             Number of times the load has committed
+     */
+    public FeatureLoadSummary(final long insertedCount,
+                              final long rejectedCount,
+                              final long byteCount,
+                              final long commitCount)
+    {
+        this.insertedCount = insertedCount;
+        this.rejectedCount = rejectedCount;
+        this.byteCount     = byteCount;
+        this.commitCount   = commitCount;
+    }
+
+    /**
+     * @return the number of features inserted
+     */
+    public long getInsertedCount()
+    {
+        return this.insertedCount;
+    }
+
+    /**
+     * @return the number of features rejected
+     */
+    public long getRejectedCount()
+    {
+        return this.rejectedCount;
+    }
+
+    /**
+     * @return the number of encoded geometry bytes inserted
+     */
+    public long getByteCount()
+    {
+        return this.byteCount;
+    }
+
+    /**
+     * @return the number of times the load has committed
+     */
+    public long getCommitCount()
+    {
+        return this.commitCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%d inserted, %d rejected, %d bytes, %d commits",
+                             this.insertedCount,
+                             this.rejectedCount,
+                             this.byteCount,
+                             this.commitCount);
+    }
+
+    private final long insertedCount;
+    private final long rejectedCount;
+    private final long byteCount;
+    private final long commitCount;
+}
@@ -0,0 +1,284 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.common.Pair;
+import com.rgi.geopackage.features.geometry.Geometry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Inserts features from a source that can only be read once. Each feature is
+ * validated as it's read, and features that don't meet the requirements of
+ * the feature set, or that the database refuses, are reported and skipped
+ * rather than ending the load. The load commits periodically, so that a
+ * large import isn't a single transaction.
+ *
+ * @author Luke Lambert
+ */
+final class FeatureLoader
+{
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             Connection to the database that contains the feature set
+     * @param geometryColumn
+     *             Geometry column of the target feature set
+     * @param attributeColumnNames
+     *             Columns for which the attribute values are being provided
+     * @param options
+     *             Commit intervals, listeners and worker pool
+     */
+    FeatureLoader(final Connection         databaseConnection,
+                  final GeometryColumn     geometryColumn,
+                  final List<String>       attributeColumnNames,
+                  final FeatureLoadOptions options)
+    {
+        this.databaseConnection   = databaseConnection;
+        this.geometryColumn       = geometryColumn;
+        this.attributeColumnCount = attributeColumnNames.size();
+        this.insertFeatureSql     = GeoPackageFeatures.getInsertFeatureSql(geometryColumn, attributeColumnNames);
+        this.options              = options;
+    }
+
+    /**
+     * Inserts every acceptable feature of a source. If the load fails, the
+     * features inserted since the last commit are rolled back; earlier
+     * commits remain.
+     *
+     * @param features
+     *             Source of geometry/attribute collection pairs
+     * @return the totals of the load
+     * @throws SQLException
+     *             if there is a database error other than the refusal of an
+     *             individual row
+     */
+    FeatureLoadSummary load(final Iterator<Pair<Geometry, List<Object>>> features) throws SQLException
+    {
+        this.preparedStatement = this.databaseConnection.prepareStatement(this.insertFeatureSql);
+
+        try
+        {
+            if(this.options.getExecutor() == null)
+            {
+                while(features.hasNext())
+                {
+                    final SourceFeature sourceFeature = new SourceFeature(this.sourceIndex++, features.next());
+
+                    if(this.accept(sourceFeature))
+                    {
+                        this.insert(sourceFeature, this.encode(sourceFeature));
+                    }
+                }
+            }
+            else
+            {
+                try(final OrderedChunkPipeline<SourceFeature, byte[], RuntimeException> pipeline = new OrderedChunkPipeline<>(this.options.getExecutor(),
+                                                                                                                              this::encode,
+                                                                                                                              this::insert,
+                                                                                                                              OrderedChunkPipeline.DefaultChunkSize,
+                                                                                                                              OrderedChunkPipeline.DefaultChunksInFlight))
+                {
+                    while(features.hasNext())
+                    {
+                        final SourceFeature sourceFeature = new SourceFeature(this.sourceIndex++, features.next());
+
+                        if(this.accept(sourceFeature))
+                        {
+                            pipeline.add(sourceFeature);
+                        }
+                    }
+
+                    pipeline.finish();
+                }
+            }
+
+            this.commit();
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
+        }
+        finally
+        {
+            this.preparedStatement.close();
+        }
+
+        return this.getSummary();
+    }
+
+    private boolean accept(final SourceFeature sourceFeature)
+    {
+        try
+        {
+            GeoPackageFeatures.verifyFeature(this.geometryColumn,
+                                             this.attributeColumnCount,
+                                             sourceFeature.feature);
+            return true;
+        }
+        catch(final IllegalArgumentException ex)
+        {
+            this.reject(sourceFeature, ex);
+            return false;
+        }
+    }
+
+    private byte[] encode(final SourceFeature sourceFeature)
+    {
+        return GeometryBlobEncoder.encode(sourceFeature.feature.getLeft(),
+                                          this.geometryColumn.getSpatialReferenceSystemIdentifier());
+    }
+
+    private void insert(final SourceFeature sourceFeature,
+                        final byte[]        bytes) throws SQLException
+    {
+        final List<Object> attributes = sourceFeature.feature.getRight();
+
+        this.preparedStatement.setBytes(1, bytes);
+
+        for(int attributeIndex = 0; attributeIndex < this.attributeColumnCount; ++attributeIndex)
+        {
+            this.preparedStatement.setObject(attributeIndex + 2, attributes.get(attributeIndex));
+        }
+
+        try
+        {
+            this.preparedStatement.executeUpdate();
+        }
+        catch(final SQLException ex)
+        {
+            if(!isRowRefusal(ex))
+            {
+                throw ex;
+            }
+
+            this.reject(sourceFeature, ex);
+
+            // The sqlite-jdbc driver won't execute a statement again after
+            // it has failed ("statement is not executing")
+            this.preparedStatement.close();
+            this.preparedStatement = this.databaseConnection.prepareStatement(this.insertFeatureSql);
+            return;
+        }
+
+        ++this.insertedCount;
+        ++this.uncommittedCount;
+
+        this.byteCount            += bytes.length;
+        this.uncommittedByteCount += bytes.length;
+
+        if(this.uncommittedCount     >= this.options.getCommitRowInterval() ||
+           this.uncommittedByteCount >= this.options.getCommitByteInterval())
+        {
+            this.commit();
+        }
+    }
+
+    private void reject(final SourceFeature sourceFeature,
+                        final Exception     reason)
+    {
+        ++this.rejectedCount;
+
+        if(this.options.getRejectionListener() != null)
+        {
+            this.options.getRejectionListener().accept(new FeatureRejection(sourceFeature.index,
+                                                                            sourceFeature.feature,
+                                                                            reason));
+        }
+    }
+
+    private void commit() throws SQLException
+    {
+        this.databaseConnection.commit();
+
+        ++this.commitCount;
+
+        this.uncommittedCount     = 0;
+        this.uncommittedByteCount = 0;
+
+        if(this.options.getProgressListener() != null)
+        {
+            this.options.getProgressListener().accept(this.getSummary());
+        }
+    }
+
+    private FeatureLoadSummary getSummary()
+    {
+        return new FeatureLoadSummary(this.insertedCount,
+                                      this.rejectedCount,
+                                      this.byteCount,
+                                      this.commitCount);
+    }
+
+    /**
+     * A constraint violation or a datatype mismatch only undoes the failed
+     * statement, so the load can carry on without the row. Anything else
+     * (e.g. I/O errors, a full disk) ends the load.
+     */
+    private static boolean isRowRefusal(final SQLException ex)
+    {
+        final int primaryResultCode = ex.getErrorCode() & 0xFF;    // Extended result codes keep the primary code in the low byte
+
+        return primaryResultCode == SqliteConstraint ||
+               primaryResultCode == SqliteMismatch;
+    }
+
+    private static final class SourceFeature
+    {
+        SourceFeature(final long                         index,
+                      final Pair<Geometry, List<Object>> feature)
+        {
+            this.index   = index;
+            this.feature = feature;
+        }
+
+        private final long                         index;
+        private final Pair<Geometry, List<Object>> feature;
+    }
+
+    private final Connection         databaseConnection;
+    private final GeometryColumn     geometryColumn;
+    private final int                attributeColumnCount;
+    private final String             insertFeatureSql;
+    private final FeatureLoadOptions options;
+
+    private PreparedStatement preparedStatement;
+    private long              sourceIndex;
+    private long              insertedCount;
+    private long              rejectedCount;
+    private long              byteCount;
+    private long              commitCount;
+    private long              uncommittedCount;
+    private long              uncommittedByteCount;
+
+    // https://www.sqlite.org/rescode.html
+    private static final int SqliteConstraint = 19;
+    private static final int SqliteMismatch   = 20;
+}
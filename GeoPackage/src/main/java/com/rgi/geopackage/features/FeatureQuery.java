@@ -0,0 +1,345 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.geopackage.features.geometry.xy.Envelope;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A query on a feature set, translated into a single parameterized SQL
+ * statement so that only the matching rows, and only the requested
+ * attribute columns, are read from the database. Created by {@link
+ * GeoPackageFeatures#query(FeatureSet)}.
+ * <br>
+ * <br>
+ * Predicates are combined with AND. Column names are checked against the
+ * feature set's columns, and values are always bound as parameters. Queries
+ * with the same structure (columns, predicate types, the number of IN values
+ * and whether an equality value is null) share a cached prepared statement.
+ *
+ * <pre>
+ * gpkg.features()
+ *     .query(roads)
+ *     .select("name", "class")
+ *     .whereEqual("class", 1)
+ *     .intersecting(areaOfInterest)
+ *     .visit(feature -&gt; ...);
+ * </pre>
+ *
+ * @author Luke Lambert
+ */
+public class FeatureQuery
+{
+    FeatureQuery(final GeoPackageFeatures features,
+                 final FeatureSet         featureSet)
+    {
+        this.features             = features;
+        this.featureSet           = featureSet;
+        this.attributeColumnNames = new ArrayList<>(featureSet.getAttributeColumnNames());
+    }
+
+    /**
+     * Limits the attribute columns read for each feature. By default, every
+     * attribute column is read.
+     *
+     * @param attributeColumnNames
+     *             Attribute columns to read, in the order they'll appear in
+     *             {@link Feature#getAttributeNames()}
+     * @return Returns this query
+     */
+    public FeatureQuery select(final String... attributeColumnNames)
+    {
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Attribute column names may not be null");
+        }
+
+        return this.select(Arrays.asList(attributeColumnNames));
+    }
+
+    /**
+     * Limits the attribute columns read for each feature. By default, every
+     * attribute column is read.
+     *
+     * @param attributeColumnNames
+     *             Attribute columns to read, in the order they'll appear in
+     *             {@link Feature#getAttributeNames()}
+     * @return Returns this query
+     */
+    public FeatureQuery select(final Collection<String> attributeColumnNames)
+    {
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Attribute column names may not be null");
+        }
+
+        if(!this.featureSet.getAttributeColumnNames().containsAll(attributeColumnNames))
+        {
+            throw new IllegalArgumentException("Attribute column names must be a subset of the feature set's attribute columns");
+        }
+
+        this.attributeColumnNames = new ArrayList<>(attributeColumnNames);
+        return this;
+    }
+
+    /**
+     * Matches features whose column equals a value. A null value matches
+     * features whose column is null.
+     *
+     * @param columnName
+     *             Attribute or primary key column
+     * @param value
+     *             Value to match
+     * @return Returns this query
+     */
+    public FeatureQuery whereEqual(final String columnName,
+                                   final Object value)
+    {
+        this.verifyColumnName(columnName);
+
+        if(value == null)
+        {
+            this.predicates.add(columnName + " IS NULL");
+        }
+        else
+        {
+            this.predicates.add(columnName + " = ?");
+            this.parameters.add(value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Matches features whose column is within an inclusive range
+     *
+     * @param columnName
+     *             Attribute or primary key column
+     * @param minimum
+     *             Smallest value to match, or null for no lower bound
+     * @param maximum
+     *             Largest value to match, or null for no upper bound
+     * @return Returns this query
+     */
+    public FeatureQuery whereBetween(final String columnName,
+                                     final Object minimum,
+                                     final Object maximum)
+    {
+        this.verifyColumnName(columnName);
+
+        if(minimum == null && maximum == null)
+        {
+            throw new IllegalArgumentException("At least one of the range's bounds must be non-null");
+        }
+
+        if(minimum != null)
+        {
+            this.predicates.add(columnName + " >= ?");
+            this.parameters.add(minimum);
+        }
+
+        if(maximum != null)
+        {
+            this.predicates.add(columnName + " <= ?");
+            this.parameters.add(maximum);
+        }
+
+        return this;
+    }
+
+    /**
+     * Matches features whose column equals any of a set of values
+     *
+     * @param columnName
+     *             Attribute or primary key column
+     * @param values
+     *             Values to match. May not be empty or contain null.
+     * @return Returns this query
+     */
+    public FeatureQuery whereIn(final String        columnName,
+                                final Collection<?> values)
+    {
+        this.verifyColumnName(columnName);
+
+        if(values == null || values.isEmpty())
+        {
+            throw new IllegalArgumentException("Values may not be null or empty");
+        }
+
+        if(values.contains(null))
+        {
+            throw new IllegalArgumentException("Values may not contain null");
+        }
+
+        this.predicates.add(String.format("%s IN (%s)",
+                                          columnName,
+                                          String.join(", ", Collections.nCopies(values.size(), "?"))));
+        this.parameters.addAll(values);
+
+        return this;
+    }
+
+    /**
+     * Matches features whose geometry's envelope intersects a query
+     * envelope. Features with null or empty geometries never match. The
+     * feature set's spatial index is used if it has one (see {@link
+     * GeoPackageFeatures#createSpatialIndex(FeatureSet)}).
+     *
+     * @param envelope
+     *             Query envelope, in the feature set's spatial reference
+     *             system
+     * @return Returns this query
+     */
+    public FeatureQuery intersecting(final Envelope envelope)
+    {
+        if(envelope == null || envelope.isEmpty())
+        {
+            throw new IllegalArgumentException("Envelope may not be null or empty");
+        }
+
+        this.envelope = envelope;
+        return this;
+    }
+
+    /**
+     * Applies a consumer to every matching feature
+     *
+     * @param featureConsumer
+     *             Callback that operates on a single feature
+     * @throws SQLException
+     *             if there is a database error
+     * @throws WellKnownBinaryFormatException
+     *             if any of the features contain malformed Well Known Binary data
+     */
+    public void visit(final Consumer<Feature> featureConsumer) throws SQLException, WellKnownBinaryFormatException
+    {
+        if(featureConsumer == null)
+        {
+            throw new IllegalArgumentException("Feature consumer may not be null");
+        }
+
+        this.features.visitQuery(this, featureConsumer);
+    }
+
+    /**
+     * @return every matching feature
+     * @throws SQLException
+     *             if there is a database error
+     * @throws WellKnownBinaryFormatException
+     *             if any of the features contain malformed Well Known Binary data
+     */
+    public List<Feature> getFeatures() throws SQLException, WellKnownBinaryFormatException
+    {
+        final List<Feature> results = new ArrayList<>();
+
+        this.visit(results::add);
+
+        return results;
+    }
+
+    FeatureSet getFeatureSet()
+    {
+        return this.featureSet;
+    }
+
+    List<String> getAttributeColumnNames()
+    {
+        return Collections.unmodifiableList(this.attributeColumnNames);
+    }
+
+    List<Object> getParameters()
+    {
+        return Collections.unmodifiableList(this.parameters);
+    }
+
+    Envelope getEnvelope()
+    {
+        return this.envelope;
+    }
+
+    /**
+     * Creates the query's SQL. The columns of the result are the primary
+     * key, the geometry, and then the selected attributes. The parameters
+     * are those of {@link #getParameters()}, followed by the envelope bounds
+     * (maximum x, minimum x, maximum y, minimum y) if a spatial index is
+     * used.
+     *
+     * @param spatialIndexTableName
+     *             Name of the feature set's spatial index table, or null if
+     *             there is no envelope or the feature set isn't indexed
+     */
+    String getSql(final String spatialIndexTableName)
+    {
+        final List<String> conditions = new ArrayList<>(this.predicates);
+
+        if(spatialIndexTableName != null)
+        {
+            conditions.add(String.format("%s IN (SELECT id FROM %s WHERE minx <= ? AND maxx >= ? AND miny <= ? AND maxy >= ?)",
+                                         this.featureSet.getPrimaryKeyColumnName(),
+                                         spatialIndexTableName));
+        }
+        else if(this.envelope != null)
+        {
+            conditions.add(this.featureSet.getGeometryColumnName() + " NOT NULL");
+        }
+
+        return String.format("SELECT %s, %s%s FROM %s%s",
+                             this.featureSet.getPrimaryKeyColumnName(),
+                             this.featureSet.getGeometryColumnName(),
+                             this.attributeColumnNames.isEmpty() ? ""
+                                                                 : ", " + String.join(", ", this.attributeColumnNames),
+                             this.featureSet.getTableName(),
+                             conditions.isEmpty() ? ""
+                                                  : " WHERE " + String.join(" AND ", conditions));
+    }
+
+    private void verifyColumnName(final String columnName)
+    {
+        if(columnName == null)
+        {
+            throw new IllegalArgumentException("Column name may not be null");
+        }
+
+        if(!columnName.equals(this.featureSet.getPrimaryKeyColumnName()) &&
+           !this.featureSet.getAttributeColumnNames().contains(columnName))
+        {
+            throw new IllegalArgumentException("Column name must be the primary key or one of the feature set's attribute columns");
+        }
+    }
+
+    private final GeoPackageFeatures features;
+    private final FeatureSet         featureSet;
+    private final List<String>       predicates = new ArrayList<>();
+    private final List<Object>       parameters = new ArrayList<>();
+
+    private List<String> attributeColumnNames;
+    private Envelope     envelope;
+}
@@ -0,0 +1,95 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.common.Pair;
+import com.rgi.geopackage.features.geometry.Geometry;
+
+import java.util.List;
+
+/**
+ * A feature that {@link GeoPackageFeatures#loadFeatures} didn't insert
+ *
+ * @author Luke Lambert
+ *
+ */
+public class FeatureRejection
+{
+    /**
+     * Constructor
+     *
+     * @param index
+     *             Zero based position of the feature in the source
+     * @param feature
+     *             The rejected feature. May be null if the source contained
+     *             a null feature.
+     * @param reason
+     *             Why the feature was rejected
+     */
+    public FeatureRejection(final long                         index,
+                            final Pair<Geometry, List<Object>> feature,
+                            final Exception                    reason)
+    {
+        if(reason == null)
+        {
+            throw new IllegalArgumentException("Reason may not be null");
+        }
+
+        this.index   = index;
+        this.feature = feature;
+        this.reason  = reason;
+    }
+
+    /**
+     * @return the zero based position of the feature in the source
+     */
+    public long getIndex()
+    {
+        return this.index;
+    }
+
+    /**
+     * @return the rejected feature, or null if the source contained a null
+     *             feature
+     */
+    public Pair<Geometry, List<Object>> getFeature()
+    {
+        return this.feature;
+    }
+
+    /**
+     * @return why the feature was rejected. This is an {@link
+     *             IllegalArgumentException} if the feature doesn't meet the
+     *             requirements of the feature set, or an {@link
+     *             java.sql.SQLException} if the database refused the row
+     */
+    public Exception getReason()
+    {
+        return this.reason;
+    }
+
+    private final long                         index;
+    private final Pair<Geometry, List<Object>> feature;
+    private final Exception                    reason;
+}
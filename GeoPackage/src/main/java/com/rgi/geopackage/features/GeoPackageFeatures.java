@@ -29,15 +29,20 @@ import com.rgi.common.util.functional.ThrowingFunction;
 import com.rgi.common.util.jdbc.JdbcUtility;
 import com.rgi.geopackage.core.GeoPackageCore;
 import com.rgi.geopackage.core.SpatialReferenceSystem;
+import com.rgi.geopackage.extensions.GeoPackageExtensions;
+import com.rgi.geopackage.extensions.Scope;
 import com.rgi.geopackage.features.geometry.Geometry;
 import com.rgi.geopackage.features.geometry.GeometryFactory;
+import com.rgi.geopackage.features.geometry.xy.Envelope;
+import com.rgi.geopackage.utility.ConnectionPool;
 import com.rgi.geopackage.utility.DatabaseUtility;
+import com.rgi.geopackage.utility.PreparedStatementCache;
 import com.rgi.geopackage.verification.VerificationIssue;
 import com.rgi.geopackage.verification.VerificationLevel;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -47,11 +52,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Luke Lambert
@@ -66,11 +74,68 @@ public class GeoPackageFeatures
      *             The open connection to the database that contains a GeoPackage
      * @param core
      *             Access to GeoPackage's "core" methods
+     * @throws SQLException
+     *             if the geometry SQL functions used by spatial indexes
+     *             can't be registered with the database connection
+     */
+    public GeoPackageFeatures(final Connection databaseConnection, final GeoPackageCore core) throws SQLException
+    {
+        this(databaseConnection, core, new GeoPackageExtensions(databaseConnection, core));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param core
+     *             Access to GeoPackage's "core" methods
+     * @param extensions
+     *             Access to GeoPackage's "extensions" methods, used to
+     *             register spatial indexes
+     * @throws SQLException
+     *             if the geometry SQL functions used by spatial indexes
+     *             can't be registered with the database connection
+     */
+    public GeoPackageFeatures(final Connection           databaseConnection,
+                              final GeoPackageCore       core,
+                              final GeoPackageExtensions extensions) throws SQLException
+    {
+        this(databaseConnection, core, extensions, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param core
+     *             Access to GeoPackage's "core" methods
+     * @param extensions
+     *             Access to GeoPackage's "extensions" methods, used to
+     *             register spatial indexes
+     * @param readConnections
+     *             Pool of additional connections to the same database. When
+     *             not null, {@link #getFeature(FeatureSet, int)}, {@link
+     *             #getFeatures(FeatureSet)} and the visitFeatures methods
+     *             borrow a connection from the pool for each request, and are
+     *             safe to call from multiple threads.  When null, all
+     *             requests use databaseConnection.
+     * @throws SQLException
+     *             if the geometry SQL functions used by spatial indexes
+     *             can't be registered with the database connection
      */
-    public GeoPackageFeatures(final Connection databaseConnection, final GeoPackageCore core)
+    public GeoPackageFeatures(final Connection           databaseConnection,
+                              final GeoPackageCore       core,
+                              final GeoPackageExtensions extensions,
+                              final ConnectionPool       readConnections) throws SQLException
     {
         this.databaseConnection = databaseConnection;
         this.core               = core;
+        this.extensions         = extensions;
+        this.readConnections    = readConnections;
+
+        GeometryFunctions.register(this.databaseConnection, this::getEnvelope);
     }
 
     /**
@@ -465,14 +530,18 @@ public class GeoPackageFeatures
             throw new IllegalArgumentException("Feature set may not be null");
         }
 
+        final List<String> attributeColumnNames = new ArrayList<>(featureSet.getAttributeColumnNames());
+
         final String featureQuery = String.format("SELECT %s, %s%s FROM %s",
                                                   featureSet.getPrimaryKeyColumnName(),
                                                   featureSet.getGeometryColumnName(),
-                                                  featureSet.getAttributeColumnNames().isEmpty() ? ""
-                                                                                                 : ", " + String.join(", ", featureSet.getAttributeColumnNames()),
+                                                  attributeColumnNames.isEmpty() ? ""
+                                                                                 : ", " + String.join(", ", attributeColumnNames),
                                                   featureSet.getTableName());
 
-        try(final Statement statement = this.databaseConnection.createStatement())
+        final Connection connection = this.takeReadConnection();
+
+        try(final Statement statement = connection.createStatement())
         {
             //noinspection JDBCExecuteWithNonConstantString
             try(final ResultSet resultSet = statement.executeQuery(featureQuery))
@@ -481,21 +550,120 @@ public class GeoPackageFeatures
 
                 while(resultSet.next())
                 {
-                    final Map<String, Object> attributes = new HashMap<>();
-
-                    for(final String columnName : featureSet.getAttributeColumnNames())
-                    {
-                        attributes.put(columnName, resultSet.getObject(columnName));
-                    }
-
-                    results.add(new Feature(resultSet.getInt(featureSet.getPrimaryKeyColumnName()),
-                                            this.createGeometry(resultSet.getBytes(featureSet.getGeometryColumnName())),
-                                            attributes));
+                    results.add(this.createFeature(resultSet, attributeColumnNames));
                 }
 
                 return results;
             }
         }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
+    }
+
+    /**
+     * Returns a lazily evaluated stream of every feature in a feature set.
+     * Rows are read from the database only as the stream is consumed, so
+     * memory use doesn't grow with the size of the feature table. Use {@link
+     * Stream#iterator()} for an {@link java.util.Iterator}.
+     * <br>
+     * <br>
+     * The returned stream holds an open database cursor, and <b>must</b> be
+     * closed (e.g. with a try-with-resources block). Database errors and
+     * malformed geometries encountered while the stream is consumed are
+     * wrapped in {@link RuntimeException}s.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @return a stream of features
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public Stream<Feature> streamFeatures(final FeatureSet featureSet) throws SQLException
+    {
+        if(featureSet == null)
+        {
+            throw new IllegalArgumentException("Feature set may not be null");
+        }
+
+        return this.streamFeatures(featureSet, featureSet.getAttributeColumnNames());
+    }
+
+    /**
+     * Returns a lazily evaluated stream of every feature in a feature set,
+     * with only the requested attribute columns. See {@link
+     * #streamFeatures(FeatureSet)}.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @param attributeColumnNames
+     *             Attribute columns to read, in the order they'll appear in
+     *             {@link Feature#getAttributeNames()}. Each must be one of
+     *             the feature set's attribute columns.
+     * @return a stream of features
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public Stream<Feature> streamFeatures(final FeatureSet         featureSet,
+                                          final Collection<String> attributeColumnNames) throws SQLException
+    {
+        if(featureSet == null)
+        {
+            throw new IllegalArgumentException("Feature set may not be null");
+        }
+
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Attribute column names may not be null");
+        }
+
+        if(!featureSet.getAttributeColumnNames().containsAll(attributeColumnNames))
+        {
+            throw new IllegalArgumentException("Attribute column names must be a subset of the feature set's attribute columns");
+        }
+
+        final List<String> columnNames = Collections.unmodifiableList(new ArrayList<>(attributeColumnNames));   // Shared by every feature in the stream
+
+        final String featureQuery = String.format("SELECT %s, %s%s FROM %s",
+                                                  featureSet.getPrimaryKeyColumnName(),
+                                                  featureSet.getGeometryColumnName(),
+                                                  columnNames.isEmpty() ? ""
+                                                                        : ", " + String.join(", ", columnNames),
+                                                  featureSet.getTableName());
+
+        return JdbcUtility.stream(this.databaseConnection,
+                                  featureQuery,
+                                  null,
+                                  resultSet -> { try
+                                                 {
+                                                     return this.createFeature(resultSet, columnNames);
+                                                 }
+                                                 catch(final WellKnownBinaryFormatException ex)
+                                                 {
+                                                     throw new RuntimeException(ex);
+                                                 }
+                                               });
+    }
+
+    /**
+     * Starts a query on a feature set. Attribute predicates, the column
+     * projection and the envelope are translated into SQL, so only matching
+     * rows are read. See {@link FeatureQuery}.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @return a query that matches every feature of the feature set, until
+     *             it's narrowed
+     */
+    public FeatureQuery query(final FeatureSet featureSet)
+    {
+        if(featureSet == null)
+        {
+            throw new IllegalArgumentException("Feature set may not be null");
+        }
+
+        return new FeatureQuery(this, featureSet);
     }
 
     /**
@@ -526,19 +694,31 @@ public class GeoPackageFeatures
                                                   featureSet.getTableName(),
                                                   featureSet.getPrimaryKeyColumnName());
 
-        final Pair<byte[], Map<String, Object>> feature = JdbcUtility.selectOne(this.databaseConnection,
-                                                                                featureQuery,
-                                                                                preparedStatement -> preparedStatement.setInt(1, featureIdentifier),
-                                                                                resultSet -> { final Map<String, Object> attributes = new HashMap<>();
+        final Pair<byte[], Map<String, Object>> feature;
 
-                                                                                               for(final String columnName : featureSet.getAttributeColumnNames())
-                                                                                               {
-                                                                                                   attributes.put(columnName, resultSet.getObject(columnName));
-                                                                                               }
+        final Connection connection = this.takeReadConnection();
+
+        try
+        {
+            feature = JdbcUtility.selectOne(connection,
+                                            featureQuery,
+                                            preparedStatement -> preparedStatement.setInt(1, featureIdentifier),
+                                            resultSet -> { final Map<String, Object> attributes = new HashMap<>();
+
+                                                           for(final String columnName : featureSet.getAttributeColumnNames())
+                                                           {
+                                                               attributes.put(columnName, resultSet.getObject(columnName));
+                                                           }
+
+                                                           return Pair.of(resultSet.getBytes(featureSet.getGeometryColumnName()),
+                                                                          attributes);
+                                                         });
+        }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
 
-                                                                                               return Pair.of(resultSet.getBytes(featureSet.getGeometryColumnName()),
-                                                                                                              attributes);
-                                                                                             });
         if(feature == null)
         {
             return null;
@@ -563,6 +743,34 @@ public class GeoPackageFeatures
      */
     public void visitFeatures(final FeatureSet        featureSet,
                               final Consumer<Feature> featureConsumer) throws SQLException, WellKnownBinaryFormatException
+    {
+        this.visitFeatures(featureSet,
+                           featureConsumer,
+                           null);
+    }
+
+    /**
+     * Applies a consumer to every feature in a feature set, decoding the
+     * geometries on a worker pool. The calling thread reads the result set
+     * and runs the consumer, while the workers decode chunks of geometries
+     * ahead of it. Features are visited in the order they're read, and the
+     * consumer is only ever called from the calling thread.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @param featureConsumer
+     *             Callback that operates on a single feature
+     * @param executor
+     *             Worker pool used to decode geometries. If null, geometries
+     *             are decoded on the calling thread.
+     * @throws SQLException
+     *             if there is a database error
+     * @throws WellKnownBinaryFormatException
+     *             if any of the features contain malformed Well Known Binary data
+     */
+    public void visitFeatures(final FeatureSet        featureSet,
+                              final Consumer<Feature> featureConsumer,
+                              final ExecutorService   executor) throws SQLException, WellKnownBinaryFormatException
     {
         if(featureSet == null)
         {
@@ -574,226 +782,679 @@ public class GeoPackageFeatures
             throw new IllegalArgumentException("Feature consumer may not be null");
         }
 
+        final List<String> attributeColumnNames = new ArrayList<>(featureSet.getAttributeColumnNames());
+
         final String featureQuery = String.format("SELECT %s, %s%s FROM %s",
                                                   featureSet.getPrimaryKeyColumnName(),
                                                   featureSet.getGeometryColumnName(),
-                                                  featureSet.getAttributeColumnNames().isEmpty() ? ""
-                                                                                                 : ", " + String.join(", ", featureSet.getAttributeColumnNames()),
+                                                  attributeColumnNames.isEmpty() ? ""
+                                                                                 : ", " + String.join(", ", attributeColumnNames),
                                                   featureSet.getTableName());
 
-        try(final Statement statement = this.databaseConnection.createStatement())
+        final Connection connection = this.takeReadConnection();
+
+        try(final Statement statement = connection.createStatement())
         {
             //noinspection JDBCExecuteWithNonConstantString
             try(final ResultSet resultSet = statement.executeQuery(featureQuery))
             {
-                while(resultSet.next())
+                if(executor == null)
                 {
-                    final Map<String, Object> attributes = new HashMap<>();
-
-                    for(final String columnName : featureSet.getAttributeColumnNames())
+                    while(resultSet.next())
                     {
-                        attributes.put(columnName, resultSet.getObject(columnName));
+                        featureConsumer.accept(this.createFeature(resultSet, attributeColumnNames));
                     }
+                }
+                else
+                {
+                    try(final OrderedChunkPipeline<FeatureRow, Geometry, WellKnownBinaryFormatException> pipeline =
+                            new OrderedChunkPipeline<>(executor,
+                                                       featureRow -> this.createGeometry(featureRow.geoPackageBinaryBlob),
+                                                       (featureRow, geometry) -> featureConsumer.accept(new Feature(featureRow.identifier,
+                                                                                                                    geometry,
+                                                                                                                    attributeColumnNames,
+                                                                                                                    featureRow.attributeValues)),
+                                                       OrderedChunkPipeline.DefaultChunkSize,
+                                                       OrderedChunkPipeline.DefaultChunksInFlight))
+                    {
+                        while(resultSet.next())
+                        {
+                            pipeline.add(new FeatureRow(resultSet.getInt(1),
+                                                        resultSet.getBytes(2),
+                                                        getAttributeValues(resultSet, attributeColumnNames.size())));
+                        }
 
-                    featureConsumer.accept(new Feature(resultSet.getInt(featureSet.getPrimaryKeyColumnName()),
-                                                       this.createGeometry(resultSet.getBytes(featureSet.getGeometryColumnName())),
-                                                       attributes));
+                        pipeline.finish();
+                    }
                 }
             }
         }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
     }
 
     /**
-     * Adds a feature to a feature set
+     * Applies a consumer to every feature in a feature set whose envelope
+     * intersects a query envelope. If the feature set has a spatial index
+     * (see {@link #createSpatialIndex(FeatureSet)}) candidate rows are
+     * selected from the index, otherwise every row of the feature table is
+     * tested. Rows are rejected using the envelope stored in the geometry's
+     * binary header, so only the geometries of intersecting features are
+     * decoded. Features with null or empty geometries are never visited.
      *
-     * @param geometryColumn
-     *             Geometry column of a feature set
-     * @param geometry
-     *             Geometry of a feature
-     * @param attributeColumnNames
-     *             List of attribute column names, specified in the same order as the supplied values
-     * @param attributeValues
-     *             List of attribute values, specified in the same order as the supplied column names
-     * @return a handle to the newly created {@link Feature} object
+     * @param featureSet
+     *             Handle to a feature table
+     * @param envelope
+     *             Query envelope, in the feature set's spatial reference
+     *             system
+     * @param featureConsumer
+     *             Callback that operates on a single feature
      * @throws SQLException
      *             if there is a database error
+     * @throws WellKnownBinaryFormatException
+     *             if any of the features contain malformed Well Known Binary data
      */
-    public Feature addFeature(final GeometryColumn geometryColumn,
-                              final Geometry       geometry,
-                              final List<String>   attributeColumnNames,
-                              final List<Object>   attributeValues) throws SQLException
+    public void visitFeatures(final FeatureSet        featureSet,
+                              final Envelope          envelope,
+                              final Consumer<Feature> featureConsumer) throws SQLException, WellKnownBinaryFormatException
     {
-        if(geometryColumn == null)
+        if(featureSet == null)
         {
-            throw new IllegalArgumentException("Geometry column may not be null");
+            throw new IllegalArgumentException("Feature set may not be null");
         }
 
-        if(geometry == null)
+        if(envelope == null || envelope.isEmpty())
         {
-            throw new IllegalArgumentException("Geometry may not be null");
+            throw new IllegalArgumentException("Envelope may not be null or empty");
         }
 
-        if(attributeColumnNames == null)
+        if(featureConsumer == null)
         {
-            throw new IllegalArgumentException("Attribute column names may not be null");
+            throw new IllegalArgumentException("Feature consumer may not be null");
         }
 
-        if(attributeValues == null)
+        final Connection connection = this.takeReadConnection();
+
+        try
         {
-            throw new IllegalArgumentException("Attribute values may not be null");
+            this.visitFeatures(connection, featureSet, envelope, featureConsumer);
         }
-
-        if(attributeColumnNames.size() != attributeValues.size())
+        finally
         {
-            throw new IllegalArgumentException("The number of attribute column names must match the number of attribute values");
+            this.giveReadConnection(connection);
         }
+    }
 
-        if(!geometryColumn.getGeometryType()
-                          .toUpperCase()
-                          .equals(geometry.getGeometryTypeName()))
+    /**
+     * Creates a spatial index for a feature set's geometry column, as
+     * described by the <a
+     * href="http://www.geopackage.org/spec/#extension_rtree">GeoPackage R-tree
+     * Spatial Indexes extension</a>. The index is populated with the
+     * envelopes of the existing features, and is kept up to date by triggers
+     * on the feature table.
+     * <br>
+     * <br>
+     * The triggers call the ST_MinX, ST_MaxX, ST_MinY, ST_MaxY and
+     * ST_IsEmpty SQL functions. These functions are registered with the
+     * connection that this object was created with, but other applications
+     * that modify the feature table must provide their own.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public void createSpatialIndex(final FeatureSet featureSet) throws SQLException
+    {
+        if(featureSet == null)
         {
-            throw new IllegalArgumentException("Geometry column may only contain geometries of type " + geometryColumn.getGeometryType().toUpperCase());
+            throw new IllegalArgumentException("Feature set may not be null");
         }
 
-        verifyValueRequirements(geometryColumn, geometry);
-
-        final List<String> columnNames = new LinkedList<>(attributeColumnNames);
-
-        columnNames.add(0, geometryColumn.getColumnName());
-
-        final String insertFeatureSql = String.format("INSERT INTO %s (%s) VALUES (%s)",
-                                                      geometryColumn.getTableName(),
-                                                      String.join(", ", columnNames),
-                                                      String.join(", ", Collections.nCopies(columnNames.size(), "?")));
-
-        final int identifier = JdbcUtility.update(this.databaseConnection,
-                                                  insertFeatureSql,
-                                                  preparedStatement -> { int parameterIndex = 1;
-
-                                                                         final byte[] bytes = createBlob(geometry, geometryColumn.getSpatialReferenceSystemIdentifier());
-                                                                         preparedStatement.setBytes(parameterIndex++, bytes);
-
-                                                                         columnNames.remove(0);    // Skip the geometry column
+        if(this.hasSpatialIndex(featureSet))
+        {
+            return;
+        }
 
-                                                                         for(final Object attributeValue : attributeValues)
-                                                                         {
-                                                                             preparedStatement.setObject(parameterIndex++, attributeValue);
-                                                                         }
-                                                                        },
-                                                  resultSet -> resultSet.getInt(1));    // New feature identifier
+        final String indexTableName = getSpatialIndexTableName(featureSet);
+        final String tableName      = featureSet.getTableName();
+        final String columnName     = featureSet.getGeometryColumnName();
+        final String primaryKey     = featureSet.getPrimaryKeyColumnName();
 
-        this.databaseConnection.commit();
+        // http://www.geopackage.org/spec/#extension_rtree
+        final String insertNew = String.format("INSERT OR REPLACE INTO %1$s VALUES (NEW.%2$s, ST_MinX(NEW.%3$s), ST_MaxX(NEW.%3$s), ST_MinY(NEW.%3$s), ST_MaxY(NEW.%3$s));",
+                                               indexTableName,
+                                               primaryKey,
+                                               columnName);
 
-        final Map<String, Object> attributes = new HashMap<>(attributeColumnNames.size());
+        final String notEmpty = String.format("(NEW.%1$s NOT NULL AND NOT ST_IsEmpty(NEW.%1$s))", columnName);
+        final String isEmpty  = String.format("(NEW.%1$s ISNULL OR ST_IsEmpty(NEW.%1$s))",        columnName);
 
-        for(int x = 0; x < attributeColumnNames.size(); ++x)
+        try
         {
-            attributes.put(attributeColumnNames.get(x),
-                           attributeValues     .get(x));
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE VIRTUAL TABLE %s USING rtree(id, minx, maxx, miny, maxy)",
+                                             indexTableName));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("INSERT OR REPLACE INTO %1$s (id, minx, maxx, miny, maxy) SELECT %2$s, ST_MinX(%3$s), ST_MaxX(%3$s), ST_MinY(%3$s), ST_MaxY(%3$s) FROM %4$s WHERE %3$s NOT NULL AND NOT ST_IsEmpty(%3$s)",
+                                             indexTableName,
+                                             primaryKey,
+                                             columnName,
+                                             tableName));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_insert AFTER INSERT ON %2$s WHEN %3$s BEGIN %4$s END;",
+                                             indexTableName,
+                                             tableName,
+                                             notEmpty,
+                                             insertNew));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_update1 AFTER UPDATE OF %2$s ON %3$s WHEN OLD.%4$s = NEW.%4$s AND %5$s BEGIN %6$s END;",
+                                             indexTableName,
+                                             columnName,
+                                             tableName,
+                                             primaryKey,
+                                             notEmpty,
+                                             insertNew));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_update2 AFTER UPDATE OF %2$s ON %3$s WHEN OLD.%4$s = NEW.%4$s AND %5$s BEGIN DELETE FROM %1$s WHERE id = OLD.%4$s; END;",
+                                             indexTableName,
+                                             columnName,
+                                             tableName,
+                                             primaryKey,
+                                             isEmpty));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_update3 AFTER UPDATE ON %2$s WHEN OLD.%3$s != NEW.%3$s AND %4$s BEGIN DELETE FROM %1$s WHERE id = OLD.%3$s; %5$s END;",
+                                             indexTableName,
+                                             tableName,
+                                             primaryKey,
+                                             notEmpty,
+                                             insertNew));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_update4 AFTER UPDATE ON %2$s WHEN OLD.%3$s != NEW.%3$s AND %4$s BEGIN DELETE FROM %1$s WHERE id IN (OLD.%3$s, NEW.%3$s); END;",
+                                             indexTableName,
+                                             tableName,
+                                             primaryKey,
+                                             isEmpty));
+
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE TRIGGER %1$s_delete AFTER DELETE ON %2$s WHEN OLD.%3$s NOT NULL BEGIN DELETE FROM %1$s WHERE id = OLD.%4$s; END;",
+                                             indexTableName,
+                                             tableName,
+                                             columnName,
+                                             primaryKey));
+
+            this.extensions.addExtension(tableName,
+                                         columnName,
+                                         SpatialIndexExtensionName,
+                                         SpatialIndexExtensionDefinition,
+                                         Scope.WriteOnly);  // Commits
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
         }
-
-        return new Feature(identifier,
-                           geometry,
-                           attributes);
     }
 
     /**
-     * Add multiple features to a feature set
-     *
-     * @param geometryColumn
-     *             Geometry column of the target feature set
-     * @param attributeColumnNames
-     *             A list of columns for which the attribute values are being provided
-     * @param features
-     *             A collection of geometry/attribute collection pairs. The
-     *             attribute collection must have the same number and order for
-     *             attributes as specified by the attributeColumns parameter.
+     * @param featureSet
+     *             Handle to a feature table
+     * @return true if the feature set's geometry column has a spatial index
      * @throws SQLException
      *             if there is a database error
      */
-    public void addFeatures(final GeometryColumn                         geometryColumn,
-                            final List<String>                           attributeColumnNames,
-                            final Iterable<Pair<Geometry, List<Object>>> features) throws SQLException
+    public boolean hasSpatialIndex(final FeatureSet featureSet) throws SQLException
     {
-        if(geometryColumn == null)
+        if(featureSet == null)
         {
-            throw new IllegalArgumentException("Geometry column may not be null");
+            throw new IllegalArgumentException("Feature set may not be null");
         }
 
-        if(attributeColumnNames == null)
-        {
-            throw new IllegalArgumentException("Columns may not be null");
-        }
+        return DatabaseUtility.tableOrViewExists(this.databaseConnection, getSpatialIndexTableName(featureSet));
+    }
 
-        if(features == null)
-        {
-            throw new IllegalArgumentException("Values may not be null");
-        }
+    /**
+     * Creates an index on one or more attribute columns of a feature set, so
+     * that lookups on those columns (e.g. by {@link #query(FeatureSet)}) don't
+     * scan the whole feature table. The index is named after the feature
+     * table and its columns, e.g. "roads(name,class)". Nothing is done if the
+     * index already exists.
+     * <br>
+     * <br>
+     * An index slows down every insert into the feature table. For bulk
+     * loads, see {@link FeatureLoadOptions.Builder#deferAttributeIndexes(boolean)}.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @param columnNames
+     *             Attribute columns of the index, in order
+     * @return the name of the index
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public String createAttributeIndex(final FeatureSet featureSet,
+                                       final String...  columnNames) throws SQLException
+    {
+        final String indexName = getAttributeIndexName(featureSet, columnNames);
 
-        features.forEach(feature -> { if(feature == null)
-                                      {
-                                          throw new IllegalArgumentException("Features collection may not contain null features");
-                                      }
+        try
+        {
+            JdbcUtility.update(this.databaseConnection,
+                               String.format("CREATE INDEX IF NOT EXISTS \"%s\" ON %s (%s)",
+                                             indexName,
+                                             featureSet.getTableName(),
+                                             String.join(", ", columnNames)));
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
+        }
 
-                                      final Geometry geometry = feature.getLeft();
+        this.databaseConnection.commit();
 
-                                      if(geometry == null)
-                                      {
-                                          throw new IllegalArgumentException("Features collection may not contain null geometries");
-                                      }
+        return indexName;
+    }
 
-                                      final List<Object> attributes = feature.getRight();
+    /**
+     * Drops an index created by {@link #createAttributeIndex(FeatureSet,
+     * String...)}. Nothing is done if the index doesn't exist.
+     *
+     * @param featureSet
+     *             Handle to a feature table
+     * @param columnNames
+     *             Attribute columns of the index, in order
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public void dropAttributeIndex(final FeatureSet featureSet,
+                                   final String...  columnNames) throws SQLException
+    {
+        final String indexName = getAttributeIndexName(featureSet, columnNames);
 
-                                      if(attributes == null)
-                                      {
-                                          throw new IllegalArgumentException("Feature collection may not have a null set of attributes");
-                                      }
+        try
+        {
+            JdbcUtility.update(this.databaseConnection, String.format("DROP INDEX IF EXISTS \"%s\"", indexName));
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
+        }
 
-                                      if(attributes.size() != attributeColumnNames.size())
-                                      {
-                                          throw new IllegalArgumentException("Feature attribute collections must match the size of the attribute column name collection");
-                                      }
+        this.databaseConnection.commit();
+    }
 
-                                      if(!geometryColumn.getGeometryType()
-                                                        .toUpperCase()
-                                                        .equals(geometry.getGeometryTypeName()))
-                                      {
-                                          throw new IllegalArgumentException("Geometry column may only contain geometries of type " + geometryColumn.getGeometryType().toUpperCase());
-                                      }
+    /**
+     * @param featureSet
+     *             Handle to a feature table
+     * @param columnNames
+     *             Attribute columns of the index, in order
+     * @return true if {@link #createAttributeIndex(FeatureSet, String...)}
+     *             has created an index on the columns
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public boolean hasAttributeIndex(final FeatureSet featureSet,
+                                     final String...  columnNames) throws SQLException
+    {
+        final String indexName = getAttributeIndexName(featureSet, columnNames);
 
+        return JdbcUtility.selectOne(this.databaseConnection,
+                                     "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = ?",
+                                     preparedStatement -> preparedStatement.setString(1, indexName),
+                                     resultSet -> resultSet.getInt(1)) > 0;
+    }
 
+    /**
+     * Adds a feature to a feature set
+     *
+     * @param geometryColumn
+     *             Geometry column of a feature set
+     * @param geometry
+     *             Geometry of a feature
+     * @param attributeColumnNames
+     *             List of attribute column names, specified in the same order as the supplied values
+     * @param attributeValues
+     *             List of attribute values, specified in the same order as the supplied column names
+     * @return a handle to the newly created {@link Feature} object
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public Feature addFeature(final GeometryColumn geometryColumn,
+                              final Geometry       geometry,
+                              final List<String>   attributeColumnNames,
+                              final List<Object>   attributeValues) throws SQLException
+    {
+        if(geometryColumn == null)
+        {
+            throw new IllegalArgumentException("Geometry column may not be null");
+        }
+
+        if(geometry == null)
+        {
+            throw new IllegalArgumentException("Geometry may not be null");
+        }
+
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Attribute column names may not be null");
+        }
 
-                                      verifyValueRequirements(geometryColumn, geometry);
-                                    });
+        if(attributeValues == null)
+        {
+            throw new IllegalArgumentException("Attribute values may not be null");
+        }
+
+        if(attributeColumnNames.size() != attributeValues.size())
+        {
+            throw new IllegalArgumentException("The number of attribute column names must match the number of attribute values");
+        }
+
+        if(!geometryColumn.getGeometryType()
+                          .toUpperCase()
+                          .equals(geometry.getGeometryTypeName()))
+        {
+            throw new IllegalArgumentException("Geometry column may only contain geometries of type " + geometryColumn.getGeometryType().toUpperCase());
+        }
+
+        verifyValueRequirements(geometryColumn, geometry);
 
         final List<String> columnNames = new LinkedList<>(attributeColumnNames);
 
         columnNames.add(0, geometryColumn.getColumnName());
 
-        final int columnCount = columnNames.size();
-
         final String insertFeatureSql = String.format("INSERT INTO %s (%s) VALUES (%s)",
                                                       geometryColumn.getTableName(),
                                                       String.join(", ", columnNames),
                                                       String.join(", ", Collections.nCopies(columnNames.size(), "?")));
 
-        JdbcUtility.update(this.databaseConnection,
-                           insertFeatureSql,
-                           features,
-                           (preparedStatement, feature) -> { final Geometry     geometry   = feature.getLeft();
-                                                             final List<Object> attributes = feature.getRight();
+        final int identifier = JdbcUtility.update(this.databaseConnection,
+                                                  insertFeatureSql,
+                                                  preparedStatement -> { int parameterIndex = 1;
+
+                                                                         final byte[] bytes = GeometryBlobEncoder.encode(geometry, geometryColumn.getSpatialReferenceSystemIdentifier());
+                                                                         preparedStatement.setBytes(parameterIndex++, bytes);
+
+                                                                         columnNames.remove(0);    // Skip the geometry column
+
+                                                                         for(final Object attributeValue : attributeValues)
+                                                                         {
+                                                                             preparedStatement.setObject(parameterIndex++, attributeValue);
+                                                                         }
+                                                                        },
+                                                  resultSet -> resultSet.getInt(1));    // New feature identifier
+
+        this.databaseConnection.commit();
+
+        final Map<String, Object> attributes = new HashMap<>(attributeColumnNames.size());
 
-                                                             preparedStatement.setBytes(1, createBlob(geometry, geometryColumn.getSpatialReferenceSystemIdentifier()));
+        for(int x = 0; x < attributeColumnNames.size(); ++x)
+        {
+            attributes.put(attributeColumnNames.get(x),
+                           attributeValues     .get(x));
+        }
+
+        return new Feature(identifier,
+                           geometry,
+                           attributes);
+    }
+
+    /**
+     * Add multiple features to a feature set
+     *
+     * @param geometryColumn
+     *             Geometry column of the target feature set
+     * @param attributeColumnNames
+     *             A list of columns for which the attribute values are being provided
+     * @param features
+     *             A collection of geometry/attribute collection pairs. The
+     *             attribute collection must have the same number and order for
+     *             attributes as specified by the attributeColumns parameter.
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public void addFeatures(final GeometryColumn                         geometryColumn,
+                            final List<String>                           attributeColumnNames,
+                            final Iterable<Pair<Geometry, List<Object>>> features) throws SQLException
+    {
+        this.addFeatures(geometryColumn,
+                         attributeColumnNames,
+                         features,
+                         null);
+    }
 
-                                                             for(int parameterIndex = 2; parameterIndex <= columnCount; ++parameterIndex)
-                                                             {
-                                                                 preparedStatement.setObject(parameterIndex, attributes.get(parameterIndex-2));
-                                                             }
-                                                           });
+    /**
+     * Add multiple features to a feature set, encoding the geometries on a
+     * worker pool. The calling thread binds and executes the insert
+     * statement, while the workers encode chunks of geometries ahead of it.
+     * Features are inserted in the order of the collection.
+     *
+     * @param geometryColumn
+     *             Geometry column of the target feature set
+     * @param attributeColumnNames
+     *             A list of columns for which the attribute values are being provided
+     * @param features
+     *             A collection of geometry/attribute collection pairs. The
+     *             attribute collection must have the same number and order for
+     *             attributes as specified by the attributeColumns parameter.
+     * @param executor
+     *             Worker pool used to encode geometries. If null, geometries
+     *             are encoded on the calling thread.
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public void addFeatures(final GeometryColumn                         geometryColumn,
+                            final List<String>                           attributeColumnNames,
+                            final Iterable<Pair<Geometry, List<Object>>> features,
+                            final ExecutorService                        executor) throws SQLException
+    {
+        if(geometryColumn == null)
+        {
+            throw new IllegalArgumentException("Geometry column may not be null");
+        }
+
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Columns may not be null");
+        }
+
+        if(features == null)
+        {
+            throw new IllegalArgumentException("Values may not be null");
+        }
+
+        features.forEach(feature -> verifyFeature(geometryColumn, attributeColumnNames.size(), feature));
+
+        final int columnCount = attributeColumnNames.size() + 1;    // Geometry column, followed by the attributes
+
+        final String insertFeatureSql = getInsertFeatureSql(geometryColumn, attributeColumnNames);
+
+        if(executor == null)
+        {
+            JdbcUtility.update(this.databaseConnection,
+                               insertFeatureSql,
+                               features,
+                               (preparedStatement, feature) -> { final Geometry     geometry   = feature.getLeft();
+                                                                 final List<Object> attributes = feature.getRight();
+
+                                                                 preparedStatement.setBytes(1, GeometryBlobEncoder.encode(geometry, geometryColumn.getSpatialReferenceSystemIdentifier()));
+
+                                                                 for(int parameterIndex = 2; parameterIndex <= columnCount; ++parameterIndex)
+                                                                 {
+                                                                     preparedStatement.setObject(parameterIndex, attributes.get(parameterIndex-2));
+                                                                 }
+                                                               });
+        }
+        else
+        {
+            try(final PreparedStatement preparedStatement = this.databaseConnection.prepareStatement(insertFeatureSql);
+                final OrderedChunkPipeline<Pair<Geometry, List<Object>>, byte[], RuntimeException> pipeline =
+                    new OrderedChunkPipeline<>(executor,
+                                               feature -> GeometryBlobEncoder.encode(feature.getLeft(), geometryColumn.getSpatialReferenceSystemIdentifier()),
+                                               (feature, bytes) -> { final List<Object> attributes = feature.getRight();
+
+                                                                     preparedStatement.setBytes(1, bytes);
+
+                                                                     for(int parameterIndex = 2; parameterIndex <= columnCount; ++parameterIndex)
+                                                                     {
+                                                                         preparedStatement.setObject(parameterIndex, attributes.get(parameterIndex-2));
+                                                                     }
+
+                                                                     preparedStatement.executeUpdate();
+                                                                   },
+                                               OrderedChunkPipeline.DefaultChunkSize,
+                                               OrderedChunkPipeline.DefaultChunksInFlight))
+            {
+                for(final Pair<Geometry, List<Object>> feature : features)
+                {
+                    pipeline.add(feature);
+                }
+
+                pipeline.finish();
+            }
+            catch(final Throwable th)
+            {
+                this.databaseConnection.rollback();
+                throw th;
+            }
+        }
 
         this.databaseConnection.commit();
     }
 
+    /**
+     * Inserts features from a source that can only be read once, such as a
+     * file parser. Unlike {@link #addFeatures(GeometryColumn, List,
+     * Iterable)}, each feature is validated as it's read, and a feature that
+     * doesn't meet the requirements of the feature set (or that the database
+     * refuses, e.g. for a constraint violation) is reported to the options'
+     * rejection listener and skipped, rather than ending the load.
+     * <br>
+     * <br>
+     * The load commits whenever the options' row or byte interval is reached,
+     * and reports its running totals to the options' progress listener after
+     * each commit. If the load fails, only the features inserted since the
+     * last commit are rolled back.
+     *
+     * @param geometryColumn
+     *             Geometry column of the target feature set
+     * @param attributeColumnNames
+     *             A list of columns for which the attribute values are being provided
+     * @param features
+     *             Source of geometry/attribute collection pairs. The
+     *             attribute collection must have the same number and order
+     *             for attributes as specified by the attributeColumns
+     *             parameter.
+     * @param options
+     *             Commit intervals, listeners and worker pool for the load
+     * @return the totals of the load
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public FeatureLoadSummary loadFeatures(final GeometryColumn                         geometryColumn,
+                                           final List<String>                           attributeColumnNames,
+                                           final Iterator<Pair<Geometry, List<Object>>> features,
+                                           final FeatureLoadOptions                     options) throws SQLException
+    {
+        if(geometryColumn == null)
+        {
+            throw new IllegalArgumentException("Geometry column may not be null");
+        }
+
+        if(attributeColumnNames == null)
+        {
+            throw new IllegalArgumentException("Columns may not be null");
+        }
+
+        if(features == null)
+        {
+            throw new IllegalArgumentException("Features may not be null");
+        }
+
+        if(options == null)
+        {
+            throw new IllegalArgumentException("Options may not be null");
+        }
+
+        final FeatureLoader loader = new FeatureLoader(this.databaseConnection,
+                                                       geometryColumn,
+                                                       attributeColumnNames,
+                                                       options);
+
+        if(!options.getDeferAttributeIndexes())
+        {
+            return loader.load(features);
+        }
+
+        final List<String> indexDefinitions = this.dropDeferrableIndexes(geometryColumn.getTableName());
+
+        final FeatureLoadSummary summary;
+
+        try
+        {
+            summary = loader.load(features);
+        }
+        catch(final Throwable th)
+        {
+            // The load's error is the one that matters
+            try
+            {
+                this.createIndexes(indexDefinitions);
+            }
+            catch(final Throwable rebuildFailure)
+            {
+                th.addSuppressed(rebuildFailure);
+            }
+
+            throw th;
+        }
+
+        this.createIndexes(indexDefinitions);
+
+        return summary;
+    }
+
+    /**
+     * Inserts features from a stream. See {@link #loadFeatures(GeometryColumn,
+     * List, Iterator, FeatureLoadOptions)}. The stream is not closed.
+     *
+     * @param geometryColumn
+     *             Geometry column of the target feature set
+     * @param attributeColumnNames
+     *             A list of columns for which the attribute values are being provided
+     * @param features
+     *             Stream of geometry/attribute collection pairs
+     * @param options
+     *             Commit intervals, listeners and worker pool for the load
+     * @return the totals of the load
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public FeatureLoadSummary loadFeatures(final GeometryColumn                       geometryColumn,
+                                           final List<String>                         attributeColumnNames,
+                                           final Stream<Pair<Geometry, List<Object>>> features,
+                                           final FeatureLoadOptions                   options) throws SQLException
+    {
+        if(features == null)
+        {
+            throw new IllegalArgumentException("Features may not be null");
+        }
+
+        return this.loadFeatures(geometryColumn,
+                                 attributeColumnNames,
+                                 features.iterator(),
+                                 options);
+    }
+
     /**
      * Associate a geometry factory with a specific geometry type code.
      *
@@ -891,6 +1552,140 @@ public class GeoPackageFeatures
                " CONSTRAINT fk_gc_srs        FOREIGN KEY (srs_id)     REFERENCES gpkg_spatial_ref_sys (srs_id));";
     }
 
+    private void visitFeatures(final Connection        connection,
+                               final FeatureSet        featureSet,
+                               final Envelope          envelope,
+                               final Consumer<Feature> featureConsumer) throws SQLException, WellKnownBinaryFormatException
+    {
+        final boolean hasSpatialIndex = DatabaseUtility.tableOrViewExists(connection, getSpatialIndexTableName(featureSet));
+
+        final List<String> attributeColumnNames = new ArrayList<>(featureSet.getAttributeColumnNames());
+
+        final String featureQuery = String.format("SELECT %s, %s%s FROM %s%s",
+                                                  featureSet.getPrimaryKeyColumnName(),
+                                                  featureSet.getGeometryColumnName(),
+                                                  attributeColumnNames.isEmpty() ? ""
+                                                                                 : ", " + String.join(", ", attributeColumnNames),
+                                                  featureSet.getTableName(),
+                                                  hasSpatialIndex ? String.format(" WHERE %s IN (SELECT id FROM %s WHERE minx <= ? AND maxx >= ? AND miny <= ? AND maxy >= ?)",
+                                                                                  featureSet.getPrimaryKeyColumnName(),
+                                                                                  getSpatialIndexTableName(featureSet))
+                                                                  : String.format(" WHERE %s NOT NULL",
+                                                                                  featureSet.getGeometryColumnName()));
+
+        try(final PreparedStatement preparedStatement = connection.prepareStatement(featureQuery))
+        {
+            if(hasSpatialIndex)
+            {
+                preparedStatement.setDouble(1, envelope.getMaximumX());
+                preparedStatement.setDouble(2, envelope.getMinimumX());
+                preparedStatement.setDouble(3, envelope.getMaximumY());
+                preparedStatement.setDouble(4, envelope.getMinimumY());
+            }
+
+            try(final ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                while(resultSet.next())
+                {
+                    final Geometry geometry = this.createIntersectingGeometry(resultSet.getBytes(2), envelope);
+
+                    if(geometry == null)
+                    {
+                        continue;
+                    }
+
+                    featureConsumer.accept(new Feature(resultSet.getInt(1),
+                                                       geometry,
+                                                       attributeColumnNames,
+                                                       getAttributeValues(resultSet, attributeColumnNames.size())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a feature query, borrowing a read connection and a cached
+     * prepared statement for its SQL
+     */
+    void visitQuery(final FeatureQuery      query,
+                    final Consumer<Feature> featureConsumer) throws SQLException, WellKnownBinaryFormatException
+    {
+        final FeatureSet   featureSet           = query.getFeatureSet();
+        final Envelope     envelope             = query.getEnvelope();
+        final List<String> attributeColumnNames = query.getAttributeColumnNames();
+
+        final Connection connection = this.takeReadConnection();
+
+        try
+        {
+            final String spatialIndexTableName = envelope != null && DatabaseUtility.tableOrViewExists(connection, getSpatialIndexTableName(featureSet)) ? getSpatialIndexTableName(featureSet)
+                                                                                                                                                       : null;
+
+            final String featureQuery = query.getSql(spatialIndexTableName);
+
+            final PreparedStatement preparedStatement = this.statementCache.take(connection, featureQuery);
+
+            try
+            {
+                int parameterIndex = 1;
+
+                for(final Object parameter : query.getParameters())
+                {
+                    preparedStatement.setObject(parameterIndex++, parameter);
+                }
+
+                if(spatialIndexTableName != null)
+                {
+                    preparedStatement.setDouble(parameterIndex++, envelope.getMaximumX());
+                    preparedStatement.setDouble(parameterIndex++, envelope.getMinimumX());
+                    preparedStatement.setDouble(parameterIndex++, envelope.getMaximumY());
+                    preparedStatement.setDouble(parameterIndex,   envelope.getMinimumY());
+                }
+
+                try(final ResultSet resultSet = preparedStatement.executeQuery())
+                {
+                    while(resultSet.next())
+                    {
+                        final Geometry geometry = envelope == null ? this.createGeometry(resultSet.getBytes(2))
+                                                                   : this.createIntersectingGeometry(resultSet.getBytes(2), envelope);
+
+                        if(geometry == null)
+                        {
+                            continue;
+                        }
+
+                        featureConsumer.accept(new Feature(resultSet.getInt(1),
+                                                           geometry,
+                                                           attributeColumnNames,
+                                                           getAttributeValues(resultSet, attributeColumnNames.size())));
+                    }
+                }
+            }
+            finally
+            {
+                this.statementCache.give(connection, featureQuery, preparedStatement);
+            }
+        }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
+    }
+
+    private Connection takeReadConnection() throws SQLException
+    {
+        return this.readConnections == null ? this.databaseConnection
+                                            : this.readConnections.take();
+    }
+
+    private void giveReadConnection(final Connection connection)
+    {
+        if(this.readConnections != null)
+        {
+            this.readConnections.give(connection);
+        }
+    }
+
     private Geometry createGeometry(final byte[] geoPackageBinaryBlob) throws WellKnownBinaryFormatException
     {
         final BinaryHeader binaryHeader = new BinaryHeader(geoPackageBinaryBlob);   // This will throw if the array length is too short to contain a header (or if it's not long enough to contain the envelope type specified)
@@ -917,24 +1712,258 @@ public class GeoPackageFeatures
         throw new WellKnownBinaryFormatException("Extensions of GeoPackageBinary geometry encoding are not currently supported");
     }
 
-    private static byte[] createBlob(final Geometry geometry, final int spatialReferenceSystemIdentifier)
+    /**
+     * Decodes a geometry only if its envelope intersects a query envelope.
+     * The R-tree stores 32 bit floats rounded outward, so its candidates are
+     * tested against the exact envelope as well. The header envelope is read
+     * in place, and only the survivors have their well known binary decoded.
+     *
+     * @return the geometry, or null if it doesn't intersect the envelope
+     */
+    private Geometry createIntersectingGeometry(final byte[]   geoPackageBinaryBlob,
+                                                final Envelope envelope) throws WellKnownBinaryFormatException
+    {
+        final Boolean intersects = BinaryHeader.envelopeIntersects(geoPackageBinaryBlob, envelope);
+
+        if(intersects == Boolean.FALSE)
+        {
+            return null;
+        }
+
+        final Geometry geometry = this.createGeometry(geoPackageBinaryBlob);
+
+        if(intersects == null)  // The header has no envelope
+        {
+            final Envelope geometryEnvelope = geometry.createEnvelope();
+
+            if(geometryEnvelope.isEmpty() || !geometryEnvelope.intersects(envelope))
+            {
+                return null;
+            }
+        }
+
+        return geometry;
+    }
+
+    /**
+     * Creates a feature from the current row of a result set whose columns
+     * are the primary key, the geometry, and then the attributes in order
+     */
+    private Feature createFeature(final ResultSet    resultSet,
+                                  final List<String> attributeColumnNames) throws SQLException, WellKnownBinaryFormatException
+    {
+        return new Feature(resultSet.getInt(1),
+                           this.createGeometry(resultSet.getBytes(2)),
+                           attributeColumnNames,
+                           getAttributeValues(resultSet, attributeColumnNames.size()));
+    }
+
+    private static Object[] getAttributeValues(final ResultSet resultSet,
+                                               final int       attributeCount) throws SQLException
+    {
+        final Object[] attributeValues = new Object[attributeCount];
+
+        for(int attributeIndex = 0; attributeIndex < attributeCount; ++attributeIndex)
+        {
+            attributeValues[attributeIndex] = resultSet.getObject(attributeIndex + 3);  // Attributes follow the primary key and geometry columns
+        }
+
+        return attributeValues;
+    }
+
+    private Envelope getEnvelope(final byte[] geoPackageBinaryBlob) throws WellKnownBinaryFormatException
+    {
+        final BinaryHeader binaryHeader = new BinaryHeader(geoPackageBinaryBlob);
+
+        if(binaryHeader.getContents() == Contents.Empty)
+        {
+            return Envelope.Empty;
+        }
+
+        final Envelope envelope = binaryHeader.getEnvelope();
+
+        if(envelope != null)
+        {
+            return envelope;
+        }
+
+        return this.createGeometry(geoPackageBinaryBlob).createEnvelope();   // The header may omit the envelope
+    }
+
+    /**
+     * Drops the indexes of a table that can be rebuilt after a bulk load:
+     * those created with CREATE INDEX rather than by a constraint, and that
+     * aren't unique (dropping a unique index would let the load insert rows
+     * that the index would then refuse)
+     *
+     * @return the SQL that recreates the dropped indexes
+     */
+    private List<String> dropDeferrableIndexes(final String tableName) throws SQLException
     {
-        try(final ByteOutputStream byteOutputStream = new ByteOutputStream())
+        final Collection<String> nonUniqueIndexNames = new ArrayList<>();
+
+        try(final Statement statement = this.databaseConnection.createStatement();
+            final ResultSet indexList = statement.executeQuery(String.format("PRAGMA index_list(%s)", tableName)))
         {
-            // TODO HEADER USES OPTIONS:
-            // FORCE ENVELOPE
-            // FORCE ENDIANNESS
+            while(indexList.next())
+            {
+                if(indexList.getInt("unique") == 0)
+                {
+                    nonUniqueIndexNames.add(indexList.getString("name"));
+                }
+            }
+        }
 
-            BinaryHeader.writeBytes(byteOutputStream,
-                                    geometry,
-                                    spatialReferenceSystemIdentifier);
+        // Indexes created by constraints have no SQL
+        final List<Pair<String, String>> indexes = JdbcUtility.select(this.databaseConnection,
+                                                                      "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql NOT NULL",
+                                                                      preparedStatement -> preparedStatement.setString(1, tableName),
+                                                                      resultSet -> Pair.of(resultSet.getString(1), resultSet.getString(2)))
+                                                              .stream()
+                                                              .filter(index -> nonUniqueIndexNames.contains(index.getLeft()))
+                                                              .collect(Collectors.toList());
+        try
+        {
+            for(final Pair<String, String> index : indexes)
+            {
+                JdbcUtility.update(this.databaseConnection, String.format("DROP INDEX \"%s\"", index.getLeft().replace("\"", "\"\"")));
+            }
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
+        }
 
-            byteOutputStream.setByteOrder(ByteOrder.BIG_ENDIAN); // TODO make this an option (?)
+        this.databaseConnection.commit();
 
-            geometry.writeWellKnownBinary(byteOutputStream);
+        return indexes.stream()
+                      .map(Pair::getRight)
+                      .collect(Collectors.toList());
+    }
 
-            return byteOutputStream.array();
+    /**
+     * Recreates indexes dropped by {@link #dropDeferrableIndexes(String)}.
+     * Any loaded features have already been committed or rolled back, so
+     * this only commits the indexes.
+     */
+    private void createIndexes(final List<String> indexDefinitions) throws SQLException
+    {
+        try
+        {
+            for(final String indexDefinition : indexDefinitions)
+            {
+                JdbcUtility.update(this.databaseConnection, indexDefinition);
+            }
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
         }
+
+        this.databaseConnection.commit();
+    }
+
+    private static String getAttributeIndexName(final FeatureSet featureSet,
+                                                final String...  columnNames)
+    {
+        if(featureSet == null)
+        {
+            throw new IllegalArgumentException("Feature set may not be null");
+        }
+
+        if(columnNames == null || columnNames.length == 0)
+        {
+            throw new IllegalArgumentException("Column names may not be null or empty");
+        }
+
+        if(!featureSet.getAttributeColumnNames().containsAll(Arrays.asList(columnNames)))
+        {
+            throw new IllegalArgumentException("Column names must be attribute columns of the feature set");
+        }
+
+        if(Arrays.stream(columnNames).distinct().count() != columnNames.length)
+        {
+            throw new IllegalArgumentException("Column names may not contain duplicates");
+        }
+
+        // Parentheses and commas can't appear in table or column names, so
+        // every list of columns gets a distinct name. The name has to be
+        // quoted wherever it's used.
+        return String.format("%s(%s)",
+                             featureSet.getTableName(),
+                             String.join(",", columnNames));
+    }
+
+    private static String getSpatialIndexTableName(final FeatureSet featureSet)
+    {
+        // http://www.geopackage.org/spec/#r33
+        return String.format("rtree_%s_%s",
+                             featureSet.getTableName(),
+                             featureSet.getGeometryColumnName());
+    }
+
+    /**
+     * Checks a feature against the requirements of a geometry column, and
+     * against the number of attribute columns being inserted
+     *
+     * @throws IllegalArgumentException
+     *             if the feature can't be added to the feature set
+     */
+    static void verifyFeature(final GeometryColumn               geometryColumn,
+                              final int                          attributeColumnCount,
+                              final Pair<Geometry, List<Object>> feature)
+    {
+        if(feature == null)
+        {
+            throw new IllegalArgumentException("Features collection may not contain null features");
+        }
+
+        final Geometry geometry = feature.getLeft();
+
+        if(geometry == null)
+        {
+            throw new IllegalArgumentException("Features collection may not contain null geometries");
+        }
+
+        final List<Object> attributes = feature.getRight();
+
+        if(attributes == null)
+        {
+            throw new IllegalArgumentException("Feature collection may not have a null set of attributes");
+        }
+
+        if(attributes.size() != attributeColumnCount)
+        {
+            throw new IllegalArgumentException("Feature attribute collections must match the size of the attribute column name collection");
+        }
+
+        if(!geometryColumn.getGeometryType()
+                          .toUpperCase()
+                          .equals(geometry.getGeometryTypeName()))
+        {
+            throw new IllegalArgumentException("Geometry column may only contain geometries of type " + geometryColumn.getGeometryType().toUpperCase());
+        }
+
+        verifyValueRequirements(geometryColumn, geometry);
+    }
+
+    /**
+     * Creates an insert statement whose parameters are the geometry, followed
+     * by the attributes in order
+     */
+    static String getInsertFeatureSql(final GeometryColumn geometryColumn,
+                                      final List<String>   attributeColumnNames)
+    {
+        final List<String> columnNames = new LinkedList<>(attributeColumnNames);
+
+        columnNames.add(0, geometryColumn.getColumnName());
+
+        return String.format("INSERT INTO %s (%s) VALUES (%s)",
+                             geometryColumn.getTableName(),
+                             String.join(", ", columnNames),
+                             String.join(", ", Collections.nCopies(columnNames.size(), "?")));
     }
 
     private static void verifyValueRequirements(final GeometryColumn geometryColumn, final Geometry geometry)
@@ -1007,7 +2036,38 @@ public class GeoPackageFeatures
      */
     public static final String GeometryColumnsTableName = "gpkg_geometry_columns";
 
+    /**
+     * Name of the GeoPackage spatial index extension
+     */
+    public static final String SpatialIndexExtensionName = "gpkg_rtree_index";
+
+    /**
+     * A feature whose geometry hasn't been decoded yet
+     */
+    private static final class FeatureRow
+    {
+        FeatureRow(final int      identifier,
+                   final byte[]   geoPackageBinaryBlob,
+                   final Object[] attributeValues)
+        {
+            this.identifier           = identifier;
+            this.geoPackageBinaryBlob = geoPackageBinaryBlob;
+            this.attributeValues      = attributeValues;
+        }
+
+        private final int      identifier;
+        private final byte[]   geoPackageBinaryBlob;
+        private final Object[] attributeValues;
+    }
+
+    private static final String SpatialIndexExtensionDefinition = "GeoPackage 1.0 Specification Annex L";
+
+    private static final int StatementCacheCapacity = 32;   // Idle feature query statements, across all connections
+
     private final Connection             databaseConnection;
+    private final ConnectionPool         readConnections;
     private final GeoPackageCore         core;
+    private final GeoPackageExtensions   extensions;
     private final WellKnownBinaryFactory wellKnownBinaryFactory = new WellKnownBinaryFactory();
+    private final PreparedStatementCache statementCache         = new PreparedStatementCache(StatementCacheCapacity);
 }
@@ -0,0 +1,217 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.geopackage.features.geometry.Geometry;
+
+import java.nio.ByteOrder;
+
+/**
+ * Encodes geometries as GeoPackage geometry blobs (a <a
+ * href="http://www.geopackage.org/spec/#gpb_spec">GeoPackage Binary
+ * Header</a> followed by the geometry's well known binary).
+ * <br>
+ * <br>
+ * Each thread gets its own encoder, and its own backing buffer. The buffer
+ * is reused from one geometry to the next, so a bulk insert settles at the
+ * size of its largest geometry rather than growing a new buffer for every
+ * row. The header is written directly, without an intermediate {@link
+ * BinaryHeader}. Its envelope is computed while the well known binary is
+ * written, and filled in afterwards, so each coordinate is only visited once
+ * rather than once by {@link Geometry#createEnvelope()} and again by {@link
+ * Geometry#writeWellKnownBinary(ByteOutputStream)}.
+ *
+ * @author Luke Lambert
+ */
+final class GeometryBlobEncoder
+{
+    private GeometryBlobEncoder()
+    {
+        this.byteOutputStream = new ByteOutputStream(InitialCapacity);
+    }
+
+    /**
+     * Encodes a geometry with the calling thread's encoder
+     *
+     * @param geometry
+     *             Geometry to encode
+     * @param spatialReferenceSystemIdentifier
+     *             Spatial reference system identifier for the geometry
+     * @return the bytes of a GeoPackage geometry blob
+     */
+    static byte[] encode(final Geometry geometry,
+                         final int      spatialReferenceSystemIdentifier)
+    {
+        return encoders.get().encodeGeometry(geometry, spatialReferenceSystemIdentifier);
+    }
+
+    private byte[] encodeGeometry(final Geometry geometry,
+                                  final int      spatialReferenceSystemIdentifier)
+    {
+        if(geometry == null)
+        {
+            throw new IllegalArgumentException("Geometry may not be null");
+        }
+
+        try
+        {
+            if(!geometry.isEmpty())
+            {
+                final byte[] bytes = this.writeGeometryWithEnvelope(geometry, spatialReferenceSystemIdentifier);
+
+                if(bytes != null)
+                {
+                    return bytes;
+                }
+
+                // Every coordinate was NaN (e.g. a collection of empty
+                // points), so the geometry has no envelope after all
+                this.byteOutputStream.reset();
+            }
+
+            this.writeHeader(geometry,
+                             spatialReferenceSystemIdentifier,
+                             EnvelopeContentsIndicator.NoEnvelope);
+
+            this.byteOutputStream.setByteOrder(ByteOrder.BIG_ENDIAN);
+
+            geometry.writeWellKnownBinary(this.byteOutputStream);
+
+            return this.byteOutputStream.array();
+        }
+        finally
+        {
+            this.byteOutputStream.reset();
+
+            // Don't let a single oversized geometry pin a large buffer to the thread
+            if(this.byteOutputStream.capacity() > MaximumRetainedCapacity)
+            {
+                this.byteOutputStream.close();
+                this.byteOutputStream = new ByteOutputStream(InitialCapacity);
+            }
+        }
+    }
+
+    /**
+     * Writes the header with space for the envelope, and then the well known
+     * binary while the stream records the range of its coordinates. The
+     * envelope is filled in afterwards, so the coordinates are only visited
+     * once.
+     *
+     * @return the bytes of the geometry blob, or null if the geometry's
+     *             coordinates are all NaN
+     */
+    private byte[] writeGeometryWithEnvelope(final Geometry geometry,
+                                             final int      spatialReferenceSystemIdentifier)
+    {
+        final EnvelopeContentsIndicator envelopeContentsIndicator = getEnvelopeContentsIndicator(geometry);
+
+        this.writeHeader(geometry,
+                         spatialReferenceSystemIdentifier,
+                         envelopeContentsIndicator);
+
+        final int envelopeOffset = this.byteOutputStream.size();
+
+        for(int index = 0; index < envelopeContentsIndicator.getArraySize(); ++index)
+        {
+            this.byteOutputStream.write(0.0);   // Placeholder
+        }
+
+        this.byteOutputStream.setByteOrder(ByteOrder.BIG_ENDIAN);
+        this.byteOutputStream.beginRange(envelopeContentsIndicator.getArraySize() / 2);
+
+        geometry.writeWellKnownBinary(this.byteOutputStream);
+
+        // Minimum x, maximum x, minimum y, maximum y, then the z and m ranges
+        // if present, which is the header's envelope order
+        final double[] envelope = this.byteOutputStream.endRange();
+
+        if(isEmpty(envelope))
+        {
+            return null;
+        }
+
+        this.byteOutputStream.setByteOrder(BinaryHeader.defaultByteOrder);
+
+        for(int index = 0; index < envelope.length; ++index)
+        {
+            this.byteOutputStream.writeAt(envelopeOffset + index * DoubleByteSize, envelope[index]);
+        }
+
+        return this.byteOutputStream.array();
+    }
+
+    private void writeHeader(final Geometry                  geometry,
+                             final int                       spatialReferenceSystemIdentifier,
+                             final EnvelopeContentsIndicator envelopeContentsIndicator)
+    {
+        // http://www.geopackage.org/spec/#gpb_spec
+        this.byteOutputStream.setByteOrder(BinaryHeader.defaultByteOrder);
+
+        this.byteOutputStream.write(BinaryHeader.magic);
+        this.byteOutputStream.write(BinaryHeader.defaultVersion);
+        this.byteOutputStream.write(BinaryHeader.createFlags(BinaryType.fromGeometryTypeName(geometry.getGeometryTypeName()),
+                                                             geometry.getContents(),
+                                                             envelopeContentsIndicator,
+                                                             BinaryHeader.defaultByteOrder));
+        this.byteOutputStream.write(spatialReferenceSystemIdentifier);
+    }
+
+    /**
+     * The envelope a non-empty geometry gets from {@link
+     * Geometry#createEnvelope()}, which depends only on its dimensions
+     */
+    private static EnvelopeContentsIndicator getEnvelopeContentsIndicator(final Geometry geometry)
+    {
+        if(geometry.hasZ())
+        {
+            return geometry.hasM() ? EnvelopeContentsIndicator.Xyzm
+                                   : EnvelopeContentsIndicator.Xyz;
+        }
+
+        return geometry.hasM() ? EnvelopeContentsIndicator.Xym
+                               : EnvelopeContentsIndicator.Xy;
+    }
+
+    private static boolean isEmpty(final double[] envelope)
+    {
+        for(final double value : envelope)
+        {
+            if(!Double.isNaN(value))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ByteOutputStream byteOutputStream;
+
+    private static final int InitialCapacity         = 256;
+    private static final int DoubleByteSize          = 8;
+    private static final int MaximumRetainedCapacity = 1 << 20; // 1 MiB
+
+    private static final ThreadLocal<GeometryBlobEncoder> encoders = ThreadLocal.withInitial(GeometryBlobEncoder::new);
+}
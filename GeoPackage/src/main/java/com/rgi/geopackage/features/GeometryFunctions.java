@@ -0,0 +1,157 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.common.util.functional.ThrowingFunction;
+import com.rgi.geopackage.features.geometry.xy.Envelope;
+import org.sqlite.Function;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * SQL functions over GeoPackage geometry blobs, registered with a SQLite
+ * connection.  These are the functions used by the triggers of the <a
+ * href="http://www.geopackage.org/spec/#extension_rtree">gpkg_rtree_index</a>
+ * extension, and must be available to any connection that modifies a feature
+ * table with a spatial index.
+ *
+ * @author Luke Lambert
+ *
+ */
+final class GeometryFunctions
+{
+    private GeometryFunctions()
+    {
+
+    }
+
+    /**
+     * Registers ST_MinX, ST_MaxX, ST_MinY, ST_MaxY and ST_IsEmpty with a
+     * database connection
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param envelopeReader
+     *             Gets the envelope of a GeoPackage geometry blob
+     * @throws SQLException
+     *             if a function couldn't be registered
+     */
+    static void register(final Connection                         databaseConnection,
+                         final ThrowingFunction<byte[], Envelope> envelopeReader) throws SQLException
+    {
+        Function.create(databaseConnection, "ST_MinX", new EnvelopeBound(envelopeReader, Envelope::getMinimumX));
+        Function.create(databaseConnection, "ST_MaxX", new EnvelopeBound(envelopeReader, Envelope::getMaximumX));
+        Function.create(databaseConnection, "ST_MinY", new EnvelopeBound(envelopeReader, Envelope::getMinimumY));
+        Function.create(databaseConnection, "ST_MaxY", new EnvelopeBound(envelopeReader, Envelope::getMaximumY));
+
+        Function.create(databaseConnection, "ST_IsEmpty", new IsEmpty());
+    }
+
+    /**
+     * One bound of a geometry's envelope, or NULL for a null or empty geometry
+     */
+    private static final class EnvelopeBound extends Function
+    {
+        EnvelopeBound(final ThrowingFunction<byte[], Envelope> envelopeReader,
+                      final ToDoubleFunction<Envelope>         bound)
+        {
+            this.envelopeReader = envelopeReader;
+            this.bound          = bound;
+        }
+
+        @Override
+        protected void xFunc() throws SQLException
+        {
+            if(this.args() != 1)
+            {
+                throw new SQLException("Function takes a single geometry argument");
+            }
+
+            final byte[] geoPackageBinaryBlob = this.value_blob(0);
+
+            if(geoPackageBinaryBlob == null)
+            {
+                this.result();
+                return;
+            }
+
+            final Envelope envelope;
+
+            try
+            {
+                envelope = this.envelopeReader.applyThrows(geoPackageBinaryBlob);
+            }
+            catch(final Throwable th)
+            {
+                throw new SQLException(th);
+            }
+
+            if(envelope == null || envelope.isEmpty())
+            {
+                this.result();
+            }
+            else
+            {
+                this.result(this.bound.applyAsDouble(envelope));
+            }
+        }
+
+        private final ThrowingFunction<byte[], Envelope> envelopeReader;
+        private final ToDoubleFunction<Envelope>         bound;
+    }
+
+    /**
+     * 1 if the geometry is empty, 0 if it isn't, or NULL for a null geometry
+     */
+    private static final class IsEmpty extends Function
+    {
+        @Override
+        protected void xFunc() throws SQLException
+        {
+            if(this.args() != 1)
+            {
+                throw new SQLException("Function takes a single geometry argument");
+            }
+
+            final byte[] geoPackageBinaryBlob = this.value_blob(0);
+
+            if(geoPackageBinaryBlob == null)
+            {
+                this.result();
+                return;
+            }
+
+            try
+            {
+                this.result(new BinaryHeader(geoPackageBinaryBlob).getContents() == Contents.Empty ? 1 : 0);
+            }
+            catch(final IllegalArgumentException ex)
+            {
+                throw new SQLException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Applies a CPU bound stage (e.g. geometry encoding or decoding) to a
+ * sequence of items on a worker pool, while the thread that adds the items
+ * receives the results in their original order.
+ * <br>
+ * <br>
+ * Items are grouped into chunks, and each chunk is one task. At most a fixed
+ * number of chunks are in flight; once that limit is reached, adding an item
+ * blocks on the oldest chunk and hands its results to the sink. The sink is
+ * only ever called from the adding thread, so it may use resources that
+ * aren't thread safe, such as a JDBC statement.
+ *
+ * @param <T> Type of the items
+ * @param <R> Type of the stage's results
+ * @param <E> Type of exception thrown by the stage
+ *
+ * @author Luke Lambert
+ */
+final class OrderedChunkPipeline<T, R, E extends Exception> implements AutoCloseable
+{
+    /**
+     * Work performed on the worker pool
+     *
+     * @param <T> Type of the items
+     * @param <R> Type of the stage's results
+     * @param <E> Type of exception thrown by the stage
+     */
+    @FunctionalInterface
+    interface Stage<T, R, E extends Exception>
+    {
+        R apply(final T item) throws E;
+    }
+
+    /**
+     * Receives each item and its result, in order, on the adding thread
+     *
+     * @param <T> Type of the items
+     * @param <R> Type of the stage's results
+     */
+    @FunctionalInterface
+    interface Sink<T, R>
+    {
+        void accept(final T item, final R result) throws SQLException;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor
+     *             Worker pool that runs the stage
+     * @param stage
+     *             Work applied to each item. Must be safe to call from
+     *             multiple threads.
+     * @param sink
+     *             Receives each item and its result, in the order the items
+     *             were added
+     * @param chunkSize
+     *             Number of items per task
+     * @param maximumChunksInFlight
+     *             Number of chunks that may be queued or running at once
+     */
+    OrderedChunkPipeline(final ExecutorService executor,
+                         final Stage<T, R, E>  stage,
+                         final Sink<T, R>      sink,
+                         final int             chunkSize,
+                         final int             maximumChunksInFlight)
+    {
+        if(executor == null)
+        {
+            throw new IllegalArgumentException("Executor may not be null");
+        }
+
+        if(stage == null)
+        {
+            throw new IllegalArgumentException("Stage may not be null");
+        }
+
+        if(sink == null)
+        {
+            throw new IllegalArgumentException("Sink may not be null");
+        }
+
+        if(chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+
+        if(maximumChunksInFlight < 1)
+        {
+            throw new IllegalArgumentException("Maximum number of chunks in flight must be at least 1");
+        }
+
+        this.executor              = executor;
+        this.stage                 = stage;
+        this.sink                  = sink;
+        this.chunkSize             = chunkSize;
+        this.maximumChunksInFlight = maximumChunksInFlight;
+        this.chunk                 = new ArrayList<>(chunkSize);
+    }
+
+    /**
+     * Adds an item to the pipeline. This may hand the results of earlier
+     * items to the sink.
+     *
+     * @param item
+     *             Item to process
+     * @throws E
+     *             if the stage failed for an earlier item
+     * @throws SQLException
+     *             if the sink failed, or if the thread was interrupted while
+     *             waiting for the stage
+     */
+    void add(final T item) throws E, SQLException
+    {
+        this.chunk.add(item);
+
+        if(this.chunk.size() == this.chunkSize)
+        {
+            this.submitChunk();
+        }
+    }
+
+    /**
+     * Processes the remaining items, and hands every outstanding result to
+     * the sink
+     *
+     * @throws E
+     *             if the stage failed
+     * @throws SQLException
+     *             if the sink failed, or if the thread was interrupted while
+     *             waiting for the stage
+     */
+    void finish() throws E, SQLException
+    {
+        if(!this.chunk.isEmpty())
+        {
+            this.submitChunk();
+        }
+
+        while(!this.chunksInFlight.isEmpty())
+        {
+            this.drainOldestChunk();
+        }
+    }
+
+    /**
+     * Cancels any chunks that haven't been handed to the sink
+     */
+    @Override
+    public void close()
+    {
+        this.chunksInFlight.forEach(chunkInFlight -> chunkInFlight.results.cancel(true));
+        this.chunksInFlight.clear();
+    }
+
+    private void submitChunk() throws E, SQLException
+    {
+        if(this.chunksInFlight.size() == this.maximumChunksInFlight)
+        {
+            this.drainOldestChunk();
+        }
+
+        final List<T> items = this.chunk;
+
+        this.chunk = new ArrayList<>(this.chunkSize);
+
+        this.chunksInFlight.add(new ChunkInFlight<>(items,
+                                                    this.executor.submit(() -> { final List<R> results = new ArrayList<>(items.size());
+
+                                                                                 for(final T item : items)
+                                                                                 {
+                                                                                     results.add(this.stage.apply(item));
+                                                                                 }
+
+                                                                                 return results;
+                                                                               })));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainOldestChunk() throws E, SQLException
+    {
+        final ChunkInFlight<T, R> oldest = this.chunksInFlight.remove();
+
+        final List<R> results;
+
+        try
+        {
+            results = oldest.results.get();
+        }
+        catch(final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pipeline stage", ex);
+        }
+        catch(final ExecutionException ex)
+        {
+            final Throwable cause = ex.getCause();
+
+            if(cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+
+            if(cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+
+            throw (E)cause; // The stage may only throw E
+        }
+
+        for(int index = 0; index < results.size(); ++index)
+        {
+            this.sink.accept(oldest.items.get(index), results.get(index));
+        }
+    }
+
+    private static final class ChunkInFlight<T, R>
+    {
+        ChunkInFlight(final List<T>         items,
+                      final Future<List<R>> results)
+        {
+            this.items   = items;
+            this.results = results;
+        }
+
+        private final List<T>         items;
+        private final Future<List<R>> results;
+    }
+
+    private final ExecutorService            executor;
+    private final Stage<T, R, E>             stage;
+    private final Sink<T, R>                 sink;
+    private final int                        chunkSize;
+    private final int                        maximumChunksInFlight;
+    private final Deque<ChunkInFlight<T, R>> chunksInFlight = new ArrayDeque<>();
+
+    private List<T> chunk;
+
+    /**
+     * Number of items per task used by the bulk feature methods
+     */
+    static final int DefaultChunkSize = 256;
+
+    /**
+     * Number of chunks in flight used by the bulk feature methods. This keeps
+     * every worker busy without buffering a whole table.
+     */
+    static final int DefaultChunksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+}
@@ -114,6 +114,27 @@ public class Envelope
                Double.isNaN(this.maximumY);
     }
 
+    /**
+     * Tests whether two envelopes share any points, including their
+     * boundaries.  An empty envelope intersects nothing.
+     *
+     * @param other
+     *             Envelope to test against
+     * @return true if the envelopes intersect
+     */
+    public boolean intersects(final Envelope other)
+    {
+        if(other == null)
+        {
+            throw new IllegalArgumentException("Envelope may not be null");
+        }
+
+        return this.minimumX <= other.maximumX &&
+               this.maximumX >= other.minimumX &&
+               this.minimumY <= other.maximumY &&
+               this.maximumY >= other.minimumY;
+    }
+
     public EnvelopeContentsIndicator getContentsIndicator()
     {
         return this.isEmpty() ? EnvelopeContentsIndicator.NoEnvelope
@@ -25,16 +25,21 @@ package com.rgi.geopackage.features.geometry.xy;
 
 import com.rgi.geopackage.features.ByteOutputStream;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
 /**
+ * A sequence of coordinates. Coordinates are stored packed in a single array
+ * of doubles (x0, y0, x1, y1, ...), so that reading a ring from well known
+ * binary allocates nothing per vertex. Use {@link #getX(int)} and {@link
+ * #getY(int)} for access without creating {@link Coordinate} objects.
+ *
  * @author Luke Lambert
  */
 public class LinearRing
@@ -68,7 +73,20 @@ public class LinearRing
             throw new IllegalArgumentException("Linear string may not contain null coordinates");
         }
 
-        this.coordinates = new ArrayList<>(coordinates);
+        this.coordinates = new double[2 * coordinates.size()];
+
+        int index = 0;
+
+        for(final Coordinate coordinate : coordinates)
+        {
+            this.coordinates[index++] = coordinate.getX();
+            this.coordinates[index++] = coordinate.getY();
+        }
+    }
+
+    private LinearRing(final double[] coordinates)
+    {
+        this.coordinates = coordinates;
     }
 
     @Override
@@ -84,23 +102,78 @@ public class LinearRing
             return false;
         }
 
-        return this.coordinates.equals(((LinearRing)obj).coordinates);
+        return Arrays.equals(this.coordinates, ((LinearRing)obj).coordinates);
     }
 
     @Override
     public int hashCode()
     {
-        return this.coordinates.hashCode();
+        // Same value as the hash code of the equivalent List<Coordinate>
+        int result = 1;
+
+        for(int index = 0; index < this.coordinates.length; index += 2)
+        {
+            final long longBitsX = Double.doubleToLongBits(this.coordinates[index]);
+            final long longBitsY = Double.doubleToLongBits(this.coordinates[index + 1]);
+
+            final int coordinateHash = 31 * (int)(longBitsX ^ (longBitsX >>> 32)) + (int)(longBitsY ^ (longBitsY >>> 32));
+
+            result = 31 * result + coordinateHash;
+        }
+
+        return result;
     }
 
+    /**
+     * Creates a {@link Coordinate} per point of the ring. Prefer {@link
+     * #getX(int)} and {@link #getY(int)} for large rings.
+     *
+     * @return the coordinates of the ring
+     */
     public List<Coordinate> getCoordinates()
     {
-        return Collections.unmodifiableList(this.coordinates);
+        final List<Coordinate> coordinateList = new ArrayList<>(this.getPointCount());
+
+        for(int pointIndex = 0; pointIndex < this.getPointCount(); ++pointIndex)
+        {
+            coordinateList.add(new Coordinate(this.getX(pointIndex),
+                                              this.getY(pointIndex)));
+        }
+
+        return Collections.unmodifiableList(coordinateList);
+    }
+
+    /**
+     * @return the number of points in the ring
+     */
+    public int getPointCount()
+    {
+        return this.coordinates.length / 2;
+    }
+
+    /**
+     * @param pointIndex
+     *             Index of a point in the ring
+     * @return the x value of the point
+     */
+    public double getX(final int pointIndex)
+    {
+        return this.coordinates[2 * pointIndex];
+    }
+
+    /**
+     * @param pointIndex
+     *             Index of a point in the ring
+     * @return the y value of the point
+     */
+    public double getY(final int pointIndex)
+    {
+        return this.coordinates[2 * pointIndex + 1];
     }
 
     public boolean isEmpty()
     {
-        return this.coordinates.isEmpty();
+        return this.coordinates.length == 0;
     }
 
     /**
@@ -110,13 +183,28 @@ public class LinearRing
      */
     public Envelope createEnvelope()
     {
-        //noinspection OptionalGetWithoutIsPresent
-        return this.coordinates.isEmpty() ? Envelope.Empty
-                                          : this.coordinates
-                                                .stream()
-                                                .map(Coordinate::createEnvelope)
-                                                .reduce(Envelope::combine)
-                                                .get();
+        if(this.coordinates.length == 0)
+        {
+            return Envelope.Empty;
+        }
+
+        double minimumX = Double.NaN;
+        double minimumY = Double.NaN;
+        double maximumX = Double.NaN;
+        double maximumY = Double.NaN;
+
+        for(int index = 0; index < this.coordinates.length; index += 2)
+        {
+            minimumX = Envelope.nanMinimum(minimumX, this.coordinates[index]);
+            maximumX = Envelope.nanMaximum(maximumX, this.coordinates[index]);
+            minimumY = Envelope.nanMinimum(minimumY, this.coordinates[index + 1]);
+            maximumY = Envelope.nanMaximum(maximumY, this.coordinates[index + 1]);
+        }
+
+        return new Envelope(minimumX,
+                            minimumY,
+                            maximumX,
+                            maximumY);
     }
 
     /**
@@ -132,9 +220,12 @@ public class LinearRing
             throw new IllegalArgumentException("Byte buffer may not be null");
         }
 
-        byteOutputStream.write(this.coordinates.size());
+        byteOutputStream.write(this.getPointCount());
 
-        this.coordinates.forEach(coordinate -> coordinate.writeWellKnownBinary(byteOutputStream));
+        for(final double value : this.coordinates)
+        {
+            byteOutputStream.write(value);
+        }
     }
 
     /**
@@ -153,16 +244,19 @@ public class LinearRing
 
         final long pointCount = Integer.toUnsignedLong(byteBuffer.getInt());
 
-        final Collection<Coordinate> coordinates = new LinkedList<>();
-
-        for(long pointIndex = 0; pointIndex < pointCount; ++pointIndex)
+        if(2 * 8 * pointCount > byteBuffer.remaining())    // 2 doubles of 8 bytes per point
         {
-            coordinates.add(new Coordinate(byteBuffer.getDouble(),
-                                           byteBuffer.getDouble()));
+            throw new BufferUnderflowException();
         }
 
+        final double[] coordinates = new double[2 * (int)pointCount];
+
+        byteBuffer.asDoubleBuffer().get(coordinates);   // The view shares the buffer's byte order, but not its position
+
+        byteBuffer.position(byteBuffer.position() + 8 * coordinates.length);
+
         return new LinearRing(coordinates);
     }
 
-    private final List<Coordinate> coordinates;
+    private final double[] coordinates;
 }
@@ -128,6 +128,34 @@ public class WkbLineString extends WkbCurve
         return this.linearString.getCoordinates();
     }
 
+    /**
+     * @return the number of points in the line string
+     */
+    public int getPointCount()
+    {
+        return this.linearString.getPointCount();
+    }
+
+    /**
+     * @param pointIndex
+     *             Index of a point in the line string
+     * @return the x value of the point
+     */
+    public double getX(final int pointIndex)
+    {
+        return this.linearString.getX(pointIndex);
+    }
+
+    /**
+     * @param pointIndex
+     *             Index of a point in the line string
+     * @return the y value of the point
+     */
+    public double getY(final int pointIndex)
+    {
+        return this.linearString.getY(pointIndex);
+    }
+
     /**
      * Assumes the ByteOutputStream's byte order has been properly set
      *
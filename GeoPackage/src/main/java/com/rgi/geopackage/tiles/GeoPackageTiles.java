@@ -24,24 +24,33 @@
 package com.rgi.geopackage.tiles;
 
 import com.rgi.common.BoundingBox;
+import com.rgi.common.Range;
 import com.rgi.common.coordinate.Coordinate;
 import com.rgi.common.coordinate.CoordinateReferenceSystem;
 import com.rgi.common.coordinate.CrsCoordinate;
 import com.rgi.common.tile.TileOrigin;
+import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.util.BoundsUtility;
 import com.rgi.common.util.jdbc.JdbcUtility;
 import com.rgi.geopackage.core.GeoPackageCore;
 import com.rgi.geopackage.core.SpatialReferenceSystem;
+import com.rgi.geopackage.utility.ConnectionPool;
 import com.rgi.geopackage.utility.DatabaseUtility;
 import com.rgi.geopackage.verification.VerificationIssue;
 import com.rgi.geopackage.verification.VerificationLevel;
 
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -59,9 +68,32 @@ public class GeoPackageTiles
      *             Access to GeoPackage's "core" methods
      */
     public GeoPackageTiles(final Connection databaseConnection, final GeoPackageCore core)
+    {
+        this(databaseConnection, core, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param core
+     *             Access to GeoPackage's "core" methods
+     * @param readConnections
+     *             Pool of additional connections to the same database. When
+     *             not null, {@link #getTile(TileSet, int, int, int)} and
+     *             {@link #getTileData(TileSet, int, int, int)} borrow a
+     *             connection from the pool for each request, and are safe to
+     *             call from multiple threads.  When null, all requests use
+     *             databaseConnection.
+     */
+    public GeoPackageTiles(final Connection     databaseConnection,
+                           final GeoPackageCore core,
+                           final ConnectionPool readConnections)
     {
         this.databaseConnection = databaseConnection;
         this.core               = core;
+        this.readConnections    = readConnections;
     }
 
     /**
@@ -408,30 +440,7 @@ public class GeoPackageTiles
             throw new IllegalArgumentException("Tile set may not be null");
         }
 
-        if(tileMatrix == null)
-        {
-            throw new IllegalArgumentException("Tile matrix may not be null");
-        }
-
-        if(imageData == null || imageData.length == 0) // TODO the standard restricts the image types to image/jpeg, image/png and image/x-webp (by extension only: http://www.geopackage.org/spec/#extension_tiles_webp)
-                                                       // TODO It'd be desirable to check the height/width of the image against the values described by the tile matrix, but this is difficult to do with a string of bytes.  One solution would be to changed to a java BufferedImage rather than raw bytes, but this *might* unnecessarily confine extension writers to to formats that fit into Java.ImageIO
-        {
-            throw new IllegalArgumentException("Image data may not be null or empty");
-        }
-
-        // Verify row and column are within the tile metadata's range
-        if(row < 0 || row >= tileMatrix.getMatrixHeight())
-        {
-            throw new IllegalArgumentException(String.format("Tile row %d is outside of the valid row range [0, %d] (0 to tile matrix metadata's matrix height - 1)",
-                                                             row,
-                                                             tileMatrix.getMatrixHeight()-1));
-        }
-        if(column < 0 || column >= tileMatrix.getMatrixWidth())
-        {
-            throw new IllegalArgumentException(String.format("Tile column %d is outside of the valid column range [0, %d] (0 to tile matrix metadata's matrix width - 1)",
-                                                             column,
-                                                             tileMatrix.getMatrixWidth()-1));
-        }
+        GeoPackageTiles.verifyTile(tileMatrix, column, row, imageData);
 
         final String insertTileSql = String.format("INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
                                                    tileSet.getTableName(),
@@ -499,10 +508,87 @@ public class GeoPackageTiles
                             imageData);
     }
 
+    /**
+     * Opens a {@link TileWriter} for bulk insertion of tiles into a tile set,
+     * using {@link TileWriter#DefaultMaximumBatchTileCount} and {@link
+     * TileWriter#DefaultMaximumBatchByteSize} as the commit thresholds
+     *
+     * @param tileSet
+     *            Tile set that which the tiles will be added to
+     * @return a {@link TileWriter} that must be closed by the caller
+     * @throws SQLException
+     *             if the tile writer's prepared statement cannot be created
+     */
+    public TileWriter openTileWriter(final TileSet tileSet) throws SQLException
+    {
+        return this.openTileWriter(tileSet,
+                                   TileWriter.DefaultMaximumBatchTileCount,
+                                   TileWriter.DefaultMaximumBatchByteSize);
+    }
+
+    /**
+     * Opens a {@link TileWriter} for bulk insertion of tiles into a tile set
+     *
+     * @param tileSet
+     *            Tile set that which the tiles will be added to
+     * @param maximumBatchTileCount
+     *            Maximum number of tiles to accumulate before the pending
+     *            batch is executed and committed
+     * @param maximumBatchByteSize
+     *            Maximum number of bytes of image data to accumulate before
+     *            the pending batch is executed and committed
+     * @return a {@link TileWriter} that must be closed by the caller
+     * @throws SQLException
+     *             if the tile writer's prepared statement cannot be created
+     */
+    public TileWriter openTileWriter(final TileSet tileSet,
+                                     final int     maximumBatchTileCount,
+                                     final long    maximumBatchByteSize) throws SQLException
+    {
+        return this.openTileWriter(tileSet,
+                                   maximumBatchTileCount,
+                                   maximumBatchByteSize,
+                                   TileOrder.Insertion);
+    }
+
+    /**
+     * Opens a {@link TileWriter} for bulk insertion of tiles into a tile set,
+     * where the tiles of each batch are sorted before they're inserted
+     *
+     * @param tileSet
+     *            Tile set that which the tiles will be added to
+     * @param maximumBatchTileCount
+     *            Maximum number of tiles to accumulate before the pending
+     *            batch is executed and committed
+     * @param maximumBatchByteSize
+     *            Maximum number of bytes of image data to accumulate before
+     *            the pending batch is executed and committed
+     * @param tileOrder
+     *            Order in which the tiles of each batch are inserted
+     * @return a {@link TileWriter} that must be closed by the caller
+     * @throws SQLException
+     *             if the tile writer's prepared statement cannot be created
+     */
+    public TileWriter openTileWriter(final TileSet   tileSet,
+                                     final int       maximumBatchTileCount,
+                                     final long      maximumBatchByteSize,
+                                     final TileOrder tileOrder) throws SQLException
+    {
+        return new TileWriter(this.databaseConnection,
+                              tileSet,
+                              maximumBatchTileCount,
+                              maximumBatchByteSize,
+                              tileOrder);
+    }
+
     /**
      * Gets tile coordinates for every tile in a tile set. A tile set need not
      * have an entry for every possible position in its respective tile
      * matrices.
+     * <br>
+     * <br>
+     * The stream is backed by an open database cursor and is populated lazily
+     * as it's consumed. It must be closed to release the cursor.
      *
      * @param tileSet
      *            Handle to the tile set that the requested tiles should belong
@@ -525,13 +611,12 @@ public class GeoPackageTiles
                                                "tile_row",
                                                tileSet.getTableName());
 
-        return JdbcUtility.select(this.databaseConnection,
+        return JdbcUtility.stream(this.databaseConnection,
                                   tileQuery,
                                   null,
                                   resultSet -> new TileCoordinate(resultSet.getInt(2),
                                                                   resultSet.getInt(3),
-                                                                  resultSet.getInt(1)))
-                          .stream();
+                                                                  resultSet.getInt(1)));
     }
 
     /**
@@ -539,6 +624,10 @@ public class GeoPackageTiles
      * The zoom level need not  have an entry for every possible position in
      * its respective tile matrices. If there are no tiles at this zoom level,
      * an empty stream will be returned.
+     * <br>
+     * <br>
+     * The stream is backed by an open database cursor and is populated lazily
+     * as it's consumed. It must be closed to release the cursor.
      *
      * @param tileSet
      *            Handle to the tile set that the requested tiles should belong
@@ -562,11 +651,147 @@ public class GeoPackageTiles
                                                "tile_row",
                                                tileSet.getTableName());
 
-        return JdbcUtility.select(this.databaseConnection,
+        return JdbcUtility.stream(this.databaseConnection,
                                   tileQuery,
                                   preparedStatement -> preparedStatement.setInt(1, zoomLevel),
-                                  resultSet -> new Coordinate<>(resultSet.getInt(1), resultSet.getInt(2)))
-                          .stream();
+                                  resultSet -> new Coordinate<>(resultSet.getInt(1), resultSet.getInt(2)));
+    }
+
+    /**
+     * Gets a stream of the tiles in a tile set that overlap an area, for a
+     * range of zoom levels. The column and row ranges that cover the area
+     * are calculated for each zoom level's tile matrix, and pushed down into
+     * a single query, so only the tiles in those ranges are read. Tiles that
+     * only share an edge with the area are not included.
+     * <br>
+     * <br>
+     * The stream is backed by an open database cursor and is populated lazily
+     * as it's consumed. It must be closed to release the cursor.
+     *
+     * @param tileSet
+     *            Handle to the tile set that the requested tiles should belong
+     * @param bounds
+     *            The area of the requested tiles, in the units of the tile
+     *            set's spatial reference system
+     * @param zoomLevels
+     *            The inclusive range of zoom levels of the requested tiles
+     * @return Returns a {@link Stream} of {@link TileCoordinate}s, in
+     *         ascending zoom level order
+     * @throws SQLException
+     *             when SQLException thrown by automatic close() invocation on
+     *             preparedStatement or if other SQLExceptions occur
+     */
+    public Stream<TileCoordinate> getTiles(final TileSet        tileSet,
+                                           final BoundingBox    bounds,
+                                           final Range<Integer> zoomLevels) throws SQLException
+    {
+        if(tileSet == null)
+        {
+            throw new IllegalArgumentException("Tile set cannot be null");
+        }
+
+        if(bounds == null)
+        {
+            throw new IllegalArgumentException("Bounds may not be null");
+        }
+
+        if(zoomLevels == null)
+        {
+            throw new IllegalArgumentException("Zoom level range may not be null");
+        }
+
+        final BoundingBox matrixSetBounds = this.getTileMatrixSet(tileSet).getBoundingBox();
+
+        final List<Integer>                    rangeZoomLevels = new ArrayList<>();
+        final List<Range<Coordinate<Integer>>> tileRanges      = new ArrayList<>();
+
+        for(final TileMatrix tileMatrix : this.getTileMatrices(tileSet))
+        {
+            if(tileMatrix.getZoomLevel() >= zoomLevels.getMinimum() &&
+               tileMatrix.getZoomLevel() <= zoomLevels.getMaximum())
+            {
+                final Range<Coordinate<Integer>> tileRange = BoundsUtility.tileRange(bounds,
+                                                                                     matrixSetBounds,
+                                                                                     new TileMatrixDimensions(tileMatrix.getMatrixWidth(),
+                                                                                                              tileMatrix.getMatrixHeight()),
+                                                                                     GeoPackageTiles.Origin);
+                if(tileRange != null)
+                {
+                    rangeZoomLevels.add(tileMatrix.getZoomLevel());
+                    tileRanges     .add(tileRange);
+                }
+            }
+        }
+
+        if(tileRanges.isEmpty())
+        {
+            return Stream.empty();
+        }
+
+        // SQLite answers each term of the disjunction with its own lookup on
+        // the (zoom_level, tile_column, tile_row) unique index
+        final String tileQuery = String.format("SELECT %s, %s, %s FROM %s WHERE %s ORDER BY %1$s;",
+                                               "zoom_level",
+                                               "tile_column",
+                                               "tile_row",
+                                               tileSet.getTableName(),
+                                               String.join(" OR ", Collections.nCopies(tileRanges.size(),
+                                                                                       "(zoom_level = ? AND tile_column BETWEEN ? AND ? AND tile_row BETWEEN ? AND ?)")));
+
+        return JdbcUtility.stream(this.databaseConnection,
+                                  tileQuery,
+                                  preparedStatement -> { int parameterIndex = 1;
+
+                                                         for(int index = 0; index < tileRanges.size(); ++index)
+                                                         {
+                                                             final Range<Coordinate<Integer>> tileRange = tileRanges.get(index);
+
+                                                             preparedStatement.setInt(parameterIndex++, rangeZoomLevels.get(index));
+                                                             preparedStatement.setInt(parameterIndex++, tileRange.getMinimum().getX());
+                                                             preparedStatement.setInt(parameterIndex++, tileRange.getMaximum().getX());
+                                                             preparedStatement.setInt(parameterIndex++, tileRange.getMinimum().getY());
+                                                             preparedStatement.setInt(parameterIndex++, tileRange.getMaximum().getY());
+                                                         }
+                                                       },
+                                  resultSet -> new TileCoordinate(resultSet.getInt(2),
+                                                                  resultSet.getInt(3),
+                                                                  resultSet.getInt(1)));
+    }
+
+    /**
+     * Gets the tile count, total encoded tile size and tile extents for every
+     * zoom level of a tile set that contains tiles. The figures are
+     * calculated with a single aggregate query, which reads the length of
+     * each tile's data without reading the data itself.
+     *
+     * @param tileSet
+     *            Handle to the tile set
+     * @return Returns a list of {@link TileMatrixStatistics}, in ascending
+     *         zoom level order. Zoom levels without any tiles are omitted.
+     * @throws SQLException
+     *             when SQLException thrown by automatic close() invocation on
+     *             preparedStatement or if other SQLExceptions occur
+     */
+    public List<TileMatrixStatistics> getTileStatistics(final TileSet tileSet) throws SQLException
+    {
+        if(tileSet == null)
+        {
+            throw new IllegalArgumentException("Tile set cannot be null");
+        }
+
+        final String statisticsQuery = String.format("SELECT zoom_level, COUNT(*), SUM(LENGTH(tile_data)), MIN(tile_column), MAX(tile_column), MIN(tile_row), MAX(tile_row) FROM %s GROUP BY zoom_level ORDER BY zoom_level;",
+                                                     tileSet.getTableName());
+
+        return JdbcUtility.select(this.databaseConnection,
+                                  statisticsQuery,
+                                  null,
+                                  resultSet -> new TileMatrixStatistics(resultSet.getInt(1),
+                                                                        resultSet.getLong(2),
+                                                                        resultSet.getLong(3),
+                                                                        resultSet.getInt(4),
+                                                                        resultSet.getInt(5),
+                                                                        resultSet.getInt(6),
+                                                                        resultSet.getInt(7)));
     }
 
     /**
@@ -596,26 +821,109 @@ public class GeoPackageTiles
             throw new IllegalArgumentException("Tile set cannot be null");
         }
 
-        final String tileQuery = String.format("SELECT %s, %s, %s, %s, %s FROM %s WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?;",
-                                               "id",
-                                               "zoom_level",
-                                               "tile_column",
-                                               "tile_row",
-                                               "tile_data",
-                                               tileSet.getTableName());
+        final Connection connection = this.takeReadConnection();
 
-        return JdbcUtility.selectOne(this.databaseConnection,
-                                     tileQuery,
-                                     preparedStatement -> { preparedStatement.setInt(1, zoomLevel);
-                                                            preparedStatement.setInt(2, column);
-                                                            preparedStatement.setInt(3, row);
-                                                          },
-                                     resultSet -> new Tile(resultSet.getInt(1),     // id
-                                                           resultSet.getInt(2),     // zoom level
-                                                           resultSet.getInt(3),     // column
-                                                           resultSet.getInt(4),     // row
-                                                           resultSet.getBytes(5))); // data
+        try
+        {
+            // Each connection has its own prepared queries. Without a read
+            // connection pool, every thread shares one connection, so a
+            // query's parameters and execution have to be done under its lock.
+            final Map<String, TileGetter> connectionTileGetters = this.tileGetters.computeIfAbsent(connection, key -> new HashMap<>());
 
+            final TileGetter tileGetter;
+
+            synchronized(connectionTileGetters)
+            {
+                final TileGetter existingTileGetter = connectionTileGetters.get(tileSet.getTableName());
+
+                if(existingTileGetter != null)
+                {
+                    tileGetter = existingTileGetter;
+                }
+                else
+                {
+                    tileGetter = new TileGetter(connection, tileSet);
+                    connectionTileGetters.put(tileSet.getTableName(), tileGetter);
+                }
+            }
+
+            synchronized(tileGetter)
+            {
+                return tileGetter.getTile(column, row, zoomLevel);
+            }
+        }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
+    }
+
+    /**
+     * Gets the image data of a tile. Unlike {@link #getTile(TileSet, int,
+     * int, int)}, only the tile_data column is read, and the data is returned
+     * as a read only view rather than a {@link Tile}. It can be decoded
+     * without further copies (e.g. with {@link
+     * com.rgi.common.util.ImageUtility#byteBufferToBufferedImage(ByteBuffer)}).
+     * Opening the GeoPackage with a memory mapped profile (e.g. {@link
+     * com.rgi.geopackage.utility.PragmaProfile#MappedRead}) lets SQLite read
+     * the data directly from the mapped file.
+     *
+     * @param tileSet
+     *            Handle to the tile set that the requested tile should belong
+     * @param column
+     *             The 'x' portion of the coordinate
+     * @param row
+     *             The 'y' portion of the coordinate
+     * @param zoomLevel
+     *             The zoom level associated with the coordinate
+     * @return Returns a read only buffer of the tile's image data, or null if
+     *             the tile isn't found
+     * @throws SQLException
+     *             if there is a database error
+     */
+    public ByteBuffer getTileData(final TileSet tileSet,
+                                  final int     column,
+                                  final int     row,
+                                  final int     zoomLevel) throws SQLException
+    {
+        if(tileSet == null)
+        {
+            throw new IllegalArgumentException("Tile set cannot be null");
+        }
+
+        final Connection connection = this.takeReadConnection();
+
+        try
+        {
+            // See getTile()
+            final Map<String, TileDataGetter> connectionTileDataGetters = this.tileDataGetters.computeIfAbsent(connection, key -> new HashMap<>());
+
+            final TileDataGetter tileDataGetter;
+
+            synchronized(connectionTileDataGetters)
+            {
+                final TileDataGetter existingTileDataGetter = connectionTileDataGetters.get(tileSet.getTableName());
+
+                if(existingTileDataGetter != null)
+                {
+                    tileDataGetter = existingTileDataGetter;
+                }
+                else
+                {
+                    tileDataGetter = new TileDataGetter(connection, tileSet);
+                    connectionTileDataGetters.put(tileSet.getTableName(), tileDataGetter);
+                }
+            }
+
+            synchronized(tileDataGetter)
+            {
+                return tileDataGetter.getTileData(column, row, zoomLevel);
+            }
+        }
+        finally
+        {
+            this.giveReadConnection(connection);
+        }
     }
 
     /**
@@ -907,7 +1215,49 @@ public class GeoPackageTiles
             throw new IllegalArgumentException("Invalid zoom level for this tile set");
         }
 
-        final TileMatrixSet tileMatrixSet = this.getTileMatrixSet(tileSet);
+        return GeoPackageTiles.crsToTileCoordinate(this.getTileMatrixSet(tileSet),
+                                                   tileMatrix,
+                                                   crsCoordinate,
+                                                   precision);
+    }
+
+    /**
+     * Convert a CRS coordinate to a tile coordinate relative to a tile set.
+     * Unlike {@link #crsToTileCoordinate(TileSet, CrsCoordinate, int, int)},
+     * this doesn't query the database, and doesn't check that the
+     * coordinate's reference system matches that of the tile set.
+     *
+     * @param tileMatrixSet
+     *            The tile set's tile matrix set
+     * @param tileMatrix
+     *            The tile set's tile matrix for the requested zoom level
+     * @param crsCoordinate
+     *            A coordinate in the tile set's coordinate reference system
+     * @param precision
+     *            Specifies a tolerance for coordinate value testings to a number of decimal places
+     * @return Returns a tile coordinate relative and specific to the tile
+     *         matrix. The input CRS coordinate would be contained in the the
+     *         associated tile bounds.
+     */
+    public static Coordinate<Integer> crsToTileCoordinate(final TileMatrixSet tileMatrixSet,
+                                                          final TileMatrix    tileMatrix,
+                                                          final CrsCoordinate crsCoordinate,
+                                                          final int           precision)
+    {
+        if(tileMatrixSet == null)
+        {
+            throw new IllegalArgumentException("Tile matrix set may not be null");
+        }
+
+        if(tileMatrix == null)
+        {
+            throw new IllegalArgumentException("Tile matrix may not be null");
+        }
+
+        if(crsCoordinate == null)
+        {
+            throw new IllegalArgumentException("CRS coordinate may not be null");
+        }
 
         final BoundingBox tileSetBounds = tileMatrixSet.getBoundingBox();
 
@@ -1105,6 +1455,51 @@ public class GeoPackageTiles
                                                                  resultSet.getDouble(6))); // pixel y size
     }
 
+    /**
+     * Verifies that a tile's image data is present, and that its column and
+     * row fall within the range of its tile matrix
+     *
+     * @param tileMatrix
+     *            Tile matrix associated with the tile set at the corresponding
+     *            zoom level
+     * @param column
+     *             The 'x' portion of the coordinate
+     * @param row
+     *             The 'y' portion of the coordinate
+     * @param imageData
+     *            The bytes of the image file
+     */
+    static void verifyTile(final TileMatrix tileMatrix,
+                           final int        column,
+                           final int        row,
+                           final byte[]     imageData)
+    {
+        if(tileMatrix == null)
+        {
+            throw new IllegalArgumentException("Tile matrix may not be null");
+        }
+
+        if(imageData == null || imageData.length == 0) // TODO the standard restricts the image types to image/jpeg, image/png and image/x-webp (by extension only: http://www.geopackage.org/spec/#extension_tiles_webp)
+                                                       // TODO It'd be desirable to check the height/width of the image against the values described by the tile matrix, but this is difficult to do with a string of bytes.  One solution would be to changed to a java BufferedImage rather than raw bytes, but this *might* unnecessarily confine extension writers to to formats that fit into Java.ImageIO
+        {
+            throw new IllegalArgumentException("Image data may not be null or empty");
+        }
+
+        // Verify row and column are within the tile metadata's range
+        if(row < 0 || row >= tileMatrix.getMatrixHeight())
+        {
+            throw new IllegalArgumentException(String.format("Tile row %d is outside of the valid row range [0, %d] (0 to tile matrix metadata's matrix height - 1)",
+                                                             row,
+                                                             tileMatrix.getMatrixHeight()-1));
+        }
+        if(column < 0 || column >= tileMatrix.getMatrixWidth())
+        {
+            throw new IllegalArgumentException(String.format("Tile column %d is outside of the valid column range [0, %d] (0 to tile matrix metadata's matrix width - 1)",
+                                                             column,
+                                                             tileMatrix.getMatrixWidth()-1));
+        }
+    }
+
     /**
      * Rounds the bounds to the appropriate level of accuracy
      * (2 decimal places for meters, 7 decimal places for degrees)
@@ -1124,8 +1519,25 @@ public class GeoPackageTiles
                                Math.ceil (bounds.getMaximumY()*divisor) / divisor);
     }
 
-    private final GeoPackageCore core;
-    private final Connection     databaseConnection;
+    private Connection takeReadConnection() throws SQLException
+    {
+        return this.readConnections == null ? this.databaseConnection
+                                            : this.readConnections.take();
+    }
+
+    private void giveReadConnection(final Connection connection)
+    {
+        if(this.readConnections != null)
+        {
+            this.readConnections.give(connection);
+        }
+    }
+
+    private final GeoPackageCore                               core;
+    private final Connection                                   databaseConnection;
+    private final ConnectionPool                               readConnections;
+    private final Map<Connection, Map<String, TileGetter>>     tileGetters     = new ConcurrentHashMap<>();  // Prepared tile queries, by connection, then by tile set table name. Each inner map is guarded by its own lock.
+    private final Map<Connection, Map<String, TileDataGetter>> tileDataGetters = new ConcurrentHashMap<>();  // Prepared tile data queries, by connection, then by tile set table name. Each inner map is guarded by its own lock.
 
     /**
      * The TileOrigin for GeoPackage's is UpperLeft
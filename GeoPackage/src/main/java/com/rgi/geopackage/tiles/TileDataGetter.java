@@ -0,0 +1,99 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.tiles;
+
+import com.rgi.common.util.jdbc.SavedParameterizedQuery;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reusable query for the image data of single tiles of a tile set. Only the
+ * tile_data column is read, and no {@link Tile} is created. Not thread safe
+ * (see {@link TileGetter}).
+ *
+ * @author Luke Lambert
+ */
+final class TileDataGetter extends SavedParameterizedQuery<ByteBuffer>
+{
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param tileSet
+     *             Handle to the tile set that tiles will be requested from
+     * @throws SQLException
+     *             if there is a database error
+     */
+    TileDataGetter(final Connection databaseConnection,
+                   final TileSet    tileSet) throws SQLException
+    {
+        super(databaseConnection,
+              () -> String.format("SELECT %s FROM %s WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?;",
+                                  "tile_data",
+                                  tileSet.getTableName()));
+    }
+
+    /**
+     * Gets a tile's image data
+     *
+     * @param column
+     *             The 'x' portion of the coordinate
+     * @param row
+     *             The 'y' portion of the coordinate
+     * @param zoomLevel
+     *             The zoom level associated with the coordinate
+     * @return a read only buffer of the tile's image data, or null if the
+     *             tile isn't found
+     * @throws SQLException
+     *             if there is a database error
+     */
+    ByteBuffer getTileData(final int column,
+                           final int row,
+                           final int zoomLevel) throws SQLException
+    {
+        this.getPreparedStatement().setInt(1, zoomLevel);
+        this.getPreparedStatement().setInt(2, column);
+        this.getPreparedStatement().setInt(3, row);
+
+        return this.execute();
+    }
+
+    @Override
+    protected ByteBuffer processResult(final ResultSet resultSet) throws SQLException
+    {
+        if(!resultSet.next())
+        {
+            return null;
+        }
+
+        final byte[] tileData = resultSet.getBytes(1);
+
+        return tileData == null ? null
+                                : ByteBuffer.wrap(tileData).asReadOnlyBuffer();
+    }
+}
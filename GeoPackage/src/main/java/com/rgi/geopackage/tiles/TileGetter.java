@@ -0,0 +1,99 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.tiles;
+
+import com.rgi.common.util.jdbc.SavedParameterizedQuery;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reusable query for single tiles of a tile set, so that repeated tile
+ * requests don't have to format and prepare the same statement. Not thread
+ * safe: callers that share a connection must hold the getter's lock while
+ * they use it.
+ *
+ * @author Luke Lambert
+ */
+final class TileGetter extends SavedParameterizedQuery<Tile>
+{
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param tileSet
+     *             Handle to the tile set that tiles will be requested from
+     * @throws SQLException
+     *             if there is a database error
+     */
+    TileGetter(final Connection databaseConnection,
+               final TileSet    tileSet) throws SQLException
+    {
+        super(databaseConnection,
+              () -> String.format("SELECT %s, %s, %s, %s, %s FROM %s WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?;",
+                                  "id",
+                                  "zoom_level",
+                                  "tile_column",
+                                  "tile_row",
+                                  "tile_data",
+                                  tileSet.getTableName()));
+    }
+
+    /**
+     * Gets a tile
+     *
+     * @param column
+     *             The 'x' portion of the coordinate
+     * @param row
+     *             The 'y' portion of the coordinate
+     * @param zoomLevel
+     *             The zoom level associated with the coordinate
+     * @return the requested tile, or null if it's not found
+     * @throws SQLException
+     *             if there is a database error
+     */
+    Tile getTile(final int column,
+                 final int row,
+                 final int zoomLevel) throws SQLException
+    {
+        this.getPreparedStatement().setInt(1, zoomLevel);
+        this.getPreparedStatement().setInt(2, column);
+        this.getPreparedStatement().setInt(3, row);
+
+        return this.execute();
+    }
+
+    @Override
+    protected Tile processResult(final ResultSet resultSet) throws SQLException
+    {
+        return resultSet.next() ? new Tile(resultSet.getInt(1),     // id
+                                           resultSet.getInt(2),     // zoom level
+                                           resultSet.getInt(3),     // column
+                                           resultSet.getInt(4),     // row
+                                           resultSet.getBytes(5))   // data
+                                : null;
+    }
+}
@@ -0,0 +1,133 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.tiles;
+
+/**
+ * Aggregate figures describing the tiles actually stored at a single zoom
+ * level of a tile set
+ *
+ * @author Luke Lambert
+ */
+public final class TileMatrixStatistics
+{
+    /**
+     * Constructor
+     *
+     * @param zoomLevel
+     *         Zoom level of the tiles
+     * @param tileCount
+     *         Number of tiles stored at the zoom level
+     * @param byteSize
+     *         Sum of the sizes, in bytes, of the tiles' encoded image data
+     * @param minimumColumn
+     *         Smallest tile column stored at the zoom level
+     * @param maximumColumn
+     *         Largest tile column stored at the zoom level
+     * @param minimumRow
+     *         Smallest tile row stored at the zoom level
+     * @param maximumRow
+     *         Largest tile row stored at the zoom level
+     */
+    TileMatrixStatistics(final int  zoomLevel,
+                         final long tileCount,
+                         final long byteSize,
+                         final int  minimumColumn,
+                         final int  maximumColumn,
+                         final int  minimumRow,
+                         final int  maximumRow)
+    {
+        this.zoomLevel     = zoomLevel;
+        this.tileCount     = tileCount;
+        this.byteSize      = byteSize;
+        this.minimumColumn = minimumColumn;
+        this.maximumColumn = maximumColumn;
+        this.minimumRow    = minimumRow;
+        this.maximumRow    = maximumRow;
+    }
+
+    /**
+     * @return Returns the zoom level of the tiles
+     */
+    public int getZoomLevel()
+    {
+        return this.zoomLevel;
+    }
+
+    /**
+     * @return Returns the number of tiles stored at the zoom level
+     */
+    public long getTileCount()
+    {
+        return this.tileCount;
+    }
+
+    /**
+     * @return Returns the sum of the sizes, in bytes, of the tiles' encoded
+     *         image data
+     */
+    public long getByteSize()
+    {
+        return this.byteSize;
+    }
+
+    /**
+     * @return Returns the smallest tile column stored at the zoom level
+     */
+    public int getMinimumColumn()
+    {
+        return this.minimumColumn;
+    }
+
+    /**
+     * @return Returns the largest tile column stored at the zoom level
+     */
+    public int getMaximumColumn()
+    {
+        return this.maximumColumn;
+    }
+
+    /**
+     * @return Returns the smallest tile row stored at the zoom level
+     */
+    public int getMinimumRow()
+    {
+        return this.minimumRow;
+    }
+
+    /**
+     * @return Returns the largest tile row stored at the zoom level
+     */
+    public int getMaximumRow()
+    {
+        return this.maximumRow;
+    }
+
+    private final int  zoomLevel;
+    private final long tileCount;
+    private final long byteSize;
+    private final int  minimumColumn;
+    private final int  maximumColumn;
+    private final int  minimumRow;
+    private final int  maximumRow;
+}
@@ -0,0 +1,87 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.rgi.geopackage.tiles;
+
+import com.rgi.common.tile.TileKey;
+
+/**
+ * Order in which a {@link TileWriter} inserts each batch of tiles. SQLite
+ * stores a table's rows in rowid order, so tiles that are inserted together
+ * share database pages. Ordering a batch along a space-filling curve places
+ * neighboring tiles on neighboring pages, which makes panning and range reads
+ * touch fewer pages. The order only holds within a batch: batches are stored
+ * in the order that they're committed, and neither they nor their tiles are
+ * reordered later, even by {@link com.rgi.geopackage.GeoPackage#compact()}.
+ *
+ * @author Luke Lambert
+ *
+ */
+public enum TileOrder
+{
+    /**
+     * Tiles are inserted in the order they're added
+     */
+    Insertion
+    {
+        @Override
+        long key(final int column, final int row)
+        {
+            return 0;
+        }
+    },
+
+    /**
+     * Tiles are sorted by zoom level, and then by their position on a
+     * Z-order (Morton) curve
+     */
+    Morton
+    {
+        @Override
+        long key(final int column, final int row)
+        {
+            return TileKey.mortonKey(0, column, row);
+        }
+    },
+
+    /**
+     * Tiles are sorted by zoom level, and then by their distance along a
+     * Hilbert curve
+     */
+    Hilbert
+    {
+        @Override
+        long key(final int column, final int row)
+        {
+            return TileKey.hilbertKey(0, column, row);
+        }
+    };
+
+    /**
+     * @param column
+     *             Tile column, in the range [0, {@value TileKey#MaximumTileIndex}]
+     * @param row
+     *             Tile row, in the range [0, {@value TileKey#MaximumTileIndex}]
+     * @return the tile's position within its zoom level
+     */
+    abstract long key(final int column, final int row);
+}
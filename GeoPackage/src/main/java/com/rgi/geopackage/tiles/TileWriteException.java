@@ -0,0 +1,149 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.tiles;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by a {@link TileWriter} when the database refuses some of the tiles
+ * of a batch (e.g. a tile that already exists). The rest of the batch has
+ * been committed; only the tiles reported by {@link #getRejectedTiles()}
+ * were lost.
+ *
+ * @author Luke Lambert
+ *
+ */
+@SuppressWarnings("serial")
+public class TileWriteException extends SQLException
+{
+    /**
+     * Constructor
+     *
+     * @param rejectedTiles
+     *             Tiles of the batch that weren't written
+     * @param batchFailure
+     *             The error that caused the batch to be re-applied one tile
+     *             at a time
+     */
+    public TileWriteException(final List<RejectedTile> rejectedTiles,
+                              final SQLException       batchFailure)
+    {
+        super(String.format("%d tile(s) of the batch could not be written", rejectedTiles.size()),
+              batchFailure);
+
+        this.rejectedTiles = Collections.unmodifiableList(new ArrayList<>(rejectedTiles));
+    }
+
+    /**
+     * @return the tiles of the batch that weren't written
+     */
+    public List<RejectedTile> getRejectedTiles()
+    {
+        return this.rejectedTiles;
+    }
+
+    /**
+     * A tile that was refused by the database
+     *
+     * @author Luke Lambert
+     *
+     */
+    public static class RejectedTile
+    {
+        /**
+         * Constructor
+         *
+         * @param zoomLevel
+         *             Zoom level of the tile
+         * @param column
+         *             The 'x' portion of the coordinate
+         * @param row
+         *             The 'y' portion of the coordinate
+         * @param reason
+         *             Why the tile was refused
+         */
+        public RejectedTile(final int          zoomLevel,
+                            final int          column,
+                            final int          row,
+                            final SQLException reason)
+        {
+            this.zoomLevel = zoomLevel;
+            this.column    = column;
+            this.row       = row;
+            this.reason    = reason;
+        }
+
+        /**
+         * @return the zoom level of the tile
+         */
+        public int getZoomLevel()
+        {
+            return this.zoomLevel;
+        }
+
+        /**
+         * @return the 'x' portion of the coordinate
+         */
+        public int getColumn()
+        {
+            return this.column;
+        }
+
+        /**
+         * @return the 'y' portion of the coordinate
+         */
+        public int getRow()
+        {
+            return this.row;
+        }
+
+        /**
+         * @return why the tile was refused
+         */
+        public SQLException getReason()
+        {
+            return this.reason;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("(zoom level %d, column %d, row %d): %s",
+                                 this.zoomLevel,
+                                 this.column,
+                                 this.row,
+                                 this.reason.getMessage());
+        }
+
+        private final int          zoomLevel;
+        private final int          column;
+        private final int          row;
+        private final SQLException reason;
+    }
+
+    private final List<RejectedTile> rejectedTiles;
+}
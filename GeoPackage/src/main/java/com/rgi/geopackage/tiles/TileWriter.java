@@ -0,0 +1,438 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.tiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.rgi.common.tile.TileKey;
+
+/**
+ * Bulk insertion of tiles into a single tile set. Unlike {@link
+ * GeoPackageTiles#addTile(TileSet, TileMatrix, int, int, byte[])}, which
+ * prepares a new statement and commits for every tile, a tile writer holds
+ * one {@link PreparedStatement} for its lifetime and accumulates tiles into
+ * JDBC batches. A batch is executed and committed once it reaches either the
+ * maximum tile count or the maximum number of bytes of image data, whichever
+ * comes first.
+ * <br>
+ * <br>
+ * Pending tiles are held in memory until their batch is executed. If the
+ * writer has a {@link TileOrder} other than {@link TileOrder#Insertion},
+ * they're sorted by zoom level and curve position first, so the batch
+ * thresholds also bound the size of the window being reordered.
+ * <br>
+ * <br>
+ * If the database refuses a tile (e.g. one that already exists), the batch
+ * is rolled back and re-applied one tile at a time. The tiles that are
+ * accepted are committed, and a {@link TileWriteException} that lists the
+ * refused tiles is thrown. Because batches are executed lazily, the
+ * exception may come from a later call to {@link #addTile(TileMatrix, int,
+ * int, byte[])}, or from {@link #flush()} or {@link #close()}, rather than
+ * from the call that added the refused tile.
+ * <br>
+ * <br>
+ * Tiles that have not yet been committed are not visible to other
+ * connections, and are discarded if the owning GeoPackage is closed before
+ * {@link #flush()} or {@link #close()} is called.
+ *
+ * @author Luke Lambert
+ *
+ */
+public class TileWriter implements AutoCloseable
+{
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param tileSet
+     *             Tile set that the tiles will be added to
+     * @param maximumBatchTileCount
+     *             Maximum number of tiles to accumulate before the batch is
+     *             executed and committed
+     * @param maximumBatchByteSize
+     *             Maximum number of bytes of image data to accumulate before
+     *             the batch is executed and committed
+     * @throws SQLException
+     *             if there is a database error
+     */
+    protected TileWriter(final Connection databaseConnection,
+                         final TileSet    tileSet,
+                         final int        maximumBatchTileCount,
+                         final long       maximumBatchByteSize) throws SQLException
+    {
+        this(databaseConnection,
+             tileSet,
+             maximumBatchTileCount,
+             maximumBatchByteSize,
+             TileOrder.Insertion);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param databaseConnection
+     *             The open connection to the database that contains a GeoPackage
+     * @param tileSet
+     *             Tile set that the tiles will be added to
+     * @param maximumBatchTileCount
+     *             Maximum number of tiles to accumulate before the batch is
+     *             executed and committed
+     * @param maximumBatchByteSize
+     *             Maximum number of bytes of image data to accumulate before
+     *             the batch is executed and committed
+     * @param tileOrder
+     *             Order in which the tiles of each batch are inserted
+     * @throws SQLException
+     *             if there is a database error
+     */
+    protected TileWriter(final Connection databaseConnection,
+                         final TileSet    tileSet,
+                         final int        maximumBatchTileCount,
+                         final long       maximumBatchByteSize,
+                         final TileOrder  tileOrder) throws SQLException
+    {
+        if(databaseConnection == null || databaseConnection.isClosed())
+        {
+            throw new IllegalArgumentException("Database connection may not be null or closed");
+        }
+
+        if(tileSet == null)
+        {
+            throw new IllegalArgumentException("Tile set may not be null");
+        }
+
+        if(maximumBatchTileCount <= 0)
+        {
+            throw new IllegalArgumentException("Maximum batch tile count must be greater than 0");
+        }
+
+        if(maximumBatchByteSize <= 0)
+        {
+            throw new IllegalArgumentException("Maximum batch byte size must be greater than 0");
+        }
+
+        if(tileOrder == null)
+        {
+            throw new IllegalArgumentException("Tile order may not be null");
+        }
+
+        this.databaseConnection    = databaseConnection;
+        this.tileSet               = tileSet;
+        this.maximumBatchTileCount = maximumBatchTileCount;
+        this.maximumBatchByteSize  = maximumBatchByteSize;
+        this.tileOrder             = tileOrder;
+        this.pendingTiles          = new ArrayList<>();
+
+        this.insertTileSql = String.format("INSERT INTO %s (%s, %s, %s, %s) VALUES (?, ?, ?, ?)",
+                                                   tileSet.getTableName(),
+                                                   "zoom_level",
+                                                   "tile_column",
+                                                   "tile_row",
+                                                   "tile_data");
+
+        this.preparedStatement = databaseConnection.prepareStatement(this.insertTileSql);
+    }
+
+    /**
+     * Queues a tile for insertion. If adding the tile causes the pending batch
+     * to reach one of its thresholds, the batch is executed and committed.
+     *
+     * @param tileMatrix
+     *             Tile matrix associated with the tile set at the
+     *             corresponding zoom level
+     * @param column
+     *             The 'x' portion of the coordinate
+     * @param row
+     *             The 'y' portion of the coordinate
+     * @param imageData
+     *             The bytes of the image file
+     * @throws TileWriteException
+     *             if the database refused some tiles of the batch that this
+     *             call caused to be executed. The tiles may have been added
+     *             by earlier calls.
+     * @throws SQLException
+     *             if there is a database error. The pending batch is rolled
+     *             back before the exception is rethrown.
+     */
+    public void addTile(final TileMatrix tileMatrix,
+                        final int        column,
+                        final int        row,
+                        final byte[]     imageData) throws SQLException
+    {
+        GeoPackageTiles.verifyTile(tileMatrix, column, row, imageData);
+
+        if(!tileMatrix.getTableName().equals(this.tileSet.getTableName()))
+        {
+            throw new IllegalArgumentException("Tile matrix does not belong to this tile writer's tile set");
+        }
+
+        this.pendingTiles.add(new PendingTile(tileMatrix.getZoomLevel(),
+                                              column,
+                                              row,
+                                              imageData,
+                                              this.tileOrder == TileOrder.Insertion || !TileKey.isValid(0, column, row) ? Long.MAX_VALUE  // Sorted after every tile that can be placed on the curve
+                                                                                                                        : this.tileOrder.key(column, row)));
+
+        ++this.pendingTileCount;
+        this.pendingByteSize += imageData.length;
+
+        if(this.pendingTileCount >= this.maximumBatchTileCount ||
+           this.pendingByteSize  >= this.maximumBatchByteSize)
+        {
+            this.flush();
+        }
+    }
+
+    /**
+     * Executes and commits any pending tiles
+     *
+     * @throws TileWriteException
+     *             if the database refused some of the pending tiles. The
+     *             other pending tiles have been committed.
+     * @throws SQLException
+     *             if there is a database error. The pending batch is rolled
+     *             back before the exception is rethrown.
+     */
+    public void flush() throws SQLException
+    {
+        if(this.pendingTileCount == 0)
+        {
+            return;
+        }
+
+        try
+        {
+            if(this.tileOrder != TileOrder.Insertion)
+            {
+                this.pendingTiles.sort(PendingTile.Order);
+            }
+
+            try
+            {
+                for(final PendingTile tile : this.pendingTiles)
+                {
+                    this.addBatch(tile);
+                }
+
+                this.preparedStatement.executeBatch();
+                this.databaseConnection.commit();
+
+                this.tileCount += this.pendingTileCount;
+            }
+            catch(final SQLException batchFailure)
+            {
+                this.preparedStatement.clearBatch();
+                this.databaseConnection.rollback();
+
+                this.reapply(batchFailure);
+            }
+        }
+        catch(final TileWriteException ex)
+        {
+            throw ex;   // The accepted tiles are already committed
+        }
+        catch(final Throwable th)
+        {
+            this.databaseConnection.rollback();
+            throw th;
+        }
+        finally
+        {
+            this.pendingTileCount = 0;
+            this.pendingByteSize  = 0;
+            this.pendingTiles.clear();
+        }
+    }
+
+    /**
+     * Flushes any pending tiles and releases the underlying prepared statement
+     *
+     * @throws TileWriteException
+     *             if the database refused some of the pending tiles
+     * @throws SQLException
+     *             if there is a database error
+     */
+    @Override
+    public void close() throws SQLException
+    {
+        try
+        {
+            this.flush();
+        }
+        finally
+        {
+            this.preparedStatement.close();
+        }
+    }
+
+    /**
+     * @return the tile set that this writer adds tiles to
+     */
+    public TileSet getTileSet()
+    {
+        return this.tileSet;
+    }
+
+    /**
+     * @return the number of tiles that have been written and committed by
+     *             this tile writer
+     */
+    public long getTileCount()
+    {
+        return this.tileCount;
+    }
+
+    /**
+     * @return the number of tiles that have been added, but not yet committed
+     */
+    public int getPendingTileCount()
+    {
+        return this.pendingTileCount;
+    }
+
+    /**
+     * @return the order in which the tiles of each batch are inserted
+     */
+    public TileOrder getTileOrder()
+    {
+        return this.tileOrder;
+    }
+
+    private void addBatch(final PendingTile tile) throws SQLException
+    {
+        this.setParameters(tile);
+        this.preparedStatement.addBatch();
+    }
+
+    private void setParameters(final PendingTile tile) throws SQLException
+    {
+        this.preparedStatement.setInt  (1, tile.zoomLevel);
+        this.preparedStatement.setInt  (2, tile.column);
+        this.preparedStatement.setInt  (3, tile.row);
+        this.preparedStatement.setBytes(4, tile.imageData);  // .setBlob() didn't work as advertised in the sqlite-jdbc driver
+    }
+
+    /**
+     * Inserts the pending tiles one at a time after their batch failed,
+     * commits the ones the database accepts, and reports the rest
+     */
+    private void reapply(final SQLException batchFailure) throws SQLException
+    {
+        final List<TileWriteException.RejectedTile> rejectedTiles = new ArrayList<>();
+
+        this.reprepare();   // The sqlite-jdbc driver won't reuse a statement that has failed
+
+        for(final PendingTile tile : this.pendingTiles)
+        {
+            try
+            {
+                this.setParameters(tile);
+                this.preparedStatement.executeUpdate();
+            }
+            catch(final SQLException ex)
+            {
+                rejectedTiles.add(new TileWriteException.RejectedTile(tile.zoomLevel, tile.column, tile.row, ex));
+                this.reprepare();
+            }
+        }
+
+        this.databaseConnection.commit();
+
+        this.tileCount += this.pendingTiles.size() - rejectedTiles.size();
+
+        if(!rejectedTiles.isEmpty())
+        {
+            throw new TileWriteException(rejectedTiles, batchFailure);
+        }
+    }
+
+    private void reprepare() throws SQLException
+    {
+        this.preparedStatement.close();
+        this.preparedStatement = this.databaseConnection.prepareStatement(this.insertTileSql);
+    }
+
+    private static final class PendingTile
+    {
+        PendingTile(final int    zoomLevel,
+                    final int    column,
+                    final int    row,
+                    final byte[] imageData,
+                    final long   key)
+        {
+            this.zoomLevel = zoomLevel;
+            this.column    = column;
+            this.row       = row;
+            this.imageData = imageData;
+            this.key       = key;
+        }
+
+        private final int    zoomLevel;
+        private final int    column;
+        private final int    row;
+        private final byte[] imageData;
+        private final long   key;
+
+        private static final Comparator<PendingTile> Order = Comparator.<PendingTile>comparingInt(tile -> tile.zoomLevel)
+                                                                       .thenComparingLong(tile -> tile.key)
+                                                                       .thenComparingInt (tile -> tile.column)
+                                                                       .thenComparingInt (tile -> tile.row);
+    }
+
+    private final Connection        databaseConnection;
+    private final TileSet           tileSet;
+    private final int               maximumBatchTileCount;
+    private final long              maximumBatchByteSize;
+    private final TileOrder         tileOrder;
+    private final List<PendingTile> pendingTiles;
+    private final String            insertTileSql;
+
+    private PreparedStatement preparedStatement;
+    private int               pendingTileCount = 0;
+    private long              pendingByteSize  = 0;
+    private long              tileCount        = 0;
+
+    /**
+     * Default maximum number of tiles per batch
+     */
+    public static final int DefaultMaximumBatchTileCount = 1000;
+
+    /**
+     * Default maximum number of bytes of image data per batch (64 MiB)
+     */
+    public static final long DefaultMaximumBatchByteSize = 64L * 1024L * 1024L;
+
+    /**
+     * Default maximum number of tiles per batch when the tiles of a batch are
+     * reordered. A larger batch gives the curve a larger area to order, and
+     * {@link #DefaultMaximumBatchByteSize} still bounds the memory held.
+     */
+    public static final int DefaultOrderedMaximumBatchTileCount = 16384;
+}
@@ -0,0 +1,160 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.utility;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A fixed size pool of database connections. Connections are borrowed with
+ * {@link #take()} and must be returned with {@link #give(Connection)}.
+ * Borrowing blocks until a connection is available.
+ *
+ * @author Luke Lambert
+ *
+ */
+public class ConnectionPool implements AutoCloseable
+{
+    /**
+     * Constructor
+     *
+     * @param connections
+     *             Open database connections that will be owned, and closed,
+     *             by this pool
+     */
+    public ConnectionPool(final Collection<Connection> connections)
+    {
+        if(connections == null || connections.isEmpty())
+        {
+            throw new IllegalArgumentException("Connection collection may not be null or empty");
+        }
+
+        if(connections.contains(null))
+        {
+            throw new IllegalArgumentException("Connection collection may not contain null");
+        }
+
+        this.connections = new ArrayList<>(connections);
+        this.available   = new ArrayBlockingQueue<>(connections.size(), false, connections);
+    }
+
+    /**
+     * Borrows a connection, waiting until one is available
+     *
+     * @return an open connection that must be returned to the pool with
+     *             {@link #give(Connection)}
+     * @throws SQLException
+     *             if the pool has been closed, or if the thread is
+     *             interrupted while waiting for a connection
+     */
+    public Connection take() throws SQLException
+    {
+        if(this.closed)
+        {
+            throw new SQLException("Connection pool has been closed");
+        }
+
+        try
+        {
+            return this.available.take();
+        }
+        catch(final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool
+     *
+     * @param connection
+     *             A connection previously returned by {@link #take()}
+     */
+    public void give(final Connection connection)
+    {
+        if(connection == null || !this.connections.contains(connection))
+        {
+            throw new IllegalArgumentException("Connection does not belong to this pool");
+        }
+
+        this.available.offer(connection);
+    }
+
+    /**
+     * @return the number of connections owned by the pool
+     */
+    public int size()
+    {
+        return this.connections.size();
+    }
+
+    /**
+     * Closes every connection owned by the pool, including those that are
+     * currently borrowed
+     *
+     * @throws SQLException
+     *             if closing any of the connections fails
+     */
+    @Override
+    public void close() throws SQLException
+    {
+        this.closed = true;
+
+        SQLException exception = null;
+
+        for(final Connection connection : this.connections)
+        {
+            try
+            {
+                connection.close();
+            }
+            catch(final SQLException ex)
+            {
+                if(exception == null)
+                {
+                    exception = ex;
+                }
+                else
+                {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+
+        if(exception != null)
+        {
+            throw exception;
+        }
+    }
+
+    private final List<Connection>          connections;
+    private final BlockingQueue<Connection> available;
+    private volatile boolean                closed;
+}
@@ -216,6 +216,84 @@ public class DatabaseUtility
         JdbcUtility.update(connection, "PRAGMA synchronous = OFF;");
     }
 
+    /**
+     * Applies a set of pragmas to a connection. Some pragmas (e.g.
+     * synchronous) can't be changed inside of a transaction, so this should
+     * be called before auto-commit is turned off.
+     *
+     * @param connection
+     *               connection to the database
+     * @param pragmaProfile
+     *               the pragmas to apply
+     * @throws SQLException
+     *                 throws if various SQLExceptions occur
+     */
+    public static void setPragmas(final Connection connection, final PragmaProfile pragmaProfile) throws SQLException
+    {
+        DatabaseUtility.verify(connection);
+
+        if(pragmaProfile == null)
+        {
+            throw new IllegalArgumentException("Pragma profile may not be null");
+        }
+
+        // The page size has to be set before the database file is written
+        // to, and an exclusive locking mode has to be set before WAL
+        if(pragmaProfile.getPageSize() > 0)
+        {
+            JdbcUtility.update(connection, String.format("PRAGMA page_size = %d;", pragmaProfile.getPageSize()));
+        }
+
+        if(pragmaProfile.getLockingMode() != null)
+        {
+            JdbcUtility.update(connection, String.format("PRAGMA locking_mode = %s;", pragmaProfile.getLockingMode()));
+        }
+
+        JdbcUtility.update(connection, String.format("PRAGMA journal_mode = %s;", pragmaProfile.getJournalMode()));
+        JdbcUtility.update(connection, String.format("PRAGMA synchronous = %s;",  pragmaProfile.getSynchronous()));
+
+        DatabaseUtility.setPragmaForeignKeys(connection, pragmaProfile.getForeignKeys());
+        DatabaseUtility.setReadPragmas(connection, pragmaProfile);
+    }
+
+    /**
+     * Applies the subset of a pragma profile that affects reads (cache size,
+     * temporary storage and memory mapped I/O). Unlike {@link
+     * #setPragmas(Connection, PragmaProfile)} none of these modify the
+     * database file, so they may be applied to read only connections.
+     *
+     * @param connection
+     *               connection to the database
+     * @param pragmaProfile
+     *               the pragmas to apply
+     * @throws SQLException
+     *                 throws if various SQLExceptions occur
+     */
+    public static void setReadPragmas(final Connection connection, final PragmaProfile pragmaProfile) throws SQLException
+    {
+        DatabaseUtility.verify(connection);
+
+        if(pragmaProfile == null)
+        {
+            throw new IllegalArgumentException("Pragma profile may not be null");
+        }
+
+        if(pragmaProfile.getCacheSize() != 0)
+        {
+            JdbcUtility.update(connection, String.format("PRAGMA cache_size = %d;", pragmaProfile.getCacheSize()));
+        }
+
+        if(pragmaProfile.getTempStore() != null)
+        {
+            JdbcUtility.update(connection, String.format("PRAGMA temp_store = %s;", pragmaProfile.getTempStore()));
+        }
+
+        if(pragmaProfile.getMmapSize() > 0)
+        {
+            JdbcUtility.update(connection, String.format("PRAGMA mmap_size = %d;", pragmaProfile.getMmapSize()));
+        }
+    }
+
     /**
      * Get the smallest value for a table and column <i>that does not yet exist
      * </i>
@@ -0,0 +1,172 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.utility;
+
+/**
+ * Named sets of SQLite pragmas that control the I/O behavior of a database
+ * connection. Profiles are applied by {@link
+ * DatabaseUtility#setPragmas(java.sql.Connection, PragmaProfile)} before the
+ * connection starts its first transaction.
+ *
+ * @author Luke Lambert
+ *
+ */
+public enum PragmaProfile
+{
+    /**
+     * In-memory rollback journal, no syncing, and immediate foreign key
+     * enforcement. Fast, but a crash or power loss during a write may corrupt
+     * the database.
+     */
+    Default("MEMORY", "OFF", true, 0, 0, null, null, 0),
+
+    /**
+     * For building large GeoPackages from a single process. Adds a large
+     * page cache, large pages (effective only for new files), in-memory
+     * temporary storage, and an exclusive lock that's held until the
+     * connection is closed. Foreign keys aren't enforced during the load; use
+     * {@link com.rgi.geopackage.GeoPackage#verify()} to check them afterwards.
+     */
+    BulkLoad("MEMORY", "OFF", false, -262144, 65536, "MEMORY", "EXCLUSIVE", 0),
+
+    /**
+     * For read-heavy serving. Write-ahead logging lets readers proceed while
+     * a writer commits, and memory mapped I/O avoids copying pages into the
+     * page cache. Write-ahead logging is a persistent property of the file,
+     * so it remains in effect for later connections, including read only
+     * ones.
+     */
+    ReadServe("WAL", "NORMAL", true, -65536, 0, null, null, 268435456L),
+
+    /**
+     * For random reads of large files. The whole file (up to SQLite's compile
+     * time limit on the mapping size) is memory mapped, so pages are read
+     * from the operating system's page cache rather than copied into a
+     * private page cache, which is kept small.
+     */
+    MappedRead("WAL", "NORMAL", true, -8192, 0, null, null, 1L << 40),
+
+    /**
+     * Durable writes: a rollback journal on disk, and a full sync at each
+     * commit
+     */
+    Safe("DELETE", "FULL", true, 0, 0, null, null, 0);
+
+    PragmaProfile(final String  journalMode,
+                  final String  synchronous,
+                  final boolean foreignKeys,
+                  final int     cacheSize,
+                  final int     pageSize,
+                  final String  tempStore,
+                  final String  lockingMode,
+                  final long    mmapSize)
+    {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.foreignKeys = foreignKeys;
+        this.cacheSize   = cacheSize;
+        this.pageSize    = pageSize;
+        this.tempStore   = tempStore;
+        this.lockingMode = lockingMode;
+        this.mmapSize    = mmapSize;
+    }
+
+    /**
+     * @return the value of PRAGMA journal_mode
+     */
+    public String getJournalMode()
+    {
+        return this.journalMode;
+    }
+
+    /**
+     * @return the value of PRAGMA synchronous
+     */
+    public String getSynchronous()
+    {
+        return this.synchronous;
+    }
+
+    /**
+     * @return the value of PRAGMA foreign_keys
+     */
+    public boolean getForeignKeys()
+    {
+        return this.foreignKeys;
+    }
+
+    /**
+     * @return the value of PRAGMA cache_size, in pages if positive, or in
+     *             KiB if negative. 0 leaves the SQLite default.
+     */
+    public int getCacheSize()
+    {
+        return this.cacheSize;
+    }
+
+    /**
+     * @return the value of PRAGMA page_size in bytes, or 0 to leave the
+     *             SQLite default
+     */
+    public int getPageSize()
+    {
+        return this.pageSize;
+    }
+
+    /**
+     * @return the value of PRAGMA temp_store, or null to leave the SQLite
+     *             default
+     */
+    public String getTempStore()
+    {
+        return this.tempStore;
+    }
+
+    /**
+     * @return the value of PRAGMA locking_mode, or null to leave the SQLite
+     *             default
+     */
+    public String getLockingMode()
+    {
+        return this.lockingMode;
+    }
+
+    /**
+     * @return the value of PRAGMA mmap_size in bytes, or 0 to leave memory
+     *             mapped I/O disabled
+     */
+    public long getMmapSize()
+    {
+        return this.mmapSize;
+    }
+
+    private final String  journalMode;
+    private final String  synchronous;
+    private final boolean foreignKeys;
+    private final int     cacheSize;
+    private final int     pageSize;
+    private final String  tempStore;
+    private final String  lockingMode;
+    private final long    mmapSize;
+}
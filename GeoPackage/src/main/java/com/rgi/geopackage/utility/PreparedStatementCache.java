@@ -0,0 +1,190 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.utility;
+
+import com.rgi.common.Pair;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of prepared statements, keyed by
+ * connection and SQL. Statements are borrowed with {@link #take(Connection,
+ * String)} and returned with {@link #give(Connection, String,
+ * PreparedStatement)}. A borrowed statement is removed from the cache, so
+ * the same SQL can be executed again (e.g. by a nested query) while the
+ * first statement's result set is still open; only one of the two is kept
+ * when they're returned.
+ *
+ * @author Luke Lambert
+ *
+ */
+public class PreparedStatementCache implements AutoCloseable
+{
+    /**
+     * Constructor
+     *
+     * @param capacity
+     *             Maximum number of idle statements to keep open. The least
+     *             recently used statement is closed when the capacity is
+     *             exceeded.
+     */
+    public PreparedStatementCache(final int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Borrows a prepared statement, preparing a new one if none is cached
+     *
+     * @param connection
+     *             Connection the statement belongs to
+     * @param sql
+     *             SQL of the statement
+     * @return a prepared statement that should be returned with {@link
+     *             #give(Connection, String, PreparedStatement)}
+     * @throws SQLException
+     *             if the statement can't be prepared
+     */
+    public PreparedStatement take(final Connection connection,
+                                  final String     sql) throws SQLException
+    {
+        if(connection == null)
+        {
+            throw new IllegalArgumentException("Connection may not be null");
+        }
+
+        if(sql == null || sql.isEmpty())
+        {
+            throw new IllegalArgumentException("SQL may not be null or empty");
+        }
+
+        final PreparedStatement cached;
+
+        synchronized(this.statements)
+        {
+            cached = this.statements.remove(Pair.of(connection, sql));
+        }
+
+        return cached != null ? cached
+                              : connection.prepareStatement(sql);
+    }
+
+    /**
+     * Returns a borrowed statement to the cache. Its parameters are cleared.
+     *
+     * @param connection
+     *             Connection the statement belongs to
+     * @param sql
+     *             SQL of the statement
+     * @param preparedStatement
+     *             A statement previously returned by {@link
+     *             #take(Connection, String)}
+     * @throws SQLException
+     *             if a statement can't be closed or cleared
+     */
+    public void give(final Connection        connection,
+                     final String            sql,
+                     final PreparedStatement preparedStatement) throws SQLException
+    {
+        if(preparedStatement == null || preparedStatement.isClosed())
+        {
+            return;
+        }
+
+        if(this.closed)
+        {
+            preparedStatement.close();
+            return;
+        }
+
+        preparedStatement.clearParameters();
+
+        final Collection<PreparedStatement> unwanted = new ArrayList<>(2);
+
+        synchronized(this.statements)
+        {
+            final PreparedStatement displaced = this.statements.put(Pair.of(connection, sql), preparedStatement);
+
+            if(displaced != null)
+            {
+                unwanted.add(displaced);
+            }
+
+            if(this.statements.size() > this.capacity)
+            {
+                final Map.Entry<Pair<Connection, String>, PreparedStatement> eldest = this.statements.entrySet().iterator().next();
+
+                unwanted.add(eldest.getValue());
+                this.statements.remove(eldest.getKey());
+            }
+        }
+
+        for(final PreparedStatement statement : unwanted)
+        {
+            statement.close();
+        }
+    }
+
+    /**
+     * Closes every idle statement. Statements that are returned after this
+     * call are closed rather than cached.
+     *
+     * @throws SQLException
+     *             if a statement can't be closed
+     */
+    @Override
+    public void close() throws SQLException
+    {
+        this.closed = true;
+
+        final Collection<PreparedStatement> idle;
+
+        synchronized(this.statements)
+        {
+            idle = new ArrayList<>(this.statements.values());
+            this.statements.clear();
+        }
+
+        for(final PreparedStatement statement : idle)
+        {
+            statement.close();
+        }
+    }
+
+    private final int                                                        capacity;
+    private final LinkedHashMap<Pair<Connection, String>, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);   // Access order, eldest first
+
+    private volatile boolean closed;
+}
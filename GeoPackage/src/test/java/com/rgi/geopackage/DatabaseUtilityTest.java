@@ -25,6 +25,7 @@ package com.rgi.geopackage;
 
 import com.rgi.geopackage.utility.DatabaseUtility;
 import com.rgi.geopackage.utility.DatabaseVersion;
+import com.rgi.geopackage.utility.PragmaProfile;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -144,6 +145,85 @@ public class DatabaseUtilityTest
         }
     }
 
+    /**
+     * Verifies that DatabaseUtility.setPragmas applies the Safe profile
+     */
+    @Test
+    public void databaseUtilitySetPragmasSafe() throws IOException, SQLException
+    {
+        try(final Connection connection = TestUtility.getConnection(TestUtility.getRandomFile()))
+        {
+            DatabaseUtility.setPragmas(connection, PragmaProfile.Safe);
+
+            try(final Statement statement = connection.createStatement())
+            {
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA journal_mode to delete.",
+                                 "delete",
+                                 resultSet.getString(1).toLowerCase());
+                }
+
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA synchronous;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA synchronous to full.",
+                                 2,
+                                 resultSet.getInt(1));
+                }
+
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA foreign_keys;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA foreign_keys to on.",
+                                 1,
+                                 resultSet.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that DatabaseUtility.setPragmas applies the BulkLoad profile
+     */
+    @Test
+    public void databaseUtilitySetPragmasBulkLoad() throws IOException, SQLException
+    {
+        try(final Connection connection = TestUtility.getConnection(TestUtility.getRandomFile()))
+        {
+            DatabaseUtility.setPragmas(connection, PragmaProfile.BulkLoad);
+
+            try(final Statement statement = connection.createStatement())
+            {
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA locking_mode;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA locking_mode to exclusive.",
+                                 "exclusive",
+                                 resultSet.getString(1).toLowerCase());
+                }
+
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA temp_store;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA temp_store to memory.",
+                                 2,
+                                 resultSet.getInt(1));
+                }
+
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA cache_size;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA cache_size.",
+                                 PragmaProfile.BulkLoad.getCacheSize(),
+                                 resultSet.getInt(1));
+                }
+
+                try(final ResultSet resultSet = statement.executeQuery("PRAGMA foreign_keys;"))
+                {
+                    assertEquals("DatabaseUtility did not set PRAGMA foreign_keys to off.",
+                                 0,
+                                 resultSet.getInt(1));
+                }
+            }
+        }
+    }
+
     /**
      * Checks to see if the Database BoundsUtility would accurately detect if a table
      * does not exists with the tableOrViewExists method.
@@ -32,6 +32,7 @@ import com.rgi.common.coordinate.referencesystem.profile.CrsProfileFactory;
 import com.rgi.common.coordinate.referencesystem.profile.EllipsoidalMercatorCrsProfile;
 import com.rgi.common.coordinate.referencesystem.profile.GlobalGeodeticCrsProfile;
 import com.rgi.common.coordinate.referencesystem.profile.SphericalMercatorCrsProfile;
+import com.rgi.common.tile.TileKey;
 import com.rgi.common.tile.scheme.TileMatrixDimensions;
 import com.rgi.common.tile.scheme.TileScheme;
 import com.rgi.common.tile.scheme.ZoomTimesTwo;
@@ -39,8 +40,12 @@ import com.rgi.common.util.ImageUtility;
 import com.rgi.geopackage.core.SpatialReferenceSystem;
 import com.rgi.geopackage.tiles.Tile;
 import com.rgi.geopackage.tiles.TileMatrix;
+import com.rgi.geopackage.tiles.TileCoordinate;
 import com.rgi.geopackage.tiles.TileMatrixSet;
+import com.rgi.geopackage.tiles.TileOrder;
 import com.rgi.geopackage.tiles.TileSet;
+import com.rgi.geopackage.tiles.TileWriteException;
+import com.rgi.geopackage.tiles.TileWriter;
 import com.rgi.geopackage.verification.ConformanceException;
 import com.rgi.geopackage.verification.VerificationLevel;
 import org.junit.BeforeClass;
@@ -48,7 +53,10 @@ import org.junit.Test;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -58,6 +66,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -1183,6 +1196,321 @@ public class GeoPackageTilesAPITest
         }
     }
 
+    /**
+     * Tests that a tile writer commits every tile it's given, both when a
+     * batch threshold is reached and when the writer is closed
+     */
+    @Test
+    public void tileWriterAddTiles() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final int    matrixWidth  = 4;
+        final int    matrixHeight = 4;
+        final byte[] imageData    = {(byte) 1, (byte) 2, (byte) 3, (byte) 4};
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 20.0, 50.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     2,
+                                                                     matrixWidth,
+                                                                     matrixHeight,
+                                                                     256,
+                                                                     256);
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(tileSet, 3, Long.MAX_VALUE))
+            {
+                for(int row = 0; row < matrixHeight; ++row)
+                {
+                    for(int column = 0; column < matrixWidth; ++column)
+                    {
+                        tileWriter.addTile(tileMatrix, column, row, imageData);
+                    }
+                }
+
+                assertEquals("The tile writer did not commit the expected number of tiles when its batch threshold was reached",
+                             15,
+                             tileWriter.getTileCount());
+
+                assertEquals("The tile writer did not retain the expected number of pending tiles",
+                             1,
+                             tileWriter.getPendingTileCount());
+            }
+
+            assertEquals("The tile writer did not write every tile it was given",
+                         matrixWidth * matrixHeight,
+                         gpkg.core().getRowCount(tileSet));
+
+            final Tile tile = gpkg.tiles().getTile(tileSet, 3, 3, 2);
+
+            assertTrue("The tile writer did not write the correct tile data",
+                       tile != null && Arrays.equals(imageData, tile.getImageData()));
+        }
+    }
+
+    /**
+     * Tests that when the database refuses a tile, a tile writer still
+     * commits the rest of the batch, and reports the refused tile
+     */
+    @Test
+    public void tileWriterRejectedTile() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final byte[] imageData = {(byte) 1, (byte) 2, (byte) 3, (byte) 4};
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 20.0, 50.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     2,
+                                                                     4,
+                                                                     4,
+                                                                     256,
+                                                                     256);
+
+            gpkg.tiles().addTile(tileSet, tileMatrix, 1, 0, imageData);
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(tileSet, 3, Long.MAX_VALUE))
+            {
+                tileWriter.addTile(tileMatrix, 0, 0, imageData);
+                tileWriter.addTile(tileMatrix, 1, 0, imageData);    // Already exists
+
+                try
+                {
+                    tileWriter.addTile(tileMatrix, 2, 0, imageData);    // Reaches the batch threshold
+                    fail("The tile writer should have reported the refused tile");
+                }
+                catch(final TileWriteException ex)
+                {
+                    assertEquals("The tile writer reported the incorrect number of refused tiles",
+                                 1,
+                                 ex.getRejectedTiles().size());
+
+                    assertEquals("The tile writer reported the wrong refused tile",
+                                 1,
+                                 ex.getRejectedTiles().get(0).getColumn());
+                }
+
+                assertEquals("The tile writer did not count the tiles it committed",
+                             2,
+                             tileWriter.getTileCount());
+
+                tileWriter.addTile(tileMatrix, 3, 0, imageData);    // The writer is still usable
+            }
+
+            assertEquals("The tile writer did not commit the tiles that the database accepted",
+                         4,
+                         gpkg.core().getRowCount(tileSet));
+        }
+    }
+
+    /**
+     * Tests that a tile writer with a Hilbert tile order inserts each batch
+     * sorted by zoom level, and then by distance along the curve, and that
+     * compacting the GeoPackage afterwards keeps every tile
+     */
+    @Test
+    public void tileWriterHilbertOrder() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final byte[] imageData = {(byte) 1, (byte) 2, (byte) 3, (byte) 4};
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 20.0, 50.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix zoomTwo = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet), 2, 4, 4, 256, 256);
+            final TileMatrix zoomOne = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet), 1, 2, 2, 256, 256);
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(tileSet,
+                                                                          TileWriter.DefaultOrderedMaximumBatchTileCount,
+                                                                          TileWriter.DefaultMaximumBatchByteSize,
+                                                                          TileOrder.Hilbert))
+            {
+                for(final TileMatrix tileMatrix : Arrays.asList(zoomTwo, zoomOne))
+                {
+                    for(int row = 0; row < tileMatrix.getMatrixHeight(); ++row)
+                    {
+                        for(int column = 0; column < tileMatrix.getMatrixWidth(); ++column)
+                        {
+                            tileWriter.addTile(tileMatrix, column, row, imageData);
+                        }
+                    }
+                }
+            }
+
+            gpkg.compact();
+
+            assertEquals("Compacting the GeoPackage changed the number of tiles",
+                         20,
+                         gpkg.core().getRowCount(tileSet));
+        }
+
+        try(final Connection con   = TestUtility.getConnection(testFile);
+            final Statement  stmt  = con.createStatement();
+            final ResultSet  tiles = stmt.executeQuery("SELECT zoom_level, tile_column, tile_row FROM tileSetName ORDER BY id"))
+        {
+            long previous = -1;
+
+            while(tiles.next())
+            {
+                final long key = TileKey.hilbertKey(tiles.getInt(1), tiles.getInt(2), tiles.getInt(3));
+
+                assertTrue("The tile writer did not insert tiles in Hilbert curve order", key > previous);
+
+                previous = key;
+            }
+        }
+    }
+
+    /**
+     * Tests that a tile writer rejects tiles outside of the tile matrix
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void tileWriterAddTileOutOfRange() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileMatrix tileMatrix = createTileSetAndTileMatrix(gpkg, new BoundingBox(0.0, 0.0, 20.0, 50.0), 0, 2, 2);
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(gpkg.tiles().getTileSet(tileMatrix.getTableName())))
+            {
+                tileWriter.addTile(tileMatrix, 2, 0, new byte[]{(byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            }
+
+            fail("Expected the tile writer to throw an IllegalArgumentException when adding a tile outside of the tile matrix");
+        }
+    }
+
+    /**
+     * Tests that a tile writer rejects tile matrices from other tile sets
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void tileWriterAddTileWrongTileMatrix() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileMatrix tileMatrix = createTileSetAndTileMatrix(gpkg, new BoundingBox(0.0, 0.0, 20.0, 50.0), 0, 2, 2);
+
+            final TileSet otherTileSet = gpkg.tiles()
+                                             .addTileSet("otherTileSet",
+                                                         "other",
+                                                         "tiles",
+                                                         new BoundingBox(0.0, 0.0, 20.0, 50.0),
+                                                         gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(otherTileSet))
+            {
+                tileWriter.addTile(tileMatrix, 0, 0, new byte[]{(byte) 1, (byte) 2, (byte) 3, (byte) 4});
+            }
+
+            fail("Expected the tile writer to throw an IllegalArgumentException when adding a tile with another tile set's tile matrix");
+        }
+    }
+
+    /**
+     * Tests that a tile writer can't be opened without a tile set
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void openTileWriterNullTileSet() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            gpkg.tiles().openTileWriter(null);
+
+            fail("Expected an IllegalArgumentException when opening a tile writer with a null tile set");
+        }
+    }
+
+    /**
+     * Tests that the lazily evaluated tile coordinate streams report every
+     * tile in a tile set
+     */
+    @Test
+    public void getTilesStream() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final int    matrixWidth  = 4;
+        final int    matrixHeight = 4;
+        final byte[] imageData    = {(byte) 1, (byte) 2, (byte) 3, (byte) 4};
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 20.0, 50.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     2,
+                                                                     matrixWidth,
+                                                                     matrixHeight,
+                                                                     256,
+                                                                     256);
+
+            try(final TileWriter tileWriter = gpkg.tiles().openTileWriter(tileSet))
+            {
+                for(int row = 0; row < matrixHeight; ++row)
+                {
+                    for(int column = 0; column < matrixWidth; ++column)
+                    {
+                        tileWriter.addTile(tileMatrix, column, row, imageData);
+                    }
+                }
+            }
+
+            try(final Stream<TileCoordinate> tiles = gpkg.tiles().getTiles(tileSet))
+            {
+                assertEquals("The tile stream did not report every tile in the tile set",
+                             matrixWidth * matrixHeight,
+                             tiles.filter(tile -> tile.getZoomLevel() == 2).count());
+            }
+
+            try(final Stream<Coordinate<Integer>> tiles = gpkg.tiles().getTiles(tileSet, 2))
+            {
+                assertEquals("The tile stream did not report every tile in the zoom level",
+                             matrixWidth * matrixHeight,
+                             tiles.count());
+            }
+
+            try(final Stream<Coordinate<Integer>> tiles = gpkg.tiles().getTiles(tileSet, 3))
+            {
+                assertEquals("The tile stream for an empty zoom level was not empty",
+                             0,
+                             tiles.count());
+            }
+        }
+    }
+
     /**
      * Tests if the GeoPackage get tile will retrieve the correct tile with get tile method.
      */
@@ -1364,6 +1692,258 @@ public class GeoPackageTilesAPITest
         }
     }
 
+    /**
+     * Tests that getTileData returns the image data of a tile, and null for a
+     * missing tile
+     */
+    @Test
+    public void getTileData() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 80.0, 50.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     0,
+                                                                     3,
+                                                                     2,
+                                                                     256,
+                                                                     512);
+
+            final byte[] imageData = {(byte) 1, (byte) 2, (byte) 3, (byte) 4};
+
+            gpkg.tiles().addTile(tileSet, tileMatrix, 2, 1, imageData);
+
+            final ByteBuffer tileData = gpkg.tiles().getTileData(tileSet, 2, 1, 0);
+
+            final byte[] tileDataBytes = new byte[tileData.remaining()];
+            tileData.get(tileDataBytes);
+
+            assertTrue("GeoPackage did not return the tile data that was added", Arrays.equals(imageData, tileDataBytes));
+            assertTrue("GeoPackage should return a read only view of the tile data", tileData.isReadOnly());
+            assertNull("GeoPackage should return null for the data of a missing tile", gpkg.tiles().getTileData(tileSet, 0, 0, 0));
+        }
+    }
+
+    /**
+     * Tests that tiles can be read concurrently from a GeoPackage opened with
+     * {@link GeoPackage.OpenMode#ReadOnly}
+     */
+    @Test
+    public void getTileReadOnlyConcurrent() throws ClassNotFoundException, SQLException, ConformanceException, IOException, InterruptedException, ExecutionException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final int matrixWidth  = 4;
+        final int matrixHeight = 4;
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 80.0, 80.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     2,
+                                                                     matrixWidth,
+                                                                     matrixHeight,
+                                                                     256,
+                                                                     256);
+
+            for(int column = 0; column < matrixWidth; ++column)
+            {
+                for(int row = 0; row < matrixHeight; ++row)
+                {
+                    gpkg.tiles().addTile(tileSet, tileMatrix, column, row, new byte[]{(byte)column, (byte)row});
+                }
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try(GeoPackage gpkg = new GeoPackage(testFile, GeoPackage.OpenMode.ReadOnly))
+        {
+            assertTrue("GeoPackage opened with OpenMode.ReadOnly should report that it's read only", gpkg.isReadOnly());
+
+            final TileSet tileSet = gpkg.tiles().getTileSet("tileSetName");
+
+            final Collection<Future<Boolean>> results = new ArrayList<>();
+
+            for(int request = 0; request < 256; ++request)
+            {
+                final int column = request % matrixWidth;
+                final int row    = (request / matrixWidth) % matrixHeight;
+
+                results.add(executor.submit(() -> Arrays.equals(gpkg.tiles().getTile(tileSet, column, row, 2).getImageData(),
+                                                                new byte[]{(byte)column, (byte)row})));
+            }
+
+            for(final Future<Boolean> result : results)
+            {
+                assertTrue("GeoPackage returned the wrong tile data during concurrent reads", result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that tiles can be read concurrently from a GeoPackage opened for
+     * writing, where every thread shares one connection and its prepared
+     * tile queries
+     */
+    @Test
+    public void getTileSharedConnectionConcurrent() throws ClassNotFoundException, SQLException, ConformanceException, IOException, InterruptedException, ExecutionException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        final int matrixWidth  = 4;
+        final int matrixHeight = 4;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            final TileSet tileSet = gpkg.tiles()
+                                        .addTileSet("tileSetName",
+                                                    "title",
+                                                    "tiles",
+                                                    new BoundingBox(0.0, 0.0, 80.0, 80.0),
+                                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            final TileMatrix tileMatrix = gpkg.tiles().addTileMatrix(gpkg.tiles().getTileMatrixSet(tileSet),
+                                                                     2,
+                                                                     matrixWidth,
+                                                                     matrixHeight,
+                                                                     256,
+                                                                     256);
+
+            for(int column = 0; column < matrixWidth; ++column)
+            {
+                for(int row = 0; row < matrixHeight; ++row)
+                {
+                    gpkg.tiles().addTile(tileSet, tileMatrix, column, row, new byte[]{(byte)column, (byte)row});
+                }
+            }
+
+            final Collection<Future<Boolean>> results = new ArrayList<>();
+
+            for(int request = 0; request < 512; ++request)
+            {
+                final int column = request % matrixWidth;
+                final int row    = (request / matrixWidth) % matrixHeight;
+
+                final byte[] expected = {(byte)column, (byte)row};
+
+                if(request % 2 == 0)
+                {
+                    results.add(executor.submit(() -> Arrays.equals(gpkg.tiles().getTile(tileSet, column, row, 2).getImageData(),
+                                                                    expected)));
+                }
+                else
+                {
+                    results.add(executor.submit(() -> gpkg.tiles().getTileData(tileSet, column, row, 2).equals(ByteBuffer.wrap(expected))));
+                }
+            }
+
+            for(final Future<Boolean> result : results)
+            {
+                assertTrue("GeoPackage returned the wrong tile data during concurrent reads on a shared connection", result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that opening a GeoPackage with {@link GeoPackage.OpenMode#ReadOnly}
+     * doesn't modify the file, e.g. by changing its journal mode
+     */
+    @Test
+    public void openReadOnlyDoesNotModifyFile() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage gpkg = new GeoPackage(testFile))
+        {
+            gpkg.tiles().addTileSet("tileSetName",
+                                    "title",
+                                    "tiles",
+                                    new BoundingBox(0.0, 0.0, 80.0, 80.0),
+                                    gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+        }
+
+        final byte[] header = Arrays.copyOf(Files.readAllBytes(testFile.toPath()), 100);
+
+        try(GeoPackage gpkg = new GeoPackage(testFile, GeoPackage.OpenMode.ReadOnly))
+        {
+            gpkg.tiles().getTileSet("tileSetName");
+        }
+
+        assertTrue("Opening a GeoPackage read only modified its header",
+                   Arrays.equals(header, Arrays.copyOf(Files.readAllBytes(testFile.toPath()), 100)));
+
+        assertTrue("Opening a GeoPackage read only left a write-ahead log behind",
+                   !new File(testFile.getPath() + "-wal").exists() &&
+                   !new File(testFile.getPath() + "-shm").exists());
+    }
+
+    /**
+     * Tests that opening a GeoPackage with {@link GeoPackage.OpenMode#ReadOnly}
+     * fails if the file doesn't exist
+     */
+    @Test(expected = FileNotFoundException.class)
+    public void openReadOnlyMissingFile() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage ignored = new GeoPackage(testFile, GeoPackage.OpenMode.ReadOnly))
+        {
+            fail("Expected GeoPackage to throw a FileNotFoundException when opening a file that doesn't exist in read only mode");
+        }
+    }
+
+    /**
+     * Tests that a GeoPackage opened with {@link GeoPackage.OpenMode#ReadOnly}
+     * can't be modified
+     */
+    @Test(expected = SQLException.class)
+    public void addTileSetReadOnly() throws ClassNotFoundException, SQLException, ConformanceException, IOException
+    {
+        final File testFile = TestUtility.getRandomFile();
+
+        try(GeoPackage ignored = new GeoPackage(testFile))
+        {
+            // Create an empty GeoPackage
+        }
+
+        try(GeoPackage gpkg = new GeoPackage(testFile, GeoPackage.OpenMode.ReadOnly))
+        {
+            gpkg.tiles()
+                .addTileSet("tileSetName",
+                            "title",
+                            "tiles",
+                            new BoundingBox(0.0, 0.0, 80.0, 80.0),
+                            gpkg.core().getSpatialReferenceSystem("EPSG", 4326));
+
+            fail("Expected GeoPackage to throw an SQLException when adding a tile set to a read only GeoPackage");
+        }
+    }
+
     /**
      * Tests if GeoPackage will throw an IllegalArgumentException when using getTile method with null value for table name.
      */
@@ -36,6 +36,7 @@ import java.util.Objects;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 /**
@@ -480,5 +481,87 @@ public class BinaryHeaderTest
         }
     }
 
+    /**
+     * Test envelopeIntersects() against a header written by writeBytes()
+     */
+    @Test
+    public void envelopeIntersects()
+    {
+        try(final ByteOutputStream byteOutputStream = new ByteOutputStream())
+        {
+            BinaryHeader.writeBytes(byteOutputStream,
+                                    new WkbPoint(5.0, 10.0),
+                                    4326);
+
+            final byte[] bytes = byteOutputStream.array();
+
+            assertSame("envelopeIntersects() failed to accept an intersecting envelope",
+                       Boolean.TRUE,
+                       BinaryHeader.envelopeIntersects(bytes, new Envelope(0.0, 0.0, 5.0, 10.0)));
+
+            assertSame("envelopeIntersects() failed to reject a disjoint envelope",
+                       Boolean.FALSE,
+                       BinaryHeader.envelopeIntersects(bytes, new Envelope(0.0, 0.0, 4.0, 10.0)));
+        }
+    }
+
+    /**
+     * Test envelopeIntersects() with a little endian header
+     */
+    @Test
+    public void envelopeIntersectsLittleEndian()
+    {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+
+        byteBuffer.put((byte)71); // 'G'
+        byteBuffer.put((byte)80); // 'P'
+        byteBuffer.put((byte)0);  // Version "1"
+        byteBuffer.put((byte)(EnvelopeContentsIndicator.Xy.getCode() << 1 | 0b00000001));
+        byteBuffer.putInt(4326);
+
+        byteBuffer.putDouble(-10.0); // min x
+        byteBuffer.putDouble(-5.0);  // max x
+        byteBuffer.putDouble(20.0);  // min y
+        byteBuffer.putDouble(30.0);  // max y
+
+        assertSame("envelopeIntersects() failed to accept an intersecting envelope",
+                   Boolean.TRUE,
+                   BinaryHeader.envelopeIntersects(byteBuffer.array(), new Envelope(-6.0, 29.0, 0.0, 40.0)));
+
+        assertSame("envelopeIntersects() failed to reject a disjoint envelope",
+                   Boolean.FALSE,
+                   BinaryHeader.envelopeIntersects(byteBuffer.array(), new Envelope(-6.0, 31.0, 0.0, 40.0)));
+    }
+
+    /**
+     * Test envelopeIntersects() with an empty geometry, and with no envelope
+     */
+    @Test
+    public void envelopeIntersectsNoEnvelope()
+    {
+        final byte[] empty      = {(byte)71, (byte)80, (byte)0, Contents.Empty.getBitMask(), (byte)0, (byte)0, (byte)0, (byte)0};
+        final byte[] noEnvelope = {(byte)71, (byte)80, (byte)0, (byte)0,                     (byte)0, (byte)0, (byte)0, (byte)0};
+
+        final Envelope envelope = new Envelope(0.0, 0.0, 1.0, 1.0);
+
+        assertSame("envelopeIntersects() failed to reject an empty geometry",
+                   Boolean.FALSE,
+                   BinaryHeader.envelopeIntersects(empty, envelope));
+
+        assertNull("envelopeIntersects() should be indeterminate without a header envelope",
+                   BinaryHeader.envelopeIntersects(noEnvelope, envelope));
+    }
+
+    /**
+     * Test envelopeIntersects() with an array that's too short for its envelope
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void envelopeIntersectsArrayTooShortForEnvelopeIndicator()
+    {
+        final byte[] bytes = {(byte)71, (byte)80, (byte)0, (byte)0b00001000, (byte)0, (byte)0, (byte)0, (byte)0};
+
+        BinaryHeader.envelopeIntersects(bytes, new Envelope(0.0, 0.0, 1.0, 1.0));
+    }
+
     private static final double[] emptyEnvelope = {};
 }
@@ -28,6 +28,7 @@ import org.junit.Test;
 import java.nio.ByteOrder;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
@@ -412,4 +413,40 @@ public class ByteOutputStreamTest
             fail("setByteOrder failed to throw on a null ByteOrder");
         }
     }
+
+    /**
+     * Reset should discard the written bytes but keep the backing buffer
+     */
+    @Test
+    public void reset()
+    {
+        try(final ByteOutputStream byteOutputStream = new ByteOutputStream(1))
+        {
+            byteOutputStream.write(42L);
+
+            final int capacity = byteOutputStream.capacity();
+
+            assertEquals("size failed to return the correct value",
+                         8,
+                         byteOutputStream.size());
+
+            byteOutputStream.reset();
+
+            assertEquals("reset failed to discard the written bytes",
+                         0,
+                         byteOutputStream.size());
+
+            assertEquals("reset failed to keep the backing buffer",
+                         capacity,
+                         byteOutputStream.capacity());
+
+            final byte byte1 = (byte)42;
+
+            byteOutputStream.write(byte1);
+
+            assertArrayEquals("Array returned an incorrect value after a reset",
+                              new byte[] { byte1 },
+                              byteOutputStream.array());
+        }
+    }
 }
@@ -27,6 +27,7 @@ import com.rgi.geopackage.features.geometry.Geometry;
 import com.rgi.geopackage.features.geometry.xy.WkbPoint;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -120,4 +121,53 @@ public class FeatureTest
                      attributes,
                      feature.getAttributes());
     }
+
+    /**
+     * Test getAttribute with positional attributes
+     */
+    @Test
+    public void getAttribute()
+    {
+        final Feature feature = new Feature(0,
+                                            new WkbPoint(0.0, 0.0),
+                                            Arrays.asList("a", "b"),
+                                            new Object[]{1, "2"});
+
+        assertEquals("getAttribute returned the wrong value",
+                     "2",
+                     feature.getAttribute(1));
+
+        assertEquals("getAttribute returned the wrong value",
+                     1,
+                     feature.getAttribute("a"));
+
+        assertEquals("getAttributes returned the wrong value",
+                     "2",
+                     feature.getAttributes().get("b"));
+    }
+
+    /**
+     * Test that the constructor throws when the attribute names and values differ in size
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedAttributes()
+    {
+        new Feature(0,
+                    new WkbPoint(0.0, 0.0),
+                    Arrays.asList("a", "b"),
+                    new Object[]{1});
+
+        fail("Feature's constructor should fail when the attribute names and values differ in size");
+    }
+
+    /**
+     * Test getAttribute with an unknown attribute name
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void getAttributeBadName()
+    {
+        new Feature(0,
+                    new WkbPoint(0.0, 0.0),
+                    null).getAttribute("a");
+    }
 }
@@ -49,14 +49,23 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Luke Lambert
@@ -828,6 +837,319 @@ public class GeoPackageFeaturesTest
         }
     }
 
+    /**
+     * Test streamFeatures()
+     */
+    @Test
+    public void streamFeatures() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("color",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features().addFeatures(gpkg.features().getGeometryColumn(featureSet),
+                                        Arrays.asList("color", "size"),
+                                        Arrays.asList(Pair.of(new WkbPoint(0.0, 0.0), Arrays.asList("blue", 0)),
+                                                      Pair.of(new WkbPoint(1.0, 1.0), Arrays.asList("red",  1))));
+
+            try(final Stream<Feature> features = gpkg.features().streamFeatures(featureSet))
+            {
+                final List<Feature> featureList = features.collect(Collectors.toList());
+
+                assertEquals("streamFeatures() returned the wrong number of features",
+                             2,
+                             featureList.size());
+
+                assertEquals("streamFeatures() returned an incorrect geometry",
+                             new WkbPoint(1.0, 1.0),
+                             featureList.get(1).getGeometry());
+
+                assertEquals("streamFeatures() returned an incorrect attribute",
+                             "red",
+                             featureList.get(1).getAttribute("color"));
+
+                assertEquals("streamFeatures() returned an incorrect attribute",
+                             1,
+                             featureList.get(1).getAttributes().get("size"));
+            }
+        }
+    }
+
+    /**
+     * Test streamFeatures() with a subset of the attribute columns
+     */
+    @Test
+    public void streamFeaturesProjection() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("color",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features().addFeatures(gpkg.features().getGeometryColumn(featureSet),
+                                        Arrays.asList("color", "size"),
+                                        Arrays.asList(Pair.of(new WkbPoint(0.0, 0.0), Arrays.asList("blue", 0)),
+                                                      Pair.of(new WkbPoint(1.0, 1.0), Arrays.asList("red",  1))));
+
+            try(final Stream<Feature> features = gpkg.features().streamFeatures(featureSet, Collections.singletonList("size")))
+            {
+                final Feature feature = features.findFirst().orElse(null);
+
+                assertNotNull("streamFeatures() returned no features",
+                              feature);
+
+                assertEquals("streamFeatures() failed to project the attribute columns",
+                             Collections.singletonList("size"),
+                             feature.getAttributeNames());
+
+                assertEquals("streamFeatures() returned an incorrect attribute",
+                             0,
+                             feature.getAttribute(0));
+            }
+        }
+    }
+
+    /**
+     * Test streamFeatures() with an attribute column that isn't in the feature set
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void streamFeaturesBadProjection() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("color",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features().addFeatures(gpkg.features().getGeometryColumn(featureSet),
+                                        Arrays.asList("color", "size"),
+                                        Arrays.asList(Pair.of(new WkbPoint(0.0, 0.0), Arrays.asList("blue", 0)),
+                                                      Pair.of(new WkbPoint(1.0, 1.0), Arrays.asList("red",  1))));
+
+            gpkg.features().streamFeatures(featureSet, Collections.singletonList("weight"));
+        }
+    }
+
+    /**
+     * Test visitFeatures() with an envelope, with and without a spatial index
+     */
+    @Test
+    public void visitFeaturesEnvelope() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"));
+
+            final GeometryColumn geometryColumn = gpkg.features().getGeometryColumn(featureSet);
+
+            gpkg.features().addFeatures(geometryColumn,
+                                        Collections.emptyList(),
+                                        Arrays.asList(Pair.of(new WkbPoint( 1.0,  1.0), Collections.emptyList()),
+                                                      Pair.of(new WkbPoint( 5.0,  5.0), Collections.emptyList()),
+                                                      Pair.of(new WkbPoint(10.0, 10.0), Collections.emptyList())));
+
+            final Envelope envelope = new Envelope(0.0, 0.0, 5.0, 5.0);
+
+            final List<Geometry> unindexed = new ArrayList<>();
+
+            gpkg.features().visitFeatures(featureSet, envelope, feature -> unindexed.add(feature.getGeometry()));
+
+            assertEquals("visitFeatures() returned the wrong features without a spatial index",
+                         Arrays.asList(new WkbPoint(1.0, 1.0), new WkbPoint(5.0, 5.0)),
+                         unindexed);
+
+            gpkg.features().createSpatialIndex(featureSet);
+
+            final List<Geometry> indexed = new ArrayList<>();
+
+            gpkg.features().visitFeatures(featureSet, envelope, feature -> indexed.add(feature.getGeometry()));
+
+            assertEquals("visitFeatures() returned the wrong features with a spatial index",
+                         unindexed,
+                         indexed);
+        }
+    }
+
+    /**
+     * Test visitFeatures() with a null envelope
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void visitFeaturesNullEnvelope() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"));
+
+            gpkg.features().visitFeatures(featureSet, null, feature -> {});
+        }
+    }
+
+    /**
+     * Test createSpatialIndex()
+     */
+    @Test
+    public void createSpatialIndex() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"));
+
+            final GeometryColumn geometryColumn = gpkg.features().getGeometryColumn(featureSet);
+
+            final Feature feature = gpkg.features().addFeature(geometryColumn,
+                                                               new WkbPoint(1.0, 2.0),
+                                                               Collections.emptyList(),
+                                                               Collections.emptyList());
+
+            assertFalse("hasSpatialIndex() returned true before the index was created",
+                        gpkg.features().hasSpatialIndex(featureSet));
+
+            gpkg.features().createSpatialIndex(featureSet);
+
+            assertTrue("hasSpatialIndex() returned false after the index was created",
+                       gpkg.features().hasSpatialIndex(featureSet));
+
+            assertNotNull("createSpatialIndex() failed to add an extension entry",
+                          gpkg.extensions().getExtension("mytable", "geometry", GeoPackageFeatures.SpatialIndexExtensionName));
+
+            gpkg.features().addFeature(geometryColumn,
+                                       new WkbPoint(3.0, 4.0),
+                                       Collections.emptyList(),
+                                       Collections.emptyList());
+
+            try(final Connection connection = DriverManager.getConnection("jdbc:sqlite:" + gpkg.getFile().toURI()))
+            {
+                final Double minimumX = JdbcUtility.selectOne(connection,
+                                                              "SELECT minx FROM rtree_mytable_geometry WHERE id = ?",
+                                                              preparedStatement -> preparedStatement.setInt(1, feature.getIdentifier()),
+                                                              resultSet -> resultSet.getDouble(1));
+
+                assertEquals("createSpatialIndex() failed to index an existing feature",
+                             1.0,
+                             minimumX,
+                             0.0);
+
+                assertEquals("The spatial index insert trigger failed to index a new feature",
+                             2,
+                             (int)JdbcUtility.selectOne(connection,
+                                                        "SELECT COUNT(*) FROM rtree_mytable_geometry",
+                                                        null,
+                                                        resultSet -> resultSet.getInt(1)));
+            }
+        }
+    }
+
+    /**
+     * Test createSpatialIndex() with a null feature set
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void createSpatialIndexNullFeatureSet() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            gpkg.features().createSpatialIndex(null);
+        }
+    }
+
     /**
      * Test addFeature() with a null geometryColumn
      */
@@ -1199,6 +1521,490 @@ public class GeoPackageFeaturesTest
         }
     }
 
+    /**
+     * Test addFeatures() and visitFeatures() with a worker pool
+     */
+    @Test
+    public void addAndVisitFeaturesWithExecutor() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            final int featureCount = 1000;  // Several chunks, the last of them partial
+
+            final List<Pair<Geometry, List<Object>>> features = new ArrayList<>(featureCount);
+
+            for(int featureIndex = 0; featureIndex < featureCount; ++featureIndex)
+            {
+                features.add(Pair.of(new WkbPoint(featureIndex, -featureIndex),
+                                     Collections.singletonList(featureIndex)));
+            }
+
+            gpkg.features()
+                .addFeatures(gpkg.features().getGeometryColumn(featureSet),
+                             Collections.singletonList("size"),
+                             features,
+                             executor);
+
+            final List<Feature> visited = new ArrayList<>(featureCount);
+
+            gpkg.features().visitFeatures(featureSet, visited::add, executor);
+
+            assertEquals("visitFeatures() visited the incorrect number of features",
+                         featureCount,
+                         visited.size());
+
+            for(int featureIndex = 0; featureIndex < featureCount; ++featureIndex)
+            {
+                final Feature feature = visited.get(featureIndex);
+
+                assertEquals("visitFeatures() returned an incorrect geometry",
+                             new WkbPoint(featureIndex, -featureIndex),
+                             feature.getGeometry());
+
+                assertEquals("visitFeatures() returned an incorrect attribute",
+                             featureIndex,
+                             feature.getAttributes().get("size"));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test loadFeatures() with features that should be rejected, and a commit
+     * interval smaller than the number of features
+     */
+    @Test
+    public void loadFeatures() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("name",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  EnumSet.of(ColumnFlag.Unique),
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            final Stream<Pair<Geometry, List<Object>>> features = Stream.of(Pair.of(new WkbPoint(0.0, 0.0),            Collections.singletonList("a")),
+                                                                            Pair.of(new WkbPointZM(1.0, 1.0, 1.0, 1.0), Collections.singletonList("b")),   // Wrong geometry type
+                                                                            Pair.of(new WkbPoint(2.0, 2.0),            Collections.singletonList("a")),   // Duplicate name
+                                                                            null,
+                                                                            Pair.of(new WkbPoint(4.0, 4.0),            Collections.singletonList("c")),
+                                                                            Pair.of(new WkbPoint(5.0, 5.0),            Collections.singletonList("d")));
+
+            final List<Long>               rejectedIndices = new ArrayList<>();
+            final List<FeatureLoadSummary> progress        = new ArrayList<>();
+
+            final FeatureLoadSummary summary = gpkg.features()
+                                                   .loadFeatures(gpkg.features().getGeometryColumn(featureSet),
+                                                                 Collections.singletonList("name"),
+                                                                 features,
+                                                                 new FeatureLoadOptions.Builder().commitRowInterval(2)
+                                                                                                 .rejectionListener(rejection -> rejectedIndices.add(rejection.getIndex()))
+                                                                                                 .progressListener(progress::add)
+                                                                                                 .build());
+
+            assertEquals("loadFeatures() reported the incorrect number of inserted features",
+                         3,
+                         summary.getInsertedCount());
+
+            assertEquals("loadFeatures() reported the incorrect number of rejected features",
+                         3,
+                         summary.getRejectedCount());
+
+            assertEquals("loadFeatures() rejected the wrong features",
+                         Arrays.asList(1L, 2L, 3L),
+                         rejectedIndices);
+
+            assertTrue("loadFeatures() failed to report progress after each commit",
+                       progress.size() >= 2);
+
+            assertEquals("loadFeatures() failed to keep inserting after the database refused a feature",
+                         Arrays.asList("a", "c", "d"),
+                         gpkg.features()
+                             .getFeatures(featureSet)
+                             .stream()
+                             .map(feature -> feature.getAttribute("name"))
+                             .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Test loadFeatures() with null options
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void loadFeaturesNullOptions() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"));
+
+            gpkg.features()
+                .loadFeatures(gpkg.features().getGeometryColumn(featureSet),
+                              Collections.emptyList(),
+                              Collections.<Pair<Geometry, List<Object>>>emptyIterator(),
+                              null);
+        }
+    }
+
+    /**
+     * Test query()
+     */
+    @Test
+    public void queryFeatures() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("name",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features()
+                .addFeatures(gpkg.features().getGeometryColumn(featureSet),
+                             Arrays.asList("name", "size"),
+                             Arrays.asList(Pair.of(new WkbPoint(0.0, 0.0), Arrays.asList("a", 1)),
+                                           Pair.of(new WkbPoint(1.0, 1.0), Arrays.asList("b", 2)),
+                                           Pair.of(new WkbPoint(2.0, 2.0), Arrays.asList("c", 3)),
+                                           Pair.of(new WkbPoint(3.0, 3.0), Arrays.asList(null, 4))));
+
+            final List<Feature> equal = gpkg.features().query(featureSet).select("name").whereEqual("name", "b").getFeatures();
+
+            assertEquals("whereEqual() matched the incorrect number of features",
+                         1,
+                         equal.size());
+
+            assertEquals("select() failed to project the selected column",
+                         Collections.singletonList("name"),
+                         equal.get(0).getAttributeNames());
+
+            assertEquals("whereEqual() with a null value should match null columns",
+                         1,
+                         gpkg.features().query(featureSet).whereEqual("name", null).getFeatures().size());
+
+            assertEquals("whereIn() matched the incorrect number of features",
+                         2,
+                         gpkg.features().query(featureSet).whereIn("name", Arrays.asList("a", "c", "z")).getFeatures().size());
+
+            assertEquals("whereBetween() should be inclusive",
+                         3,
+                         gpkg.features().query(featureSet).whereBetween("size", 2, 4).getFeatures().size());
+
+            assertEquals("whereBetween() with a null bound should be open ended",
+                         2,
+                         gpkg.features().query(featureSet).whereBetween("size", null, 2).getFeatures().size());
+
+            final List<Feature> combined = gpkg.features()
+                                               .query(featureSet)
+                                               .whereBetween("size", 2, null)
+                                               .intersecting(new Envelope(0.5, 0.5, 2.5, 2.5))
+                                               .getFeatures();
+
+            assertEquals("Combined predicates matched the incorrect features",
+                         Arrays.asList("b", "c"),
+                         combined.stream()
+                                 .map(feature -> feature.getAttribute("name"))
+                                 .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Test query() with a column that isn't in the feature set
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void queryFeaturesBadColumn() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"));
+
+            gpkg.features().query(featureSet).whereEqual("geometry; DROP TABLE mytable", 1);
+        }
+    }
+
+    /**
+     * Test createAttributeIndex(), hasAttributeIndex() and dropAttributeIndex()
+     */
+    @Test
+    public void createAttributeIndex() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("name",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            assertFalse("hasAttributeIndex() reported an index that hasn't been created",
+                        gpkg.features().hasAttributeIndex(featureSet, "name", "size"));
+
+            final String indexName = gpkg.features().createAttributeIndex(featureSet, "name", "size");
+
+            assertEquals("createAttributeIndex() returned the incorrect index name",
+                         "mytable(name,size)",
+                         indexName);
+
+            assertTrue("createAttributeIndex() failed to create the index",
+                       gpkg.features().hasAttributeIndex(featureSet, "name", "size"));
+
+            gpkg.features().createAttributeIndex(featureSet, "name", "size");  // Already exists
+
+            gpkg.features().dropAttributeIndex(featureSet, "name", "size");
+
+            assertFalse("dropAttributeIndex() failed to drop the index",
+                        gpkg.features().hasAttributeIndex(featureSet, "name", "size"));
+        }
+    }
+
+    /**
+     * Test that createAttributeIndex() gives different column lists different
+     * index names
+     */
+    @Test
+    public void createAttributeIndexDistinctNames() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("x_y",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("x",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("y",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            final String combinedName = gpkg.features().createAttributeIndex(featureSet, "x_y");
+
+            assertFalse("An index on column x_y was mistaken for an index on columns x and y",
+                        gpkg.features().hasAttributeIndex(featureSet, "x", "y"));
+
+            final String pairName = gpkg.features().createAttributeIndex(featureSet, "x", "y");
+
+            assertNotEquals("createAttributeIndex() gave two different column lists the same index name",
+                            combinedName,
+                            pairName);
+
+            gpkg.features().dropAttributeIndex(featureSet, "x", "y");
+
+            assertTrue("dropAttributeIndex() dropped the wrong index",
+                       gpkg.features().hasAttributeIndex(featureSet, "x_y"));
+        }
+    }
+
+    /**
+     * Test createAttributeIndex() with a column that isn't an attribute column
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void createAttributeIndexBadColumn() throws IOException, ConformanceException, SQLException, ClassNotFoundException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("name",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features().createAttributeIndex(featureSet, "geometry");
+        }
+    }
+
+    /**
+     * Test loadFeatures() with deferred attribute indexes
+     */
+    @Test
+    public void loadFeaturesDeferAttributeIndexes() throws IOException, ConformanceException, SQLException, ClassNotFoundException, WellKnownBinaryFormatException
+    {
+        try(final GeoPackage gpkg = new GeoPackage(TestUtility.getRandomFile()))
+        {
+            final FeatureSet featureSet = gpkg.features()
+                                              .addFeatureSet("mytable",
+                                                             "identifier",
+                                                             "description",
+                                                             new BoundingBox(0.0, 0.0, 0.0, 0.0),
+                                                             gpkg.core().getSpatialReferenceSystem("EPSG", 4326),
+                                                             "id",
+                                                             new GeometryColumnDefinition("geometry",
+                                                                                          GeometryType.Point.toString(),
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          ValueRequirement.Prohibited,
+                                                                                          "comment"),
+                                                             new ColumnDefinition("name",
+                                                                                  SqlType.TEXT.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null),
+                                                             new ColumnDefinition("size",
+                                                                                  SqlType.INTEGER.toString(),
+                                                                                  null,
+                                                                                  null,
+                                                                                  ColumnDefault.None,
+                                                                                  null));
+
+            gpkg.features().createAttributeIndex(featureSet, "size");
+
+            final FeatureLoadSummary summary = gpkg.features()
+                                                   .loadFeatures(gpkg.features().getGeometryColumn(featureSet),
+                                                                 Arrays.asList("name", "size"),
+                                                                 Stream.of(Pair.of(new WkbPoint(0.0, 0.0), Arrays.asList("a", 1)),
+                                                                           Pair.of(new WkbPoint(1.0, 1.0), Arrays.asList("b", 2))),
+                                                                 new FeatureLoadOptions.Builder().deferAttributeIndexes(true)
+                                                                                                 .build());
+
+            assertEquals("loadFeatures() reported the incorrect number of inserted features",
+                         2,
+                         summary.getInsertedCount());
+
+            assertTrue("loadFeatures() failed to rebuild the deferred index",
+                       gpkg.features().hasAttributeIndex(featureSet, "size"));
+
+            assertEquals("The rebuilt index gave the incorrect result",
+                         1,
+                         gpkg.features().query(featureSet).whereEqual("size", 2).getFeatures().size());
+        }
+    }
+
     /**
      * Test addFeatures() with a null geometry column
      */
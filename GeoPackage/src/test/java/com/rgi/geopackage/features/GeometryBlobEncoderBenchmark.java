@@ -0,0 +1,166 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.geopackage.features.geometry.Geometry;
+import com.rgi.geopackage.features.geometry.xy.Coordinate;
+import com.rgi.geopackage.features.geometry.xy.LinearRing;
+import com.rgi.geopackage.features.geometry.xy.WkbPolygon;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the time taken to encode a large number of polygons with {@link
+ * GeometryBlobEncoder} against the previous encoding, which built a new
+ * {@link ByteOutputStream} and {@link BinaryHeader} per geometry, and
+ * visited the coordinates once for the envelope and again for the well
+ * known binary.
+ * <br>
+ * <br>
+ * This is a stand-alone program rather than a unit test, so that timings
+ * don't slow down or destabilize the test suite. Run it with the test
+ * classpath, optionally passing the number of polygons and the number of
+ * timed iterations.
+ *
+ * @author Luke Lambert
+ */
+public final class GeometryBlobEncoderBenchmark
+{
+    private GeometryBlobEncoderBenchmark()
+    {
+
+    }
+
+    /**
+     * @param args
+     *             Optional number of polygons, then optional number of timed
+     *             iterations
+     */
+    public static void main(final String[] args)
+    {
+        final int featureCount = args.length > 0 ? Integer.parseInt(args[0]) : DefaultFeatureCount;
+        final int iterations   = args.length > 1 ? Integer.parseInt(args[1]) : DefaultIterations;
+
+        final Random random = new Random(5L);
+
+        final List<Geometry> polygons = new ArrayList<>(featureCount);
+
+        for(int featureIndex = 0; featureIndex < featureCount; ++featureIndex)
+        {
+            polygons.add(createPolygon(random, 4 + random.nextInt(200)));
+        }
+
+        // Let the JIT compile both encoders before anything is timed
+        for(int iteration = 0; iteration < WarmUpIterations; ++iteration)
+        {
+            encodeAllWithBinaryHeader(polygons);
+            encodeAll(polygons);
+        }
+
+        long binaryHeaderNanoseconds = 0;
+        long encoderNanoseconds      = 0;
+
+        long binaryHeaderBytes = 0;
+        long encoderBytes      = 0;
+
+        for(int iteration = 0; iteration < iterations; ++iteration)
+        {
+            final long binaryHeaderStart = System.nanoTime();
+            binaryHeaderBytes += encodeAllWithBinaryHeader(polygons);
+            binaryHeaderNanoseconds += System.nanoTime() - binaryHeaderStart;
+
+            final long encoderStart = System.nanoTime();
+            encoderBytes += encodeAll(polygons);
+            encoderNanoseconds += System.nanoTime() - encoderStart;
+        }
+
+        if(binaryHeaderBytes != encoderBytes)
+        {
+            throw new IllegalStateException("Encoders produced a different number of bytes");
+        }
+
+        System.out.format("Encoded %d polygons %d times. Binary header: %.1f ms, blob encoder: %.1f ms%n",
+                          featureCount,
+                          iterations,
+                          binaryHeaderNanoseconds / 1.0e6,
+                          encoderNanoseconds      / 1.0e6);
+    }
+
+    private static long encodeAll(final List<Geometry> geometries)
+    {
+        long byteCount = 0;
+
+        for(final Geometry geometry : geometries)
+        {
+            byteCount += GeometryBlobEncoder.encode(geometry, 4326).length;
+        }
+
+        return byteCount;
+    }
+
+    private static long encodeAllWithBinaryHeader(final List<Geometry> geometries)
+    {
+        long byteCount = 0;
+
+        for(final Geometry geometry : geometries)
+        {
+            try(final ByteOutputStream byteOutputStream = new ByteOutputStream())
+            {
+                BinaryHeader.writeBytes(byteOutputStream,
+                                        geometry,
+                                        4326);
+
+                byteOutputStream.setByteOrder(ByteOrder.BIG_ENDIAN);
+
+                geometry.writeWellKnownBinary(byteOutputStream);
+
+                byteCount += byteOutputStream.array().length;
+            }
+        }
+
+        return byteCount;
+    }
+
+    private static WkbPolygon createPolygon(final Random random, final int pointCount)
+    {
+        final List<Coordinate> coordinates = new ArrayList<>(pointCount + 1);
+
+        for(int pointIndex = 0; pointIndex < pointCount; ++pointIndex)
+        {
+            coordinates.add(new Coordinate(random.nextDouble() * 360.0 - 180.0,
+                                           random.nextDouble() * 180.0 -  90.0));
+        }
+
+        coordinates.add(coordinates.get(0));
+
+        return new WkbPolygon(new LinearRing(coordinates));
+    }
+
+    private static final int DefaultFeatureCount = 20000;
+    private static final int DefaultIterations   = 5;
+    private static final int WarmUpIterations    = 3;
+}
@@ -0,0 +1,149 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import com.rgi.geopackage.features.geometry.Geometry;
+import com.rgi.geopackage.features.geometry.m.CoordinateM;
+import com.rgi.geopackage.features.geometry.m.WkbLineStringM;
+import com.rgi.geopackage.features.geometry.m.WkbPointM;
+import com.rgi.geopackage.features.geometry.xy.Coordinate;
+import com.rgi.geopackage.features.geometry.xy.LinearRing;
+import com.rgi.geopackage.features.geometry.xy.WkbMultiPoint;
+import com.rgi.geopackage.features.geometry.xy.WkbMultiPolygon;
+import com.rgi.geopackage.features.geometry.xy.WkbPoint;
+import com.rgi.geopackage.features.geometry.xy.WkbPolygon;
+import com.rgi.geopackage.features.geometry.z.CoordinateZ;
+import com.rgi.geopackage.features.geometry.z.WkbLineStringZ;
+import com.rgi.geopackage.features.geometry.zm.WkbPointZM;
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Luke Lambert
+ */
+public class GeometryBlobEncoderTest
+{
+    /**
+     * The encoder should produce exactly the bytes of a header written by
+     * {@link BinaryHeader} followed by the geometry's well known binary
+     */
+    @Test
+    public void encode()
+    {
+        final List<Geometry> geometries = Arrays.asList(new WkbPoint(1.0, 2.0),
+                                                        new WkbPoint(Double.NaN, Double.NaN),
+                                                        new WkbPoint(Double.NaN, 2.0),
+                                                        new WkbMultiPoint(new WkbPoint(Double.NaN, Double.NaN)),
+                                                        new WkbMultiPoint(new WkbPoint(Double.NaN, Double.NaN),
+                                                                          new WkbPoint(3.0, -4.0),
+                                                                          new WkbPoint(-1.0, 9.0)),
+                                                        new WkbPointM(1.0, 2.0, 3.0),
+                                                        new WkbLineStringM(new CoordinateM(0.0, 5.0, -2.0),
+                                                                           new CoordinateM(1.0, 2.0, 3.0)),
+                                                        new WkbPointZM(1.0, 2.0, 3.0, 4.0),
+                                                        new WkbLineStringZ(new CoordinateZ(0.0, 0.0, 0.0),
+                                                                           new CoordinateZ(1.0, 2.0, 3.0)),
+                                                        createPolygon(new Random(1L), 100),
+                                                        new WkbMultiPolygon(createPolygon(new Random(2L), 10),
+                                                                            createPolygon(new Random(3L), 20)));
+
+        for(final Geometry geometry : geometries)
+        {
+            assertArrayEquals(String.format("Encoded %s blob does not match the binary header encoding", geometry.getGeometryTypeName()),
+                              encodeWithBinaryHeader(geometry, 4326),
+                              GeometryBlobEncoder.encode(geometry, 4326));
+        }
+    }
+
+    /**
+     * A small geometry encoded after a large one should only get its own
+     * bytes
+     */
+    @Test
+    public void encodeAfterLargerGeometry()
+    {
+        final Geometry large = createPolygon(new Random(4L), 10000);
+        final Geometry small = new WkbPoint(1.0, 2.0);
+
+        GeometryBlobEncoder.encode(large, 4326);
+
+        final byte[] bytes = GeometryBlobEncoder.encode(small, 4326);
+
+        assertEquals("Encoded blob has trailing bytes from the previous geometry",
+                     encodeWithBinaryHeader(small, 4326).length,
+                     bytes.length);
+    }
+
+    /**
+     * Encoding a null geometry should fail
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void encodeNullGeometry()
+    {
+        GeometryBlobEncoder.encode(null, 4326);
+    }
+
+    /**
+     * The encoding used by {@link GeoPackageFeatures} prior to {@link
+     * GeometryBlobEncoder}
+     */
+    private static byte[] encodeWithBinaryHeader(final Geometry geometry, final int spatialReferenceSystemIdentifier)
+    {
+        try(final ByteOutputStream byteOutputStream = new ByteOutputStream())
+        {
+            BinaryHeader.writeBytes(byteOutputStream,
+                                    geometry,
+                                    spatialReferenceSystemIdentifier);
+
+            byteOutputStream.setByteOrder(ByteOrder.BIG_ENDIAN);
+
+            geometry.writeWellKnownBinary(byteOutputStream);
+
+            return byteOutputStream.array();
+        }
+    }
+
+    private static WkbPolygon createPolygon(final Random random, final int pointCount)
+    {
+        final List<Coordinate> coordinates = new ArrayList<>(pointCount + 1);
+
+        for(int pointIndex = 0; pointIndex < pointCount; ++pointIndex)
+        {
+            coordinates.add(new Coordinate(random.nextDouble() * 360.0 - 180.0,
+                                           random.nextDouble() * 180.0 -  90.0));
+        }
+
+        coordinates.add(coordinates.get(0));
+
+        return new WkbPolygon(new LinearRing(coordinates));
+    }
+}
@@ -0,0 +1,158 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.geopackage.features;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Luke Lambert
+ */
+public class OrderedChunkPipelineTest
+{
+    /**
+     * Results should reach the sink in the order their items were added, on
+     * the adding thread, even when the workers finish out of order
+     */
+    @Test
+    public void order() throws SQLException
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            final Thread       addingThread = Thread.currentThread();
+            final List<String> results      = new ArrayList<>();
+
+            final OrderedChunkPipeline.Stage<Integer, String, RuntimeException> stage = item -> { sleep(ThreadLocalRandom.current().nextInt(2));
+                                                                                                  return Integer.toString(item);
+                                                                                                };
+
+            final OrderedChunkPipeline.Sink<Integer, String> sink = (item, result) -> { assertSame("Sink was called from a worker thread",
+                                                                                                   addingThread,
+                                                                                                   Thread.currentThread());
+                                                                                        results.add(result);
+                                                                                      };
+
+            try(final OrderedChunkPipeline<Integer, String, RuntimeException> pipeline = new OrderedChunkPipeline<>(executor, stage, sink, 7, 3))
+            {
+                for(int item = 0; item < 100; ++item)
+                {
+                    pipeline.add(item);
+                }
+
+                pipeline.finish();
+            }
+
+            assertEquals("Pipeline returned the incorrect number of results",
+                         100,
+                         results.size());
+
+            for(int item = 0; item < 100; ++item)
+            {
+                assertEquals("Pipeline returned results out of order",
+                             Integer.toString(item),
+                             results.get(item));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * An exception thrown by the stage should be rethrown on the adding
+     * thread
+     */
+    @Test(expected = WellKnownBinaryFormatException.class)
+    public void stageException() throws SQLException, WellKnownBinaryFormatException
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        final OrderedChunkPipeline.Stage<Integer, Integer, WellKnownBinaryFormatException> stage = item -> { if(item == 5)
+                                                                                                                 {
+                                                                                                                     throw new WellKnownBinaryFormatException("Bad item");
+                                                                                                                 }
+
+                                                                                                                 return item;
+                                                                                                               };
+
+        try(final OrderedChunkPipeline<Integer, Integer, WellKnownBinaryFormatException> pipeline = new OrderedChunkPipeline<>(executor, stage, (item, result) -> {}, 2, 2))
+        {
+            for(int item = 0; item < 10; ++item)
+            {
+                pipeline.add(item);
+            }
+
+            pipeline.finish();
+
+            fail("Pipeline should have rethrown the stage's exception");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A chunk size of less than 1 should fail
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorBadChunkSize()
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try
+        {
+            new OrderedChunkPipeline<Integer, Integer, RuntimeException>(executor, item -> item, (item, result) -> {}, 0, 1);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static void sleep(final int milliseconds)
+    {
+        try
+        {
+            Thread.sleep(milliseconds);
+        }
+        catch(final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
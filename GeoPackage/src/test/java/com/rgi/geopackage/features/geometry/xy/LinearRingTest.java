@@ -27,7 +27,9 @@ package com.rgi.geopackage.features.geometry.xy;
 import com.rgi.geopackage.features.ByteOutputStream;
 import org.junit.Test;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -165,6 +167,30 @@ public class LinearRingTest
                      new LinearRing(coordinates).getCoordinates());
     }
 
+    /**
+     * Test getPointCount(), getX() and getY()
+     */
+    @Test
+    public void getXY()
+    {
+        final LinearRing ring = new LinearRing(new Coordinate(1.0, 2.0),
+                                               new Coordinate(3.0, 4.0));
+
+        assertEquals("getPointCount returned the wrong value",
+                     2,
+                     ring.getPointCount());
+
+        assertEquals("getX returned the wrong value",
+                     3.0,
+                     ring.getX(1),
+                     0.0);
+
+        assertEquals("getY returned the wrong value",
+                     2.0,
+                     ring.getY(0),
+                     0.0);
+    }
+
     /**
      * Test isEmpty()
      */
@@ -244,6 +270,48 @@ public class LinearRingTest
         }
     }
 
+    /**
+     * Test readWellKnownBinary with little endian coordinates
+     */
+    @Test
+    public void readWellKnownBinaryLittleEndian()
+    {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(4 + 2 * 2 * 8).order(ByteOrder.LITTLE_ENDIAN);
+
+        byteBuffer.putInt(2);
+        byteBuffer.putDouble(1.0);
+        byteBuffer.putDouble(2.0);
+        byteBuffer.putDouble(3.0);
+        byteBuffer.putDouble(4.0);
+
+        byteBuffer.flip();
+
+        assertEquals("error in well known binary (WKB) reading",
+                     new LinearRing(new Coordinate(1.0, 2.0),
+                                    new Coordinate(3.0, 4.0)),
+                     LinearRing.readWellKnownBinary(byteBuffer));
+
+        assertEquals("readWellKnownBinary failed to consume the coordinates",
+                     0,
+                     byteBuffer.remaining());
+    }
+
+    /**
+     * Test readWellKnownBinary with a point count larger than the buffer
+     */
+    @Test(expected = BufferUnderflowException.class)
+    public void readWellKnownBinaryUnderflow()
+    {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(4 + 8);
+
+        byteBuffer.putInt(1);
+        byteBuffer.putDouble(1.0);
+
+        byteBuffer.flip();
+
+        LinearRing.readWellKnownBinary(byteBuffer);
+    }
+
     /**
      * Test writeWellKnownBinary with a null {@link ByteOutputStream}
      */
@@ -22,10 +22,21 @@
  */
 package com.rgi.packager;
 
+import java.util.Iterator;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import javax.activation.MimeType;
 
 import com.rgi.common.TaskMonitor;
+import com.rgi.common.coordinate.CrsCoordinate;
+import com.rgi.geopackage.tiles.TileWriteException;
 import com.rgi.store.tiles.TileHandle;
 import com.rgi.store.tiles.TileStoreException;
 import com.rgi.store.tiles.TileStoreReader;
@@ -40,13 +51,19 @@ import com.rgi.store.tiles.TileStoreWriter;
  */
 public class Packager
 {
-    private final TaskMonitor     taskMonitor;
-    private final TileStoreReader tileStoreReader;
-    private final TileStoreWriter tileStoreWriter;
+    private final TaskMonitor                taskMonitor;
+    private final TileStoreReader            tileStoreReader;
+    private final TileStoreWriter            tileStoreWriter;
+    private final int                        workerCount;
+    private final int                        queueDepth;
+    private final AtomicInteger              failedTileCount = new AtomicInteger(0);
+    private final AtomicReference<Exception> firstFailure    = new AtomicReference<>();
     private static boolean cancel = false;
 
     /**
-     * Constructor
+     * Constructor. Tiles are copied sequentially on the thread that calls
+     * {@link #execute()}.
+     *
      * @param taskMonitor
      *             Mechanism by which packager progress is monitored
      * @param tileStoreReader
@@ -58,47 +75,393 @@ public class Packager
                     final TileStoreReader tileStoreReader,
                     final TileStoreWriter tileStoreWriter)
     {
+        this(taskMonitor,
+             tileStoreReader,
+             tileStoreWriter,
+             1,
+             Packager.DefaultQueueDepth);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param taskMonitor
+     *             Mechanism by which packager progress is monitored
+     * @param tileStoreReader
+     *             Input tile store
+     * @param tileStoreWriter
+     *             Destination tile store
+     * @param workerCount
+     *             Number of threads that read and encode tiles. If this is 1,
+     *             tiles are copied sequentially on the thread that calls
+     *             {@link #execute()}. Otherwise, the worker threads hand
+     *             encoded tiles to a single thread that writes them to the
+     *             destination tile store. In that case the input tile store's
+     *             tile handles must be safe to use from multiple threads.
+     * @param queueDepth
+     *             Maximum number of tiles that may be read, but not yet
+     *             written, at any one time. This bounds the memory used by
+     *             the worker threads.
+     */
+    public Packager(final TaskMonitor     taskMonitor,
+                    final TileStoreReader tileStoreReader,
+                    final TileStoreWriter tileStoreWriter,
+                    final int             workerCount,
+                    final int             queueDepth)
+    {
+        if(workerCount < 1)
+        {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+
+        if(queueDepth < 1)
+        {
+            throw new IllegalArgumentException("Queue depth must be at least 1");
+        }
+
         this.taskMonitor     = taskMonitor;
 
         this.tileStoreReader = tileStoreReader;
         this.tileStoreWriter = tileStoreWriter;
+
+        this.workerCount     = workerCount;
+        this.queueDepth      = queueDepth;
     }
 
     /**
-     * Starts the packaging job
+     * Starts the packaging job. A tile that fails to be copied doesn't stop
+     * the job, but once every other tile has been copied and flushed, the
+     * failures are reported by throwing a {@link TileStoreException}.
+     *
      * @throws TileStoreException
-     *             when {@link TileStoreReader#countTiles()} or
-     *             {@link TileStoreReader#stream()} throws
+     *             when {@link TileStoreReader#countTiles()},
+     *             {@link TileStoreReader#stream()} or
+     *             {@link TileStoreWriter#flush()} throws, or if any tile
+     *             failed to be copied (see {@link #getFailedTileCount()})
      */
     public void execute() throws TileStoreException
     {
+        this.failedTileCount.set(0);
+        this.firstFailure.set(null);
+
         this.taskMonitor.setMaximum((int)this.tileStoreReader.countTiles());
 
+        // Tiles can only be copied without being re-encoded if their
+        // coordinates need no conversion
+        final boolean copyEncodedTiles = this.tileStoreReader.getCoordinateReferenceSystem().equals(this.tileStoreWriter.getCoordinateReferenceSystem());
+
+        if(this.workerCount > 1)
+        {
+            this.executeParallel(copyEncodedTiles);
+            this.flush();
+            this.throwIfTilesFailed();
+            return;
+        }
+
         final AtomicInteger tileCount = new AtomicInteger(0);
-        this.tileStoreReader.stream().forEach(tileHandle ->
+
+        try(final Stream<TileHandle> tileHandles = this.tileStoreReader.stream())
         {
-            if(cancel)
+            tileHandles.forEach(tileHandle ->
             {
-                throw new CancellationException("Cancelled");
-            }
-            try
+                if(cancel)
+                {
+                    throw new CancellationException("Cancelled");
+                }
+                try
+                {
+                    this.copyTile(tileHandle, copyEncodedTiles);
+
+                    this.taskMonitor.setProgress(tileCount.incrementAndGet());
+                }
+                catch(final TileStoreException | IllegalArgumentException ex)
+                {
+                    this.reportFailure(tileHandle, ex);
+                }
+            });
+        }
+
+        // Asynchronous writers may still have tiles queued
+        this.flush();
+        this.throwIfTilesFailed();
+    }
+
+    /**
+     * @return the number of tiles that failed to be copied by the most
+     *             recent call to {@link #execute()}
+     */
+    public int getFailedTileCount()
+    {
+        return this.failedTileCount.get();
+    }
+
+    /**
+     * Reads and encodes tiles on a pool of worker threads, and writes them
+     * to the destination tile store from a single thread. A semaphore limits
+     * the number of tiles in flight so that a fast reader can't outrun the
+     * writer and exhaust memory.
+     */
+    private void executeParallel(final boolean copyEncodedTiles) throws TileStoreException
+    {
+        final AtomicInteger                     tileCount    = new AtomicInteger(0);
+        final AtomicReference<RuntimeException> failure      = new AtomicReference<>();
+        final Semaphore                         pendingTiles = new Semaphore(this.queueDepth);
+        final MimeType                          outputFormat = this.tileStoreWriter.getImageOutputFormat();
+
+        final ExecutorService workers = Executors.newFixedThreadPool(this.workerCount);
+        final ExecutorService writer  = Executors.newSingleThreadExecutor();
+
+        try(final Stream<TileHandle> tileHandles = this.tileStoreReader.stream())
+        {
+            final Iterator<TileHandle> iterator = tileHandles.iterator();
+
+            while(iterator.hasNext() && failure.get() == null)
             {
-                this.tileStoreWriter.addTile(tileHandle.getCrsCoordinate(this.tileStoreWriter.getTileOrigin()),
-                                             tileHandle.getZoomLevel(),
-                                             tileHandle.getImage());
+                if(cancel)
+                {
+                    throw new CancellationException("Cancelled");
+                }
+
+                final TileHandle tileHandle = iterator.next();
+
+                pendingTiles.acquire();
+
+                workers.execute(() -> { boolean queued = false;
+
+                                        try
+                                        {
+                                            if(!cancel && failure.get() == null)
+                                            {
+                                                final CrsCoordinate coordinate = tileHandle.getCrsCoordinate(this.tileStoreWriter.getTileOrigin());
+                                                final byte[]        imageData  = this.encodeTile(tileHandle, copyEncodedTiles);
+
+                                                writer.execute(() -> { try
+                                                                       {
+                                                                           if(!cancel && failure.get() == null)
+                                                                           {
+                                                                               this.tileStoreWriter.addEncodedTile(coordinate,
+                                                                                                                   tileHandle.getZoomLevel(),
+                                                                                                                   imageData,
+                                                                                                                   outputFormat);
+
+                                                                               this.taskMonitor.setProgress(tileCount.incrementAndGet());
+                                                                           }
+                                                                       }
+                                                                       catch(final TileStoreException | IllegalArgumentException ex)
+                                                                       {
+                                                                           this.reportFailure(tileHandle, ex);
+                                                                       }
+                                                                       catch(final RuntimeException ex)
+                                                                       {
+                                                                           failure.compareAndSet(null, ex);
+                                                                       }
+                                                                       finally
+                                                                       {
+                                                                           pendingTiles.release();
+                                                                       }
+                                                                     });
+                                                queued = true;
+                                            }
+                                        }
+                                        catch(final TileStoreException | IllegalArgumentException ex)
+                                        {
+                                            this.reportFailure(tileHandle, ex);
+                                        }
+                                        catch(final RuntimeException ex)
+                                        {
+                                            failure.compareAndSet(null, ex);
+                                        }
+                                        finally
+                                        {
+                                            if(!queued)
+                                            {
+                                                pendingTiles.release();
+                                            }
+                                        }
+                                      });
+            }
+        }
+        catch(final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new TileStoreException(ex);
+        }
+        finally
+        {
+            // Workers hand tiles to the writer, so they have to finish first
+            awaitTermination(workers);
+            awaitTermination(writer);
+        }
+
+        if(cancel)
+        {
+            throw new CancellationException("Cancelled");
+        }
+
+        if(failure.get() != null)
+        {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Copies a tile to the destination tile store. If permitted, and the
+     * tile's encoded image data is already in the destination's output
+     * format, the data is copied as-is rather than being decoded and
+     * re-encoded.
+     */
+    private void copyTile(final TileHandle tileHandle, final boolean copyEncodedTile) throws TileStoreException
+    {
+        final CrsCoordinate coordinate = tileHandle.getCrsCoordinate(this.tileStoreWriter.getTileOrigin());
+        final byte[]        imageData  = this.getCopyableImageData(tileHandle, copyEncodedTile);
+
+        if(imageData != null)
+        {
+            this.tileStoreWriter.addEncodedTile(coordinate,
+                                                tileHandle.getZoomLevel(),
+                                                imageData,
+                                                this.tileStoreWriter.getImageOutputFormat());
+        }
+        else
+        {
+            this.tileStoreWriter.addTile(coordinate,
+                                         tileHandle.getZoomLevel(),
+                                         tileHandle.getImage());
+        }
+    }
+
+    /**
+     * Gets a tile's image data in the destination's output format, using the
+     * tile's encoded data as-is when permitted and possible
+     */
+    private byte[] encodeTile(final TileHandle tileHandle, final boolean copyEncodedTile) throws TileStoreException
+    {
+        final byte[] imageData = this.getCopyableImageData(tileHandle, copyEncodedTile);
+
+        return imageData != null ? imageData
+                                 : this.tileStoreWriter.encodeImage(tileHandle.getImage());
+    }
+
+    /**
+     * Gets a tile's encoded image data if copying it is permitted, and it's
+     * already in the destination's output format. Otherwise null is returned.
+     */
+    private byte[] getCopyableImageData(final TileHandle tileHandle, final boolean copyEncodedTile) throws TileStoreException
+    {
+        if(!copyEncodedTile)
+        {
+            return null;
+        }
+
+        final MimeType imageFormat = tileHandle.getImageFormat();
+
+        if(imageFormat == null || !imageFormat.match(this.tileStoreWriter.getImageOutputFormat()))
+        {
+            return null;
+        }
 
-                this.taskMonitor.setProgress(tileCount.incrementAndGet());
+        return tileHandle.getEncodedImage();
+    }
+
+    /**
+     * Flushes the destination tile store. Tiles that it reports as refused
+     * are counted as failures rather than stopping the job.
+     */
+    private void flush() throws TileStoreException
+    {
+        try
+        {
+            this.tileStoreWriter.flush();
+        }
+        catch(final TileStoreException ex)
+        {
+            final TileWriteException tileWriteException = getTileWriteException(ex);
+
+            if(tileWriteException == null)
+            {
+                throw ex;
             }
-            catch(final TileStoreException | IllegalArgumentException ex)
+
+            this.reportRejectedTiles(ex, tileWriteException);
+        }
+    }
+
+    private void reportFailure(final TileHandle tileHandle, final Exception exception)
+    {
+        // A batching writer reports every tile of the batch it refused, which
+        // needn't include the tile being added
+        final TileWriteException tileWriteException = getTileWriteException(exception);
+
+        if(tileWriteException != null)
+        {
+            this.reportRejectedTiles(exception, tileWriteException);
+            return;
+        }
+
+        this.failedTileCount.incrementAndGet();
+        this.firstFailure.compareAndSet(null, exception);
+
+        System.err.printf("Tile z: %d, x: %d, y: %d failed to get copied into the package: %s\n",
+                          tileHandle.getZoomLevel(),
+                          tileHandle.getColumn(),
+                          tileHandle.getRow(),
+                          exception.getMessage());
+    }
+
+    private void reportRejectedTiles(final Exception exception, final TileWriteException tileWriteException)
+    {
+        this.failedTileCount.addAndGet(tileWriteException.getRejectedTiles().size());
+        this.firstFailure.compareAndSet(null, exception);
+
+        for(final TileWriteException.RejectedTile rejectedTile : tileWriteException.getRejectedTiles())
+        {
+            System.err.printf("Tile z: %d, x: %d, y: %d failed to get copied into the package: %s\n",
+                              rejectedTile.getZoomLevel(),
+                              rejectedTile.getColumn(),
+                              rejectedTile.getRow(),
+                              rejectedTile.getReason().getMessage());
+        }
+    }
+
+    private static TileWriteException getTileWriteException(final Throwable throwable)
+    {
+        for(Throwable cause = throwable; cause != null; cause = cause.getCause())
+        {
+            if(cause instanceof TileWriteException)
             {
-                // TODO: report this somewhere else?
-                System.err.printf("Tile z: %d, x: %d, y: %d failed to get copied into the package: %s\n",
-                                  tileHandle.getZoomLevel(),
-                                  tileHandle.getColumn(),
-                                  tileHandle.getRow(),
-                                  ex.getMessage());
+                return (TileWriteException)cause;
             }
-        });
+        }
+
+        return null;
+    }
+
+    private void throwIfTilesFailed() throws TileStoreException
+    {
+        final int failures = this.failedTileCount.get();
+
+        if(failures > 0)
+        {
+            throw new TileStoreException(String.format("%d tile(s) failed to get copied into the package. The first failure was: %s",
+                                                       failures,
+                                                       this.firstFailure.get().getMessage()),
+                                         this.firstFailure.get());
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executor)
+    {
+        executor.shutdown();
+
+        try
+        {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        catch(final InterruptedException ex)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -109,4 +472,10 @@ public class Packager
     {
     	Packager.cancel = true;
     }
+
+    /**
+     * Default maximum number of tiles that may be read, but not yet written,
+     * when packaging with more than one worker thread
+     */
+    public static final int DefaultQueueDepth = 256;
 }
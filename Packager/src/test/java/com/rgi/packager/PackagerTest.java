@@ -0,0 +1,239 @@
+/* The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Reinventing Geospatial, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.rgi.packager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rgi.common.BoundingBox;
+import com.rgi.common.TaskMonitor;
+import com.rgi.common.coordinate.CoordinateReferenceSystem;
+import com.rgi.common.tile.scheme.TileMatrixDimensions;
+import com.rgi.common.tile.scheme.ZoomTimesTwo;
+import com.rgi.geopackage.tiles.TileOrder;
+import com.rgi.geopackage.tiles.TileWriteException;
+import com.rgi.store.tiles.TileStoreException;
+import com.rgi.store.tiles.geopackage.GeoPackageReader;
+import com.rgi.store.tiles.geopackage.GeoPackageWriter;
+
+/**
+ * @author Luke Lambert
+ *
+ */
+@SuppressWarnings("javadoc")
+public class PackagerTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Tests that packaging a GeoPackage into a new GeoPackage sequentially
+     * copies every tile
+     */
+    @Test
+    public void executeGeoPackageToGeoPackage() throws IOException, MimeTypeParseException, TileStoreException, SQLException
+    {
+        this.packageGeoPackage(1);
+    }
+
+    /**
+     * Tests that packaging a GeoPackage into a new GeoPackage with several
+     * worker threads copies every tile
+     */
+    @Test
+    public void executeParallelGeoPackageToGeoPackage() throws IOException, MimeTypeParseException, TileStoreException, SQLException
+    {
+        this.packageGeoPackage(4);
+    }
+
+    /**
+     * Tests that the tiles a batching writer refuses when it's flushed are
+     * each counted as failures, and reported by execute()
+     */
+    @Test
+    public void executeCountsRefusedTiles() throws IOException, MimeTypeParseException, TileStoreException, SQLException
+    {
+        final File source      = new File(this.temporaryFolder.getRoot(), "source.gpkg");
+        final File destination = new File(this.temporaryFolder.getRoot(), "destination.gpkg");
+
+        createSource(source);
+
+        try(final GeoPackageReader reader = new GeoPackageReader(source, TileSetName);
+            final GeoPackageWriter writer = new GeoPackageWriter(destination,
+                                                                 reader.getCoordinateReferenceSystem(),
+                                                                 TileSetName,
+                                                                 "identifier",
+                                                                 "description",
+                                                                 reader.getBounds(),
+                                                                 reader.getTileScheme(),
+                                                                 new MimeType("image/png"),
+                                                                 null,
+                                                                 true,
+                                                                 TileOrder.Insertion,
+                                                                 false)
+                                            {
+                                                @Override
+                                                public void flush() throws TileStoreException
+                                                {
+                                                    super.flush();
+
+                                                    // Stands in for a last batch that the database partly refused
+                                                    throw new TileStoreException(new TileWriteException(Arrays.asList(new TileWriteException.RejectedTile(2, 0, 0, new SQLException("refused")),
+                                                                                                                      new TileWriteException.RejectedTile(2, 1, 0, new SQLException("refused"))),
+                                                                                                        new SQLException("batch refused")));
+                                                }
+                                            })
+        {
+            final Packager packager = new Packager(new NullTaskMonitor(), reader, writer);
+
+            try
+            {
+                packager.execute();
+                fail("Expected execute() to report the refused tiles");
+            }
+            catch(final TileStoreException ex)
+            {
+                assertEquals("The packager did not count each refused tile",
+                             2,
+                             packager.getFailedTileCount());
+            }
+        }
+    }
+
+    private void packageGeoPackage(final int workerCount) throws IOException, MimeTypeParseException, TileStoreException, SQLException
+    {
+        final File source      = new File(this.temporaryFolder.getRoot(), "source.gpkg");
+        final File destination = new File(this.temporaryFolder.getRoot(), "destination.gpkg");
+
+        final int expectedTileCount = createSource(source);
+
+        try(final GeoPackageReader reader = new GeoPackageReader(source, TileSetName);
+            final GeoPackageWriter writer = new GeoPackageWriter(destination,
+                                                                 reader.getCoordinateReferenceSystem(),
+                                                                 TileSetName,
+                                                                 "identifier",
+                                                                 "description",
+                                                                 reader.getBounds(),
+                                                                 reader.getTileScheme(),
+                                                                 new MimeType("image/png"),
+                                                                 null))
+        {
+            final Packager packager = new Packager(new NullTaskMonitor(),
+                                                   reader,
+                                                   writer,
+                                                   workerCount,
+                                                   Packager.DefaultQueueDepth);
+            packager.execute();
+
+            assertEquals("The packager reported failed tiles",
+                         0,
+                         packager.getFailedTileCount());
+        }
+
+        try(final GeoPackageReader result = new GeoPackageReader(destination, TileSetName))
+        {
+            assertEquals("The packager did not copy every tile",
+                         expectedTileCount,
+                         result.countTiles());
+        }
+    }
+
+    /**
+     * Creates a GeoPackage with a full pyramid of tiles for zoom levels 0 through 2
+     *
+     * @return the number of tiles created
+     */
+    private static int createSource(final File file) throws MimeTypeParseException, TileStoreException, SQLException
+    {
+        final ZoomTimesTwo tileScheme = new ZoomTimesTwo(0, 2, 2, 1);
+
+        final BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, 128, 128);
+        graphics.dispose();
+
+        int tileCount = 0;
+
+        try(final GeoPackageWriter writer = new GeoPackageWriter(file,
+                                                                 new CoordinateReferenceSystem("EPSG", 4326),
+                                                                 TileSetName,
+                                                                 "identifier",
+                                                                 "description",
+                                                                 new BoundingBox(-180.0, -90.0, 180.0, 90.0),
+                                                                 tileScheme,
+                                                                 new MimeType("image/png"),
+                                                                 null))
+        {
+            for(int zoomLevel = 0; zoomLevel <= 2; ++zoomLevel)
+            {
+                final TileMatrixDimensions dimensions = tileScheme.dimensions(zoomLevel);
+
+                for(int column = 0; column < dimensions.getWidth(); ++column)
+                {
+                    for(int row = 0; row < dimensions.getHeight(); ++row)
+                    {
+                        writer.addTile(column, row, zoomLevel, image);
+                        ++tileCount;
+                    }
+                }
+            }
+        }
+
+        return tileCount;
+    }
+
+    private static final class NullTaskMonitor implements TaskMonitor
+    {
+        @Override
+        public void setMaximum(final int maximum)
+        {
+            // Progress isn't monitored
+        }
+
+        @Override
+        public void setProgress(final int value)
+        {
+            // Progress isn't monitored
+        }
+    }
+
+    private static final String TileSetName = "tiles";
+}
@@ -1,5 +1,7 @@
 package com.rgi.suite.cli;
 
+import com.rgi.geopackage.tiles.TileOrder;
+import com.rgi.packager.Packager;
 import com.rgi.suite.cli.tilestoreadapter.HeadlessTileStoreAdapter;
 import org.gdal.osr.SpatialReference;
 import org.kohsuke.args4j.CmdLineException;
@@ -9,6 +11,7 @@ import org.kohsuke.args4j.Option;
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import java.io.File;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +31,10 @@ import java.util.logging.Logger;
  * -o (-out) <Output File Path>           : Full output path for tiling/Packaging operation
  * -q (--compressionQuality) <1-100>      : Compression compressionQuality for jpeg compression, between 0-100
  * -W (--width) <1-10000>                 : Tile width in pixels; default is 256
+ * --workers <1-1024>                     : Number of threads that read and encode tiles while packaging; default is 1
+ * --queuedepth <1-10000>                 : Maximum number of tiles read but not yet written while packaging; default is 256
+ * --tileorder <insertion|morton|hilbert> : Order in which tiles are inserted into GeoPackages; default is insertion
+ * --compact                              : Compact GeoPackage output after all tiles have been written
  *
  * @author matthew.moran
  */
@@ -37,6 +44,7 @@ public class HeadlessOptions
 	private static final int DEFAULT_DIMENSION   = 256;
 	public static final  int GLOBAL_WEB_MERCATOR = 3857;
 	public static final  int GLOBAL_GEODETIC     = 4326;
+	public static final  int MAX_WORKER_COUNT    = 1024;
 
 	// set to true when isValid is called
 	private HeadlessOptionsValidator validator;
@@ -56,6 +64,10 @@ public class HeadlessOptions
 	private String compressionType    = "jpeg";
 	@SuppressWarnings("MagicNumber")
 	private int    compressionQuality = 75;
+	private int    workerCount        = 1;
+	private int    queueDepth         = Packager.DefaultQueueDepth;
+	private TileOrder tileOrder       = TileOrder.Insertion;
+	private boolean   compact;
 	private final Logger logger;
 
 	/**
@@ -328,6 +340,77 @@ public class HeadlessOptions
 		}
 	}
 
+	/**
+	 * number of threads that read and encode tiles while packaging
+	 *
+	 * @param workerCount - number of worker threads
+	 * @throws IllegalArgumentException value must be between 1 and MAX_WORKER_COUNT
+	 */
+	@Option(name = "--workers", metaVar = "<1-1024>", usage = "Number of threads that read and encode tiles while packaging; default is 1")
+	public void setWorkerCount(final int workerCount)
+	{
+		if(workerCount > 0 && workerCount <= HeadlessOptions.MAX_WORKER_COUNT)
+		{
+			this.workerCount = workerCount;
+		}
+		else
+		{
+			throw new IllegalArgumentException(String.format("error setting worker count to %d, "
+															 +
+															 "value must be greater than 0 and no more than MAX_WORKER_COUNT",
+															 workerCount));
+		}
+	}
+
+	/**
+	 * maximum number of tiles read but not yet written while packaging
+	 *
+	 * @param queueDepth - maximum number of tiles in flight
+	 * @throws IllegalArgumentException value must be between 1 and MAGIC_MAX_VALUE
+	 */
+	@Option(name = "--queuedepth", metaVar = "<1-10000>", usage = "Maximum number of tiles read but not yet written while packaging; default is 256")
+	public void setQueueDepth(final int queueDepth)
+	{
+		if(queueDepth > 0 && queueDepth <= HeadlessOptions.MAGIC_MAX_VALUE)
+		{
+			this.queueDepth = queueDepth;
+		}
+		else
+		{
+			throw new IllegalArgumentException(String.format("error setting queue depth to %d, "
+															 +
+															 "value must be greater than 0 and no more than MAGIC_MAX_VALUE",
+															 queueDepth));
+		}
+	}
+
+	/**
+	 * order in which tiles are inserted into GeoPackage output
+	 *
+	 * @param tileOrder - insertion, morton or hilbert
+	 * @throws IllegalArgumentException if the value isn't one of the tile orders
+	 */
+	@Option(name = "--tileorder", metaVar = "<insertion|morton|hilbert>", usage = "Order in which tiles are inserted into GeoPackages; default is insertion")
+	public void setTileOrder(final String tileOrder)
+	{
+		this.tileOrder = Arrays.stream(TileOrder.values())
+							   .filter(order -> order.name().equalsIgnoreCase(tileOrder))
+							   .findFirst()
+							   .orElseThrow(() -> new IllegalArgumentException(String.format("error setting tile order to %s! must be 'insertion', 'morton' or 'hilbert'",
+																							  tileOrder)));
+	}
+
+	/**
+	 * compact GeoPackage output after all tiles have been written
+	 *
+	 * @param compact - true to compact the output
+	 */
+	@Option(name = "--compact", usage = "Compact GeoPackage output after all tiles have been written")
+	public void setCompact(final boolean compact)
+	{
+		this.compact = compact;
+	}
+
 	//Getters
 	public int getTileWidth()
 	{
@@ -420,6 +503,26 @@ public class HeadlessOptions
 		return this.compressionQuality;
 	}
 
+	public int getWorkerCount()
+	{
+		return this.workerCount;
+	}
+
+	public int getQueueDepth()
+	{
+		return this.queueDepth;
+	}
+
+	public TileOrder getTileOrder()
+	{
+		return this.tileOrder;
+	}
+
+	public boolean getCompact()
+	{
+		return this.compact;
+	}
+
 	public boolean isValid()
 	{
 		if(this.validator == null)
@@ -36,7 +36,11 @@ public class HeadlessRunner implements Runnable
 			final TileStoreWriter tileStoreWriter = this.opts.getOutputAdapter().getWriter(this.opts,
 																						   tileStoreReader))
 		{
-			new Packager(taskMonitor, tileStoreReader, tileStoreWriter).execute();
+			new Packager(taskMonitor,
+						 tileStoreReader,
+						 tileStoreWriter,
+						 this.opts.getWorkerCount(),
+						 this.opts.getQueueDepth()).execute();
 		}
 		catch(final Exception exception)
 		{
@@ -16,6 +16,7 @@ import com.rgi.suite.cli.HeadlessUtils;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Created by matthew.moran on 7/13/15.
@@ -37,8 +38,11 @@ public class GPKGTileStoreAdapter implements HeadlessTileStoreAdapter
 												"Input tile store contains no zoom levels");
 		}
 		final Range<Integer> zoomLevelRange = new Range<>(zoomLevels, Integer::compare);
-		final List<TileHandle> tiles =
-				tileStoreReader.stream(zoomLevelRange.getMinimum()).collect(Collectors.toList());
+		final List<TileHandle> tiles;
+		try(final Stream<TileHandle> tileHandles = tileStoreReader.stream(zoomLevelRange.getMinimum()))
+		{
+			tiles = tileHandles.collect(Collectors.toList());
+		}
 		final Range<Integer> columnRange = new Range<>(tiles,
 													   tile -> tile.getColumn(), Integer::compare);
 		final Range<Integer> rowRange = new Range<>(tiles,
@@ -75,6 +79,9 @@ public class GPKGTileStoreAdapter implements HeadlessTileStoreAdapter
 									opts.getImageFormat(),
 									HeadlessUtils.getImageWriteParameter(opts.getCompressionQuality(),
 																		 opts.getCompressionType(),
-																		 opts.getImageFormat()));
+																		 opts.getImageFormat()),
+									true,
+									opts.getTileOrder(),
+									opts.getCompact());
 	}
 }
@@ -29,7 +29,9 @@ public class TMSTileStoreAdapter implements HeadlessTileStoreAdapter
 							 opts.getImageFormat(),
 							 HeadlessUtils.getImageWriteParameter(opts.getCompressionQuality(),
 																  opts.getCompressionType(),
-																  opts.getImageFormat()));
+																  opts.getImageFormat()),
+							 opts.getWorkerCount(),
+							 opts.getQueueDepth());
 
 	}
 }
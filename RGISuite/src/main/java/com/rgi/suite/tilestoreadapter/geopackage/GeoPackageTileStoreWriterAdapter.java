@@ -31,6 +31,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
@@ -227,7 +228,12 @@ public class GeoPackageTileStoreWriterAdapter extends ImageFormatTileStoreAdapte
 
         final Range<Integer> zoomLevelRange = new Range<>(zoomLevels, Integer::compare);
 
-        final List<TileHandle> tiles = tileStoreReader.stream(zoomLevelRange.getMinimum()).collect(Collectors.toList());
+        final List<TileHandle> tiles;
+
+        try(final Stream<TileHandle> tileHandles = tileStoreReader.stream(zoomLevelRange.getMinimum()))
+        {
+            tiles = tileHandles.collect(Collectors.toList());
+        }
 
         final Range<Integer> columnRange = new Range<>(tiles, tile -> tile.getColumn(), Integer::compare);
         final Range<Integer>    rowRange = new Range<>(tiles, tile -> tile.getRow(),    Integer::compare);
@@ -165,7 +165,9 @@ public class TmsTileStoreWriterAdapter extends ImageFormatTileStoreAdapter
         return new TmsWriter(tileStoreReader.getCoordinateReferenceSystem(),
                              file.toPath(),
                              mimeType,
-                             this.getImageWriteParameter());
+                             this.getImageWriteParameter(),
+                             Runtime.getRuntime().availableProcessors(),
+                             TmsWriter.DefaultQueueDepth);
     }
 
     @Override
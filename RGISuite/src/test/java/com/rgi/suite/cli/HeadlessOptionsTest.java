@@ -313,6 +313,63 @@ public class HeadlessOptionsTest
 		Assert.fail( "parsing should have thrown exception upon being unable to parse the image quality (too low)" );
 	}
 
+	/**
+	 * @throws CmdLineException
+	 * @throws IllegalArgumentException
+	 * @throws IOException
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidArgsWorkerCountMin() throws CmdLineException, IOException
+	{
+		final HeadlessOptions opts   = new HeadlessOptions( this.logger );
+		final CmdLineParser   parser = new CmdLineParser( opts );
+		final String inputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".tif", this.tempFolder ).getAbsolutePath();
+		final String outputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".gpkg", this.tempFolder ).getAbsolutePath();
+		final String[] args = {"-in", inputFile, "-out", outputFile, "--workers", "0"};
+		parser.parseArgument( args );
+		Assert.fail( "parsing should have thrown exception upon being unable to parse the worker count (too low)" );
+	}
+
+	/**
+	 * @throws CmdLineException
+	 * @throws IllegalArgumentException
+	 * @throws IOException
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidArgsQueueDepthMin() throws CmdLineException, IOException
+	{
+		final HeadlessOptions opts   = new HeadlessOptions( this.logger );
+		final CmdLineParser   parser = new CmdLineParser( opts );
+		final String inputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".tif", this.tempFolder ).getAbsolutePath();
+		final String outputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".gpkg", this.tempFolder ).getAbsolutePath();
+		final String[] args = {"-in", inputFile, "-out", outputFile, "--queuedepth", "0"};
+		parser.parseArgument( args );
+		Assert.fail( "parsing should have thrown exception upon being unable to parse the queue depth (too low)" );
+	}
+
+	/**
+	 * @throws CmdLineException
+	 * @throws IOException
+	 */
+	@Test
+	public void validArgsWorkerCountAndQueueDepth() throws CmdLineException, IOException
+	{
+		final HeadlessOptions opts   = new HeadlessOptions( this.logger );
+		final CmdLineParser   parser = new CmdLineParser( opts );
+		final String inputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".tif", this.tempFolder ).getAbsolutePath();
+		final String outputFile =
+				HeadlessTestUtility.getRandomFile( 4, ".gpkg", this.tempFolder ).getAbsolutePath();
+		final String[] args = {"-in", inputFile, "-out", outputFile, "--workers", "8", "--queuedepth", "32"};
+		parser.parseArgument( args );
+		Assert.assertEquals( "worker count was not parsed", 8, opts.getWorkerCount() );
+		Assert.assertEquals( "queue depth was not parsed", 32, opts.getQueueDepth() );
+	}
+
 	/**
 	 * @throws CmdLineException
 	 * @throws IllegalArgumentException